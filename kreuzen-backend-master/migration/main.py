@@ -7,6 +7,7 @@ import secrets
 import os
 from pathlib import Path
 import mimetypes
+import hashlib
 
 
 cnxMysql = connection.MySQLConnection(user='root', password='my-secret-pw', host='127.0.0.1', database='mysql')
@@ -414,9 +415,18 @@ extract_table(
 )
 
 
+ATTACHMENT_DIR = os.environ.get("ATTACHMENT_DIR", "attachments")
+
+
 def process_file_data(file):
+    # The content is written to the attachment store of the backend, only its hash and size are inserted.
     file_id, media_type, filename, data = file
-    return file_id, mimetypes.types_map['.{}'.format(media_type)], filename, data
+    sha256 = hashlib.sha256(data).hexdigest()
+    content_path = Path(ATTACHMENT_DIR, sha256[:2], sha256)
+    content_path.parent.mkdir(parents=True, exist_ok=True)
+    if not content_path.exists():
+        content_path.write_bytes(data)
+    return file_id, mimetypes.types_map['.{}'.format(media_type)], filename, sha256, len(data)
 
 
 extract_table(
@@ -429,8 +439,8 @@ extract_table(
        Medium AS data
     FROM `DEFIKO_Medien`
      """),
-    ['id', 'media_type', 'filename', 'data'],
-    "INSERT INTO file (id, media_type, filename, data) VALUES (%s, %s, %s, %s)",
+    ['id', 'media_type', 'filename', 'sha256', 'size'],
+    "INSERT INTO file (id, media_type, filename, sha256, size) VALUES (%s, %s, %s, %s, %s)",
     process_file_data
 )
 
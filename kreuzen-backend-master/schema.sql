@@ -115,6 +115,7 @@ CREATE TABLE app_user(
 );
 CREATE UNIQUE INDEX app_user_email_unique_idx on app_user (LOWER(email));
 CREATE UNIQUE INDEX app_user_username_unique_idx on app_user (LOWER(username));
+CREATE INDEX app_user_listing_idx on app_user (email_confirmed, LOWER(first_name), LOWER(last_name), id);
 
 CREATE TRIGGER set_timestamp
     BEFORE UPDATE ON app_user
@@ -134,6 +135,17 @@ CREATE TABLE login_attempt(
 );
 
 
+-- -----------------------------------------------------
+-- Table user_token_version
+-- -----------------------------------------------------
+-- No foreign key, so the version of a deleted user is kept and their tokens stay revoked.
+
+CREATE TABLE user_token_version(
+    user_id INT PRIMARY KEY,
+    version INT NOT NULL DEFAULT 0
+);
+
+
 -- -----------------------------------------------------
 -- Table usage_time
 -- -----------------------------------------------------
@@ -422,11 +434,13 @@ CREATE TRIGGER set_timestamp
 -- Table file
 -- -----------------------------------------------------
 
+-- The content is stored on disk under its SHA-256 hash, so equal files are only stored once.
 CREATE TABLE file(
     id SERIAL PRIMARY KEY,
     media_type text NOT NULL,
     filename text NOT NULL,
-    data bytea NOT NULL,
+    sha256 text NOT NULL,
+    size bigint NOT NULL CHECK ( size >= 0 ),
     description text,
     created_at timestamp WITHOUT TIME ZONE NOT NULL DEFAULT(NOW() AT TIME ZONE 'utc'),
     updated_at timestamp WITHOUT TIME ZONE NOT NULL DEFAULT(NOW() AT TIME ZONE 'utc')
@@ -470,6 +484,8 @@ CREATE TABLE question_base(
     updated_at timestamp WITHOUT TIME ZONE NOT NULL DEFAULT(NOW() AT TIME ZONE 'utc'),
     UNIQUE (id, type)
 );
+CREATE INDEX question_base_course_idx on question_base (course_id, id);
+CREATE INDEX question_base_exam_idx on question_base (exam_id, id);
 CREATE TRIGGER set_timestamp
     BEFORE UPDATE ON question_base
     FOR EACH ROW
@@ -484,6 +500,7 @@ CREATE TABLE question_has_file(
     file_id int REFERENCES file(id) ON DELETE CASCADE ON UPDATE CASCADE,
     PRIMARY KEY (question_id, file_id)
 );
+CREATE INDEX question_has_file_file_idx on question_has_file (file_id);
 
 
 -- -----------------------------------------------------
@@ -645,9 +662,11 @@ CREATE TABLE session(
     name text NOT NULL,
     is_random bool NOT NULL DEFAULT FALSE,
     is_finished bool NOT NULL DEFAULT FALSE,
+    seed bigint,
     created_at timestamp WITHOUT TIME ZONE NOT NULL DEFAULT(NOW() AT TIME ZONE 'utc'),
     updated_at timestamp WITHOUT TIME ZONE NOT NULL DEFAULT(NOW() AT TIME ZONE 'utc')
 );
+CREATE INDEX session_creator_created_at_idx on session (creator_id, created_at DESC, id DESC);
 
 CREATE TRIGGER set_timestamp
     BEFORE UPDATE ON session
@@ -754,32 +773,248 @@ CREATE TRIGGER set_timestamp
 
 
 -- -----------------------------------------------------
--- View Search
+-- Table question_search
 -- -----------------------------------------------------
 
-CREATE VIEW single_choice_question_search AS
-    SELECT a.question_id AS id, string_agg(a.text, ' ') AS answers FROM question_single_choice_answer a
-        GROUP BY a.question_id;
+-- The search document of every question is persisted and kept up to date by the triggers below,
+-- so full text searches can use the GIN index instead of rebuilding every document on each request.
 
-CREATE VIEW multiple_choice_question_search AS
-    SELECT a.question_id AS id, string_agg(a.text, ' ') AS answers FROM question_multiple_choice_answer a
-        GROUP BY a.question_id;
+CREATE TABLE question_search(
+    id int PRIMARY KEY REFERENCES question_base(id) ON DELETE CASCADE ON UPDATE CASCADE,
+    document tsvector NOT NULL
+);
 
-CREATE VIEW question_search AS
+CREATE INDEX question_search_document_idx ON question_search USING GIN (document);
+
+CREATE OR REPLACE FUNCTION refresh_question_search(question_ids int[])
+RETURNS void LANGUAGE plpgsql AS $$
+BEGIN
+  DELETE FROM question_search s
+    WHERE s.id = ANY(question_ids) AND NOT EXISTS(SELECT 1 FROM question_base q WHERE q.id = s.id);
+
+  INSERT INTO question_search (id, document)
     SELECT
-       q.id AS id,
+       q.id,
        setweight(to_tsvector('german', q.text), 'A') ||
        setweight(to_tsvector('german', coalesce(q.additional_information, '')), 'B') ||
-       setweight(to_tsvector('german', coalesce(sct.answers, mct.answers, '')), 'B') ||
+       setweight(to_tsvector('german', coalesce(
+           (SELECT string_agg(a.text, ' ') FROM question_single_choice_answer a WHERE a.question_id = q.id),
+           (SELECT string_agg(a.text, ' ') FROM question_multiple_choice_answer a WHERE a.question_id = q.id),
+           '')), 'B') ||
        setweight(to_tsvector('german', c.name), 'B') ||
-       setweight(to_tsvector('german', coalesce(string_agg(t.name, ' '), '')), 'C') as document
+       setweight(to_tsvector('german', coalesce(
+           (SELECT string_agg(t.name, ' ') FROM question_has_tag qht JOIN tag t ON qht.tag_id = t.id WHERE qht.question_id = q.id),
+           '')), 'C')
     FROM question_base q
         JOIN course_view c ON q.course_id = c.id
-        LEFT JOIN question_has_tag qht ON q.id = qht.question_id
-        LEFT JOIN tag t on qht.tag_id = t.id
-        LEFT JOIN single_choice_question_search sct ON sct.id = q.id
-        LEFT JOIN multiple_choice_question_search mct ON mct.id = q.id
-        GROUP BY q.id, c.name, sct.answers, mct.answers;
+    WHERE q.id = ANY(question_ids)
+    ON CONFLICT (id) DO UPDATE SET document = EXCLUDED.document;
+END;
+$$;
+
+-- Question itself
+
+CREATE OR REPLACE FUNCTION trigger_question_search_question()
+RETURNS TRIGGER LANGUAGE plpgsql AS $$
+BEGIN
+  PERFORM refresh_question_search(ARRAY[NEW.id]);
+  RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER refresh_question_search
+    AFTER UPDATE OF text, additional_information, course_id ON question_base
+    FOR EACH ROW
+    EXECUTE PROCEDURE trigger_question_search_question();
+
+-- Inserts are handled once per statement, so batch inserts of an import refresh every question only once.
+
+CREATE OR REPLACE FUNCTION trigger_question_search_questions_inserted()
+RETURNS TRIGGER LANGUAGE plpgsql AS $$
+BEGIN
+  PERFORM refresh_question_search(ARRAY(SELECT id FROM inserted_rows));
+  RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER refresh_question_search_inserted
+    AFTER INSERT ON question_base
+    REFERENCING NEW TABLE AS inserted_rows
+    FOR EACH STATEMENT
+    EXECUTE PROCEDURE trigger_question_search_questions_inserted();
+
+-- Rows referencing a question (answers, tags)
+
+CREATE OR REPLACE FUNCTION trigger_question_search_child()
+RETURNS TRIGGER LANGUAGE plpgsql AS $$
+BEGIN
+  IF TG_OP = 'DELETE' THEN
+    PERFORM refresh_question_search(ARRAY[OLD.question_id]);
+  ELSIF TG_OP = 'UPDATE' AND OLD.question_id IS DISTINCT FROM NEW.question_id THEN
+    PERFORM refresh_question_search(ARRAY[OLD.question_id, NEW.question_id]);
+  ELSE
+    PERFORM refresh_question_search(ARRAY[NEW.question_id]);
+  END IF;
+  RETURN NULL;
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION trigger_question_search_children_inserted()
+RETURNS TRIGGER LANGUAGE plpgsql AS $$
+BEGIN
+  PERFORM refresh_question_search(ARRAY(SELECT DISTINCT question_id FROM inserted_rows));
+  RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER refresh_question_search
+    AFTER UPDATE OR DELETE ON question_single_choice_answer
+    FOR EACH ROW
+    EXECUTE PROCEDURE trigger_question_search_child();
+
+CREATE TRIGGER refresh_question_search_inserted
+    AFTER INSERT ON question_single_choice_answer
+    REFERENCING NEW TABLE AS inserted_rows
+    FOR EACH STATEMENT
+    EXECUTE PROCEDURE trigger_question_search_children_inserted();
+
+CREATE TRIGGER refresh_question_search
+    AFTER UPDATE OR DELETE ON question_multiple_choice_answer
+    FOR EACH ROW
+    EXECUTE PROCEDURE trigger_question_search_child();
+
+CREATE TRIGGER refresh_question_search_inserted
+    AFTER INSERT ON question_multiple_choice_answer
+    REFERENCING NEW TABLE AS inserted_rows
+    FOR EACH STATEMENT
+    EXECUTE PROCEDURE trigger_question_search_children_inserted();
+
+CREATE TRIGGER refresh_question_search
+    AFTER UPDATE OR DELETE ON question_has_tag
+    FOR EACH ROW
+    EXECUTE PROCEDURE trigger_question_search_child();
+
+CREATE TRIGGER refresh_question_search_inserted
+    AFTER INSERT ON question_has_tag
+    REFERENCING NEW TABLE AS inserted_rows
+    FOR EACH STATEMENT
+    EXECUTE PROCEDURE trigger_question_search_children_inserted();
+
+-- Renamed tags, modules and semesters and moved courses
+
+CREATE OR REPLACE FUNCTION trigger_question_search_tag()
+RETURNS TRIGGER LANGUAGE plpgsql AS $$
+BEGIN
+  PERFORM refresh_question_search(ARRAY(SELECT qht.question_id FROM question_has_tag qht WHERE qht.tag_id = NEW.id));
+  RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER refresh_question_search
+    AFTER UPDATE OF name ON tag
+    FOR EACH ROW
+    WHEN (OLD.name IS DISTINCT FROM NEW.name)
+    EXECUTE PROCEDURE trigger_question_search_tag();
+
+CREATE OR REPLACE FUNCTION trigger_question_search_course()
+RETURNS TRIGGER LANGUAGE plpgsql AS $$
+BEGIN
+  PERFORM refresh_question_search(ARRAY(SELECT q.id FROM question_base q WHERE q.course_id = NEW.id));
+  RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER refresh_question_search
+    AFTER UPDATE OF module_id, semester_id ON course
+    FOR EACH ROW
+    EXECUTE PROCEDURE trigger_question_search_course();
+
+CREATE OR REPLACE FUNCTION trigger_question_search_module()
+RETURNS TRIGGER LANGUAGE plpgsql AS $$
+BEGIN
+  PERFORM refresh_question_search(ARRAY(
+      SELECT q.id FROM question_base q JOIN course c ON q.course_id = c.id WHERE c.module_id = NEW.id));
+  RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER refresh_question_search
+    AFTER UPDATE OF name ON module
+    FOR EACH ROW
+    WHEN (OLD.name IS DISTINCT FROM NEW.name)
+    EXECUTE PROCEDURE trigger_question_search_module();
+
+CREATE OR REPLACE FUNCTION trigger_question_search_semester()
+RETURNS TRIGGER LANGUAGE plpgsql AS $$
+BEGIN
+  PERFORM refresh_question_search(ARRAY(
+      SELECT q.id FROM question_base q JOIN course c ON q.course_id = c.id WHERE c.semester_id = NEW.id));
+  RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER refresh_question_search
+    AFTER UPDATE OF name ON semester
+    FOR EACH ROW
+    WHEN (OLD.name IS DISTINCT FROM NEW.name)
+    EXECUTE PROCEDURE trigger_question_search_semester();
+
+-- Backfill for databases that already contain questions
+SELECT refresh_question_search(ARRAY(SELECT id FROM question_base));
+
+
+-- -----------------------------------------------------
+-- Table data_version
+-- -----------------------------------------------------
+
+-- Counts the changes of the catalog tables, so clients can revalidate catalog responses without the data being read again.
+-- The version is increased once per statement, which also covers deleted rows.
+
+CREATE TABLE data_version(
+    table_name text PRIMARY KEY,
+    version bigint NOT NULL DEFAULT 1,
+    updated_at timestamp WITHOUT TIME ZONE NOT NULL DEFAULT (NOW() AT TIME ZONE 'utc')
+);
+
+CREATE OR REPLACE FUNCTION trigger_increase_data_version()
+RETURNS TRIGGER LANGUAGE plpgsql AS $$
+BEGIN
+  INSERT INTO data_version (table_name) VALUES (TG_TABLE_NAME)
+    ON CONFLICT (table_name) DO UPDATE SET version = data_version.version + 1, updated_at = EXCLUDED.updated_at;
+  RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER increase_data_version AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON university FOR EACH STATEMENT EXECUTE PROCEDURE trigger_increase_data_version();
+CREATE TRIGGER increase_data_version AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON role FOR EACH STATEMENT EXECUTE PROCEDURE trigger_increase_data_version();
+CREATE TRIGGER increase_data_version AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON major FOR EACH STATEMENT EXECUTE PROCEDURE trigger_increase_data_version();
+CREATE TRIGGER increase_data_version AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON major_section FOR EACH STATEMENT EXECUTE PROCEDURE trigger_increase_data_version();
+CREATE TRIGGER increase_data_version AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON semester FOR EACH STATEMENT EXECUTE PROCEDURE trigger_increase_data_version();
+CREATE TRIGGER increase_data_version AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON module FOR EACH STATEMENT EXECUTE PROCEDURE trigger_increase_data_version();
+CREATE TRIGGER increase_data_version AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON major_has_module FOR EACH STATEMENT EXECUTE PROCEDURE trigger_increase_data_version();
+CREATE TRIGGER increase_data_version AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON major_section_has_module FOR EACH STATEMENT EXECUTE PROCEDURE trigger_increase_data_version();
+CREATE TRIGGER increase_data_version AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON course FOR EACH STATEMENT EXECUTE PROCEDURE trigger_increase_data_version();
+CREATE TRIGGER increase_data_version AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON tag FOR EACH STATEMENT EXECUTE PROCEDURE trigger_increase_data_version();
+CREATE TRIGGER increase_data_version AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON exam FOR EACH STATEMENT EXECUTE PROCEDURE trigger_increase_data_version();
+
+
+-- -----------------------------------------------------
+-- Table email_outbox
+-- -----------------------------------------------------
+
+CREATE TABLE email_outbox(
+    id SERIAL PRIMARY KEY,
+    recipient text NOT NULL,
+    subject text NOT NULL,
+    body text NOT NULL,
+    attempts int NOT NULL DEFAULT 0,
+    next_attempt_at timestamp WITHOUT TIME ZONE NOT NULL DEFAULT (NOW() AT TIME ZONE 'utc'),
+    last_error text,
+    failed_at timestamp WITHOUT TIME ZONE,
+    created_at timestamp WITHOUT TIME ZONE NOT NULL DEFAULT (NOW() AT TIME ZONE 'utc')
+);
+
+CREATE INDEX email_outbox_pending_idx ON email_outbox (next_attempt_at, id) WHERE failed_at IS NULL;
 
 
 -- -----------------------------------------------------
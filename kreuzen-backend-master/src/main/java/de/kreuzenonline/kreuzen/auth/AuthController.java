@@ -3,7 +3,6 @@ package de.kreuzenonline.kreuzen.auth;
 import de.kreuzenonline.kreuzen.auth.requests.*;
 import de.kreuzenonline.kreuzen.auth.responses.PreRegistrationResponse;
 import de.kreuzenonline.kreuzen.auth.responses.UserDetailsResponse;
-import de.kreuzenonline.kreuzen.email.EmailService;
 import de.kreuzenonline.kreuzen.exceptions.BadRequestException;
 import de.kreuzenonline.kreuzen.exceptions.ForbiddenException;
 import de.kreuzenonline.kreuzen.role.Roles;
@@ -29,12 +28,10 @@ import java.util.ResourceBundle;
 public class AuthController {
 
     private final CustomUserDetailsService userDetailsService;
-    private final EmailService emailService;
     private final ResourceBundle resourceBundle;
 
-    public AuthController(CustomUserDetailsService userDetailsService, EmailService emailService, ResourceBundle resourceBundle) {
+    public AuthController(CustomUserDetailsService userDetailsService, ResourceBundle resourceBundle) {
         this.userDetailsService = userDetailsService;
-        this.emailService = emailService;
         this.resourceBundle = resourceBundle;
     }
 
@@ -76,12 +73,6 @@ public class AuthController {
                 request.getMajorSections()
         );
 
-        emailService.sendConfirmEmailMessage(
-                details.getFirst().getEmail(),
-                details.getFirst().getId() + "-" + details.getSecond(),
-                request.getFirstName()
-        );
-
         return new UserDetailsResponse(details.getFirst());
     }
 
@@ -92,14 +83,7 @@ public class AuthController {
     )
     public ResponseEntity<Void> requestPasswordReset(@Valid @RequestBody PasswordResetRequest passwordResetRequest) {
 
-        Pair<String, Integer> token = userDetailsService.createPasswordResetToken(passwordResetRequest.getEmail());
-        CustomUserDetails user = (CustomUserDetails) userDetailsService.loadUserByUsername(passwordResetRequest.getEmail());
-
-        emailService.sendPasswordResetMessage(
-                user.getEmail(),
-                token.getSecond() + "-" + token.getFirst(),
-                user.getFirstName()
-        );
+        userDetailsService.createPasswordResetToken(passwordResetRequest.getEmail());
 
         return ResponseEntity.noContent().build();
     }
@@ -215,14 +199,7 @@ public class AuthController {
     )
     public ResponseEntity<Void> resendConfirmationEmail(@Valid @RequestBody ResendEmailConfirmationRequest request) {
 
-        Pair<String, Integer> token = userDetailsService.resendEmailConfirmationToken(request.getEmail());
-        CustomUserDetails user = (CustomUserDetails) userDetailsService.loadUserByUsername(request.getEmail());
-
-        emailService.sendConfirmEmailMessage(
-                user.getEmail(),
-                token.getSecond() + "-" + token.getFirst(),
-                user.getFirstName()
-        );
+        userDetailsService.resendEmailConfirmationToken(request.getEmail());
 
         return ResponseEntity.ok().build();
     }
@@ -234,6 +211,6 @@ public class AuthController {
     )
     public UserDetailsResponse getAuthenticatedUser(@AuthenticationPrincipal CustomUserDetails userDetails) {
 
-        return new UserDetailsResponse(userDetails);
+        return new UserDetailsResponse(userDetailsService.getCompleteDetails(userDetails));
     }
 }
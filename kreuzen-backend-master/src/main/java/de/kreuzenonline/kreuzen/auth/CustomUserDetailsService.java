@@ -5,6 +5,7 @@ import de.kreuzenonline.kreuzen.user.User;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jws;
 import org.springframework.data.util.Pair;
+import org.springframework.security.authentication.CredentialsExpiredException;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
@@ -27,6 +28,7 @@ public interface CustomUserDetailsService extends UserDetailsService {
      * Before the user is created, the following checks are performed:
      * - email address allowed by university?
      * - name or email collision?
+     * The confirmation mail is written to the outbox in the same transaction.
      *
      * @param username     Username
      * @param email        Email
@@ -46,7 +48,34 @@ public interface CustomUserDetailsService extends UserDetailsService {
     CustomUserDetails loadUserById(Integer id) throws UsernameNotFoundException;
 
     /**
-     * Creates a new password reset token.
+     * Builds the user details of an authenticated request from the claims of its jwt, without reading the database.
+     * The details only contain id, username, role and university, the other fields are not set.
+     *
+     * @param claims Verified claims of the jwt
+     * @return UserDetails for the claims, null if the jwt does not carry the claims needed
+     * @throws CredentialsExpiredException The tokens of the user were revoked
+     */
+    CustomUserDetails loadUserByClaims(Claims claims) throws CredentialsExpiredException;
+
+    /**
+     * Returns the complete details of an authenticated user. Details built from jwt claims are loaded
+     * from the database, complete details are returned as they are.
+     *
+     * @param userDetails Details of the authenticated user
+     * @return Complete UserDetails
+     * @throws UsernameNotFoundException No user found
+     */
+    CustomUserDetails getCompleteDetails(CustomUserDetails userDetails) throws UsernameNotFoundException;
+
+    /**
+     * Invalidates all jwts issued to a user so far, e.g. because their role, lock state or password changed.
+     *
+     * @param id Id of the user
+     */
+    void revokeTokens(Integer id);
+
+    /**
+     * Creates a new password reset token and writes the password reset mail to the outbox in the same transaction.
      * Previous tokens are invalidated.
      *
      * @param username Username or email of affected user
@@ -89,6 +118,7 @@ public interface CustomUserDetailsService extends UserDetailsService {
      * Old confirmation tokens are invalidated and only the latest is valid.
      * <p>
      * Users who already have confirmed their mail don't get a new token.
+     * The confirmation mail is written to the outbox in the same transaction.
      *
      * @param username Username or Email of user
      * @return Confirmation token and the id of the user
@@ -100,6 +130,7 @@ public interface CustomUserDetailsService extends UserDetailsService {
      * Old confirmation tokens are invalidated and only the latest is valid.
      * <p>
      * Users who already have confirmed their mail don't get a new token.
+     * The confirmation mail has to be sent by the caller.
      *
      * @param user User to receive a new confirmation token
      * @return Confirmation token and the id of the user
@@ -115,7 +146,8 @@ public interface CustomUserDetailsService extends UserDetailsService {
     String generateSecretToken();
 
     /**
-     * Generates a valid jwt token.
+     * Generates a valid jwt token. Besides the user id it carries role, university and the current token version
+     * of the user, so requests can be authenticated without reading the database.
      *
      * @param userDetails User for whom a token should be generated
      * @return jwt token
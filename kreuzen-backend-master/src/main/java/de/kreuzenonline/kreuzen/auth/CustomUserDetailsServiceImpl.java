@@ -1,6 +1,9 @@
 package de.kreuzenonline.kreuzen.auth;
 
 import de.kreuzenonline.kreuzen.auth.data.*;
+import de.kreuzenonline.kreuzen.auth.token.TokenVersions;
+import de.kreuzenonline.kreuzen.cache.CacheConfig;
+import de.kreuzenonline.kreuzen.email.EmailService;
 import de.kreuzenonline.kreuzen.exceptions.*;
 import de.kreuzenonline.kreuzen.major.MajorService;
 import de.kreuzenonline.kreuzen.role.RoleRepo;
@@ -13,10 +16,14 @@ import de.kreuzenonline.kreuzen.user.UserRepo;
 import de.kreuzenonline.kreuzen.user.UserService;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.util.Pair;
+import org.springframework.security.authentication.CredentialsExpiredException;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -35,24 +42,34 @@ import java.util.ResourceBundle;
 @Service
 public class CustomUserDetailsServiceImpl implements CustomUserDetailsService {
 
+    private static final String CLAIM_USERNAME = "name";
+    private static final String CLAIM_ROLE = "role";
+    private static final String CLAIM_UNIVERSITY = "uni";
+    private static final String CLAIM_VERSION = "ver";
+
     private final CustomUserDetailsRepo userDetailsRepo;
     private final UserService userService;
     private final EmailConfirmationTokenRepo emailConfirmationTokenRepo;
     private final PasswordResetTokenRepo passwordResetTokenRepo;
     private final UniversityService universityService;
     private final PasswordEncoder passwordEncoder;
+    private final TokenHasher tokenHasher;
     private final UserRepo userRepo;
     private final RoleRepo roleRepo;
     private final SecretKey jwtKey;
+    private final JwtParser jwtParser;
+    private final TokenVersions tokenVersions;
     private final MajorService majorService;
     private final SectionService sectionService;
     private final ResourceBundle resourceBundle;
     private final RandomString tokenGenerator;
+    private final EmailService emailService;
 
-    public CustomUserDetailsServiceImpl(CustomUserDetailsRepo userDetailsRepo, UniversityService universityService, PasswordEncoder passwordEncoder, UserRepo userRepo, RoleRepo roleRepo, EmailConfirmationTokenRepo emailConfirmationTokenRepo, PasswordResetTokenRepo passwordResetTokenRepo, UserService userService, @Value("${jwt.key}") String jwtKey, MajorService majorService, SectionService sectionService, ResourceBundle resourceBundle) {
+    public CustomUserDetailsServiceImpl(CustomUserDetailsRepo userDetailsRepo, UniversityService universityService, PasswordEncoder passwordEncoder, TokenHasher tokenHasher, UserRepo userRepo, RoleRepo roleRepo, EmailConfirmationTokenRepo emailConfirmationTokenRepo, PasswordResetTokenRepo passwordResetTokenRepo, UserService userService, @Value("${jwt.key}") String jwtKey, TokenVersions tokenVersions, MajorService majorService, SectionService sectionService, ResourceBundle resourceBundle, EmailService emailService) {
         this.userDetailsRepo = userDetailsRepo;
         this.universityService = universityService;
         this.passwordEncoder = passwordEncoder;
+        this.tokenHasher = tokenHasher;
         this.userRepo = userRepo;
         this.roleRepo = roleRepo;
         this.emailConfirmationTokenRepo = emailConfirmationTokenRepo;
@@ -65,10 +82,15 @@ public class CustomUserDetailsServiceImpl implements CustomUserDetailsService {
             throw new RuntimeException("The JWT key is too small. Please use at least 512 Bit");
         }
         this.jwtKey = Keys.hmacShaKeyFor(jwtKey.getBytes(StandardCharsets.UTF_8));
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(this.jwtKey)
+                .build();
+        this.tokenVersions = tokenVersions;
         this.majorService = majorService;
         this.sectionService = sectionService;
         this.resourceBundle = resourceBundle;
         this.tokenGenerator = new RandomString(12);
+        this.emailService = emailService;
     }
 
     /**
@@ -90,12 +112,72 @@ public class CustomUserDetailsServiceImpl implements CustomUserDetailsService {
      * @inheritDoc
      */
     @Override
+    @Cacheable(CacheConfig.USER_DETAILS)
     public CustomUserDetails loadUserById(Integer id) throws UsernameNotFoundException {
 
         return userDetailsRepo.findById(id)
                 .orElseThrow(() -> new UsernameNotFoundException(resourceBundle.getString("user-not-found")));
     }
 
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public CustomUserDetails loadUserByClaims(Claims claims) throws CredentialsExpiredException {
+
+        String role = claims.get(CLAIM_ROLE, String.class);
+        Integer version = claims.get(CLAIM_VERSION, Integer.class);
+        if (role == null || version == null) {
+            return null;
+        }
+
+        Integer id = Integer.valueOf(claims.getSubject());
+        // A newer version than the known one was issued after a revocation on another instance
+        if (version < tokenVersions.getVersion(id)) {
+            throw new CredentialsExpiredException(resourceBundle.getString("invalid-jwt"));
+        }
+
+        // Tokens are only issued to confirmed and unlocked users, locking a user revokes their tokens
+        return new CustomUserDetails(
+                id,
+                claims.get(CLAIM_USERNAME, String.class),
+                null,
+                null,
+                null,
+                null,
+                role,
+                claims.get(CLAIM_UNIVERSITY, Integer.class),
+                true,
+                false,
+                null,
+                null
+        );
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    @Cacheable(cacheNames = CacheConfig.USER_DETAILS, key = "#userDetails.id", condition = "#userDetails.passwordHash == null")
+    public CustomUserDetails getCompleteDetails(CustomUserDetails userDetails) throws UsernameNotFoundException {
+
+        // Details built from claims have no password hash
+        if (userDetails.getPasswordHash() != null) {
+            return userDetails;
+        }
+        return userDetailsRepo.findById(userDetails.getId())
+                .orElseThrow(() -> new UsernameNotFoundException(resourceBundle.getString("user-not-found")));
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public void revokeTokens(Integer id) {
+
+        tokenVersions.revoke(id);
+    }
+
     @Override
     public List<University> preRegistration(String username, String email) {
 
@@ -118,6 +200,7 @@ public class CustomUserDetailsServiceImpl implements CustomUserDetailsService {
      */
     @Transactional
     @Override
+    @CacheEvict(cacheNames = CacheConfig.USER_COUNTS, allEntries = true)
     public Pair<CustomUserDetails, String> createUser(String username, String firstName, String lastName, String email, String password, int universityId, Integer[] majors, Integer[] majorSections) {
 
         // Check for collisions
@@ -149,7 +232,7 @@ public class CustomUserDetailsServiceImpl implements CustomUserDetailsService {
             user = userRepo.save(user);
             emailConfirmationTokenRepo.upsert(
                     user.getId(),
-                    passwordEncoder.encode(confirmationToken)
+                    tokenHasher.hash(confirmationToken)
             );
 
             if (majors != null) {
@@ -168,6 +251,9 @@ public class CustomUserDetailsServiceImpl implements CustomUserDetailsService {
             throw new InternalServerException("Could not create user.");
         }
 
+        // Written to the outbox in the same transaction, so the user can't be created without the mail.
+        emailService.sendConfirmEmailMessage(email, user.getId() + "-" + confirmationToken, firstName);
+
         return Pair.of(this.loadUserByUsername(user.getUsername()), confirmationToken);
     }
 
@@ -175,6 +261,7 @@ public class CustomUserDetailsServiceImpl implements CustomUserDetailsService {
      * @inheritDoc
      */
     @Override
+    @Transactional
     public Pair<String, Integer> createPasswordResetToken(String username) {
 
         try {
@@ -183,9 +270,10 @@ public class CustomUserDetailsServiceImpl implements CustomUserDetailsService {
             String token = generateSecretToken();
             passwordResetTokenRepo.upsert(
                     user.getId(),
-                    passwordEncoder.encode(token),
+                    tokenHasher.hash(token),
                     Instant.now().plus(24, ChronoUnit.HOURS)
             );
+            emailService.sendPasswordResetMessage(user.getEmail(), user.getId() + "-" + token, user.getFirstName());
 
             return Pair.of(token, user.getId());
         } catch (UsernameNotFoundException e) {
@@ -197,6 +285,7 @@ public class CustomUserDetailsServiceImpl implements CustomUserDetailsService {
      * @inheritDoc
      */
     @Override
+    @CacheEvict(cacheNames = CacheConfig.USER_DETAILS, key = "#id")
     @Transactional
     public CustomUserDetails confirmPasswordReset(Integer id, String token, String password) {
 
@@ -205,12 +294,13 @@ public class CustomUserDetailsServiceImpl implements CustomUserDetailsService {
                 .orElseThrow(() -> new BadRequestException(resourceBundle.getString("invalid-token")));
 
         if (resetToken.getExpiresAt().isAfter(Instant.now())) {
-            if (passwordEncoder.matches(token, resetToken.getTokenHash())) {
+            if (tokenHasher.matches(token, resetToken.getTokenHash())) {
                 // Token is valid
                 User user = userService.getById(id);
                 user.setPasswordHash(passwordEncoder.encode(password));
                 userRepo.save(user);
                 passwordResetTokenRepo.deleteById(id);
+                tokenVersions.revoke(id);
             } else {
                 throw new BadRequestException(resourceBundle.getString("invalid-token"));
             }
@@ -225,6 +315,7 @@ public class CustomUserDetailsServiceImpl implements CustomUserDetailsService {
      * @inheritDoc
      */
     @Override
+    @CacheEvict(cacheNames = CacheConfig.USER_DETAILS, key = "#id")
     public void confirmEmail(Integer id, String token) {
 
         User user = userService.getById(id);
@@ -234,7 +325,7 @@ public class CustomUserDetailsServiceImpl implements CustomUserDetailsService {
 
         EmailConfirmationToken confirmationToken = emailConfirmationTokenRepo.findById(id)
                 .orElseThrow(() -> new BadRequestException(resourceBundle.getString("invalid-token")));
-        if (passwordEncoder.matches(token, confirmationToken.getTokenHash())) {
+        if (tokenHasher.matches(token, confirmationToken.getTokenHash())) {
             // Confirm mail
             user.setEmailConfirmed(true);
             userRepo.save(user);
@@ -244,6 +335,7 @@ public class CustomUserDetailsServiceImpl implements CustomUserDetailsService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.USER_DETAILS, key = "#id")
     public void adminConfirmEmail(Integer id) {
         User user = userService.getById(id);
         if (user.isEmailConfirmed()) {
@@ -254,11 +346,12 @@ public class CustomUserDetailsServiceImpl implements CustomUserDetailsService {
     }
 
     @Override
+    @Transactional
     public Pair<String, Integer> resendEmailConfirmationToken(String username) {
 
         CustomUserDetails userDetails = this.loadUserByUsername(username);
 
-        return resendEmailConfirmationToken(
+        Pair<String, Integer> token = resendEmailConfirmationToken(
                 new User(
                         userDetails.getId(),
                         userDetails.getUsername(),
@@ -274,6 +367,8 @@ public class CustomUserDetailsServiceImpl implements CustomUserDetailsService {
                         userDetails.getUpdatedAt()
                 )
         );
+        emailService.sendConfirmEmailMessage(userDetails.getEmail(), token.getSecond() + "-" + token.getFirst(), userDetails.getFirstName());
+        return token;
     }
 
     @Override
@@ -288,7 +383,7 @@ public class CustomUserDetailsServiceImpl implements CustomUserDetailsService {
             String token = generateSecretToken();
             emailConfirmationTokenRepo.upsert(
                     user.getId(),
-                    passwordEncoder.encode(token)
+                    tokenHasher.hash(token)
             );
 
             return Pair.of(token, user.getId());
@@ -314,6 +409,10 @@ public class CustomUserDetailsServiceImpl implements CustomUserDetailsService {
     public String generateJwt(CustomUserDetails userDetails) {
         return Jwts.builder()
                 .setSubject(userDetails.getId().toString())
+                .claim(CLAIM_USERNAME, userDetails.getUsername())
+                .claim(CLAIM_ROLE, userDetails.getRole())
+                .claim(CLAIM_UNIVERSITY, userDetails.getUniversityId())
+                .claim(CLAIM_VERSION, tokenVersions.getVersion(userDetails.getId()))
                 .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 24))
                 .signWith(jwtKey)
                 .compact();
@@ -321,9 +420,6 @@ public class CustomUserDetailsServiceImpl implements CustomUserDetailsService {
 
     @Override
     public Jws<Claims> getJwtClaims(String jwt) {
-        return Jwts.parserBuilder()
-                .setSigningKey(jwtKey)
-                .build()
-                .parseClaimsJws(jwt.replace("Bearer", ""));
+        return jwtParser.parseClaimsJws(jwt.replace("Bearer", ""));
     }
 }
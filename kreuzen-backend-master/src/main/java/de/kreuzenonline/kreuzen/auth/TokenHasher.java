@@ -0,0 +1,78 @@
+package de.kreuzenonline.kreuzen.auth;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+/**
+ * Hashes the secret tokens sent by email (email confirmation and password reset) with HMAC-SHA256.
+ * The tokens are random, so a slow password hash does not make them harder to guess, it only costs CPU time.
+ * The key is derived from the JWT key, so the stored hashes are useless without it.
+ * <p>
+ * Tokens hashed with the password encoder before are still accepted.
+ */
+@Component
+public class TokenHasher {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final String PREFIX = "{hmac-sha256}";
+
+    private final SecretKeySpec key;
+    private final PasswordEncoder passwordEncoder;
+
+    public TokenHasher(@Value("${jwt.key}") String jwtKey, PasswordEncoder passwordEncoder) {
+        this.key = new SecretKeySpec(
+                mac(new SecretKeySpec(jwtKey.getBytes(StandardCharsets.UTF_8), ALGORITHM), "kreuzen-token-hash"),
+                ALGORITHM
+        );
+        this.passwordEncoder = passwordEncoder;
+    }
+
+    /**
+     * Hashes a token to be stored.
+     *
+     * @param token Token sent to the user
+     * @return Hash of the token
+     */
+    public String hash(String token) {
+        return PREFIX + Base64.getUrlEncoder().withoutPadding().encodeToString(mac(key, token));
+    }
+
+    /**
+     * Checks a token against a stored hash in constant time.
+     *
+     * @param token     Token sent by the user
+     * @param tokenHash Stored hash
+     * @return Whether the token matches the hash
+     */
+    public boolean matches(String token, String tokenHash) {
+        if (token == null || tokenHash == null) {
+            return false;
+        }
+        if (!tokenHash.startsWith(PREFIX)) {
+            return passwordEncoder.matches(token, tokenHash);
+        }
+        return MessageDigest.isEqual(
+                hash(token).getBytes(StandardCharsets.US_ASCII),
+                tokenHash.getBytes(StandardCharsets.US_ASCII)
+        );
+    }
+
+    private static byte[] mac(SecretKeySpec key, String value) {
+        try {
+            // Mac instances are not thread safe, creating one is cheap compared to sharing one.
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(value.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+}
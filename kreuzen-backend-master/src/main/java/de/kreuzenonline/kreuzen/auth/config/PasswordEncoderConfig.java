@@ -1,20 +1,34 @@
 package de.kreuzenonline.kreuzen.auth.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.factory.PasswordEncoderFactories;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.ResourceBundle;
+
 /**
  * Configures the password encoder for the application.
  * The DelegatingPasswordEncoder is used to be flexible with the encoding algorithm as this information is stored
  * with the password in the db. Therefore the algorithm can be changed at any point without locking users out.
+ * Hashing runs on a bounded pool, see {@link BoundedPasswordEncoder}. By default the pool has one thread per processor.
  */
 @Configuration
 public class PasswordEncoderConfig {
 
     @Bean
-    public PasswordEncoder encoder() {
-        return PasswordEncoderFactories.createDelegatingPasswordEncoder();
+    public PasswordEncoder encoder(ResourceBundle resourceBundle,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${app.password-hashing.threads:0}") int threads,
+                                   @Value("${app.password-hashing.queue-size:200}") int queueSize) {
+        return new BoundedPasswordEncoder(
+                PasswordEncoderFactories.createDelegatingPasswordEncoder(),
+                resourceBundle,
+                meterRegistry,
+                threads > 0 ? threads : Runtime.getRuntime().availableProcessors(),
+                queueSize
+        );
     }
 }
@@ -7,6 +7,9 @@ import de.kreuzenonline.kreuzen.auth.filter.AuthorizationFilter;
 import de.kreuzenonline.kreuzen.auth.handler.RestAccessDeniedHandler;
 import de.kreuzenonline.kreuzen.auth.handler.RestAuthenticationEntryPoint;
 import de.kreuzenonline.kreuzen.auth.provider.UserIdAuthenticationProvider;
+import de.kreuzenonline.kreuzen.auth.throttle.LoginAttemptWriter;
+import de.kreuzenonline.kreuzen.auth.throttle.LoginThrottle;
+import de.kreuzenonline.kreuzen.role.Roles;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -45,8 +48,10 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
     private final CustomUserDetailsService userDetailsService;
     private final ResourceBundle resourceBundle;
     private final ObjectMapper mapper;
+    private final LoginThrottle loginThrottle;
+    private final LoginAttemptWriter loginAttemptWriter;
 
-    public SecurityConfig(CustomUserDetailsService userDetailsService, UserIdAuthenticationProvider userIdAuthenticationProvider, RestAccessDeniedHandler restAccessDeniedHandler, RestAuthenticationEntryPoint restAuthenticationEntryPoint, PasswordEncoder passwordEncoder, ResourceBundle resourceBundle, ObjectMapper mapper) {
+    public SecurityConfig(CustomUserDetailsService userDetailsService, UserIdAuthenticationProvider userIdAuthenticationProvider, RestAccessDeniedHandler restAccessDeniedHandler, RestAuthenticationEntryPoint restAuthenticationEntryPoint, PasswordEncoder passwordEncoder, ResourceBundle resourceBundle, ObjectMapper mapper, LoginThrottle loginThrottle, LoginAttemptWriter loginAttemptWriter) {
         this.userDetailsService = userDetailsService;
         this.userIdAuthenticationProvider = userIdAuthenticationProvider;
         this.restAccessDeniedHandler = restAccessDeniedHandler;
@@ -54,6 +59,8 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
         this.passwordEncoder = passwordEncoder;
         this.resourceBundle = resourceBundle;
         this.mapper = mapper;
+        this.loginThrottle = loginThrottle;
+        this.loginAttemptWriter = loginAttemptWriter;
     }
 
     @Override
@@ -73,6 +80,9 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
                         "/auth/confirm-email"
                 ).permitAll()
 
+                // Metrics and health details are only available for admins
+                .antMatchers("/actuator/**").hasAnyAuthority(Roles.ADMIN.getId(), Roles.SUDO.getId())
+
                 // Require auth on all other domains
                 .anyRequest().authenticated()
 
@@ -81,7 +91,7 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
                 .authenticationEntryPoint(restAuthenticationEntryPoint)
 
                 .and().addFilter(new AuthorizationFilter(authenticationManager(), userDetailsService))
-                .addFilter(new AuthenticationFilter(authenticationManager(), userDetailsService, resourceBundle, mapper))
+                .addFilter(new AuthenticationFilter(authenticationManager(), userDetailsService, resourceBundle, mapper, loginThrottle, loginAttemptWriter))
                 .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS);
     }
 
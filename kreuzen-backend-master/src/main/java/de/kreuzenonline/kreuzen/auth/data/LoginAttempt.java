@@ -0,0 +1,22 @@
+package de.kreuzenonline.kreuzen.auth.data;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table("login_attempt")
+public class LoginAttempt {
+
+    @Id
+    private Integer id;
+    private Integer userId;
+    private Instant timestamp;
+    private Boolean success;
+}
@@ -0,0 +1,22 @@
+package de.kreuzenonline.kreuzen.auth.data;
+
+import org.springframework.data.jdbc.repository.query.Modifying;
+import org.springframework.data.jdbc.repository.query.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface LoginAttemptRepo extends CrudRepository<LoginAttempt, Integer> {
+
+    /**
+     * Appends login attempts in one statement. The users are looked up by username or email like on login,
+     * attempts with an unknown identifier are dropped. Timestamps are passed as ISO-8601 instants,
+     * successes as "true" or "false", as boolean arrays cannot be bound directly.
+     */
+    @Modifying
+    @Query("INSERT INTO login_attempt(user_id, timestamp, success) " +
+            " SELECT u.id, x.timestamp AT TIME ZONE 'utc', x.success " +
+            " FROM unnest(CAST(:identifiers AS text[]), CAST(:timestamps AS timestamptz[]), CAST(:successes AS bool[])) AS x(identifier, timestamp, success) " +
+            " JOIN app_user u ON LOWER(u.username) = LOWER(x.identifier) OR LOWER(u.email) = LOWER(x.identifier)")
+    void appendAll(String[] identifiers, String[] timestamps, String[] successes);
+}
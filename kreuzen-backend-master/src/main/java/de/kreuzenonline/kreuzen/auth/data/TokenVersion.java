@@ -0,0 +1,18 @@
+package de.kreuzenonline.kreuzen.auth.data;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table("user_token_version")
+public class TokenVersion {
+
+    @Id
+    private Integer userId;
+    private Integer version;
+}
@@ -0,0 +1,24 @@
+package de.kreuzenonline.kreuzen.auth.data;
+
+import org.springframework.data.jdbc.repository.query.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface TokenVersionRepo extends Repository<TokenVersion, Integer> {
+
+    @Query("SELECT user_id, version FROM user_token_version")
+    List<TokenVersion> findAll();
+
+    /**
+     * Increments the token version of a user.
+     *
+     * @param userId id of the user
+     * @return new token version
+     */
+    @Query("INSERT INTO user_token_version(user_id, version) VALUES (:userId, 1) " +
+            " ON CONFLICT (user_id) DO UPDATE SET version = user_token_version.version + 1 " +
+            " RETURNING version")
+    Integer increment(@Param("userId") Integer userId);
+}
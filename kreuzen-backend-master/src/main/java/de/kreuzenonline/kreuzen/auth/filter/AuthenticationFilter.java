@@ -4,8 +4,14 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import de.kreuzenonline.kreuzen.auth.CustomUserDetails;
 import de.kreuzenonline.kreuzen.auth.CustomUserDetailsService;
 import de.kreuzenonline.kreuzen.auth.requests.LoginRequest;
+import de.kreuzenonline.kreuzen.auth.throttle.LoginAttemptWriter;
+import de.kreuzenonline.kreuzen.auth.throttle.LoginThrottle;
+import de.kreuzenonline.kreuzen.auth.throttle.LoginThrottledException;
 import de.kreuzenonline.kreuzen.exceptions.HttpExceptionResponse;
+import de.kreuzenonline.kreuzen.exceptions.ServiceUnavailableException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.security.authentication.*;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
@@ -15,6 +21,7 @@ import javax.servlet.FilterChain;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.ResourceBundle;
@@ -22,19 +29,27 @@ import java.util.ResourceBundle;
 /**
  * Filter used for login.
  * Upon successful authentication a jwt is sent to the user.
+ * Logins are throttled per account and client address before the password is checked.
+ * Behind a proxy the client address is taken from the X-Forwarded-For header (server.forward-headers-strategy=native).
  */
 public class AuthenticationFilter extends UsernamePasswordAuthenticationFilter {
 
+    private static final String LOGIN_IDENTIFIER_ATTRIBUTE = AuthenticationFilter.class.getName() + ".identifier";
+
     private final CustomUserDetailsService userDetailsService;
     private final AuthenticationManager authenticationManager;
     private final ResourceBundle resourceBundle;
     private final ObjectMapper mapper;
+    private final LoginThrottle loginThrottle;
+    private final LoginAttemptWriter loginAttemptWriter;
 
-    public AuthenticationFilter(AuthenticationManager authenticationManager, CustomUserDetailsService userDetailsService, ResourceBundle resourceBundle, ObjectMapper mapper) {
+    public AuthenticationFilter(AuthenticationManager authenticationManager, CustomUserDetailsService userDetailsService, ResourceBundle resourceBundle, ObjectMapper mapper, LoginThrottle loginThrottle, LoginAttemptWriter loginAttemptWriter) {
         this.authenticationManager = authenticationManager;
         this.userDetailsService = userDetailsService;
         this.resourceBundle = resourceBundle;
         this.mapper = mapper;
+        this.loginThrottle = loginThrottle;
+        this.loginAttemptWriter = loginAttemptWriter;
         setFilterProcessesUrl("/auth/login");
     }
 
@@ -50,6 +65,12 @@ public class AuthenticationFilter extends UsernamePasswordAuthenticationFilter {
     public Authentication attemptAuthentication(HttpServletRequest request, HttpServletResponse response) throws AuthenticationException {
         try {
             LoginRequest loginRequest = new ObjectMapper().readValue(request.getInputStream(), LoginRequest.class);
+            if (loginRequest.getUsername() == null || loginRequest.getUsername().isBlank()) {
+                // Not counted as failure, all logins without a username would share one account window
+                throw new AuthenticationCredentialsNotFoundException(resourceBundle.getString("LoginRequest-username-not-null"));
+            }
+            request.setAttribute(LOGIN_IDENTIFIER_ATTRIBUTE, loginRequest.getUsername());
+            loginThrottle.check(loginRequest.getUsername(), request.getRemoteAddr(), Instant.now());
             return authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(
                             loginRequest.getUsername(),
@@ -59,6 +80,8 @@ public class AuthenticationFilter extends UsernamePasswordAuthenticationFilter {
             );
         } catch (IOException e) {
             throw new AuthenticationServiceException(resourceBundle.getString("cant-read-body"), e);
+        } catch (ServiceUnavailableException e) {
+            throw new AuthenticationServiceException(e.getMessage(), e);
         }
     }
 
@@ -72,6 +95,10 @@ public class AuthenticationFilter extends UsernamePasswordAuthenticationFilter {
      */
     @Override
     protected void successfulAuthentication(HttpServletRequest request, HttpServletResponse response, FilterChain chain, Authentication authResult) {
+        String identifier = (String) request.getAttribute(LOGIN_IDENTIFIER_ATTRIBUTE);
+        loginThrottle.recordSuccess(identifier);
+        loginAttemptWriter.append(identifier, Instant.now(), true);
+
         String token = userDetailsService.generateJwt((CustomUserDetails) authResult.getPrincipal());
         response.addHeader("Authorization", "Bearer " + token);
     }
@@ -87,7 +114,41 @@ public class AuthenticationFilter extends UsernamePasswordAuthenticationFilter {
     @Override
     protected void unsuccessfulAuthentication(HttpServletRequest request, HttpServletResponse response, AuthenticationException failed) throws IOException {
 
-        if (failed instanceof DisabledException) {
+        String identifier = (String) request.getAttribute(LOGIN_IDENTIFIER_ATTRIBUTE);
+        if (failed instanceof BadCredentialsException) {
+            Instant now = Instant.now();
+            loginThrottle.recordFailure(identifier, request.getRemoteAddr(), now);
+            loginAttemptWriter.append(identifier, now, false);
+        }
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+
+        if (failed instanceof LoginThrottledException) {
+            // Too many failed logins, the password was not checked
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(((LoginThrottledException) failed).getRetryAfter().toSeconds() + 1));
+            response.getWriter().write(mapper.writeValueAsString(new HttpExceptionResponse(
+                    failed.getMessage(),
+                    Instant.now(),
+                    HttpStatus.TOO_MANY_REQUESTS.value()
+            )));
+        } else if (failed instanceof AuthenticationCredentialsNotFoundException) {
+            // No username given, the password was not checked
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            response.getWriter().write(mapper.writeValueAsString(new HttpExceptionResponse(
+                    failed.getMessage(),
+                    Instant.now(),
+                    HttpStatus.BAD_REQUEST.value()
+            )));
+        } else if (failed.getCause() instanceof ServiceUnavailableException) {
+            // Password hashing is overloaded
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.getWriter().write(mapper.writeValueAsString(new HttpExceptionResponse(
+                    failed.getMessage(),
+                    Instant.now(),
+                    HttpStatus.SERVICE_UNAVAILABLE.value()
+            )));
+        } else if (failed instanceof DisabledException) {
             // User not activated yet
             response.setStatus(HttpStatus.UNAUTHORIZED.value());
             response.getWriter().write(mapper.writeValueAsString(new HttpExceptionResponse(
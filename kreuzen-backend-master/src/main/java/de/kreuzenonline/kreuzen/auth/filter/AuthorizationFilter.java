@@ -3,6 +3,7 @@ package de.kreuzenonline.kreuzen.auth.filter;
 import de.kreuzenonline.kreuzen.auth.CustomUserDetailsService;
 import de.kreuzenonline.kreuzen.auth.token.UserIdAuthenticationToken;
 import de.kreuzenonline.kreuzen.exceptions.UnauthorizedException;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -52,7 +53,8 @@ public class AuthorizationFilter extends BasicAuthenticationFilter {
     }
 
     /**
-     * Extracts jwt from authorization header, reads the user id and then returns a UserIdAuthenticationToken.
+     * Extracts jwt from authorization header, reads the user id and then returns a UserIdAuthenticationToken
+     * holding the verified claims.
      * If the token is not valid a runtime exception is thrown resulting in an auth error.
      *
      * @param request Http request with authorization header
@@ -62,14 +64,13 @@ public class AuthorizationFilter extends BasicAuthenticationFilter {
         String token = request.getHeader("Authorization");
         if (StringUtils.hasLength(token)) {
             try {
-                String userId = userDetailsService.getJwtClaims(token)
-                        .getBody()
-                        .getSubject();
+                Claims claims = userDetailsService.getJwtClaims(token).getBody();
+                String userId = claims.getSubject();
 
                 if (StringUtils.hasLength(userId)) {
 
                     Integer uid = Integer.valueOf(userId);
-                    return new UserIdAuthenticationToken(uid);
+                    return new UserIdAuthenticationToken(uid, claims);
                 }
             } catch (JwtException e) {
                 return null;
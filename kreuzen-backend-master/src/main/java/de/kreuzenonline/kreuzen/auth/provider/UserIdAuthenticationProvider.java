@@ -21,8 +21,9 @@ public class UserIdAuthenticationProvider implements AuthenticationProvider {
     }
 
     /**
-     * Loads user from database if the authentication is a UserIdAuthenticationToken as it is already confirmed
-     * by the previous filter.
+     * Builds the user details from the claims of the jwt if the authentication is a UserIdAuthenticationToken,
+     * as it is already confirmed by the previous filter. Tokens issued before the claims were added to the jwt
+     * are resolved by loading the user.
      *
      * @param authentication Authentication Context
      * @return Authentication Context
@@ -33,7 +34,10 @@ public class UserIdAuthenticationProvider implements AuthenticationProvider {
         if (authentication instanceof UserIdAuthenticationToken) {
 
             UserIdAuthenticationToken userIdAuth = (UserIdAuthenticationToken) authentication;
-            CustomUserDetails userDetails = userDetailsService.loadUserById(userIdAuth.getPrincipal());
+            CustomUserDetails userDetails = userIdAuth.getClaims() == null ? null : userDetailsService.loadUserByClaims(userIdAuth.getClaims());
+            if (userDetails == null) {
+                userDetails = userDetailsService.loadUserById(userIdAuth.getPrincipal());
+            }
             return new UsernamePasswordAuthenticationToken(
                     userDetails,
                     null,
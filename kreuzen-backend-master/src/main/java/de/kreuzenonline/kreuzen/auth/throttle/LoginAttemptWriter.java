@@ -0,0 +1,81 @@
+package de.kreuzenonline.kreuzen.auth.throttle;
+
+import de.kreuzenonline.kreuzen.auth.data.LoginAttemptRepo;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Appends login attempts to the login_attempt table in batches, so logins do not wait for the insert.
+ * The queue is bounded: during a flood of logins further attempts are dropped instead of filling up the memory.
+ */
+@Component
+public class LoginAttemptWriter {
+
+    private final LoginAttemptRepo loginAttemptRepo;
+    private final BlockingQueue<Attempt> queue;
+    private final int batchSize;
+
+    public LoginAttemptWriter(LoginAttemptRepo loginAttemptRepo,
+                              @Value("${app.login.attempt-queue-size:10000}") int queueSize,
+                              @Value("${app.login.attempt-batch-size:500}") int batchSize) {
+        this.loginAttemptRepo = loginAttemptRepo;
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Queues a login attempt.
+     *
+     * @param identifier username or email the login was for
+     * @param timestamp  time of the attempt
+     * @param success    whether the login was successful
+     * @return false if the queue is full and the attempt was dropped
+     */
+    public boolean append(String identifier, Instant timestamp, boolean success) {
+        return queue.offer(new Attempt(identifier, timestamp, success));
+    }
+
+    /**
+     * Writes all queued attempts.
+     */
+    @Scheduled(fixedDelayString = "${app.login.attempt-flush-interval:2000}")
+    public void flush() {
+        List<Attempt> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            String[] identifiers = new String[batch.size()];
+            String[] timestamps = new String[batch.size()];
+            String[] successes = new String[batch.size()];
+            for (int i = 0; i < batch.size(); i++) {
+                identifiers[i] = batch.get(i).getIdentifier();
+                timestamps[i] = batch.get(i).getTimestamp().toString();
+                successes[i] = String.valueOf(batch.get(i).isSuccess());
+            }
+            loginAttemptRepo.appendAll(identifiers, timestamps, successes);
+            batch.clear();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class Attempt {
+
+        private final String identifier;
+        private final Instant timestamp;
+        private final boolean success;
+    }
+}
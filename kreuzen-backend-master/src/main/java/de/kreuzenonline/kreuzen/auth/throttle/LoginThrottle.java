@@ -0,0 +1,156 @@
+package de.kreuzenonline.kreuzen.auth.throttle;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Limits failed logins per account and per client address within sliding windows.
+ * Once a limit is reached further logins are rejected before the password is checked,
+ * until the oldest failure in the window is old enough to leave it.
+ * The state is only held in memory, so it is lost on restart.
+ */
+@Component
+public class LoginThrottle {
+
+    private final ResourceBundle resourceBundle;
+    private final SlidingWindows accounts;
+    private final SlidingWindows addresses;
+
+    public LoginThrottle(ResourceBundle resourceBundle,
+                         @Value("${app.login.max-account-failures:5}") int maxAccountFailures,
+                         @Value("${app.login.account-window:15m}") Duration accountWindow,
+                         @Value("${app.login.max-address-failures:20}") int maxAddressFailures,
+                         @Value("${app.login.address-window:5m}") Duration addressWindow) {
+        this.resourceBundle = resourceBundle;
+        this.accounts = new SlidingWindows(maxAccountFailures, accountWindow);
+        this.addresses = new SlidingWindows(maxAddressFailures, addressWindow);
+    }
+
+    /**
+     * Checks whether a login is allowed.
+     *
+     * @param identifier username or email the login is for
+     * @param address    address of the client
+     * @param now        time of the login
+     * @throws LoginThrottledException if the account or the address is locked
+     */
+    public void check(String identifier, String address, Instant now) {
+        Duration retryAfter = max(accounts.getRetryAfter(normalize(identifier), now), addresses.getRetryAfter(address, now));
+        if (retryAfter != null) {
+            throw new LoginThrottledException(resourceBundle.getString("Login-throttled"), retryAfter);
+        }
+    }
+
+    /**
+     * Counts a failed login for the account and the address.
+     */
+    public void recordFailure(String identifier, String address, Instant now) {
+        accounts.add(normalize(identifier), now);
+        addresses.add(address, now);
+    }
+
+    /**
+     * Forgets the failed logins of an account after a successful login. Failures of the address are kept.
+     */
+    public void recordSuccess(String identifier) {
+        accounts.clear(normalize(identifier));
+    }
+
+    /**
+     * Removes windows without failures in them.
+     */
+    @Scheduled(fixedDelayString = "${app.login.cleanup-interval:60000}")
+    public void cleanUp() {
+        Instant now = Instant.now();
+        accounts.cleanUp(now);
+        addresses.cleanUp(now);
+    }
+
+    private static String normalize(String identifier) {
+        return identifier == null ? "" : identifier.toLowerCase(Locale.ROOT);
+    }
+
+    private static Duration max(Duration a, Duration b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null || a.compareTo(b) >= 0 ? a : b;
+    }
+
+    private static class SlidingWindows {
+
+        private final int maxFailures;
+        private final Duration length;
+        private final Map<String, ArrayDeque<Instant>> windows = new ConcurrentHashMap<>();
+
+        SlidingWindows(int maxFailures, Duration length) {
+            this.maxFailures = maxFailures;
+            this.length = length;
+        }
+
+        Duration getRetryAfter(String key, Instant now) {
+            ArrayDeque<Instant> failures = windows.get(key);
+            if (failures == null) {
+                return null;
+            }
+            synchronized (failures) {
+                evict(failures, now);
+                if (failures.size() < maxFailures) {
+                    return null;
+                }
+                return Duration.between(now, failures.peekFirst().plus(length));
+            }
+        }
+
+        void add(String key, Instant now) {
+            while (true) {
+                ArrayDeque<Instant> failures = windows.computeIfAbsent(key, k -> new ArrayDeque<>());
+                synchronized (failures) {
+                    // The window may have been removed by a clean up in the meantime.
+                    if (windows.get(key) != failures) {
+                        continue;
+                    }
+                    evict(failures, now);
+                    failures.addLast(now);
+                    // Older failures do not matter for the limit.
+                    if (failures.size() > maxFailures) {
+                        failures.removeFirst();
+                    }
+                    return;
+                }
+            }
+        }
+
+        void clear(String key) {
+            windows.remove(key);
+        }
+
+        void cleanUp(Instant now) {
+            for (Map.Entry<String, ArrayDeque<Instant>> entry : windows.entrySet()) {
+                ArrayDeque<Instant> failures = entry.getValue();
+                synchronized (failures) {
+                    evict(failures, now);
+                    if (failures.isEmpty()) {
+                        windows.remove(entry.getKey(), failures);
+                    }
+                }
+            }
+        }
+
+        private void evict(ArrayDeque<Instant> failures, Instant now) {
+            Instant start = now.minus(length);
+            while (!failures.isEmpty() && !failures.peekFirst().isAfter(start)) {
+                failures.removeFirst();
+            }
+        }
+    }
+}
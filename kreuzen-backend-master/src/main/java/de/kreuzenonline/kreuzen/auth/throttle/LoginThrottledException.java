@@ -0,0 +1,20 @@
+package de.kreuzenonline.kreuzen.auth.throttle;
+
+import lombok.Getter;
+import org.springframework.security.authentication.LockedException;
+
+import java.time.Duration;
+
+/**
+ * Thrown on login if an account or address is temporarily locked because of too many failed attempts.
+ */
+@Getter
+public class LoginThrottledException extends LockedException {
+
+    private final Duration retryAfter;
+
+    public LoginThrottledException(String msg, Duration retryAfter) {
+        super(msg);
+        this.retryAfter = retryAfter;
+    }
+}
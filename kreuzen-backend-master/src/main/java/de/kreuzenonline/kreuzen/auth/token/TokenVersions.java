@@ -0,0 +1,61 @@
+package de.kreuzenonline.kreuzen.auth.token;
+
+import de.kreuzenonline.kreuzen.auth.data.TokenVersion;
+import de.kreuzenonline.kreuzen.auth.data.TokenVersionRepo;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Token versions of all users, held in memory so tokens can be checked without a database read.
+ * A token is only valid if it carries the current version of its user. Revoking the tokens of a user
+ * increments the version, e.g. when the role, lock state or password of the user changes.
+ * <p>
+ * Only users whose tokens were revoked at some point have a version other than 0, so the map stays small.
+ * It is reloaded periodically to pick up revocations made by other instances.
+ */
+@Component
+public class TokenVersions {
+
+    private final TokenVersionRepo tokenVersionRepo;
+    private final Map<Integer, Integer> versions = new ConcurrentHashMap<>();
+    private volatile boolean loaded = false;
+
+    public TokenVersions(TokenVersionRepo tokenVersionRepo) {
+        this.tokenVersionRepo = tokenVersionRepo;
+    }
+
+    /**
+     * @param userId id of the user
+     * @return current token version of the user
+     */
+    public int getVersion(Integer userId) {
+        if (!loaded) {
+            refresh();
+        }
+        return versions.getOrDefault(userId, 0);
+    }
+
+    /**
+     * Invalidates all tokens issued to a user so far.
+     *
+     * @param userId id of the user
+     */
+    public void revoke(Integer userId) {
+        Integer version = tokenVersionRepo.increment(userId);
+        versions.merge(userId, version, Math::max);
+    }
+
+    /**
+     * Loads the versions from the database. Versions only increase, so newer versions held in memory are kept.
+     */
+    @Scheduled(fixedDelayString = "${app.jwt.version-refresh-interval:30000}")
+    public synchronized void refresh() {
+        for (TokenVersion tokenVersion : tokenVersionRepo.findAll()) {
+            versions.merge(tokenVersion.getUserId(), tokenVersion.getVersion(), Math::max);
+        }
+        loaded = true;
+    }
+}
@@ -1,19 +1,22 @@
 package de.kreuzenonline.kreuzen.auth.token;
 
+import io.jsonwebtoken.Claims;
 import org.springframework.security.authentication.AbstractAuthenticationToken;
 
 import java.util.ArrayList;
 
 /**
- * Token used for JWT auth.
+ * Token used for JWT auth. Holds the verified claims of the jwt along with the user id.
  */
 public class UserIdAuthenticationToken extends AbstractAuthenticationToken {
 
     private final Integer userId;
+    private final Claims claims;
 
-    public UserIdAuthenticationToken(Integer userId) {
+    public UserIdAuthenticationToken(Integer userId, Claims claims) {
         super(new ArrayList<>());
         this.userId = userId;
+        this.claims = claims;
     }
 
     @Override
@@ -25,4 +28,8 @@ public class UserIdAuthenticationToken extends AbstractAuthenticationToken {
     public Integer getPrincipal() {
         return userId;
     }
+
+    public Claims getClaims() {
+        return claims;
+    }
 }
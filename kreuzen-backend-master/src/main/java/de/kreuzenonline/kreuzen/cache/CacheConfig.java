@@ -0,0 +1,140 @@
+package de.kreuzenonline.kreuzen.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.cache.interceptor.SimpleKeyGenerator;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Registers the application caches. Each cache is bounded and expires its entries after a configurable time,
+ * so data changed without going through the services that evict the cache is only stale for a short time.
+ * Hit and miss counts of all caches are published as "cache.gets" metrics on the actuator.
+ * <p>
+ * Within a transaction, entries are only put and evicted once it is committed. Otherwise a request reading
+ * between the eviction and the commit would cache the old data again.
+ */
+@Configuration
+@EnableCaching(proxyTargetClass = true)
+public class CacheConfig {
+
+    /**
+     * Totals of the question list, keyed by the normalized filter.
+     */
+    public static final String QUESTION_COUNTS = "questionCounts";
+
+    /**
+     * Totals of the user list, keyed by the search term.
+     */
+    public static final String USER_COUNTS = "userCounts";
+
+    /**
+     * Complete user details, keyed by the user id. Authenticated requests only read them for tokens without claims
+     * and where more than the claims of the token is needed.
+     */
+    public static final String USER_DETAILS = "userDetails";
+
+    /**
+     * Fully assembled typed questions (single choice, multiple choice, assignment), keyed by the question id.
+     */
+    public static final String TYPED_QUESTIONS = "typedQuestions";
+
+    /**
+     * Catalog data like universities, majors, modules, semesters, tags, roles, origins and active hints.
+     * This data rarely changes, so every write to it evicts the whole cache.
+     */
+    public static final String REFERENCE_DATA = "referenceData";
+
+    /**
+     * Name of the key generator to use with {@link #REFERENCE_DATA}. As different kinds of data share this cache,
+     * the key contains the cached method in addition to its parameters.
+     */
+    public static final String REFERENCE_DATA_KEY_GENERATOR = "referenceDataKeyGenerator";
+
+    private final Duration countTtl;
+    private final Duration userDetailsTtl;
+    private final long userDetailsMaxSize;
+    private final Duration referenceDataTtl;
+    private final Duration typedQuestionTtl;
+
+    public CacheConfig(
+            @Value("${app.cache.count-ttl:60s}") Duration countTtl,
+            @Value("${app.cache.user-details-ttl:5m}") Duration userDetailsTtl,
+            @Value("${app.cache.user-details-max-size:10000}") long userDetailsMaxSize,
+            @Value("${app.cache.reference-data-ttl:1h}") Duration referenceDataTtl,
+            @Value("${app.cache.typed-question-ttl:10m}") Duration typedQuestionTtl
+    ) {
+        this.countTtl = countTtl;
+        this.userDetailsTtl = userDetailsTtl;
+        this.userDetailsMaxSize = userDetailsMaxSize;
+        this.referenceDataTtl = referenceDataTtl;
+        this.typedQuestionTtl = typedQuestionTtl;
+    }
+
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> cacheManagerCustomizer() {
+        return cacheManager -> {
+            cacheManager.registerCustomCache(QUESTION_COUNTS, Caffeine.newBuilder()
+                    .maximumSize(1000)
+                    .expireAfterWrite(countTtl)
+                    .recordStats()
+                    .build());
+            cacheManager.registerCustomCache(USER_COUNTS, Caffeine.newBuilder()
+                    .maximumSize(1000)
+                    .expireAfterWrite(countTtl)
+                    .recordStats()
+                    .build());
+            cacheManager.registerCustomCache(USER_DETAILS, Caffeine.newBuilder()
+                    .maximumSize(userDetailsMaxSize)
+                    .expireAfterWrite(userDetailsTtl)
+                    .recordStats()
+                    .build());
+            cacheManager.registerCustomCache(REFERENCE_DATA, Caffeine.newBuilder()
+                    .maximumSize(5000)
+                    .expireAfterWrite(referenceDataTtl)
+                    .recordStats()
+                    .build());
+            cacheManager.registerCustomCache(TYPED_QUESTIONS, Caffeine.newBuilder()
+                    .maximumSize(10000)
+                    .expireAfterWrite(typedQuestionTtl)
+                    .recordStats()
+                    .build());
+        };
+    }
+
+    /**
+     * Wraps the auto-configured cache manager, so its caches take part in transactions.
+     * Caffeine caches can't be made transaction-aware by the cache manager itself.
+     */
+    @Bean
+    public static BeanPostProcessor transactionAwareCacheManagerPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof CacheManager && !(bean instanceof TransactionAwareCacheManagerProxy)) {
+                    return new TransactionAwareCacheManagerProxy((CacheManager) bean);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean(REFERENCE_DATA_KEY_GENERATOR)
+    public KeyGenerator referenceDataKeyGenerator() {
+        return (target, method, params) -> new SimpleKey(
+                method.getDeclaringClass().getName(),
+                method.getName(),
+                SimpleKeyGenerator.generateKey(params)
+        );
+    }
+}
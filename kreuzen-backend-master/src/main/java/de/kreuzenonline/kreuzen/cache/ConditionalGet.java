@@ -0,0 +1,20 @@
+package de.kreuzenonline.kreuzen.cache;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a GET endpoint whose response can be revalidated with If-None-Match or If-Modified-Since.
+ * Unchanged responses are answered with 304 before the handler is invoked, so the response isn't built at all.
+ * <p>
+ * Only use it on endpoints that return the same response to everyone who may read them, as the validator doesn't
+ * depend on the user, and that don't check roles, as those checks are skipped for unchanged responses.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ConditionalGet {
+
+    HttpCachePolicy value();
+}
@@ -0,0 +1,174 @@
+package de.kreuzenonline.kreuzen.cache;
+
+import de.kreuzenonline.kreuzen.question.BaseQuestionRepo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Handles conditional requests to endpoints annotated with {@link ConditionalGet}.
+ * <p>
+ * The validator is read before the handler is invoked, so unchanged responses are answered with 304 right away.
+ * The validator headers of other responses are only set once the handler returned a body,
+ * so error responses are never cached.
+ */
+@ControllerAdvice
+public class ConditionalGetSupport implements HandlerInterceptor, ResponseBodyAdvice<Object> {
+
+    /**
+     * Tables the catalog responses are read from.
+     */
+    private static final String[] CATALOG_TABLES = {
+            "university", "role", "major", "major_section", "semester", "module",
+            "major_has_module", "major_section_has_module", "course", "tag", "exam"
+    };
+
+    private static final String VALIDATOR_ATTRIBUTE = ConditionalGetSupport.class.getName() + ".validator";
+
+    private final DataVersionRepo dataVersionRepo;
+    private final BaseQuestionRepo baseQuestionRepo;
+    private final String catalogCacheControl;
+    private final String questionCacheControl;
+
+    public ConditionalGetSupport(DataVersionRepo dataVersionRepo, BaseQuestionRepo baseQuestionRepo,
+                                 @Value("${app.http-cache.catalog-max-age:60s}") Duration catalogMaxAge) {
+        this.dataVersionRepo = dataVersionRepo;
+        this.baseQuestionRepo = baseQuestionRepo;
+        this.catalogCacheControl = CacheControl.maxAge(catalogMaxAge).cachePrivate().getHeaderValue();
+        this.questionCacheControl = CacheControl.noCache().cachePrivate().getHeaderValue();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod) || !HttpMethod.GET.matches(request.getMethod())) {
+            return true;
+        }
+        ConditionalGet conditionalGet = ((HandlerMethod) handler).getMethodAnnotation(ConditionalGet.class);
+        if (conditionalGet == null) {
+            return true;
+        }
+
+        Validator validator = getValidator(conditionalGet.value(), request);
+        if (validator == null) {
+            return true;
+        }
+        request.setAttribute(VALIDATOR_ATTRIBUTE, validator);
+
+        // Evaluated without the response, which would otherwise get the validator headers before the handler succeeded.
+        if (new ServletWebRequest(request).checkNotModified(validator.getEtag(), validator.getLastModified())) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            response.setHeader(HttpHeaders.ETAG, validator.getEtag());
+            response.setDateHeader(HttpHeaders.LAST_MODIFIED, validator.getLastModified());
+            response.setHeader(HttpHeaders.CACHE_CONTROL, validator.getCacheControl());
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return returnType.hasMethodAnnotation(ConditionalGet.class);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest) {
+            Object validator = ((ServletServerHttpRequest) request).getServletRequest().getAttribute(VALIDATOR_ATTRIBUTE);
+            if (validator instanceof Validator) {
+                response.getHeaders().setETag(((Validator) validator).getEtag());
+                response.getHeaders().setLastModified(((Validator) validator).getLastModified());
+                response.getHeaders().setCacheControl(((Validator) validator).getCacheControl());
+            }
+        }
+        return body;
+    }
+
+    /**
+     * @return validator of the current version of the response, or null if the request can't be validated.
+     */
+    private Validator getValidator(HttpCachePolicy policy, HttpServletRequest request) {
+        switch (policy) {
+            case CATALOG:
+                return getCatalogValidator();
+            case QUESTION:
+                return getQuestionValidator(request);
+            default:
+                return null;
+        }
+    }
+
+    private Validator getCatalogValidator() {
+        List<DataVersion> versions = dataVersionRepo.findAllByTableNames(CATALOG_TABLES);
+        if (versions.isEmpty()) {
+            return null;
+        }
+        // Versions only increase, so their sum changes with every write. The time of the last write
+        // tells versions apart after the database was recreated.
+        long version = 0;
+        Instant updatedAt = Instant.EPOCH;
+        for (DataVersion dataVersion : versions) {
+            version += dataVersion.getVersion();
+            if (dataVersion.getUpdatedAt().isAfter(updatedAt)) {
+                updatedAt = dataVersion.getUpdatedAt();
+            }
+        }
+        return new Validator("\"" + version + "-" + updatedAt.toEpochMilli() + "\"", updatedAt.toEpochMilli(), catalogCacheControl);
+    }
+
+    private Validator getQuestionValidator(HttpServletRequest request) {
+        Integer id = getIntegerPathVariable(request, "id");
+        if (id == null) {
+            return null;
+        }
+        return baseQuestionRepo.findUpdatedAtById(id)
+                .map(updatedAt -> new Validator("\"" + toEpochMicros(updatedAt) + "\"", updatedAt.toEpochMilli(), questionCacheControl))
+                .orElse(null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Integer getIntegerPathVariable(HttpServletRequest request, String name) {
+        Map<String, String> variables = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (variables == null || variables.get(name) == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(variables.get(name));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static long toEpochMicros(Instant instant) {
+        return instant.getEpochSecond() * 1_000_000 + instant.getNano() / 1_000;
+    }
+
+    @lombok.Value
+    private static class Validator {
+
+        String etag;
+        long lastModified;
+        String cacheControl;
+    }
+}
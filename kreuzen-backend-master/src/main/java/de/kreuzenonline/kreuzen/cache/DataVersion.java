@@ -0,0 +1,24 @@
+package de.kreuzenonline.kreuzen.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.Instant;
+
+/**
+ * Number of write statements to a table, increased by a trigger.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table("data_version")
+public class DataVersion {
+
+    @Id
+    private String tableName;
+    private Long version;
+    private Instant updatedAt;
+}
@@ -0,0 +1,12 @@
+package de.kreuzenonline.kreuzen.cache;
+
+import org.springframework.data.jdbc.repository.query.Query;
+import org.springframework.data.repository.Repository;
+
+import java.util.List;
+
+public interface DataVersionRepo extends Repository<DataVersion, String> {
+
+    @Query("SELECT * FROM data_version WHERE table_name = ANY(:tableNames)")
+    List<DataVersion> findAllByTableNames(String[] tableNames);
+}
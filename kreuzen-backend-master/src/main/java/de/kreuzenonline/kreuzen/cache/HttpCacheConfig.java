@@ -0,0 +1,20 @@
+package de.kreuzenonline.kreuzen.cache;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class HttpCacheConfig implements WebMvcConfigurer {
+
+    private final ConditionalGetSupport conditionalGetSupport;
+
+    public HttpCacheConfig(ConditionalGetSupport conditionalGetSupport) {
+        this.conditionalGetSupport = conditionalGetSupport;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(conditionalGetSupport);
+    }
+}
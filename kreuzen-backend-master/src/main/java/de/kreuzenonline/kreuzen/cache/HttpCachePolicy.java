@@ -0,0 +1,19 @@
+package de.kreuzenonline.kreuzen.cache;
+
+/**
+ * How the responses of an endpoint annotated with {@link ConditionalGet} are validated and cached by clients.
+ */
+public enum HttpCachePolicy {
+
+    /**
+     * Catalog data like universities, majors, modules, courses, tags and exams. All catalog responses share one version,
+     * which changes with every write to a catalog table. Clients may reuse a response for app.http-cache.catalog-max-age.
+     */
+    CATALOG,
+
+    /**
+     * A question of any type by its id ("id" path variable), versioned by the time the question was last changed.
+     * Clients have to revalidate the response on every use.
+     */
+    QUESTION
+}
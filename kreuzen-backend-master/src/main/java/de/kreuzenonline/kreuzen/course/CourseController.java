@@ -1,6 +1,8 @@
 package de.kreuzenonline.kreuzen.course;
 
 import de.kreuzenonline.kreuzen.auth.CustomUserDetails;
+import de.kreuzenonline.kreuzen.cache.ConditionalGet;
+import de.kreuzenonline.kreuzen.cache.HttpCachePolicy;
 import de.kreuzenonline.kreuzen.course.requests.CreateCourseRequest;
 import de.kreuzenonline.kreuzen.course.requests.UpdateCourseRequest;
 import de.kreuzenonline.kreuzen.course.responses.CourseResponse;
@@ -31,6 +33,7 @@ public class CourseController {
     }
 
     @GetMapping("/course/{id}")
+    @ConditionalGet(HttpCachePolicy.CATALOG)
     @ApiOperation(
             value = "Get course",
             notes = "Get the data of a course."
@@ -71,6 +74,7 @@ public class CourseController {
     }
 
     @GetMapping("module/{moduleId}/course")
+    @ConditionalGet(HttpCachePolicy.CATALOG)
     @ApiOperation(
             value = "Get all courses of a module."
     )
@@ -137,6 +141,7 @@ public class CourseController {
     }
 
     @GetMapping("/semester/{semesterId}/course")
+    @ConditionalGet(HttpCachePolicy.CATALOG)
     @ApiOperation(
             value = "Get courses by semester.",
             notes = "Gets all courses that are available for a specific semester."
@@ -2,6 +2,7 @@ package de.kreuzenonline.kreuzen.course;
 
 import de.kreuzenonline.kreuzen.exceptions.NotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ResourceBundle;
 
@@ -37,11 +38,13 @@ public class CourseServiceImpl implements CourseService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Iterable<Course> findAllByModule(Integer moduleId) {
         return courseRepo.findAllByModuleId(moduleId);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Iterable<Course> findAllBySemester(Integer semesterId) {
         return courseRepo.findAllBySemesterId(semesterId);
     }
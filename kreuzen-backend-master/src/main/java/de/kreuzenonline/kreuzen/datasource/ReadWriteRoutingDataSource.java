@@ -0,0 +1,37 @@
+package de.kreuzenonline.kreuzen.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Routes read-only transactions to the replica, if {@link ReplicaRouting} allows it for the current thread.
+ * Everything else, including statements outside of transactions, is executed on the primary.
+ * <p>
+ * The transaction is only known once it has been started, so the data source has to be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, which fetches the connection
+ * when the first statement is executed.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target {
+        PRIMARY,
+        REPLICA
+    }
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica) {
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (ReplicaRouting.isAllowed() && TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return Target.REPLICA;
+        }
+        return Target.PRIMARY;
+    }
+}
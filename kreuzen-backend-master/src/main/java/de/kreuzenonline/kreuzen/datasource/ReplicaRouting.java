@@ -0,0 +1,29 @@
+package de.kreuzenonline.kreuzen.datasource;
+
+/**
+ * Whether read-only transactions of the current thread may read from the replica.
+ * It is only allowed by {@link ReplicaRoutingInterceptor} while a read request is handled, so writing requests,
+ * scheduled jobs and other threads always use the primary.
+ */
+public class ReplicaRouting {
+
+    private static final ThreadLocal<Boolean> ALLOWED = new ThreadLocal<>();
+
+    /**
+     * Allows read-only transactions of the current thread to read from the replica until {@link #clear()} is called.
+     */
+    public static void allow() {
+        ALLOWED.set(Boolean.TRUE);
+    }
+
+    /**
+     * Routes all statements of the current thread to the primary again.
+     */
+    public static void clear() {
+        ALLOWED.remove();
+    }
+
+    public static boolean isAllowed() {
+        return ALLOWED.get() != null;
+    }
+}
@@ -0,0 +1,77 @@
+package de.kreuzenonline.kreuzen.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+
+/**
+ * Splits the connections into a pool of the primary and a pool of a read replica, if a replica is configured
+ * (app.datasource.replica.jdbc-url). Without a replica the data source is auto-configured as usual.
+ * <p>
+ * The primary is configured like the default data source (spring.datasource.*), the replica takes the
+ * Hikari settings below app.datasource.replica and uses the credentials of the primary unless they are set as well.
+ */
+@Configuration
+@ConditionalOnProperty("app.datasource.replica.jdbc-url")
+public class ReplicaRoutingConfig implements WebMvcConfigurer {
+
+    private final Duration readYourWritesWindow;
+
+    public ReplicaRoutingConfig(@Value("${app.datasource.read-your-writes-window:5s}") Duration readYourWritesWindow) {
+        this.readYourWritesWindow = readYourWritesWindow;
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    /**
+     * The pools are injected lazily, as the initialization of every data source bean looks up the primary data source.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Lazy @Qualifier("primaryDataSource") DataSource primary,
+                                 @Lazy @Qualifier("replicaDataSource") DataSource replica) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy();
+        dataSource.setTargetDataSource(new ReadWriteRoutingDataSource(primary, replica));
+        // Set up front, otherwise the proxy would open a connection of the primary to find them out
+        // before the pool metrics are bound.
+        dataSource.setDefaultAutoCommit(true);
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return dataSource;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Registered first, so the other interceptors read from the replica as well.
+        registry.addInterceptor(new ReplicaRoutingInterceptor(readYourWritesWindow)).order(Ordered.HIGHEST_PRECEDENCE);
+    }
+}
@@ -0,0 +1,71 @@
+package de.kreuzenonline.kreuzen.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import de.kreuzenonline.kreuzen.auth.CustomUserDetails;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.time.Duration;
+
+/**
+ * Allows read requests to read from the replica.
+ * <p>
+ * Users that changed something recently keep reading from the primary until the read-your-writes window passed,
+ * so e.g. the selections of a running session are never read back from a replica that hasn't caught up yet.
+ * Requests of anonymous users are only routed by their method.
+ */
+public class ReplicaRoutingInterceptor implements HandlerInterceptor {
+
+    private static final int MAX_RECENT_WRITERS = 100_000;
+
+    private final Cache<Integer, Boolean> recentWriters;
+
+    public ReplicaRoutingInterceptor(Duration readYourWritesWindow) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(readYourWritesWindow)
+                .maximumSize(MAX_RECENT_WRITERS)
+                .build();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Integer userId = getUserId();
+        if (isRead(request)) {
+            if (userId == null || recentWriters.getIfPresent(userId) == null) {
+                ReplicaRouting.allow();
+            }
+        } else if (userId != null) {
+            // Reads running in parallel to the write are kept on the primary as well.
+            recentWriters.put(userId, Boolean.TRUE);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        ReplicaRouting.clear();
+
+        Integer userId = getUserId();
+        if (userId != null && !isRead(request)) {
+            // The window starts again once the write is committed.
+            recentWriters.put(userId, Boolean.TRUE);
+        }
+    }
+
+    private static boolean isRead(HttpServletRequest request) {
+        return HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod());
+    }
+
+    private static Integer getUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof CustomUserDetails) {
+            return ((CustomUserDetails) authentication.getPrincipal()).getId();
+        }
+        return null;
+    }
+}
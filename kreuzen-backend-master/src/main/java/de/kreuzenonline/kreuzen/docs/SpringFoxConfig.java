@@ -1,5 +1,7 @@
 package de.kreuzenonline.kreuzen.docs;
 
+import com.fasterxml.classmate.TypeResolver;
+import de.kreuzenonline.kreuzen.streaming.JsonArrayStream;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
@@ -7,10 +9,14 @@ import springfox.bean.validators.configuration.BeanValidatorPluginsConfiguration
 import springfox.documentation.builders.ApiInfoBuilder;
 import springfox.documentation.builders.PathSelectors;
 import springfox.documentation.builders.RequestHandlerSelectors;
+import springfox.documentation.schema.AlternateTypeRules;
+import springfox.documentation.schema.WildcardType;
 import springfox.documentation.service.ApiInfo;
 import springfox.documentation.spi.DocumentationType;
 import springfox.documentation.spring.web.plugins.Docket;
 
+import java.util.List;
+
 @Configuration
 @Import(BeanValidatorPluginsConfiguration.class)
 public class SpringFoxConfig {
@@ -30,8 +36,13 @@ public class SpringFoxConfig {
      */
     @Bean
     public Docket api() {
+        TypeResolver typeResolver = new TypeResolver();
         return new Docket(DocumentationType.SWAGGER_2)
                 .apiInfo(metadata())
+                // Streamed arrays are documented like lists
+                .alternateTypeRules(AlternateTypeRules.newRule(
+                        typeResolver.resolve(JsonArrayStream.class, WildcardType.class),
+                        typeResolver.resolve(List.class, WildcardType.class)))
                 .select()
                 .apis(RequestHandlerSelectors.basePackage("de.kreuzenonline.kreuzen"))
                 .paths(PathSelectors.any())
@@ -0,0 +1,143 @@
+package de.kreuzenonline.kreuzen.email;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.mail.MailException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains the email outbox. Due emails are claimed in batches and sent by a fixed number of worker threads.
+ * A failed email is retried with exponential backoff until the maximum number of attempts is reached,
+ * after that it stays in the outbox marked as failed.
+ * <p>
+ * Published metrics: "email.send" (send latency, tagged with the result), "email.send.failures" (failed attempts),
+ * "email.send.abandoned" (emails given up on) and "email.outbox.pending" (emails waiting to be sent).
+ */
+@Component
+@ConditionalOnProperty(name = "app.email.dispatcher.enabled", havingValue = "true", matchIfMissing = true)
+public class EmailDispatcher {
+
+    private final EmailOutboxRepo emailOutboxRepo;
+    private final JavaMailSender emailSender;
+    private final String sender;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final int maxAttempts;
+    private final Duration retryDelay;
+    private final Duration maxRetryDelay;
+    private final Duration lease;
+    private final ThreadPoolExecutor workers;
+    private final Timer sentTimer;
+    private final Timer failedTimer;
+    private final Counter failureCounter;
+    private final Counter abandonedCounter;
+
+    public EmailDispatcher(
+            EmailOutboxRepo emailOutboxRepo,
+            JavaMailSender emailSender,
+            MeterRegistry meterRegistry,
+            @Value("${app.smtp.username}") String sender,
+            @Value("${app.email.workers:2}") int workerCount,
+            @Value("${app.email.batch-size:20}") int batchSize,
+            @Value("${app.email.max-batches-per-run:5}") int maxBatchesPerRun,
+            @Value("${app.email.max-attempts:8}") int maxAttempts,
+            @Value("${app.email.retry-delay:30s}") Duration retryDelay,
+            @Value("${app.email.max-retry-delay:1h}") Duration maxRetryDelay,
+            @Value("${app.email.lease:5m}") Duration lease
+    ) {
+        this.emailOutboxRepo = emailOutboxRepo;
+        this.emailSender = emailSender;
+        this.sender = sender;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.maxAttempts = maxAttempts;
+        this.retryDelay = retryDelay;
+        this.maxRetryDelay = maxRetryDelay;
+        this.lease = lease;
+        // The queue can hold a whole batch, as a batch is only claimed after the previous one is finished.
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(batchSize), new CustomizableThreadFactory("email-worker-"));
+
+        this.sentTimer = Timer.builder("email.send").tag("result", "success").register(meterRegistry);
+        this.failedTimer = Timer.builder("email.send").tag("result", "failure").register(meterRegistry);
+        this.failureCounter = Counter.builder("email.send.failures").register(meterRegistry);
+        this.abandonedCounter = Counter.builder("email.send.abandoned").register(meterRegistry);
+        Gauge.builder("email.outbox.pending", emailOutboxRepo, EmailOutboxRepo::countPending).register(meterRegistry);
+    }
+
+    /**
+     * Sends due emails. Batches are claimed until the outbox contains no more due emails,
+     * but at most app.email.max-batches-per-run batches, so a full outbox doesn't keep a scheduler thread busy.
+     * The remaining emails are sent by the following runs.
+     */
+    @Scheduled(fixedDelayString = "${app.email.poll-interval:5000}")
+    public void dispatch() {
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            List<OutboxEmail> batch = emailOutboxRepo.claimBatch(batchSize, lease.toSeconds());
+            CompletableFuture.allOf(batch.stream()
+                    .map(email -> CompletableFuture.runAsync(() -> send(email), workers))
+                    .toArray(CompletableFuture[]::new)
+            ).join();
+            if (batch.size() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    private void send(OutboxEmail email) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(sender);
+        message.setTo(email.getRecipient());
+        message.setSubject(email.getSubject());
+        message.setText(email.getBody());
+
+        Timer.Sample sample = Timer.start();
+        try {
+            emailSender.send(message);
+            sample.stop(sentTimer);
+        } catch (MailException e) {
+            sample.stop(failedTimer);
+            failureCounter.increment();
+            if (email.getAttempts() >= maxAttempts) {
+                abandonedCounter.increment();
+                emailOutboxRepo.markFailed(email.getId(), e.getMessage());
+            } else {
+                emailOutboxRepo.scheduleRetry(email.getId(), getRetryDelay(email.getAttempts()).toSeconds(), e.getMessage());
+            }
+            return;
+        }
+        emailOutboxRepo.deleteById(email.getId());
+    }
+
+    /**
+     * Delay before the next attempt, doubled with every failed attempt.
+     *
+     * @param attempts attempts made so far
+     * @return delay until the next attempt
+     */
+    Duration getRetryDelay(int attempts) {
+        Duration delay = retryDelay.multipliedBy(1L << Math.min(Math.max(attempts - 1, 0), 20));
+        return delay.compareTo(maxRetryDelay) > 0 ? maxRetryDelay : delay;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+}
@@ -0,0 +1,41 @@
+package de.kreuzenonline.kreuzen.email;
+
+import org.springframework.data.jdbc.repository.query.Modifying;
+import org.springframework.data.jdbc.repository.query.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepo extends CrudRepository<OutboxEmail, Integer> {
+
+    @Modifying
+    @Query("INSERT INTO email_outbox (recipient, subject, body) VALUES (:recipient, :subject, :body)")
+    void enqueue(String recipient, String subject, String body);
+
+    /**
+     * Claims a batch of due emails. The attempt counter of the claimed emails is increased and their next attempt
+     * is pushed back by the lease time, so other dispatchers skip them while they are being sent and they are
+     * picked up again if the dispatcher stops before finishing them.
+     */
+    @Query("UPDATE email_outbox SET attempts = attempts + 1, " +
+            "next_attempt_at = (NOW() AT TIME ZONE 'utc') + make_interval(secs => :leaseSeconds) " +
+            "WHERE id IN (" +
+            "    SELECT id FROM email_outbox WHERE failed_at IS NULL AND next_attempt_at <= (NOW() AT TIME ZONE 'utc') " +
+            "    ORDER BY next_attempt_at, id LIMIT :limit FOR UPDATE SKIP LOCKED" +
+            ") RETURNING id, recipient, subject, body, attempts")
+    List<OutboxEmail> claimBatch(int limit, long leaseSeconds);
+
+    @Modifying
+    @Query("UPDATE email_outbox SET next_attempt_at = (NOW() AT TIME ZONE 'utc') + make_interval(secs => :delaySeconds), " +
+            "last_error = :error WHERE id = :id")
+    void scheduleRetry(Integer id, long delaySeconds, String error);
+
+    @Modifying
+    @Query("UPDATE email_outbox SET failed_at = (NOW() AT TIME ZONE 'utc'), last_error = :error WHERE id = :id")
+    void markFailed(Integer id, String error);
+
+    @Query("SELECT COUNT(*) FROM email_outbox WHERE failed_at IS NULL")
+    long countPending();
+}
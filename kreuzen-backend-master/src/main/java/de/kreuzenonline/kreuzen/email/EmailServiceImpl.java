@@ -1,38 +1,30 @@
 package de.kreuzenonline.kreuzen.email;
 
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 import java.text.MessageFormat;
 import java.util.ResourceBundle;
 
+/**
+ * Emails are not sent directly but written to the outbox, within the transaction of the caller if there is one.
+ * The {@link EmailDispatcher} sends them in the background.
+ */
 @Service
 public class EmailServiceImpl implements EmailService {
 
-    private final JavaMailSender emailSender;
+    private final EmailOutboxRepo emailOutboxRepo;
     private final ResourceBundle resourceBundle;
     @Value("${app.base-url}")
     private String baseUrl;
-    @Value("${app.smtp.username}")
-    private String sender;
 
-    public EmailServiceImpl(JavaMailSender emailSender, ResourceBundle resourceBundle) {
-        this.emailSender = emailSender;
+    public EmailServiceImpl(EmailOutboxRepo emailOutboxRepo, ResourceBundle resourceBundle) {
+        this.emailOutboxRepo = emailOutboxRepo;
         this.resourceBundle = resourceBundle;
     }
 
-    @Async
     void sendSimpleMessage(String to, String subject, String text) {
-
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setFrom(sender);
-        message.setTo(to);
-        message.setSubject(subject);
-        message.setText(text);
-        emailSender.send(message);
+        emailOutboxRepo.enqueue(to, subject, text);
     }
 
     @Override
@@ -0,0 +1,24 @@
+package de.kreuzenonline.kreuzen.email;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * Email waiting in the outbox to be sent by the {@link EmailDispatcher}.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table("email_outbox")
+public class OutboxEmail {
+
+    @Id
+    private Integer id;
+    private String recipient;
+    private String subject;
+    private String body;
+    private Integer attempts;
+}
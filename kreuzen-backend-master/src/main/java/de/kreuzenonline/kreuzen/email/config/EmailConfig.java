@@ -17,12 +17,18 @@ public class EmailConfig {
     private String username;
     @Value("${app.smtp.password}")
     private String password;
+    @Value("${app.smtp.host:smtp.gmail.com}")
+    private String host;
+    @Value("${app.smtp.port:587}")
+    private Integer port;
+    @Value("${app.smtp.timeout:10000}")
+    private Integer timeout;
 
     @Bean
     public JavaMailSender getJavaMailSender() {
         JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
-        mailSender.setHost("smtp.gmail.com");
-        mailSender.setPort(587);
+        mailSender.setHost(host);
+        mailSender.setPort(port);
 
         mailSender.setUsername(username);
         mailSender.setPassword(password);
@@ -32,6 +38,9 @@ public class EmailConfig {
         props.put("mail.smtp.auth", "true");
         props.put("mail.smtp.starttls.enable", "true");
         props.put("mail.debug", "true");
+        props.put("mail.smtp.connectiontimeout", timeout);
+        props.put("mail.smtp.timeout", timeout);
+        props.put("mail.smtp.writetimeout", timeout);
 
         return mailSender;
     }
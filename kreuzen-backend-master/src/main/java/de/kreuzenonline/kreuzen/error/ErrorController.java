@@ -1,6 +1,7 @@
 package de.kreuzenonline.kreuzen.error;
 
 import de.kreuzenonline.kreuzen.auth.CustomUserDetails;
+import de.kreuzenonline.kreuzen.auth.CustomUserDetailsService;
 import de.kreuzenonline.kreuzen.comment.CommentService;
 import de.kreuzenonline.kreuzen.email.EmailService;
 import de.kreuzenonline.kreuzen.error.requests.CreateErrorRequest;
@@ -31,13 +32,15 @@ public class ErrorController {
     private final ResourceBundle resourceBundle;
     private final CommentService commentService;
     private final EmailService emailService;
+    private final CustomUserDetailsService userDetailsService;
 
 
-    public ErrorController(ErrorService errorService, ResourceBundle resourceBundle, CommentService commentService, EmailService emailService) {
+    public ErrorController(ErrorService errorService, ResourceBundle resourceBundle, CommentService commentService, EmailService emailService, CustomUserDetailsService userDetailsService) {
         this.errorService = errorService;
         this.resourceBundle = resourceBundle;
         this.commentService = commentService;
         this.emailService = emailService;
+        this.userDetailsService = userDetailsService;
     }
 
     @GetMapping("/error/{id}")
@@ -104,7 +107,8 @@ public class ErrorController {
 
         if (request.getIsResolved().equals(true)) {
             commentService.create(error.getQuestionId(), userDetails.getId(), (resourceBundle.getString("post-error-is-resolved")));
-            emailService.sendErrorResolvedMessage(userDetails.getEmail(), userDetails.getFirstName());
+            CustomUserDetails completeDetails = userDetailsService.getCompleteDetails(userDetails);
+            emailService.sendErrorResolvedMessage(completeDetails.getEmail(), completeDetails.getFirstName());
         }
         error = errorService.update(id, request.getComment(), request.getSource(), request.getIsResolved(), userDetails.getId());
 
@@ -135,7 +139,8 @@ public class ErrorController {
 
         Error error = errorService.getById(id);
         if (error.getIsResolved().equals(false)) {
-            emailService.sendErrorDeclinedMessage(userDetails.getEmail(), userDetails.getFirstName());
+            CustomUserDetails completeDetails = userDetailsService.getCompleteDetails(userDetails);
+            emailService.sendErrorDeclinedMessage(completeDetails.getEmail(), completeDetails.getFirstName());
         }
         errorService.delete(id);
 
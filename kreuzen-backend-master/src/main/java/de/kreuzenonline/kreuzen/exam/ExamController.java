@@ -1,6 +1,9 @@
 package de.kreuzenonline.kreuzen.exam;
 
 import de.kreuzenonline.kreuzen.auth.CustomUserDetails;
+import de.kreuzenonline.kreuzen.auth.CustomUserDetailsService;
+import de.kreuzenonline.kreuzen.cache.ConditionalGet;
+import de.kreuzenonline.kreuzen.cache.HttpCachePolicy;
 import de.kreuzenonline.kreuzen.exam.requests.CreateExamRequest;
 import de.kreuzenonline.kreuzen.exam.requests.DeleteExamRequest;
 import de.kreuzenonline.kreuzen.exam.requests.UpdateExamRequest;
@@ -28,15 +31,18 @@ public class ExamController {
     private final ExamService examService;
     private final ResourceBundle resourceBundle;
     private final PasswordEncoder passwordEncoder;
+    private final CustomUserDetailsService userDetailsService;
 
-    public ExamController(ExamService examService, ResourceBundle resourceBundle, PasswordEncoder passwordEncoder) {
+    public ExamController(ExamService examService, ResourceBundle resourceBundle, PasswordEncoder passwordEncoder, CustomUserDetailsService userDetailsService) {
         this.examService = examService;
         this.resourceBundle = resourceBundle;
         this.passwordEncoder = passwordEncoder;
+        this.userDetailsService = userDetailsService;
     }
 
 
     @GetMapping("/exam/{id}")
+    @ConditionalGet(HttpCachePolicy.CATALOG)
     @ApiOperation(
             value = "Get exam",
             notes = "Get a specific exam by its id."
@@ -116,7 +122,7 @@ public class ExamController {
         }
 
 
-        if (!passwordEncoder.matches(request.getPassword(), userDetails.getPassword())) {
+        if (!passwordEncoder.matches(request.getPassword(), userDetailsService.getCompleteDetails(userDetails).getPassword())) {
             throw new ForbiddenException(resourceBundle.getString("delete-exam-password-wrong"));
         }
 
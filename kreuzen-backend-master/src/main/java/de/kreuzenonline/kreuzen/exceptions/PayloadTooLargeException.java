@@ -0,0 +1,10 @@
+package de.kreuzenonline.kreuzen.exceptions;
+
+import org.springframework.http.HttpStatus;
+
+public class PayloadTooLargeException extends HttpException {
+
+    public PayloadTooLargeException(String message) {
+        super(message, HttpStatus.PAYLOAD_TOO_LARGE);
+    }
+}
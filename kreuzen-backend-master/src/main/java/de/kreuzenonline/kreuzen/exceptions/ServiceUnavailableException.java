@@ -0,0 +1,10 @@
+package de.kreuzenonline.kreuzen.exceptions;
+
+import org.springframework.http.HttpStatus;
+
+public class ServiceUnavailableException extends HttpException {
+
+    public ServiceUnavailableException(String message) {
+        super(message, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+}
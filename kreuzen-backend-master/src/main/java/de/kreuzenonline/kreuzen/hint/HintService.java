@@ -1,5 +1,7 @@
 package de.kreuzenonline.kreuzen.hint;
 
+import java.util.List;
+
 public interface HintService {
 
     /**
@@ -26,6 +28,13 @@ public interface HintService {
      */
     Hint getById(Integer id);
 
+    /**
+     * Gets all hints that are set on active.
+     *
+     * @return list of active hints.
+     */
+    List<Hint> getActive();
+
     /**
      * Gets a random hint that is set on active.
      *
@@ -1,22 +1,31 @@
 package de.kreuzenonline.kreuzen.hint;
 
+import de.kreuzenonline.kreuzen.cache.CacheConfig;
 import de.kreuzenonline.kreuzen.exceptions.ConflictException;
 import de.kreuzenonline.kreuzen.exceptions.NotFoundException;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.Random;
 import java.util.ResourceBundle;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Service
 public class HintServiceImpl implements HintService {
 
     private final HintRepo hintRepo;
+    private final HintService self;
     private final ResourceBundle resourceBundle;
 
-    public HintServiceImpl(HintRepo hintRepo, ResourceBundle resourceBundle) {
+    /**
+     * @param self this service, so the active hints are read through the cache when picking a random one.
+     */
+    public HintServiceImpl(HintRepo hintRepo, @Lazy HintService self, ResourceBundle resourceBundle) {
         this.hintRepo = hintRepo;
+        this.self = self;
         this.resourceBundle = resourceBundle;
     }
 
@@ -26,6 +35,7 @@ public class HintServiceImpl implements HintService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.REFERENCE_DATA, allEntries = true)
     public Hint create(String text, Boolean isActive) {
         Hint hint = new Hint();
         // To avoid redudant data, there shouldn't be two hints with the same text.
@@ -48,24 +58,32 @@ public class HintServiceImpl implements HintService {
         return hint.get();
     }
 
+    @Override
+    @Cacheable(cacheNames = CacheConfig.REFERENCE_DATA, keyGenerator = CacheConfig.REFERENCE_DATA_KEY_GENERATOR)
+    public List<Hint> getActive() {
+        return hintRepo.findAllByIsActiveTrue();
+    }
+
     @Override
     public Hint getRandomHint() {
-        List<Hint> activeHints = hintRepo.findAllByIsActiveTrue();
+        // The active hints are cached, so picking one does not hit the database.
+        List<Hint> activeHints = self.getActive();
 
         if (activeHints.isEmpty()) {
             throw new ConflictException(resourceBundle.getString("no-active-hints"));
         }
-        Random r = new Random();
-        return activeHints.get(r.nextInt(activeHints.size()));
+        return activeHints.get(ThreadLocalRandom.current().nextInt(activeHints.size()));
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.REFERENCE_DATA, allEntries = true)
     public void delete(Integer id) {
         hintRepo.deleteById(id);
 
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.REFERENCE_DATA, allEntries = true)
     public Hint update(Integer id, String text, Boolean isActive) {
         Hint hint = getById(id);
         if (text != null) {
@@ -1,6 +1,8 @@
 package de.kreuzenonline.kreuzen.major;
 
 import de.kreuzenonline.kreuzen.auth.CustomUserDetails;
+import de.kreuzenonline.kreuzen.cache.ConditionalGet;
+import de.kreuzenonline.kreuzen.cache.HttpCachePolicy;
 import de.kreuzenonline.kreuzen.exceptions.ForbiddenException;
 import de.kreuzenonline.kreuzen.major.requests.CreateMajorRequest;
 import de.kreuzenonline.kreuzen.major.requests.UpdateMajorRequest;
@@ -31,6 +33,7 @@ public class MajorController {
     }
 
     @GetMapping("/university/{uniId}/major")
+    @ConditionalGet(HttpCachePolicy.CATALOG)
     @ApiOperation(
             value = "Get all majors by university",
             notes = "Get all majors that a university offers."
@@ -165,6 +168,7 @@ public class MajorController {
     }
 
     @GetMapping("/module/{moduleId}/major")
+    @ConditionalGet(HttpCachePolicy.CATALOG)
     @ApiOperation(
             value = "Get majors by module",
             notes = "Get the majors that are assigned to a module."
@@ -1,6 +1,9 @@
 package de.kreuzenonline.kreuzen.major;
 
+import de.kreuzenonline.kreuzen.cache.CacheConfig;
 import de.kreuzenonline.kreuzen.exceptions.NotFoundException;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -18,6 +21,7 @@ public class MajorServiceImpl implements MajorService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.REFERENCE_DATA, allEntries = true)
     public Major create(Integer universityId, String name) {
 
         Major major = new Major();
@@ -28,22 +32,26 @@ public class MajorServiceImpl implements MajorService {
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.REFERENCE_DATA, keyGenerator = CacheConfig.REFERENCE_DATA_KEY_GENERATOR)
     public Iterable<Major> findAllByUniversity(Integer universityId) {
         return majorRepo.findAllByUniversityId(universityId);
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.REFERENCE_DATA, keyGenerator = CacheConfig.REFERENCE_DATA_KEY_GENERATOR)
     public Iterable<Major> findAllByModule(Integer moduleId) {
         return majorRepo.findAllByModuleId(moduleId);
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.REFERENCE_DATA, keyGenerator = CacheConfig.REFERENCE_DATA_KEY_GENERATOR)
     public Major findById(Integer id) {
         return majorRepo.findById(id)
                 .orElseThrow(() -> new NotFoundException(resourceBundle.getString("major-not-found")));
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.REFERENCE_DATA, allEntries = true)
     public Major update(Integer id, String name) {
 
         Major major = findById(id);
@@ -55,6 +63,7 @@ public class MajorServiceImpl implements MajorService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.REFERENCE_DATA, allEntries = true)
     public void delete(Integer id) {
         majorRepo.deleteById(id);
     }
@@ -0,0 +1,39 @@
+package de.kreuzenonline.kreuzen.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+/**
+ * Instruments every Spring Data repository with a {@link RepositoryMetricsInterceptor}.
+ * <p>
+ * Together with the connection pool metrics "hikaricp.connections.*", which Spring Boot publishes on its own,
+ * the metrics are available on the actuator, in the Prometheus format at "/actuator/prometheus".
+ */
+@Configuration
+public class RepositoryMetricsConfig {
+
+    /**
+     * Static, as post processors are created before all other beans. The registry is only looked up
+     * once a repository is called, so it is still post processed itself.
+     */
+    @Bean
+    public static BeanPostProcessor repositoryMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport) {
+                    ((RepositoryFactoryBeanSupport<?, ?, ?>) bean).addRepositoryFactoryCustomizer(factory ->
+                            factory.addRepositoryProxyPostProcessor((proxyFactory, repositoryInformation) ->
+                                    // Outermost, so the time of transactions opened by the repository is included.
+                                    proxyFactory.addAdvice(0, new RepositoryMetricsInterceptor(meterRegistry::getObject,
+                                            repositoryInformation.getRepositoryInterface(), repositoryInformation.getDomainType()))));
+                }
+                return bean;
+            }
+        };
+    }
+}
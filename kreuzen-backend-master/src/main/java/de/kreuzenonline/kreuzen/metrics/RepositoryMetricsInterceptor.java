@@ -0,0 +1,90 @@
+package de.kreuzenonline.kreuzen.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Records the calls of a repository.
+ * <ul>
+ *     <li>"spring.data.repository.invocations": timer tagged with the repository, the method, the state
+ *     (SUCCESS or ERROR) and the simple name of the exception, so it also counts failed calls.</li>
+ *     <li>"spring.data.repository.rows": number of rows returned by methods that return entities,
+ *     tagged with the repository and the method. Counts, flags and updates aren't recorded.</li>
+ * </ul>
+ */
+public class RepositoryMetricsInterceptor implements MethodInterceptor {
+
+    public static final String INVOCATIONS = "spring.data.repository.invocations";
+    public static final String ROWS = "spring.data.repository.rows";
+
+    private final Supplier<MeterRegistry> meterRegistry;
+    private final String repository;
+    private final Class<?> domainType;
+
+    public RepositoryMetricsInterceptor(Supplier<MeterRegistry> meterRegistry, Class<?> repositoryInterface, Class<?> domainType) {
+        this.meterRegistry = meterRegistry;
+        this.repository = repositoryInterface.getSimpleName();
+        this.domainType = domainType;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (invocation.getMethod().getDeclaringClass() == Object.class) {
+            return invocation.proceed();
+        }
+
+        String method = invocation.getMethod().getName();
+        String state = "SUCCESS";
+        String exception = "none";
+        long start = System.nanoTime();
+        try {
+            Object result = invocation.proceed();
+            Integer rows = countRows(result, invocation.getMethod().getReturnType());
+            if (rows != null) {
+                DistributionSummary.builder(ROWS)
+                        .baseUnit("rows")
+                        .tag("repository", repository)
+                        .tag("method", method)
+                        .register(meterRegistry.get())
+                        .record(rows);
+            }
+            return result;
+        } catch (Throwable e) {
+            state = "ERROR";
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            Timer.builder(INVOCATIONS)
+                    .tag("repository", repository)
+                    .tag("method", method)
+                    .tag("state", state)
+                    .tag("exception", exception)
+                    .register(meterRegistry.get())
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * @return number of entities in the result, or null if the method doesn't return entities.
+     */
+    private Integer countRows(Object result, Class<?> returnType) {
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        if (result instanceof Optional) {
+            return ((Optional<?>) result).isPresent() ? 1 : 0;
+        }
+        if (domainType.isAssignableFrom(returnType)) {
+            return result == null ? 0 : 1;
+        }
+        return null;
+    }
+}
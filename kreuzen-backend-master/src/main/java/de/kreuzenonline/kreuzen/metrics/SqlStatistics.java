@@ -0,0 +1,50 @@
+package de.kreuzenonline.kreuzen.metrics;
+
+import java.time.Duration;
+
+/**
+ * SQL statements executed by the current request and the time spent executing them.
+ * They are counted by {@link StatementCountingDataSource} while {@link SqlStatisticsFilter} handles the request,
+ * statements of other threads like scheduled jobs are not counted.
+ */
+public class SqlStatistics {
+
+    private static final ThreadLocal<SqlStatistics> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long nanos;
+
+    /**
+     * Starts counting the statements of the current thread.
+     *
+     * @return statistics, that are updated until {@link #stop()} is called.
+     */
+    public static SqlStatistics start() {
+        SqlStatistics statistics = new SqlStatistics();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    /**
+     * Stops counting the statements of the current thread.
+     */
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    static void record(long nanos) {
+        SqlStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.statements++;
+            statistics.nanos += nanos;
+        }
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public Duration getTime() {
+        return Duration.ofNanos(nanos);
+    }
+}
@@ -0,0 +1,31 @@
+package de.kreuzenonline.kreuzen.metrics;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the data source, so the statements of each request are counted by {@link SqlStatisticsFilter}.
+ * Data sources delegating to other data sources, like the routing to a replica, aren't wrapped,
+ * as their statements are already counted by the pools they delegate to.
+ */
+@Configuration
+public class SqlStatisticsConfig {
+
+    @Bean
+    public static BeanPostProcessor statementCountingPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource && !(bean instanceof DelegatingDataSource) && !(bean instanceof AbstractRoutingDataSource)) {
+                    return new StatementCountingDataSource((DataSource) bean);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,75 @@
+package de.kreuzenonline.kreuzen.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Counts the SQL statements of every request, including those of the authentication.
+ * Requests with more statements than the budget (app.sql-budget.statements) are logged, which usually points to
+ * an N+1 pattern. If enabled (app.sql-budget.headers), the count and the database time are sent as
+ * "X-SQL-Statements" and "Server-Timing" headers, which should only be done outside of production.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SqlStatisticsFilter extends OncePerRequestFilter {
+
+    /**
+     * Request attribute holding the {@link SqlStatistics} of the request.
+     */
+    public static final String ATTRIBUTE = SqlStatistics.class.getName();
+
+    private final int statementBudget;
+    private final boolean headers;
+
+    public SqlStatisticsFilter(@Value("${app.sql-budget.statements:20}") int statementBudget,
+                               @Value("${app.sql-budget.headers:false}") boolean headers) {
+        this.statementBudget = statementBudget;
+        this.headers = headers;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws ServletException, IOException {
+        SqlStatistics statistics = SqlStatistics.start();
+        request.setAttribute(ATTRIBUTE, statistics);
+        try {
+            if (headers) {
+                // The headers have to be set before the response is committed, which may happen while the body is written.
+                chain.doFilter(request, new OnCommittedResponseWrapper(response) {
+                    @Override
+                    protected void onResponseCommitted() {
+                        setHeaders(response, statistics);
+                    }
+                });
+                if (!response.isCommitted()) {
+                    setHeaders(response, statistics);
+                }
+            } else {
+                chain.doFilter(request, response);
+            }
+        } finally {
+            SqlStatistics.stop();
+            if (statistics.getStatements() > statementBudget) {
+                log.warn("{} {} executed {} SQL statements in {} ms, the budget is {}", request.getMethod(), request.getRequestURI(),
+                        statistics.getStatements(), statistics.getTime().toMillis(), statementBudget);
+            }
+        }
+    }
+
+    private static void setHeaders(HttpServletResponse response, SqlStatistics statistics) {
+        response.setHeader("X-SQL-Statements", String.valueOf(statistics.getStatements()));
+        response.setHeader("Server-Timing", String.format(Locale.ROOT, "db;dur=%.3f", statistics.getTime().toNanos() / 1e6));
+    }
+}
@@ -0,0 +1,88 @@
+package de.kreuzenonline.kreuzen.metrics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Data source that records every executed statement in the {@link SqlStatistics} of the current thread.
+ * A batch counts as a single statement.
+ */
+public class StatementCountingDataSource extends DelegatingDataSource {
+
+    public StatementCountingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxy(super.getConnection(username, password));
+    }
+
+    private static Connection proxy(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(StatementCountingDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConnectionHandler(connection));
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private static class ConnectionHandler implements InvocationHandler {
+
+        private final Connection connection;
+
+        ConnectionHandler(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = StatementCountingDataSource.invoke(method, connection, args);
+            if (result instanceof Statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                // Statement, PreparedStatement or CallableStatement, depending on how it was created
+                return Proxy.newProxyInstance(StatementCountingDataSource.class.getClassLoader(),
+                        new Class<?>[]{method.getReturnType()}, new StatementHandler(result));
+            }
+            return result;
+        }
+    }
+
+    private static class StatementHandler implements InvocationHandler {
+
+        private final Object statement;
+
+        StatementHandler(Object statement) {
+            this.statement = statement;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (!method.getName().startsWith("execute")) {
+                return StatementCountingDataSource.invoke(method, statement, args);
+            }
+            long start = System.nanoTime();
+            try {
+                return StatementCountingDataSource.invoke(method, statement, args);
+            } finally {
+                SqlStatistics.record(System.nanoTime() - start);
+            }
+        }
+    }
+}
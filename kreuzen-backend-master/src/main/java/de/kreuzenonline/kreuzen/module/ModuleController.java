@@ -1,12 +1,16 @@
 package de.kreuzenonline.kreuzen.module;
 
 import de.kreuzenonline.kreuzen.auth.CustomUserDetails;
+import de.kreuzenonline.kreuzen.auth.CustomUserDetailsService;
+import de.kreuzenonline.kreuzen.cache.ConditionalGet;
+import de.kreuzenonline.kreuzen.cache.HttpCachePolicy;
 import de.kreuzenonline.kreuzen.exceptions.ForbiddenException;
 import de.kreuzenonline.kreuzen.module.requests.CreateModuleRequest;
 import de.kreuzenonline.kreuzen.module.requests.DeleteModuleRequest;
 import de.kreuzenonline.kreuzen.module.requests.UpdateModuleRequest;
 import de.kreuzenonline.kreuzen.module.responses.ModuleResponse;
 import de.kreuzenonline.kreuzen.role.Roles;
+import de.kreuzenonline.kreuzen.streaming.JsonArrayStream;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import org.springframework.http.ResponseEntity;
@@ -16,7 +20,6 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.ResourceBundle;
 
@@ -28,11 +31,13 @@ public class ModuleController {
     private final ModuleService moduleService;
     private final ResourceBundle resourceBundle;
     private final PasswordEncoder passwordEncoder;
+    private final CustomUserDetailsService userDetailsService;
 
-    public ModuleController(ModuleService moduleService, ResourceBundle resourceBundle, PasswordEncoder passwordEncoder) {
+    public ModuleController(ModuleService moduleService, ResourceBundle resourceBundle, PasswordEncoder passwordEncoder, CustomUserDetailsService userDetailsService) {
         this.moduleService = moduleService;
         this.resourceBundle = resourceBundle;
         this.passwordEncoder = passwordEncoder;
+        this.userDetailsService = userDetailsService;
     }
 
     @GetMapping("/module/{id}")
@@ -133,7 +138,7 @@ public class ModuleController {
         }
 
 
-        if (!passwordEncoder.matches(request.getPassword(), userDetails.getPassword())) {
+        if (!passwordEncoder.matches(request.getPassword(), userDetailsService.getCompleteDetails(userDetails).getPassword())) {
             throw new ForbiddenException(resourceBundle.getString("delete-module-password-wrong"));
         }
 
@@ -146,7 +151,7 @@ public class ModuleController {
 
     @GetMapping("/module")
     @ApiOperation(value = "Get all modules")
-    public List<ModuleResponse> getAllModules(@AuthenticationPrincipal CustomUserDetails userDetails) {
+    public JsonArrayStream<ModuleResponse> getAllModules(@AuthenticationPrincipal CustomUserDetails userDetails) {
 
         if (userDetails == null) {
             throw new ForbiddenException(resourceBundle.getString("unauthorized"));
@@ -161,30 +166,21 @@ public class ModuleController {
             throw new ForbiddenException(resourceBundle.getString("get-all-modules-forbidden"));
         }
 
-        Iterable<Module> modules = moduleService.getAll();
-        List<ModuleResponse> responses = new ArrayList<>();
-        for (Module m : modules) {
-            responses.add(new ModuleResponse(m));
-        }
-        return responses;
+        // The cached modules are serialized one by one, without another list of responses.
+        return JsonArrayStream.of(action -> moduleService.getAll().forEach(m -> action.accept(new ModuleResponse(m))));
     }
 
     @GetMapping("/university/{uniId}/module")
+    @ConditionalGet(HttpCachePolicy.CATALOG)
     @ApiOperation(
             value = "Get modules by university"
 
     )
-    private List<ModuleResponse> getModulesByUniversity(@PathVariable Integer uniId, @AuthenticationPrincipal CustomUserDetails userDetails) {
+    private JsonArrayStream<ModuleResponse> getModulesByUniversity(@PathVariable Integer uniId, @AuthenticationPrincipal CustomUserDetails userDetails) {
         if (userDetails == null) {
             throw new ForbiddenException(resourceBundle.getString("unauthorized"));
         }
-        Iterable<Module> modules = moduleService.getModulesByUniversity(uniId);
-        List<ModuleResponse> response = new ArrayList<>();
-        for (Module module : modules) {
-            response.add(new ModuleResponse(module));
-        }
-
-        return response;
+        return JsonArrayStream.of(action -> moduleService.getModulesByUniversity(uniId).forEach(module -> action.accept(new ModuleResponse(module))));
     }
 
     @GetMapping("/user/{userId}/module")
@@ -192,7 +188,7 @@ public class ModuleController {
             value = "Get modules by user"
 
     )
-    private List<ModuleResponse> getModulesByUser(@PathVariable Integer userId, @AuthenticationPrincipal CustomUserDetails userDetails) {
+    private JsonArrayStream<ModuleResponse> getModulesByUser(@PathVariable Integer userId, @AuthenticationPrincipal CustomUserDetails userDetails) {
 
         if (userDetails == null) {
             throw new ForbiddenException(resourceBundle.getString("unauthorized"));
@@ -207,13 +203,7 @@ public class ModuleController {
             throw new ForbiddenException(resourceBundle.getString("get-user-modules-forbidden"));
         }
         List<Module> modules = moduleService.getModulesByUser(userId);
-        List<ModuleResponse> responseList = new ArrayList<>();
-
-        for (Module module : modules) {
-            responseList.add(new ModuleResponse(module));
-        }
-
-        return responseList;
+        return JsonArrayStream.of(action -> modules.forEach(module -> action.accept(new ModuleResponse(module))));
     }
 
     @PutMapping("/major/{majorId}/module/{moduleId}")
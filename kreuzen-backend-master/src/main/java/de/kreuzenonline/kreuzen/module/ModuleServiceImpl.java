@@ -1,8 +1,12 @@
 package de.kreuzenonline.kreuzen.module;
 
+import de.kreuzenonline.kreuzen.cache.CacheConfig;
 import de.kreuzenonline.kreuzen.exceptions.ConflictException;
 import de.kreuzenonline.kreuzen.exceptions.NotFoundException;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.client.HttpClientErrorException;
 
 import java.util.List;
@@ -21,6 +25,7 @@ public class ModuleServiceImpl implements ModuleService {
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.REFERENCE_DATA, keyGenerator = CacheConfig.REFERENCE_DATA_KEY_GENERATOR)
     public Module getById(Integer id) {
 
         Optional<Module> module = moduleRepo.findById(id);
@@ -33,6 +38,7 @@ public class ModuleServiceImpl implements ModuleService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.REFERENCE_DATA, allEntries = true)
     public Module create(String name, Integer universityId, Boolean isUniversityWide) {
 
         Module module = new Module();
@@ -48,6 +54,7 @@ public class ModuleServiceImpl implements ModuleService {
     }
 
     @Override
+    @CacheEvict(cacheNames = {CacheConfig.QUESTION_COUNTS, CacheConfig.REFERENCE_DATA}, allEntries = true)
     public Module update(Integer id, String name, Integer universityId, Boolean isUniversityWide) {
 
         Module module = this.getById(id);
@@ -69,43 +76,51 @@ public class ModuleServiceImpl implements ModuleService {
     }
 
     @Override
+    @CacheEvict(cacheNames = {CacheConfig.QUESTION_COUNTS, CacheConfig.REFERENCE_DATA}, allEntries = true)
     public void delete(Integer id) {
         moduleRepo.deleteById(id);
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.REFERENCE_DATA, keyGenerator = CacheConfig.REFERENCE_DATA_KEY_GENERATOR)
     public Iterable<Module> getAll() {
         return moduleRepo.findAll();
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.REFERENCE_DATA, keyGenerator = CacheConfig.REFERENCE_DATA_KEY_GENERATOR)
     public Iterable<Module> getModulesByUniversity(Integer universityId) {
         return moduleRepo.findAllByUniversityId(universityId);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Module> getModulesByUser(Integer userId) {
         return moduleRepo.findAllByUserId(userId);
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.REFERENCE_DATA, allEntries = true)
     public void addModuleToMajor(Integer moduleId, Integer majorId) {
         moduleRepo.addModuleToMajor(moduleId, majorId);
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.REFERENCE_DATA, allEntries = true)
     public void removeModuleFromMajor(Integer moduleId, Integer majorId) {
         moduleRepo.removeModuleFromMajor(moduleId, majorId);
 
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.REFERENCE_DATA, allEntries = true)
     public void addModuleToSection(Integer moduleId, Integer sectionId) {
         moduleRepo.addModuleToMajorSection(moduleId, sectionId);
 
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.REFERENCE_DATA, allEntries = true)
     public void removeModuleFromSection(Integer moduleId, Integer sectionId) {
         moduleRepo.removeModuleFromMajorSection(moduleId, sectionId);
 
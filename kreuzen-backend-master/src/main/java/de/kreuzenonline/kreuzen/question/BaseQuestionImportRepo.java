@@ -0,0 +1,16 @@
+package de.kreuzenonline.kreuzen.question;
+
+import java.util.List;
+
+/**
+ * Batch inserts of base questions, which can not be expressed as a query method.
+ */
+public interface BaseQuestionImportRepo {
+
+    /**
+     * Inserts the given base questions in one JDBC batch and sets their ids.
+     *
+     * @param questions base questions without ids
+     */
+    void insertAll(List<BaseQuestion> questions);
+}
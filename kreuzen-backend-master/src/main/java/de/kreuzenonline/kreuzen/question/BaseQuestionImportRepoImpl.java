@@ -0,0 +1,45 @@
+package de.kreuzenonline.kreuzen.question;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.util.List;
+
+public class BaseQuestionImportRepoImpl implements BaseQuestionImportRepo {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public BaseQuestionImportRepoImpl(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertAll(List<BaseQuestion> questions) {
+        if (questions.isEmpty()) {
+            return;
+        }
+        // Ids are taken from the sequence beforehand, so the rows of the type tables can reference them in their own batches.
+        List<Integer> ids = jdbcTemplate.queryForList("SELECT nextval(pg_get_serial_sequence('question_base', 'id')) FROM generate_series(1, :count)",
+                new MapSqlParameterSource("count", questions.size()), Integer.class);
+        for (int i = 0; i < questions.size(); i++) {
+            questions.get(i).setId(ids.get(i));
+        }
+
+        SqlParameterSource[] params = questions.stream()
+                .map(question -> new MapSqlParameterSource()
+                        .addValue("id", question.getId())
+                        .addValue("text", question.getText())
+                        .addValue("type", question.getType())
+                        .addValue("additionalInformation", question.getAdditionalInformation())
+                        .addValue("points", question.getPoints())
+                        .addValue("examId", question.getExamId())
+                        .addValue("courseId", question.getCourseId())
+                        .addValue("creatorId", question.getCreatorId())
+                        .addValue("origin", question.getOrigin())
+                        .addValue("isApproved", question.getIsApproved()))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate("INSERT INTO question_base (id, text, type, additional_information, points, exam_id, course_id, creator_id, origin, is_approved) " +
+                "VALUES (:id, :text, CAST(:type AS question_type), :additionalInformation, :points, :examId, :courseId, :creatorId, :origin, :isApproved)", params);
+    }
+}
@@ -5,39 +5,36 @@ import org.springframework.data.jdbc.repository.query.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface BaseQuestionRepo extends CrudRepository<BaseQuestion, Integer> {
-
-    Iterable<BaseQuestion> findAllByExamId(Integer examId);
-
-    Iterable<BaseQuestion> findAllByExamIdAndIsApprovedTrue(Integer examId);
-
-    Iterable<BaseQuestion> findAllByCourseId(Integer courseId);
-
-    Iterable<BaseQuestion> findAllByCourseIdAndIsApprovedTrue(Integer courseId);
+public interface BaseQuestionRepo extends CrudRepository<BaseQuestion, Integer>, BaseQuestionImportRepo, BaseQuestionStreamRepo {
 
     @Query("SELECT q.* " +
-            "FROM question_search s " +
-            "JOIN question_base q ON s.id = q.id " +
+            "FROM question_base q " +
+            "JOIN question_search s ON s.id = q.id " +
             "JOIN course c on q.course_id = c.id " +
-            "WHERE CASE WHEN :searchTerm IS NOT NULL THEN s.document @@ to_tsquery('german', :searchTerm) ELSE TRUE END " +
+            "WHERE (:searchTerm IS NULL OR s.document @@ to_tsquery('german', :searchTerm)) " +
             "AND (:semesterId IS NULL OR c.semester_id = :semesterId) " +
             "AND (:moduleId IS NULL OR c.module_id = :moduleId) " +
             "AND (:courseId IS NULL OR q.course_id = :courseId) " +
             "AND (:tagId IS NULL OR exists(SELECT * FROM question_has_tag t WHERE t.tag_id = :tagId AND t.question_id = q.id)) " +
             "AND (:examId IS NULL OR q.exam_id = :examId) " +
             "AND (:isApproved IS NULL OR q.is_approved = :isApproved) " +
-            "ORDER BY CASE WHEN :searchTerm IS NOT NULL THEN ts_rank(s.document, to_tsquery('german', :searchTerm)) ELSE q.id END DESC " +
-            "OFFSET :skip LIMIT :limit")
-    List<BaseQuestion> findBySearchTerm(String searchTerm, Integer semesterId, Integer moduleId, Integer courseId, Integer examId, Integer tagId, Boolean isApproved, int limit, int skip);
+            "AND (:cursorId IS NULL OR CASE WHEN :searchTerm IS NULL THEN q.id < :cursorId " +
+            "ELSE (ts_rank(s.document, to_tsquery('german', :searchTerm)), q.id) < " +
+            "((SELECT ts_rank(cs.document, to_tsquery('german', :searchTerm)) FROM question_search cs WHERE cs.id = :cursorId), :cursorId) END) " +
+            "ORDER BY CASE WHEN :searchTerm IS NOT NULL THEN ts_rank(s.document, to_tsquery('german', :searchTerm)) END DESC, q.id DESC " +
+            "OFFSET CASE WHEN CAST(:cursorId AS integer) IS NULL THEN :skip ELSE 0 END LIMIT :limit")
+    List<BaseQuestion> findBySearchTerm(String searchTerm, Integer semesterId, Integer moduleId, Integer courseId, Integer examId, Integer tagId, Boolean isApproved, Integer cursorId, int limit, int skip);
 
     @Query("SELECT COUNT(q.id) " +
-            "FROM question_search s " +
-            "JOIN question_base q ON s.id = q.id " +
+            "FROM question_base q " +
+            "JOIN question_search s ON s.id = q.id " +
             "JOIN course c on q.course_id = c.id " +
-            "WHERE CASE WHEN :searchTerm IS NOT NULL THEN s.document @@ to_tsquery('german', :searchTerm) ELSE TRUE END " +
+            "WHERE (:searchTerm IS NULL OR s.document @@ to_tsquery('german', :searchTerm)) " +
             "AND (:semesterId IS NULL OR c.semester_id = :semesterId) " +
             "AND (:moduleId IS NULL OR c.module_id = :moduleId) " +
             "AND (:courseId IS NULL OR q.course_id = :courseId) " +
@@ -46,8 +43,8 @@ public interface BaseQuestionRepo extends CrudRepository<BaseQuestion, Integer>
             "AND (:isApproved IS NULL OR q.is_approved = :isApproved)")
     int countBySearchTerm(String searchTerm, Integer semesterId, Integer moduleId, Integer courseId, Integer examId, Integer tagId, Boolean isApproved);
 
-    @Query("SELECT * FROM question_base OFFSET :skip LIMIT :limit")
-    List<BaseQuestion> findAllPagination(int limit, int skip);
+    @Query("SELECT * FROM question_base WHERE (:cursorId IS NULL OR id > :cursorId) ORDER BY id LIMIT :limit")
+    List<BaseQuestion> findAllPagination(Integer cursorId, int limit);
 
     @Query("SELECT * FROM question_base WHERE text LIKE CONCAT ('%', :term, '%') OFFSET :skip LIMIT :limit")
     List<BaseQuestion> findBySearchTerm(String term, int limit, int skip);
@@ -75,6 +72,16 @@ public interface BaseQuestionRepo extends CrudRepository<BaseQuestion, Integer>
     @Query("UPDATE question_base SET exam_id = null WHERE id = :questionId")
     void removeQuestionFromExam(Integer examId, Integer questionId);
 
+    @Query("SELECT updated_at FROM question_base WHERE id = :id")
+    Optional<Instant> findUpdatedAtById(Integer id);
+
+    /**
+     * Marks a question as changed, e.g. when only its answers or attachments changed, which are stored in other tables.
+     */
+    @Modifying
+    @Query("UPDATE question_base SET updated_at = NOW() AT TIME ZONE 'utc' WHERE id = :id")
+    void touch(Integer id);
+
     @Modifying
     @Query("INSERT INTO session_has_question (session_id, question_id) VALUES (:sessionId, :questionId) ON CONFLICT DO NOTHING")
     void addQuestionToSession(Integer sessionId, Integer questionId);
@@ -86,6 +93,10 @@ public interface BaseQuestionRepo extends CrudRepository<BaseQuestion, Integer>
     @Query("SELECT q.* FROM session_has_question shq JOIN question_base q on q.id = shq.question_id WHERE shq.session_id = :sessionId")
     List<BaseQuestion> findAllBySession(Integer sessionId);
 
+    @Query("SELECT q.* FROM session_has_question shq JOIN question_base q on q.id = shq.question_id " +
+            "WHERE shq.session_id = :sessionId AND shq.local_id BETWEEN :fromLocalId AND :toLocalId")
+    List<BaseQuestion> findAllBySessionAndLocalIdRange(Integer sessionId, Integer fromLocalId, Integer toLocalId);
+
     @Query("SELECT q.* FROM session_has_question shq JOIN question_base q on q.id = shq.question_id WHERE shq.session_id = :sessionId AND shq.local_id = :localId")
     BaseQuestion findBySessionAndLocalId(Integer sessionId, Integer localId);
 }
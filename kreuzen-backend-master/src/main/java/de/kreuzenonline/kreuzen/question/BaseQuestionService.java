@@ -1,8 +1,11 @@
 package de.kreuzenonline.kreuzen.question;
 
+import de.kreuzenonline.kreuzen.question.requests.CreateQuestionRequest;
+import de.kreuzenonline.kreuzen.question.requests.UpdateQuestionRequest;
 import org.springframework.lang.Nullable;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BaseQuestionService {
 
@@ -30,6 +33,24 @@ public interface BaseQuestionService {
      */
     BaseQuestion create(String text, String type, String additionalInformation, Integer points, Integer examId, Integer courseId, Integer creatorId, String origin, Byte[] file);
 
+    /**
+     * Creates a question of any type in one transaction, i.e. the base question together with the type-specific information.
+     * If the type-specific information is invalid, no base question is left behind.
+     *
+     * @param request   create request of the respective question type, e.g. a CreateSingleChoiceRequest.
+     * @param creatorId id of the user that originally created the question.
+     * @return the created question of the respective type.
+     */
+    BaseQuestion create(CreateQuestionRequest request, Integer creatorId);
+
+    /**
+     * Checks the restrictions of the create-function that don't depend on the database,
+     * i.e. it isn't checked whether the origin exists.
+     *
+     * @param request request with the information of the question.
+     */
+    void validate(CreateQuestionRequest request);
+
     /**
      * Updates a question with the following information:
      *
@@ -47,6 +68,17 @@ public interface BaseQuestionService {
 
     BaseQuestion update(Integer id, String text, String additionalInformation, Integer points, Integer examId, Integer courseId, String origin, Byte[] file, Integer updaterId);
 
+    /**
+     * Updates a question of any type in one transaction, i.e. the base question together with the type-specific information.
+     * The question has to be approved by moderators/administrators once again afterwards.
+     *
+     * @param id        the id of the question that shall be updated.
+     * @param request   update request of the respective question type, e.g. an UpdateSingleChoiceRequest.
+     * @param updaterId id of the user that updates the question.
+     * @return the updated question of the respective type.
+     */
+    BaseQuestion update(Integer id, UpdateQuestionRequest request, Integer updaterId);
+
     /**
      * A question has to be approved by moderators/administrators before it is visible for all users.
      *
@@ -70,30 +102,32 @@ public interface BaseQuestionService {
     void delete(Integer questionId);
 
     /**
-     * Finds all questions that are contained in one specific exam.
+     * Passes all questions that are contained in one specific exam to the given action, page by page while they are read.
      *
      * @param examId  id of the exam.
      * @param isAdmin decides whether the user is eligible to see unapproved questions or not.
-     * @return list of questions.
+     * @param action  is called for every question.
      */
-    Iterable<BaseQuestion> findAllByExam(Integer examId, Boolean isAdmin);
+    void forEachByExam(Integer examId, Boolean isAdmin, Consumer<BaseQuestion> action);
 
     /**
-     * Finds all questions that are linked to a specific course.
+     * Passes all questions that are linked to a specific course to the given action, page by page while they are read.
      *
      * @param courseId id of the course.
      * @param isAdmin  decides whether the user is eligible to see unapproved questions or not.
-     * @return list of questions.
+     * @param action   is called for every question.
      */
-    Iterable<BaseQuestion> findAllByCourse(Integer courseId, Boolean isAdmin);
+    void forEachByCourse(Integer courseId, Boolean isAdmin, Consumer<BaseQuestion> action);
 
     /**
      * Returns a list of questions using limit and skip ordered by question id. Only questions that contain the search term are listed.
+     * If a cursor is given, the list continues after the question the cursor points to.
      *
      * @param isAdmin    shows whether user is authorized to see non-approved questions or not.
      * @param searchTerm search term
      * @param limit      max length of returned list
-     * @param skip       amount of questions to skip
+     * @param skip       amount of questions to skip, ignored if a cursor is given
+     * @param cursor     cursor of the previous page, may be null
      * @return list of questions
      */
     List<BaseQuestion> getByPagination(
@@ -106,9 +140,19 @@ public interface BaseQuestionService {
             @Nullable Integer tagId,
             int limit,
             int skip,
+            @Nullable String cursor,
             Boolean isAdmin
     );
 
+    /**
+     * Creates the cursor pointing to the page after the given one.
+     *
+     * @param questions page of questions
+     * @param limit     max length of the page
+     * @return cursor or null if there are no more questions
+     */
+    String getNextCursor(List<BaseQuestion> questions, int limit);
+
     /**
      * Count the amount of registered questions that contain the search term.
      *
@@ -165,6 +209,16 @@ public interface BaseQuestionService {
      */
     Iterable<BaseQuestion> findAllBySession(Integer sessionId);
 
+    /**
+     * Gets the questions of a session within a range of local ids.
+     *
+     * @param sessionId   id of the session
+     * @param fromLocalId first local id, inclusive
+     * @param toLocalId   last local id, inclusive
+     * @return list of questions
+     */
+    List<BaseQuestion> findAllBySessionAndLocalIdRange(Integer sessionId, Integer fromLocalId, Integer toLocalId);
+
     /**
      * Gets a question within a session by its local id within the session.
      * @param sessionId id of the session.
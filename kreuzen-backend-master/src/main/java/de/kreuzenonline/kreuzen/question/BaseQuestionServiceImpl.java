@@ -1,24 +1,38 @@
 package de.kreuzenonline.kreuzen.question;
 
+import de.kreuzenonline.kreuzen.cache.CacheConfig;
+import de.kreuzenonline.kreuzen.exceptions.BadRequestException;
 import de.kreuzenonline.kreuzen.exceptions.ConflictException;
 import de.kreuzenonline.kreuzen.exceptions.NotFoundException;
-import de.kreuzenonline.kreuzen.question.origin.QuestionOriginRepo;
+import de.kreuzenonline.kreuzen.question.origin.QuestionOriginService;
+import de.kreuzenonline.kreuzen.question.requests.CreateQuestionRequest;
+import de.kreuzenonline.kreuzen.question.requests.UpdateQuestionRequest;
+import de.kreuzenonline.kreuzen.question.types.QuestionTypeMapperService;
+import de.kreuzenonline.kreuzen.question.types.QuestionTypeService;
+import de.kreuzenonline.kreuzen.utils.PaginationCursor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.ResourceBundle;
+import java.util.function.Consumer;
 
 @Service
 public class BaseQuestionServiceImpl implements BaseQuestionService {
 
     private final BaseQuestionRepo baseQuestionRepo;
-    private final QuestionOriginRepo questionOriginRepo;
+    private final QuestionOriginService questionOriginService;
+    private final QuestionTypeMapperService questionTypeMapperService;
     private final ResourceBundle resourceBundle;
 
-    public BaseQuestionServiceImpl(BaseQuestionRepo baseQuestionRepo, QuestionOriginRepo questionOriginRepo, ResourceBundle resourceBundle) {
+    public BaseQuestionServiceImpl(BaseQuestionRepo baseQuestionRepo, QuestionOriginService questionOriginService, QuestionTypeMapperService questionTypeMapperService, ResourceBundle resourceBundle) {
         this.baseQuestionRepo = baseQuestionRepo;
-        this.questionOriginRepo = questionOriginRepo;
+        this.questionOriginService = questionOriginService;
+        this.questionTypeMapperService = questionTypeMapperService;
         this.resourceBundle = resourceBundle;
     }
 
@@ -33,97 +47,70 @@ public class BaseQuestionServiceImpl implements BaseQuestionService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.QUESTION_COUNTS, allEntries = true)
     public BaseQuestion create(String text, String type, String additionalInformation, Integer points, Integer examId, Integer courseId, Integer creatorId, String origin, Byte[] file) {
-        if (type == null) {
-            throw new ConflictException(resourceBundle.getString("CreateQuestionRequest-type-not-null"));
-        }
-        if (text == null) {
-            throw new ConflictException(resourceBundle.getString("CreateQuestionRequest-text-not-null"));
-        }
-        if (text.length() < 8) {
-            throw new ConflictException(resourceBundle.getString("CreateQuestionRequest-text-too-short"));
-        }
-        if (text.length() > 512) {
-            throw new ConflictException(resourceBundle.getString("CreateQuestionRequest-text-too-long"));
-        }
-        if (additionalInformation != null && additionalInformation.length() > 1024) {
-            throw new ConflictException(resourceBundle.getString("CreateQuestionRequest-additionalInformation-too-long"));
-        }
-        if (points < 0) {
-            throw new ConflictException(resourceBundle.getString("CreateQuestionRequest-points-too-low"));
-        }
-        if (points > 10) {
-            throw new ConflictException(resourceBundle.getString("CreateQuestionRequest-points-too-high"));
-        }
-        if (courseId == null) {
-            throw new ConflictException(resourceBundle.getString("CreateQuestionRequest-courseId-not-null"));
-        }
-        if (origin == null) {
-            throw new ConflictException(resourceBundle.getString("CreateQuestionRequest-origin-not-null"));
-        }
-
-        BaseQuestion baseQuestion = new BaseQuestion();
-        baseQuestion.setText(text);
-        baseQuestion.setType(type);
-        baseQuestion.setAdditionalInformation(additionalInformation);
-        baseQuestion.setPoints(points);
-        baseQuestion.setExamId(examId);
-        baseQuestion.setCourseId(courseId);
-        baseQuestion.setCreatorId(creatorId);
+        validate(text, type, additionalInformation, points, courseId, origin);
+        return insert(text, type, additionalInformation, points, examId, courseId, creatorId, origin);
+    }
 
-        if (!questionOriginRepo.existsByName(origin)) {
-            throw new ConflictException(resourceBundle.getString("question-origin-does-not-exist"));
-        }
-        baseQuestion.setOrigin(origin);
-        baseQuestion.setIsApproved(false);
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.QUESTION_COUNTS, allEntries = true)
+    public BaseQuestion create(CreateQuestionRequest request, Integer creatorId) {
+        validate(request);
+        QuestionTypeService<? extends BaseQuestion, ? extends CreateQuestionRequest, ? extends UpdateQuestionRequest> service = questionTypeMapperService.getServiceByType(request.getType())
+                .orElseThrow(() -> new ConflictException(resourceBundle.getString("question-no-valid-type")));
+
+        // Base question and type question are inserted in the same transaction, so an invalid type question doesn't leave a base question behind.
+        BaseQuestion baseQuestion = insert(request.getText(), request.getType(), request.getAdditionalInformation(), request.getPoints(), request.getExamId(), request.getCourseId(), creatorId, request.getOrigin());
+        return service.genericCreate(request, baseQuestion.getId());
+    }
 
-        return baseQuestionRepo.save(baseQuestion);
+    @Override
+    public void validate(CreateQuestionRequest request) {
+        validate(request.getText(), request.getType(), request.getAdditionalInformation(), request.getPoints(), request.getCourseId(), request.getOrigin());
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.QUESTION_COUNTS, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.TYPED_QUESTIONS, key = "#id")
+    })
     public BaseQuestion update(Integer id, String text, String additionalInformation, Integer points, Integer examId, Integer courseId, String origin, Byte[] file, Integer updaterId) {
         BaseQuestion baseQuestion = this.getById(id);
-        if (text != null) {
-            if (text.length() < 8) {
-                throw new ConflictException(resourceBundle.getString("CreateQuestionRequest-text-too-short"));
-            }
-            if (text.length() > 512) {
-                throw new ConflictException(resourceBundle.getString("CreateQuestionRequest-text-too-long"));
-            }
-            baseQuestion.setText(text);
-        }
-        if (additionalInformation != null) {
-            if (additionalInformation.length() > 1024) {
-                throw new ConflictException(resourceBundle.getString("CreateQuestionRequest-additionalInformation-too-long"));
-            }
-            baseQuestion.setAdditionalInformation(additionalInformation);
-        }
-        if (points != null) {
-            if (points < 0) {
-                throw new ConflictException(resourceBundle.getString("CreateQuestionRequest-points-too-low"));
-            }
-            if (points > 10) {
-                throw new ConflictException(resourceBundle.getString("CreateQuestionRequest-points-too-high"));
-            }
-            baseQuestion.setPoints(points);
-        }
-        if (examId != null) {
-            baseQuestion.setExamId(examId);
-        }
-        if (courseId != null) {
-            baseQuestion.setCourseId(courseId);
-        }
-        if (origin != null) {
-            if (!questionOriginRepo.existsByName(origin)) {
-                throw new ConflictException(resourceBundle.getString("question-origin-does-not-exist"));
-            }
-            baseQuestion.setOrigin(origin);
-        }
+        applyUpdate(baseQuestion, text, additionalInformation, points, examId, courseId, origin);
+        baseQuestion.setUpdaterId(updaterId);
 
         return baseQuestionRepo.save(baseQuestion);
     }
 
     @Override
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.QUESTION_COUNTS, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.TYPED_QUESTIONS, key = "#id")
+    })
+    public BaseQuestion update(Integer id, UpdateQuestionRequest request, Integer updaterId) {
+        BaseQuestion baseQuestion = this.getById(id);
+        QuestionTypeService<? extends BaseQuestion, ? extends CreateQuestionRequest, ? extends UpdateQuestionRequest> service = questionTypeMapperService.getServiceByType(baseQuestion.getType())
+                .orElseThrow(() -> new ConflictException(resourceBundle.getString("question-no-valid-type")));
+
+        applyUpdate(baseQuestion, request.getText(), request.getAdditionalInformation(), request.getPoints(), request.getExamId(), request.getCourseId(), request.getOrigin());
+        baseQuestion.setUpdaterId(updaterId);
+        // If a question gets updated it has to be approved by mods/admins again.
+        baseQuestion.setIsApproved(false);
+        baseQuestionRepo.save(baseQuestion);
+        // The base question may be unchanged, while the answers of the type question changed.
+        baseQuestionRepo.touch(id);
+
+        return service.genericUpdate(request, id);
+    }
+
+    @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.QUESTION_COUNTS, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.TYPED_QUESTIONS, key = "#id")
+    })
     public BaseQuestion approve(Integer id) {
         BaseQuestion baseQuestion = this.getById(id);
         baseQuestion.setIsApproved(true);
@@ -131,6 +118,10 @@ public class BaseQuestionServiceImpl implements BaseQuestionService {
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.QUESTION_COUNTS, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.TYPED_QUESTIONS, key = "#id")
+    })
     public void disapprove(Integer id) {
         BaseQuestion baseQuestion = this.getById(id);
         baseQuestion.setIsApproved(false);
@@ -138,43 +129,65 @@ public class BaseQuestionServiceImpl implements BaseQuestionService {
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.QUESTION_COUNTS, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.TYPED_QUESTIONS, key = "#questionId")
+    })
     public void delete(Integer questionId) {
         baseQuestionRepo.deleteById(questionId);
     }
 
     @Override
-    public Iterable<BaseQuestion> findAllByExam(Integer examId, Boolean isAdmin) {
-        if (isAdmin) {
-            return baseQuestionRepo.findAllByExamId(examId);
-        } else return baseQuestionRepo.findAllByExamIdAndIsApprovedTrue(examId);
+    public void forEachByExam(Integer examId, Boolean isAdmin, Consumer<BaseQuestion> action) {
+        baseQuestionRepo.forEachByExamId(examId, !isAdmin, action);
     }
 
     @Override
-    public Iterable<BaseQuestion> findAllByCourse(Integer courseId, Boolean isAdmin) {
-        if (isAdmin) {
-            return baseQuestionRepo.findAllByCourseId(courseId);
-        } else return baseQuestionRepo.findAllByCourseIdAndIsApprovedTrue(courseId);
+    public void forEachByCourse(Integer courseId, Boolean isAdmin, Consumer<BaseQuestion> action) {
+        baseQuestionRepo.forEachByCourseId(courseId, !isAdmin, action);
     }
 
     @Override
-    public List<BaseQuestion> getByPagination(Boolean onlyApproved, String searchTerm, Integer semesterId, Integer moduleId, Integer courseId, Integer examId, Integer tagId, int limit, int skip, Boolean isAdmin) {
+    @Transactional(readOnly = true)
+    public List<BaseQuestion> getByPagination(Boolean onlyApproved, String searchTerm, Integer semesterId, Integer moduleId, Integer courseId, Integer examId, Integer tagId, int limit, int skip, String cursor, Boolean isAdmin) {
 
         // Add :* to search term for incomplete keyword. Not added when a trailing space exists
         if(searchTerm != null && searchTerm.charAt(searchTerm.length() - 1) != ' ') {
             searchTerm += ":*";
         }
 
+        // The cursor only holds the id of the last question. When searching, its rank is looked up again by the query.
+        Integer cursorId = null;
+        if (cursor != null) {
+            try {
+                cursorId = PaginationCursor.decode(cursor, 1).getInteger(0);
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException(resourceBundle.getString("pagination-cursor-invalid"));
+            }
+        }
+
         if (isAdmin) {
             if (onlyApproved != null) {
-                return baseQuestionRepo.findBySearchTerm(searchTerm, semesterId, moduleId, courseId, examId, tagId, true, limit, skip);
+                return baseQuestionRepo.findBySearchTerm(searchTerm, semesterId, moduleId, courseId, examId, tagId, true, cursorId, limit, skip);
             } else
-                return baseQuestionRepo.findBySearchTerm(searchTerm, semesterId, moduleId, courseId, examId, tagId, null, limit, skip);
+                return baseQuestionRepo.findBySearchTerm(searchTerm, semesterId, moduleId, courseId, examId, tagId, null, cursorId, limit, skip);
         } else {
-            return baseQuestionRepo.findBySearchTerm(searchTerm, semesterId, moduleId, courseId, examId, tagId, true, limit, skip);
+            return baseQuestionRepo.findBySearchTerm(searchTerm, semesterId, moduleId, courseId, examId, tagId, true, cursorId, limit, skip);
+        }
+    }
+
+    @Override
+    public String getNextCursor(List<BaseQuestion> questions, int limit) {
+        if (questions.isEmpty() || questions.size() < limit) {
+            return null;
         }
+        return PaginationCursor.encode(questions.get(questions.size() - 1).getId());
     }
 
     @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.QUESTION_COUNTS,
+            key = "{#isAdmin ? #onlyApproved : true, #searchTerm?.toLowerCase(), #semesterId, #moduleId, #courseId, #examId, #tagId}")
     public long getCount(Boolean onlyApproved, String searchTerm, Integer semesterId, Integer moduleId, Integer courseId, Integer examId, Integer tagId, Boolean isAdmin) {
 
         // Add :* to search term for incomplete keyword. Not added when a trailing space exists
@@ -202,18 +215,26 @@ public class BaseQuestionServiceImpl implements BaseQuestionService {
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.QUESTION_COUNTS, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.TYPED_QUESTIONS, key = "#questionId")
+    })
     public void addQuestionToExam(Integer examId, Integer questionId) {
         baseQuestionRepo.addQuestionToExam(examId, questionId);
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.QUESTION_COUNTS, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.TYPED_QUESTIONS, key = "#questionId")
+    })
     public void removeQuestionFromExam(Integer examId, Integer questionId) {
         baseQuestionRepo.removeQuestionFromExam(examId, questionId);
     }
 
     @Override
     public Iterable<BaseQuestion> getAllUnapproved() {
-        return baseQuestionRepo.findBySearchTerm("", null, null, null, null, null, false, 20, 0);
+        return baseQuestionRepo.findBySearchTerm("", null, null, null, null, null, false, null, 20, 0);
     }
 
     @Override
@@ -231,8 +252,101 @@ public class BaseQuestionServiceImpl implements BaseQuestionService {
         return baseQuestionRepo.findAllBySession(sessionId);
     }
 
+    @Override
+    public List<BaseQuestion> findAllBySessionAndLocalIdRange(Integer sessionId, Integer fromLocalId, Integer toLocalId) {
+        return baseQuestionRepo.findAllBySessionAndLocalIdRange(sessionId, fromLocalId, toLocalId);
+    }
+
     @Override
     public BaseQuestion findBySessionLocalId(Integer sessionId, Integer localId) {
         return baseQuestionRepo.findBySessionAndLocalId(sessionId, localId);
     }
+
+    private void validate(String text, String type, String additionalInformation, Integer points, Integer courseId, String origin) {
+        if (type == null) {
+            throw new ConflictException(resourceBundle.getString("CreateQuestionRequest-type-not-null"));
+        }
+        if (text == null) {
+            throw new ConflictException(resourceBundle.getString("CreateQuestionRequest-text-not-null"));
+        }
+        if (text.length() < 8) {
+            throw new ConflictException(resourceBundle.getString("CreateQuestionRequest-text-too-short"));
+        }
+        if (text.length() > 512) {
+            throw new ConflictException(resourceBundle.getString("CreateQuestionRequest-text-too-long"));
+        }
+        if (additionalInformation != null && additionalInformation.length() > 1024) {
+            throw new ConflictException(resourceBundle.getString("CreateQuestionRequest-additionalInformation-too-long"));
+        }
+        if (points < 0) {
+            throw new ConflictException(resourceBundle.getString("CreateQuestionRequest-points-too-low"));
+        }
+        if (points > 10) {
+            throw new ConflictException(resourceBundle.getString("CreateQuestionRequest-points-too-high"));
+        }
+        if (courseId == null) {
+            throw new ConflictException(resourceBundle.getString("CreateQuestionRequest-courseId-not-null"));
+        }
+        if (origin == null) {
+            throw new ConflictException(resourceBundle.getString("CreateQuestionRequest-origin-not-null"));
+        }
+    }
+
+    private BaseQuestion insert(String text, String type, String additionalInformation, Integer points, Integer examId, Integer courseId, Integer creatorId, String origin) {
+        BaseQuestion baseQuestion = new BaseQuestion();
+        baseQuestion.setText(text);
+        baseQuestion.setType(type);
+        baseQuestion.setAdditionalInformation(additionalInformation);
+        baseQuestion.setPoints(points);
+        baseQuestion.setExamId(examId);
+        baseQuestion.setCourseId(courseId);
+        baseQuestion.setCreatorId(creatorId);
+
+        if (!questionOriginService.exists(origin)) {
+            throw new ConflictException(resourceBundle.getString("question-origin-does-not-exist"));
+        }
+        baseQuestion.setOrigin(origin);
+        baseQuestion.setIsApproved(false);
+
+        return baseQuestionRepo.save(baseQuestion);
+    }
+
+    private void applyUpdate(BaseQuestion baseQuestion, String text, String additionalInformation, Integer points, Integer examId, Integer courseId, String origin) {
+        if (text != null) {
+            if (text.length() < 8) {
+                throw new ConflictException(resourceBundle.getString("CreateQuestionRequest-text-too-short"));
+            }
+            if (text.length() > 512) {
+                throw new ConflictException(resourceBundle.getString("CreateQuestionRequest-text-too-long"));
+            }
+            baseQuestion.setText(text);
+        }
+        if (additionalInformation != null) {
+            if (additionalInformation.length() > 1024) {
+                throw new ConflictException(resourceBundle.getString("CreateQuestionRequest-additionalInformation-too-long"));
+            }
+            baseQuestion.setAdditionalInformation(additionalInformation);
+        }
+        if (points != null) {
+            if (points < 0) {
+                throw new ConflictException(resourceBundle.getString("CreateQuestionRequest-points-too-low"));
+            }
+            if (points > 10) {
+                throw new ConflictException(resourceBundle.getString("CreateQuestionRequest-points-too-high"));
+            }
+            baseQuestion.setPoints(points);
+        }
+        if (examId != null) {
+            baseQuestion.setExamId(examId);
+        }
+        if (courseId != null) {
+            baseQuestion.setCourseId(courseId);
+        }
+        if (origin != null) {
+            if (!questionOriginService.exists(origin)) {
+                throw new ConflictException(resourceBundle.getString("question-origin-does-not-exist"));
+            }
+            baseQuestion.setOrigin(origin);
+        }
+    }
 }
@@ -0,0 +1,23 @@
+package de.kreuzenonline.kreuzen.question;
+
+import java.util.function.Consumer;
+
+/**
+ * Queries whose rows are passed on page by page while they are read, which can not be expressed as a query method.
+ */
+public interface BaseQuestionStreamRepo {
+
+    /**
+     * @param courseId     id of the course
+     * @param onlyApproved whether unapproved questions are left out
+     * @param action       is called for every question, in the order of the id
+     */
+    void forEachByCourseId(Integer courseId, boolean onlyApproved, Consumer<BaseQuestion> action);
+
+    /**
+     * @param examId       id of the exam
+     * @param onlyApproved whether unapproved questions are left out
+     * @param action       is called for every question, in the order of the id
+     */
+    void forEachByExamId(Integer examId, boolean onlyApproved, Consumer<BaseQuestion> action);
+}
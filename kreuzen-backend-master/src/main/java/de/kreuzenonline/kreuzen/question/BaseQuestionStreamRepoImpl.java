@@ -0,0 +1,33 @@
+package de.kreuzenonline.kreuzen.question;
+
+import de.kreuzenonline.kreuzen.streaming.KeysetQueries;
+import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.Map;
+import java.util.function.Consumer;
+
+public class BaseQuestionStreamRepoImpl implements BaseQuestionStreamRepo {
+
+    private static final RowMapper<BaseQuestion> ROW_MAPPER = BeanPropertyRowMapper.newInstance(BaseQuestion.class);
+
+    private final KeysetQueries keysetQueries;
+
+    public BaseQuestionStreamRepoImpl(KeysetQueries keysetQueries) {
+        this.keysetQueries = keysetQueries;
+    }
+
+    @Override
+    public void forEachByCourseId(Integer courseId, boolean onlyApproved, Consumer<BaseQuestion> action) {
+        keysetQueries.forEach("SELECT * FROM question_base WHERE course_id = :courseId AND (NOT :onlyApproved OR is_approved) " +
+                        "AND id > :after ORDER BY id LIMIT :limit",
+                Map.of("courseId", courseId, "onlyApproved", onlyApproved), ROW_MAPPER, BaseQuestion::getId, action);
+    }
+
+    @Override
+    public void forEachByExamId(Integer examId, boolean onlyApproved, Consumer<BaseQuestion> action) {
+        keysetQueries.forEach("SELECT * FROM question_base WHERE exam_id = :examId AND (NOT :onlyApproved OR is_approved) " +
+                        "AND id > :after ORDER BY id LIMIT :limit",
+                Map.of("examId", examId, "onlyApproved", onlyApproved), ROW_MAPPER, BaseQuestion::getId, action);
+    }
+}
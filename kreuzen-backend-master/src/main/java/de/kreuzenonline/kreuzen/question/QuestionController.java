@@ -1,30 +1,36 @@
 package de.kreuzenonline.kreuzen.question;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import de.kreuzenonline.kreuzen.auth.CustomUserDetails;
-import de.kreuzenonline.kreuzen.exceptions.ConflictException;
+import de.kreuzenonline.kreuzen.cache.ConditionalGet;
+import de.kreuzenonline.kreuzen.cache.HttpCachePolicy;
+import de.kreuzenonline.kreuzen.exceptions.BadRequestException;
 import de.kreuzenonline.kreuzen.exceptions.ForbiddenException;
 import de.kreuzenonline.kreuzen.exceptions.NotFoundException;
+import de.kreuzenonline.kreuzen.question.attachment.AttachmentService;
+import de.kreuzenonline.kreuzen.question.attachment.responses.AttachmentResponse;
+import de.kreuzenonline.kreuzen.question.importing.QuestionImportFormat;
+import de.kreuzenonline.kreuzen.question.importing.QuestionImportService;
+import de.kreuzenonline.kreuzen.question.importing.responses.QuestionImportResponse;
 import de.kreuzenonline.kreuzen.question.requests.CreateQuestionRequest;
 import de.kreuzenonline.kreuzen.question.requests.UpdateQuestionRequest;
 import de.kreuzenonline.kreuzen.question.responses.BaseQuestionResponse;
 import de.kreuzenonline.kreuzen.question.types.QuestionTypeMapperService;
 import de.kreuzenonline.kreuzen.role.Roles;
 import de.kreuzenonline.kreuzen.session.SessionService;
+import de.kreuzenonline.kreuzen.streaming.JsonArrayStream;
 import de.kreuzenonline.kreuzen.utils.PaginationResponse;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.web.bind.annotation.*;
 
 import javax.servlet.http.HttpServletRequest;
-import javax.validation.Valid;
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.ResourceBundle;
@@ -34,23 +40,31 @@ import java.util.stream.Collectors;
 @Api(tags = "Question")
 public class QuestionController {
 
+    private static final MediaType TEXT_CSV = MediaType.valueOf("text/csv");
+    private static final MediaType APPLICATION_NDJSON = MediaType.valueOf("application/x-ndjson");
+
     private final BaseQuestionService baseQuestionService;
     private final QuestionTypeMapperService questionTypeMapperService;
     private final SessionService sessionService;
     private final BaseQuestionRepo baseQuestionRepo;
+    private final QuestionImportService questionImportService;
+    private final AttachmentService attachmentService;
     private final ObjectMapper mapper;
     private final ResourceBundle resourceBundle;
 
-    public QuestionController(BaseQuestionServiceImpl baseQuestionService, QuestionTypeMapperService questionTypeMapperService, SessionService sessionService, BaseQuestionRepo baseQuestionRepo, ObjectMapper mapper, ResourceBundle resourceBundle) {
+    public QuestionController(BaseQuestionServiceImpl baseQuestionService, QuestionTypeMapperService questionTypeMapperService, SessionService sessionService, BaseQuestionRepo baseQuestionRepo, QuestionImportService questionImportService, AttachmentService attachmentService, ObjectMapper mapper, ResourceBundle resourceBundle) {
         this.baseQuestionService = baseQuestionService;
         this.questionTypeMapperService = questionTypeMapperService;
         this.sessionService = sessionService;
         this.baseQuestionRepo = baseQuestionRepo;
+        this.questionImportService = questionImportService;
+        this.attachmentService = attachmentService;
         this.mapper = mapper;
         this.resourceBundle = resourceBundle;
     }
 
     @GetMapping("/question/{id}")
+    @ConditionalGet(HttpCachePolicy.QUESTION)
     @ApiOperation(value = "Get a question",
             notes = "Gets a specific question by its id.")
     public BaseQuestionResponse getQuestion(@PathVariable Integer id, @AuthenticationPrincipal CustomUserDetails userDetails) {
@@ -62,10 +76,10 @@ public class QuestionController {
         // Get base question
         BaseQuestion baseQuestion = baseQuestionRepo.findById(id).orElseThrow(() -> new NotFoundException(resourceBundle.getString("question-not-found")));
         // Get question from typeService
-        return questionTypeMapperService.getServiceByType(baseQuestion.getType())
+        return withAttachments(questionTypeMapperService.getServiceByType(baseQuestion.getType())
                 .map(service -> service.getByQuestionId(id))
                 .map(BaseQuestion::toResponse)
-                .orElse(new BaseQuestionResponse(baseQuestion));
+                .orElse(new BaseQuestionResponse(baseQuestion)));
     }
 
     @DeleteMapping("/question/{id}")
@@ -104,28 +118,47 @@ public class QuestionController {
             throw new ForbiddenException(resourceBundle.getString("unauthorized"));
         }
 
-        String body = new BufferedReader(
-                new InputStreamReader(httpRequest.getInputStream(), StandardCharsets.UTF_8)
-        ).lines().collect(Collectors.joining("\n"));
+        // The body is parsed once and mapped onto the create request of the respective question type.
+        JsonNode body = mapper.readTree(httpRequest.getInputStream());
+        CreateQuestionRequest request = questionTypeMapperService.readCreateRequest(mapper, body);
+
+        // A new question doesn't have attachments yet, they are uploaded afterwards.
+        BaseQuestionResponse response = baseQuestionService.create(request, userDetails.getId()).toResponse();
+        response.setAttachments(new ArrayList<>());
+        return response;
+    }
+
+    @PostMapping("/question/import")
+    @ApiOperation(value = "Import questions.",
+            notes = "Inserts many questions at once. The body is read as a stream with one question per line, either as NDJSON (application/x-ndjson) " +
+                    "or as CSV (text/csv) with a header line and array values separated by \"|\". Quoted CSV values may contain line breaks. " +
+                    "Invalid questions are skipped and reported with their line, the list of errors is cut off after the first 100.")
+    public QuestionImportResponse importQuestions(HttpServletRequest httpRequest, @AuthenticationPrincipal CustomUserDetails userDetails) throws IOException {
 
-        @Valid CreateQuestionRequest request = mapper.readValue(body, CreateQuestionRequest.class);
+        if (userDetails == null) {
+            throw new ForbiddenException(resourceBundle.getString("unauthorized"));
+        }
 
-        BaseQuestion baseQuestion = baseQuestionService.create(request.getText(), request.getType(), request.getAdditionalInformation(), request.getPoints(), request.getExamId(), request.getCourseId(), userDetails.getId(), request.getOrigin(), request.getFile());
+        boolean isAdmin = userDetails.getAuthorities().contains(new SimpleGrantedAuthority(Roles.MODERATOR.getId()))
+                || userDetails.getAuthorities().contains(new SimpleGrantedAuthority(Roles.ADMIN.getId()))
+                || userDetails.getAuthorities().contains(new SimpleGrantedAuthority(Roles.SUDO.getId()));
 
-        /*
-          In the first step the base question will be created before checking the requirements of the respective type question.
-          After that the type question will be created. If an error occurs while creating the type question, the base question will be deleted in order to keep data consistent.
-         */
+        // Only admins/mods are allowed to import questions.
+        if (!isAdmin) {
+            throw new ForbiddenException(resourceBundle.getString("import-questions-forbidden"));
+        }
 
-        try {
-            return questionTypeMapperService.getServiceByType(request.getType())
-                    .map(service -> service.genericCreate(mapper, body, baseQuestion.getId()))
-                    .map(BaseQuestion::toResponse)
-                    .orElseThrow(() -> new ConflictException(resourceBundle.getString("question-no-valid-type")));
-        } catch (Throwable e) {
-            baseQuestionService.delete(baseQuestion.getId());
-            throw e;
+        QuestionImportFormat format;
+        MediaType contentType = httpRequest.getContentType() == null ? null : MediaType.parseMediaType(httpRequest.getContentType());
+        if (contentType != null && contentType.isCompatibleWith(TEXT_CSV)) {
+            format = QuestionImportFormat.CSV;
+        } else if (contentType != null && contentType.isCompatibleWith(APPLICATION_NDJSON)) {
+            format = QuestionImportFormat.NDJSON;
+        } else {
+            throw new BadRequestException(resourceBundle.getString("question-import-format-unsupported"));
         }
+
+        return new QuestionImportResponse(questionImportService.importQuestions(httpRequest.getInputStream(), format, userDetails.getId()));
     }
 
     @PatchMapping("/question/{id}/approve")
@@ -172,27 +205,17 @@ public class QuestionController {
             throw new ForbiddenException(resourceBundle.getString("update-question-forbidden"));
         }
 
-        String body = new BufferedReader(new InputStreamReader(httpRequest.getInputStream(), StandardCharsets.UTF_8))
-                .lines().collect(Collectors.joining("\n"));
-
-        UpdateQuestionRequest request = mapper.readValue(body, UpdateQuestionRequest.class);
-
-        BaseQuestion baseQuestion = baseQuestionService.update(id, request.getText(), request.getAdditionalInformation(), request.getPoints(), request.getExamId(), request.getCourseId(), request.getOrigin(), request.getFile(), userDetails.getId());
-
-        // If a question gets updated it has to be approved by mods/admins again.
-        baseQuestionService.disapprove(id);
+        JsonNode body = mapper.readTree(httpRequest.getInputStream());
+        UpdateQuestionRequest request = questionTypeMapperService.readUpdateRequest(mapper, toBeUpdated.getType(), body);
 
-        return questionTypeMapperService.getServiceByType(baseQuestion.getType())
-                .map(service -> service.genericUpdate(mapper, body, id))
-                .map(BaseQuestion::toResponse)
-                .orElseThrow(() -> new RuntimeException(resourceBundle.getString("question-no-valid-type")));
+        return withAttachments(baseQuestionService.update(id, request, userDetails.getId()).toResponse());
     }
 
     @GetMapping("/course/{courseId}/question")
     @ApiOperation(value = "Get questions by course.",
             notes = "Shows all questions that are linked to a specific course.")
-    private List<BaseQuestionResponse> getQuestionByCourse(@PathVariable Integer courseId,
-                                                           @AuthenticationPrincipal CustomUserDetails userDetails) {
+    private JsonArrayStream<BaseQuestionResponse> getQuestionByCourse(@PathVariable Integer courseId,
+                                                                      @AuthenticationPrincipal CustomUserDetails userDetails) {
         if (userDetails == null) {
             throw new ForbiddenException(resourceBundle.getString("unauthorized"));
         }
@@ -201,20 +224,16 @@ public class QuestionController {
                 || userDetails.getAuthorities().contains(new SimpleGrantedAuthority(Roles.ADMIN.getId()))
                 || userDetails.getAuthorities().contains(new SimpleGrantedAuthority(Roles.SUDO.getId()));
 
-        Iterable<BaseQuestion> questions = baseQuestionService.findAllByCourse(courseId, isAdmin);
-        List<BaseQuestionResponse> response = new ArrayList<>();
-        for (BaseQuestion base : questions) {
-            response.add(new BaseQuestionResponse(base));
-        }
-
-        return response;
+        // The questions are written into the response while they are read, a course may contain thousands of them.
+        return JsonArrayStream.of(action -> baseQuestionService.forEachByCourse(courseId, isAdmin,
+                base -> action.accept(new BaseQuestionResponse(base))));
     }
 
     @GetMapping("/exam/{examId}/question")
     @ApiOperation(value = "Get questions by exam.",
             notes = "Shows all questions that are included in a specific exam.")
-    private List<BaseQuestionResponse> getQuestionsByExam(@PathVariable Integer examId,
-                                                          @AuthenticationPrincipal CustomUserDetails userDetails) {
+    private JsonArrayStream<BaseQuestionResponse> getQuestionsByExam(@PathVariable Integer examId,
+                                                                     @AuthenticationPrincipal CustomUserDetails userDetails) {
         if (userDetails == null) {
             throw new ForbiddenException(resourceBundle.getString("unauthorized"));
         }
@@ -223,16 +242,13 @@ public class QuestionController {
                 || userDetails.getAuthorities().contains(new SimpleGrantedAuthority(Roles.ADMIN.getId()))
                 || userDetails.getAuthorities().contains(new SimpleGrantedAuthority(Roles.SUDO.getId()));
 
-        Iterable<BaseQuestion> questions = baseQuestionService.findAllByExam(examId, isAdmin);
-        List<BaseQuestionResponse> response = new ArrayList<>();
-        for (BaseQuestion base : questions) {
-            response.add(new BaseQuestionResponse(base));
-        }
-        return response;
+        return JsonArrayStream.of(action -> baseQuestionService.forEachByExam(examId, isAdmin,
+                base -> action.accept(new BaseQuestionResponse(base))));
     }
 
     @GetMapping("/question")
-    @ApiOperation(value = "Get a list of questions.")
+    @ApiOperation(value = "Get a list of questions.",
+            notes = "Pass the nextCursor of a response as cursor to get the following page, skip is ignored then.")
     public PaginationResponse<BaseQuestionResponse> getQuestion(
             @AuthenticationPrincipal CustomUserDetails userDetails,
             @RequestParam(defaultValue = "20") int limit,
@@ -243,7 +259,8 @@ public class QuestionController {
             @RequestParam(required = false) Integer courseId,
             @RequestParam(required = false) Integer moduleId,
             @RequestParam(required = false) Integer examId,
-            @RequestParam(required = false) Integer tagId) {
+            @RequestParam(required = false) Integer tagId,
+            @RequestParam(required = false) String cursor) {
         if (userDetails == null) {
             throw new ForbiddenException(resourceBundle.getString("unauthorized"));
         }
@@ -252,12 +269,13 @@ public class QuestionController {
                 || userDetails.getAuthorities().contains(new SimpleGrantedAuthority(Roles.ADMIN.getId()))
                 || userDetails.getAuthorities().contains(new SimpleGrantedAuthority(Roles.SUDO.getId()));
 
-        List<BaseQuestion> questions = baseQuestionService.getByPagination(onlyApproved, searchTerm, semesterId, moduleId, courseId, examId, tagId, limit, skip, isAdmin);
+        List<BaseQuestion> questions = baseQuestionService.getByPagination(onlyApproved, searchTerm, semesterId, moduleId, courseId, examId, tagId, limit, skip, cursor, isAdmin);
         long count = baseQuestionService.getCount(onlyApproved, searchTerm, semesterId, moduleId, courseId, examId, tagId, isAdmin);
 
         return new PaginationResponse<>(
                 count,
-                questions.stream().map(BaseQuestionResponse::new).collect(Collectors.toList())
+                questions.stream().map(BaseQuestionResponse::new).collect(Collectors.toList()),
+                baseQuestionService.getNextCursor(questions, limit)
         );
     }
 
@@ -346,9 +364,19 @@ public class QuestionController {
         // Get base question
         BaseQuestion baseQuestion = baseQuestionService.findBySessionLocalId(sessionId, localId);
         // Get question from typeService
-        return questionTypeMapperService.getServiceByType(baseQuestion.getType())
+        return withAttachments(questionTypeMapperService.getServiceByType(baseQuestion.getType())
                 .map(service -> service.getByQuestionId(baseQuestion.getId()))
                 .map(BaseQuestion::toResponse)
-                .orElse(new BaseQuestionResponse(baseQuestion));
+                .orElse(new BaseQuestionResponse(baseQuestion)));
+    }
+
+    /**
+     * Adds references to the attachments of the question, their content is downloaded separately.
+     */
+    private BaseQuestionResponse withAttachments(BaseQuestionResponse response) {
+        response.setAttachments(attachmentService.getByQuestionId(response.getId()).stream()
+                .map(attachment -> new AttachmentResponse(response.getId(), attachment))
+                .collect(Collectors.toList()));
+        return response;
     }
 }
@@ -0,0 +1,25 @@
+package de.kreuzenonline.kreuzen.question.attachment;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * Metadata of a file that is attached to questions. The content itself is kept in the {@link AttachmentStore}.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table("file")
+public class Attachment {
+
+    @Id
+    private Integer id;
+    private String mediaType;
+    private String filename;
+    private String sha256;
+    private Long size;
+    private String description;
+}
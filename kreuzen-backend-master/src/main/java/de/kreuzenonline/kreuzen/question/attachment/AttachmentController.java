@@ -0,0 +1,204 @@
+package de.kreuzenonline.kreuzen.question.attachment;
+
+import de.kreuzenonline.kreuzen.auth.CustomUserDetails;
+import de.kreuzenonline.kreuzen.exceptions.ForbiddenException;
+import de.kreuzenonline.kreuzen.question.BaseQuestion;
+import de.kreuzenonline.kreuzen.question.BaseQuestionService;
+import de.kreuzenonline.kreuzen.question.attachment.responses.AttachmentResponse;
+import de.kreuzenonline.kreuzen.role.Roles;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.ResourceBundle;
+import java.util.stream.Collectors;
+
+@RestController
+@Api(tags = "Question")
+public class AttachmentController {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final AttachmentService attachmentService;
+    private final BaseQuestionService baseQuestionService;
+    private final ResourceBundle resourceBundle;
+
+    public AttachmentController(AttachmentService attachmentService, BaseQuestionService baseQuestionService, ResourceBundle resourceBundle) {
+        this.attachmentService = attachmentService;
+        this.baseQuestionService = baseQuestionService;
+        this.resourceBundle = resourceBundle;
+    }
+
+    @PostMapping("/question/{questionId}/attachment")
+    @ApiOperation(value = "Attach a file to a question.",
+            notes = "The body is the raw content of the file and is read as a stream, its media type is taken from the Content-Type header.")
+    public AttachmentResponse createAttachment(HttpServletRequest httpRequest, @PathVariable Integer questionId,
+                                               @RequestParam String filename,
+                                               @RequestParam(required = false) String description,
+                                               @AuthenticationPrincipal CustomUserDetails userDetails) throws IOException {
+        if (userDetails == null) {
+            throw new ForbiddenException(resourceBundle.getString("unauthorized"));
+        }
+
+        // Only admins/mods and the initial creator of the question are allowed to attach files.
+        if (!isCreatorOrAdmin(baseQuestionService.getById(questionId), userDetails)) {
+            throw new ForbiddenException(resourceBundle.getString("upload-attachment-forbidden"));
+        }
+
+        Attachment attachment = attachmentService.create(questionId, httpRequest.getInputStream(), mediaType(httpRequest), filename, description);
+        return new AttachmentResponse(questionId, attachment);
+    }
+
+    @GetMapping("/question/{questionId}/attachment")
+    @ApiOperation(value = "Get the attachments of a question.",
+            notes = "Only the metadata is returned, the content can be downloaded from the url of an attachment.")
+    public List<AttachmentResponse> getAttachments(@PathVariable Integer questionId, @AuthenticationPrincipal CustomUserDetails userDetails) {
+        if (userDetails == null) {
+            throw new ForbiddenException(resourceBundle.getString("unauthorized"));
+        }
+
+        return attachmentService.getByQuestionId(questionId).stream()
+                .map(attachment -> new AttachmentResponse(questionId, attachment))
+                .collect(Collectors.toList());
+    }
+
+    @GetMapping("/question/{questionId}/attachment/{id}")
+    @ApiOperation(value = "Download an attachment.",
+            notes = "Supports single byte ranges (Range, If-Range) and revalidation with the ETag (If-None-Match).")
+    public void downloadAttachment(HttpServletRequest request, HttpServletResponse response,
+                                   @PathVariable Integer questionId, @PathVariable Integer id,
+                                   @AuthenticationPrincipal CustomUserDetails userDetails) throws IOException {
+        if (userDetails == null) {
+            throw new ForbiddenException(resourceBundle.getString("unauthorized"));
+        }
+
+        Attachment attachment = attachmentService.getById(questionId, id);
+        // The content of an attachment never changes, so its hash is a strong validator.
+        String etag = "\"" + attachment.getSha256() + "\"";
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+            return;
+        }
+
+        long length = attachment.getSize();
+        long start = 0;
+        long end = length;
+
+        HttpRange range = requestedRange(request, etag);
+        if (range != null) {
+            if (range.getRangeStart(length) >= length) {
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                return;
+            }
+            start = range.getRangeStart(length);
+            end = range.getRangeEnd(length) + 1;
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (end - 1) + "/" + length);
+        }
+
+        response.setContentType(attachment.getMediaType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.inline().filename(attachment.getFilename(), StandardCharsets.UTF_8).build().toString());
+        response.setContentLengthLong(end - start);
+
+        Path content = attachmentService.getContent(attachment);
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Tomcat sends the file on its own once the request is handled, without copying it through the heap.
+            request.setAttribute(SENDFILE_FILENAME, content.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(content, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position < end) {
+                position += channel.transferTo(position, end - position, out);
+            }
+        }
+    }
+
+    @DeleteMapping("/question/{questionId}/attachment/{id}")
+    @ApiOperation(value = "Remove an attachment from a question.",
+            notes = "The content is deleted once no attachment refers to it anymore.")
+    public ResponseEntity<Void> deleteAttachment(@PathVariable Integer questionId, @PathVariable Integer id,
+                                                 @AuthenticationPrincipal CustomUserDetails userDetails) {
+        if (userDetails == null) {
+            throw new ForbiddenException(resourceBundle.getString("unauthorized"));
+        }
+
+        // Only admins/mods and the initial creator of the question are allowed to remove attachments.
+        if (!isCreatorOrAdmin(baseQuestionService.getById(questionId), userDetails)) {
+            throw new ForbiddenException(resourceBundle.getString("delete-attachment-forbidden"));
+        }
+
+        attachmentService.delete(questionId, id);
+        return ResponseEntity.noContent().build();
+    }
+
+    private static boolean isCreatorOrAdmin(BaseQuestion question, CustomUserDetails userDetails) {
+        boolean isCreator = userDetails.getId().equals(question.getCreatorId());
+        boolean isAdmin = userDetails.getAuthorities().contains(new SimpleGrantedAuthority(Roles.MODERATOR.getId()))
+                || userDetails.getAuthorities().contains(new SimpleGrantedAuthority(Roles.ADMIN.getId()))
+                || userDetails.getAuthorities().contains(new SimpleGrantedAuthority(Roles.SUDO.getId()));
+        return isCreator || isAdmin;
+    }
+
+    /**
+     * @return media type of the request without parameters, or null if there is none.
+     */
+    private static String mediaType(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        if (contentType == null) {
+            return null;
+        }
+        int parameters = contentType.indexOf(';');
+        return (parameters < 0 ? contentType : contentType.substring(0, parameters)).strip().toLowerCase();
+    }
+
+    /**
+     * Gets the requested range, if the whole content doesn't have to be sent.
+     * Invalid ranges, multiple ranges and ranges of an outdated version (If-Range) are answered with the whole content.
+     */
+    private static HttpRange requestedRange(HttpServletRequest request, String etag) {
+        String header = request.getHeader(HttpHeaders.RANGE);
+        if (header == null) {
+            return null;
+        }
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.equals(etag)) {
+            return null;
+        }
+        List<HttpRange> ranges;
+        try {
+            ranges = HttpRange.parseRanges(header);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        return ranges.size() == 1 ? ranges.get(0) : null;
+    }
+}
@@ -0,0 +1,44 @@
+package de.kreuzenonline.kreuzen.question.attachment;
+
+import org.springframework.data.jdbc.repository.query.Modifying;
+import org.springframework.data.jdbc.repository.query.Query;
+import org.springframework.data.repository.CrudRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface AttachmentRepo extends CrudRepository<Attachment, Integer> {
+
+    @Query("SELECT f.* FROM file f JOIN question_has_file q ON q.file_id = f.id WHERE q.question_id = :questionId ORDER BY f.id")
+    List<Attachment> findAllByQuestionId(Integer questionId);
+
+    @Query("SELECT q.question_id, f.* FROM file f JOIN question_has_file q ON q.file_id = f.id " +
+            "WHERE q.question_id = ANY(:questionIds) ORDER BY q.question_id, f.id")
+    List<QuestionAttachment> findAllByQuestionIds(Integer[] questionIds);
+
+    @Query("SELECT f.* FROM file f JOIN question_has_file q ON q.file_id = f.id WHERE q.question_id = :questionId AND f.id = :id")
+    Optional<Attachment> findByQuestionIdAndId(Integer questionId, Integer id);
+
+    /**
+     * Inserts the metadata of a file and attaches it to a question in one statement.
+     */
+    @Query("WITH f AS (" +
+            " INSERT INTO file(media_type, filename, sha256, size, description) VALUES (:mediaType, :filename, :sha256, :size, :description) RETURNING *" +
+            "), q AS (" +
+            " INSERT INTO question_has_file(question_id, file_id) SELECT :questionId, f.id FROM f" +
+            ") SELECT * FROM f")
+    Attachment insert(Integer questionId, String mediaType, String filename, String sha256, Long size, String description);
+
+    /**
+     * Deletes files that aren't attached to any question anymore, e.g. because the question was deleted.
+     *
+     * @param minAgeSeconds younger files are kept.
+     */
+    @Modifying
+    @Query("DELETE FROM file f WHERE f.created_at < (NOW() AT TIME ZONE 'utc') - make_interval(secs => :minAgeSeconds) " +
+            "AND NOT EXISTS(SELECT 1 FROM question_has_file q WHERE q.file_id = f.id)")
+    void deleteAllUnattached(long minAgeSeconds);
+
+    @Query("SELECT DISTINCT sha256 FROM file")
+    List<String> findAllHashes();
+}
@@ -0,0 +1,63 @@
+package de.kreuzenonline.kreuzen.question.attachment;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface AttachmentService {
+
+    /**
+     * Gets the attachments of a question.
+     *
+     * @param questionId id of the question.
+     * @return attachments, ordered by their id.
+     */
+    List<Attachment> getByQuestionId(Integer questionId);
+
+    /**
+     * Gets the attachments of many questions with one query.
+     *
+     * @param questionIds ids of the questions.
+     * @return attachments by the id of their question, questions without attachments are missing.
+     */
+    Map<Integer, List<Attachment>> getByQuestionIds(Collection<Integer> questionIds);
+
+    /**
+     * Gets an attachment of a question.
+     *
+     * @param questionId id of the question.
+     * @param id         id of the attachment.
+     * @return attachment.
+     */
+    Attachment getById(Integer questionId, Integer id);
+
+    /**
+     * Stores the content of a new attachment and attaches it to a question.
+     * The content is read as a stream, so it is never held in memory as a whole.
+     *
+     * @param questionId  id of the question.
+     * @param content     content of the attachment.
+     * @param mediaType   media type of the content, e.g. image/png.
+     * @param filename    name of the file, used when the attachment is downloaded.
+     * @param description optional description of the attachment.
+     * @return the created attachment.
+     */
+    Attachment create(Integer questionId, InputStream content, String mediaType, String filename, String description) throws IOException;
+
+    /**
+     * Removes an attachment from a question. The content is deleted by the next cleanup.
+     *
+     * @param questionId id of the question.
+     * @param id         id of the attachment.
+     */
+    void delete(Integer questionId, Integer id);
+
+    /**
+     * @param attachment attachment.
+     * @return path of the file with the content of the attachment.
+     */
+    Path getContent(Attachment attachment);
+}
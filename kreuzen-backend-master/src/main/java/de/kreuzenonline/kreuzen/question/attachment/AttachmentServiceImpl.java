@@ -0,0 +1,109 @@
+package de.kreuzenonline.kreuzen.question.attachment;
+
+import de.kreuzenonline.kreuzen.exceptions.BadRequestException;
+import de.kreuzenonline.kreuzen.exceptions.NotFoundException;
+import de.kreuzenonline.kreuzen.question.BaseQuestionRepo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+@Service
+public class AttachmentServiceImpl implements AttachmentService {
+
+    private static final int MAX_FILENAME_LENGTH = 255;
+
+    private final AttachmentRepo attachmentRepo;
+    private final AttachmentStore attachmentStore;
+    private final BaseQuestionRepo baseQuestionRepo;
+    private final ResourceBundle resourceBundle;
+    private final long maxSize;
+    private final Set<String> mediaTypes;
+    private final Duration cleanupMinAge;
+
+    public AttachmentServiceImpl(AttachmentRepo attachmentRepo, AttachmentStore attachmentStore, BaseQuestionRepo baseQuestionRepo, ResourceBundle resourceBundle,
+                                 @Value("${app.attachment.max-size:10MB}") DataSize maxSize,
+                                 @Value("${app.attachment.media-types:image/png,image/jpeg,image/gif,image/webp,application/pdf}") Set<String> mediaTypes,
+                                 @Value("${app.attachment.cleanup-min-age:1h}") Duration cleanupMinAge) {
+        this.attachmentRepo = attachmentRepo;
+        this.attachmentStore = attachmentStore;
+        this.baseQuestionRepo = baseQuestionRepo;
+        this.resourceBundle = resourceBundle;
+        this.maxSize = maxSize.toBytes();
+        this.mediaTypes = mediaTypes;
+        this.cleanupMinAge = cleanupMinAge;
+    }
+
+    @Override
+    public List<Attachment> getByQuestionId(Integer questionId) {
+        return attachmentRepo.findAllByQuestionId(questionId);
+    }
+
+    @Override
+    public Map<Integer, List<Attachment>> getByQuestionIds(Collection<Integer> questionIds) {
+        Map<Integer, List<Attachment>> attachments = new HashMap<>();
+        if (questionIds.isEmpty()) {
+            return attachments;
+        }
+        for (QuestionAttachment attachment : attachmentRepo.findAllByQuestionIds(questionIds.toArray(Integer[]::new))) {
+            attachments.computeIfAbsent(attachment.getQuestionId(), k -> new ArrayList<>()).add(attachment.toAttachment());
+        }
+        return attachments;
+    }
+
+    @Override
+    public Attachment getById(Integer questionId, Integer id) {
+        return attachmentRepo.findByQuestionIdAndId(questionId, id)
+                .orElseThrow(() -> new NotFoundException(resourceBundle.getString("attachment-not-found")));
+    }
+
+    @Override
+    public Attachment create(Integer questionId, InputStream content, String mediaType, String filename, String description) throws IOException {
+
+        if (mediaType == null || !mediaTypes.contains(mediaType)) {
+            throw new BadRequestException(resourceBundle.getString("attachment-media-type-not-allowed"));
+        }
+        if (filename == null || filename.isBlank() || filename.length() > MAX_FILENAME_LENGTH) {
+            throw new BadRequestException(resourceBundle.getString("attachment-filename-invalid"));
+        }
+
+        AttachmentStore.StoredContent stored = attachmentStore.store(content, maxSize);
+        if (stored.getSize() == 0) {
+            throw new BadRequestException(resourceBundle.getString("attachment-empty"));
+        }
+
+        Attachment attachment = attachmentRepo.insert(questionId, mediaType, filename.strip(), stored.getSha256(), stored.getSize(), description);
+        // The attachments are part of the question responses.
+        baseQuestionRepo.touch(questionId);
+        return attachment;
+    }
+
+    @Override
+    public void delete(Integer questionId, Integer id) {
+        attachmentRepo.deleteById(getById(questionId, id).getId());
+        baseQuestionRepo.touch(questionId);
+    }
+
+    @Override
+    public Path getContent(Attachment attachment) {
+        return attachmentStore.resolve(attachment.getSha256());
+    }
+
+    /**
+     * Deletes attachments of deleted questions and content that isn't referenced by any attachment.
+     * Recently stored content is kept, as its attachment may not be inserted yet.
+     */
+    @Scheduled(fixedDelayString = "${app.attachment.cleanup-interval:3600000}")
+    public void cleanup() throws IOException {
+        attachmentRepo.deleteAllUnattached(cleanupMinAge.toSeconds());
+        Set<String> referenced = new HashSet<>(attachmentRepo.findAllHashes());
+        attachmentStore.removeUnreferenced(referenced, Instant.now().minus(cleanupMinAge));
+    }
+}
@@ -0,0 +1,131 @@
+package de.kreuzenonline.kreuzen.question.attachment;
+
+import de.kreuzenonline.kreuzen.exceptions.PayloadTooLargeException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.codec.Hex;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Stores the content of attachments on the local disk, named after the SHA-256 hash of the content.
+ * Equal content is only stored once and a stored file never changes, so it can be sent without further checks.
+ * <p>
+ * Uploads are written to a temporary file while the hash is computed and moved into place afterwards,
+ * so a file under its final name is always complete.
+ */
+@Component
+public class AttachmentStore {
+
+    private static final Pattern SHA256 = Pattern.compile("[0-9a-f]{64}");
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path directory;
+    private final Path tmpDirectory;
+    private final ResourceBundle resourceBundle;
+
+    public AttachmentStore(@Value("${app.attachment.directory:attachments}") Path directory, ResourceBundle resourceBundle) throws IOException {
+        this.directory = directory.toAbsolutePath();
+        this.tmpDirectory = this.directory.resolve("tmp");
+        this.resourceBundle = resourceBundle;
+        Files.createDirectories(tmpDirectory);
+    }
+
+    /**
+     * Reads content until its end and stores it.
+     *
+     * @param content content of the attachment, it isn't closed.
+     * @param maxSize maximum size in bytes, larger content is rejected.
+     * @return hash and size of the content.
+     */
+    public StoredContent store(InputStream content, long maxSize) throws IOException {
+        MessageDigest digest = sha256();
+        Path tmp = Files.createTempFile(tmpDirectory, "upload-", null);
+        try {
+            long size = 0;
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = content.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxSize) {
+                        throw new PayloadTooLargeException(resourceBundle.getString("attachment-too-large"));
+                    }
+                    digest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                }
+            }
+
+            String sha256 = new String(Hex.encode(digest.digest()));
+            Path target = resolve(sha256);
+            if (Files.exists(target)) {
+                // Known content is kept, its age is renewed, so the cleanup doesn't remove it before it is referenced.
+                Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+            } else {
+                Files.createDirectories(target.getParent());
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+            return new StoredContent(sha256, size);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * @param sha256 hash of the content.
+     * @return path of the stored content.
+     */
+    public Path resolve(String sha256) {
+        if (sha256 == null || !SHA256.matcher(sha256).matches()) {
+            throw new IllegalArgumentException("Not a SHA-256 hash: " + sha256);
+        }
+        return directory.resolve(sha256.substring(0, 2)).resolve(sha256);
+    }
+
+    /**
+     * Deletes stored content that isn't referenced anymore, as well as left over temporary files.
+     *
+     * @param referenced     hashes of the content that is still referenced.
+     * @param modifiedBefore files modified later are kept, as they may be referenced right now.
+     */
+    public void removeUnreferenced(Set<String> referenced, Instant modifiedBefore) throws IOException {
+        FileTime threshold = FileTime.from(modifiedBefore);
+        try (Stream<Path> files = Files.walk(directory, 2)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (!Files.isRegularFile(file) || Files.getLastModifiedTime(file).compareTo(threshold) >= 0) {
+                    continue;
+                }
+                boolean isTmp = file.getParent().equals(tmpDirectory);
+                if (isTmp || !referenced.contains(file.getFileName().toString())) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @lombok.Value
+    public static class StoredContent {
+
+        String sha256;
+        long size;
+    }
+}
@@ -0,0 +1,26 @@
+package de.kreuzenonline.kreuzen.question.attachment;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Attachment together with the question it belongs to, used to load the attachments of many questions at once.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class QuestionAttachment {
+
+    private Integer questionId;
+    private Integer id;
+    private String mediaType;
+    private String filename;
+    private String sha256;
+    private Long size;
+    private String description;
+
+    public Attachment toAttachment() {
+        return new Attachment(id, mediaType, filename, sha256, size, description);
+    }
+}
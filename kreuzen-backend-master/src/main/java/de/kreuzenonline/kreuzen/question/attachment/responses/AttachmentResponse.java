@@ -0,0 +1,31 @@
+package de.kreuzenonline.kreuzen.question.attachment.responses;
+
+import de.kreuzenonline.kreuzen.question.attachment.Attachment;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AttachmentResponse {
+
+    private Integer id;
+    private String filename;
+    private String mediaType;
+    private Long size;
+    private String description;
+    /**
+     * Path the content of the attachment can be downloaded from.
+     */
+    private String url;
+
+    public AttachmentResponse(Integer questionId, Attachment attachment) {
+        this.id = attachment.getId();
+        this.filename = attachment.getFilename();
+        this.mediaType = attachment.getMediaType();
+        this.size = attachment.getSize();
+        this.description = attachment.getDescription();
+        this.url = "/question/" + questionId + "/attachment/" + attachment.getId();
+    }
+}
@@ -0,0 +1,14 @@
+package de.kreuzenonline.kreuzen.question.importing;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class QuestionImportError {
+
+    private Integer line;
+    private String msg;
+}
@@ -0,0 +1,18 @@
+package de.kreuzenonline.kreuzen.question.importing;
+
+/**
+ * Formats of question imports. Both contain one question per line.
+ */
+public enum QuestionImportFormat {
+
+    /**
+     * One create request per line, as sent to POST /question.
+     */
+    NDJSON,
+
+    /**
+     * A header line with the field names of the create requests, followed by one question per line.
+     * Values of array fields are separated by "|".
+     */
+    CSV
+}
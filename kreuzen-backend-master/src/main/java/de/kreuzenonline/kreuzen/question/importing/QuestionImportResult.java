@@ -0,0 +1,24 @@
+package de.kreuzenonline.kreuzen.question.importing;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class QuestionImportResult {
+
+    private Integer imported;
+    /**
+     * Number of skipped records, which can be higher than the number of errors if their list was cut off.
+     */
+    private Integer failed;
+    private List<QuestionImportError> errors;
+    /**
+     * Duration of the import in milliseconds.
+     */
+    private Long duration;
+}
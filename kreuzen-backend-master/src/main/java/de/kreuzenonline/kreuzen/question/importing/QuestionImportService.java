@@ -0,0 +1,21 @@
+package de.kreuzenonline.kreuzen.question.importing;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface QuestionImportService {
+
+    /**
+     * Imports questions from a stream with one question per line. Quoted CSV values may span several lines.
+     * Every question is checked with the same restrictions as a single created question. Valid questions are saved
+     * in chunks, each in one transaction, so the stream doesn't have to fit into memory.
+     * Invalid questions are skipped and reported with their first line, only the first errors are kept.
+     *
+     * @param input     stream of the questions, UTF-8 encoded.
+     * @param format    format of the stream.
+     * @param creatorId id of the user that imports the questions.
+     * @return number of imported and skipped questions and the errors of the first skipped ones.
+     * @throws IOException if the stream can't be read.
+     */
+    QuestionImportResult importQuestions(InputStream input, QuestionImportFormat format, Integer creatorId) throws IOException;
+}
@@ -0,0 +1,369 @@
+package de.kreuzenonline.kreuzen.question.importing;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import de.kreuzenonline.kreuzen.cache.CacheConfig;
+import de.kreuzenonline.kreuzen.exceptions.BadRequestException;
+import de.kreuzenonline.kreuzen.exceptions.ConflictException;
+import de.kreuzenonline.kreuzen.question.BaseQuestion;
+import de.kreuzenonline.kreuzen.question.BaseQuestionRepo;
+import de.kreuzenonline.kreuzen.question.BaseQuestionService;
+import de.kreuzenonline.kreuzen.question.origin.QuestionOriginService;
+import de.kreuzenonline.kreuzen.question.requests.CreateQuestionRequest;
+import de.kreuzenonline.kreuzen.question.types.QuestionTypeMapperService;
+import de.kreuzenonline.kreuzen.question.types.QuestionTypeService;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+@Service
+public class QuestionImportServiceImpl implements QuestionImportService {
+
+    /**
+     * CSV columns whose values are arrays, separated by ARRAY_SEPARATOR.
+     */
+    private static final Set<String> ARRAY_COLUMNS = Set.of("answers", "correctAnswerLocalIds", "identifiers", "correctAssignmentIds");
+    private static final String ARRAY_SEPARATOR = "|";
+    /**
+     * Longest record in characters, also across the lines of a CSV record. Lines are read up to this length only,
+     * so neither a single huge line nor a quote that isn't closed is read into memory as a whole.
+     */
+    private static final int MAX_RECORD_LENGTH = 65_536;
+
+    private final BaseQuestionRepo baseQuestionRepo;
+    private final BaseQuestionService baseQuestionService;
+    private final QuestionOriginService questionOriginService;
+    private final QuestionTypeMapperService questionTypeMapperService;
+    private final ObjectMapper mapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ResourceBundle resourceBundle;
+    private final int chunkSize;
+    private final int maxErrors;
+
+    public QuestionImportServiceImpl(BaseQuestionRepo baseQuestionRepo,
+                                     BaseQuestionService baseQuestionService,
+                                     QuestionOriginService questionOriginService,
+                                     QuestionTypeMapperService questionTypeMapperService,
+                                     ObjectMapper mapper,
+                                     PlatformTransactionManager transactionManager,
+                                     ResourceBundle resourceBundle,
+                                     @Value("${app.question-import.chunk-size:500}") int chunkSize,
+                                     @Value("${app.question-import.max-errors:100}") int maxErrors) {
+        this.baseQuestionRepo = baseQuestionRepo;
+        this.baseQuestionService = baseQuestionService;
+        this.questionOriginService = questionOriginService;
+        this.questionTypeMapperService = questionTypeMapperService;
+        this.mapper = mapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.resourceBundle = resourceBundle;
+        this.chunkSize = chunkSize;
+        this.maxErrors = maxErrors;
+    }
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.QUESTION_COUNTS, allEntries = true)
+    public QuestionImportResult importQuestions(InputStream input, QuestionImportFormat format, Integer creatorId) throws IOException {
+        long start = System.nanoTime();
+        QuestionImportResult result = new QuestionImportResult(0, 0, new ArrayList<>(), 0L);
+
+        RecordReader records = new RecordReader(new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)), format == QuestionImportFormat.CSV);
+        List<String> header = null;
+        List<ImportRecord> chunk = new ArrayList<>();
+        try {
+            String record;
+            while ((record = records.next()) != null) {
+                if (record.isBlank()) {
+                    continue;
+                }
+                if (format == QuestionImportFormat.CSV && header == null) {
+                    header = parseCsvRecord(record);
+                    continue;
+                }
+
+                int line = records.getRecordLine();
+                try {
+                    JsonNode node = format == QuestionImportFormat.CSV ? toNode(header, parseCsvRecord(record)) : mapper.readTree(record);
+                    chunk.add(read(line, node));
+                } catch (JsonProcessingException e) {
+                    addError(result, line, resourceBundle.getString("question-import-invalid-record"));
+                } catch (ConflictException | BadRequestException e) {
+                    addError(result, line, e.getMessage());
+                }
+
+                if (chunk.size() >= chunkSize) {
+                    write(chunk, creatorId, result);
+                    chunk = new ArrayList<>();
+                }
+            }
+        } catch (UnterminatedQuoteException e) {
+            // The rest of the input can't be split into records anymore.
+            addError(result, records.getRecordLine(), resourceBundle.getString("question-import-unterminated-quote"));
+        } catch (RecordTooLongException e) {
+            // The line break ending the record wasn't read, so the following records can't be found either.
+            addError(result, records.getRecordLine(), resourceBundle.getString("question-import-record-too-long"));
+        }
+        if (!chunk.isEmpty()) {
+            write(chunk, creatorId, result);
+        }
+
+        result.getErrors().sort(Comparator.comparing(QuestionImportError::getLine));
+        result.setDuration((System.nanoTime() - start) / 1_000_000);
+        return result;
+    }
+
+    /**
+     * Maps a record onto the create request of its type and checks it like a single created question.
+     */
+    private ImportRecord read(int line, JsonNode node) {
+        if (!node.isObject()) {
+            throw new BadRequestException(resourceBundle.getString("question-import-invalid-record"));
+        }
+        String type = node.path("type").textValue();
+        if (type == null) {
+            throw new ConflictException(resourceBundle.getString("CreateQuestionRequest-type-not-null"));
+        }
+        QuestionTypeService<?, ?, ?> service = questionTypeMapperService.getServiceByType(type)
+                .orElseThrow(() -> new ConflictException(resourceBundle.getString("question-no-valid-type")));
+
+        CreateQuestionRequest request = service.readCreateRequest(mapper, node);
+        if (request.getPoints() == null) {
+            // Same default as the database.
+            request.setPoints(1);
+        }
+        baseQuestionService.validate(request);
+        if (!questionOriginService.exists(request.getOrigin())) {
+            throw new ConflictException(resourceBundle.getString("question-origin-does-not-exist"));
+        }
+        service.genericValidate(request);
+
+        return new ImportRecord(line, request, service);
+    }
+
+    /**
+     * Saves a chunk of valid records in one transaction. If the database rejects the chunk, e.g. because of a course
+     * that doesn't exist, both halves of the chunk are saved on their own, until only the failing records are skipped.
+     */
+    private void write(List<ImportRecord> chunk, Integer creatorId, QuestionImportResult result) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(chunk, creatorId));
+            result.setImported(result.getImported() + chunk.size());
+        } catch (DataAccessException e) {
+            if (chunk.size() == 1) {
+                addError(result, chunk.get(0).getLine(), resourceBundle.getString("question-import-record-failed"));
+                return;
+            }
+            write(chunk.subList(0, chunk.size() / 2), creatorId, result);
+            write(chunk.subList(chunk.size() / 2, chunk.size()), creatorId, result);
+        }
+    }
+
+    /**
+     * Counts a failed record. Only the errors of the first maxErrors lines are kept, so that a file with a wrong format
+     * doesn't produce a response as large as the file itself.
+     */
+    private void addError(QuestionImportResult result, int line, String msg) {
+        result.setFailed(result.getFailed() + 1);
+        List<QuestionImportError> errors = result.getErrors();
+        errors.add(new QuestionImportError(line, msg));
+        if (errors.size() > maxErrors) {
+            // Errors of a chunk are reported after later lines were read, so the last line isn't always the last error.
+            errors.sort(Comparator.comparing(QuestionImportError::getLine));
+            errors.remove(errors.size() - 1);
+        }
+    }
+
+    private void insert(List<ImportRecord> chunk, Integer creatorId) {
+        List<BaseQuestion> baseQuestions = new ArrayList<>();
+        for (ImportRecord record : chunk) {
+            CreateQuestionRequest request = record.getRequest();
+            BaseQuestion baseQuestion = new BaseQuestion();
+            baseQuestion.setText(request.getText());
+            baseQuestion.setType(request.getType());
+            baseQuestion.setAdditionalInformation(request.getAdditionalInformation());
+            baseQuestion.setPoints(request.getPoints());
+            baseQuestion.setExamId(request.getExamId());
+            baseQuestion.setCourseId(request.getCourseId());
+            baseQuestion.setCreatorId(creatorId);
+            baseQuestion.setOrigin(request.getOrigin());
+            baseQuestion.setIsApproved(false);
+            baseQuestions.add(baseQuestion);
+        }
+        baseQuestionRepo.insertAll(baseQuestions);
+
+        // Type-specific information is saved with one batch per type and table.
+        Map<QuestionTypeService<?, ?, ?>, List<Integer>> indicesByType = new LinkedHashMap<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            indicesByType.computeIfAbsent(chunk.get(i).getService(), k -> new ArrayList<>()).add(i);
+        }
+        indicesByType.forEach((service, indices) -> service.genericCreateAll(
+                indices.stream().map(i -> chunk.get(i).getRequest()).collect(Collectors.toList()),
+                indices.stream().map(i -> baseQuestions.get(i).getId()).collect(Collectors.toList())
+        ));
+    }
+
+    private ObjectNode toNode(List<String> header, List<String> values) {
+        ObjectNode node = mapper.createObjectNode();
+        for (int i = 0; i < header.size() && i < values.size(); i++) {
+            String column = header.get(i).trim();
+            String value = values.get(i);
+            if (value.isEmpty()) {
+                continue;
+            }
+            if (ARRAY_COLUMNS.contains(column)) {
+                ArrayNode array = node.putArray(column);
+                for (String element : value.split(Pattern.quote(ARRAY_SEPARATOR), -1)) {
+                    array.add(element.trim());
+                }
+            } else {
+                node.put(column, value);
+            }
+        }
+        return node;
+    }
+
+    /**
+     * Splits a CSV record into its values. Values may be quoted with double quotes,
+     * which allows commas and line breaks within a value, and quotes within quoted values are escaped by doubling them.
+     */
+    static List<String> parseCsvRecord(String record) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < record.length(); i++) {
+            char c = record.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < record.length() && record.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    /**
+     * Reads the input record by record. NDJSON records are single lines, while a CSV record continues on the next line
+     * as long as a quoted value isn't closed.
+     */
+    private static class RecordReader {
+
+        private final BufferedReader reader;
+        private final boolean csv;
+        private int lineNumber = 0;
+        @Getter
+        private int recordLine = 0;
+
+        RecordReader(BufferedReader reader, boolean csv) {
+            this.reader = reader;
+            this.csv = csv;
+        }
+
+        /**
+         * @return the next record without its final line break or null at the end of the input
+         * @throws UnterminatedQuoteException if a quoted value isn't closed until the end of the input
+         * @throws RecordTooLongException     if the record is longer than MAX_RECORD_LENGTH
+         */
+        String next() throws IOException {
+            recordLine = lineNumber + 1;
+            String line = readLine(MAX_RECORD_LENGTH);
+            if (line == null) {
+                return null;
+            }
+            lineNumber++;
+            if (!csv || !hasOddQuotes(line)) {
+                return line;
+            }
+
+            // Doubled quotes within quoted values don't change whether a value is open, so counting quotes is enough.
+            StringBuilder record = new StringBuilder(line);
+            boolean open = true;
+            while (open) {
+                line = readLine(MAX_RECORD_LENGTH - record.length() - 1);
+                if (line == null) {
+                    throw new UnterminatedQuoteException();
+                }
+                lineNumber++;
+                record.append('\n').append(line);
+                open = hasOddQuotes(line) != open;
+            }
+            return record.toString();
+        }
+
+        /**
+         * Like BufferedReader.readLine, but stops reading as soon as the line is longer than maxLength.
+         *
+         * @return the next line without its line break or null at the end of the input
+         * @throws RecordTooLongException if the line is longer than maxLength
+         */
+        private String readLine(int maxLength) throws IOException {
+            StringBuilder line = new StringBuilder();
+            int c;
+            while ((c = reader.read()) != -1 && c != '\n') {
+                if (c == '\r') {
+                    reader.mark(1);
+                    if (reader.read() != '\n') {
+                        reader.reset();
+                    }
+                    break;
+                }
+                if (line.length() >= maxLength) {
+                    throw new RecordTooLongException();
+                }
+                line.append((char) c);
+            }
+            if (c == -1 && line.length() == 0) {
+                return null;
+            }
+            return line.toString();
+        }
+
+        private static boolean hasOddQuotes(String line) {
+            return line.chars().filter(c -> c == '"').count() % 2 == 1;
+        }
+    }
+
+    private static class UnterminatedQuoteException extends RuntimeException {
+    }
+
+    private static class RecordTooLongException extends RuntimeException {
+    }
+
+    @Data
+    @AllArgsConstructor
+    private static class ImportRecord {
+
+        private final int line;
+        private final CreateQuestionRequest request;
+        private final QuestionTypeService<?, ?, ?> service;
+    }
+}
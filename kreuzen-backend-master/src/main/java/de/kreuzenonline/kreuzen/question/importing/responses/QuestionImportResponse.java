@@ -0,0 +1,29 @@
+package de.kreuzenonline.kreuzen.question.importing.responses;
+
+import de.kreuzenonline.kreuzen.question.importing.QuestionImportError;
+import de.kreuzenonline.kreuzen.question.importing.QuestionImportResult;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class QuestionImportResponse {
+
+    private Integer imported;
+    private Integer failed;
+    private Long duration;
+    private Double questionsPerSecond;
+    private List<QuestionImportError> errors;
+
+    public QuestionImportResponse(QuestionImportResult result) {
+        this.imported = result.getImported();
+        this.failed = result.getFailed();
+        this.duration = result.getDuration();
+        this.questionsPerSecond = result.getImported() * 1000.0 / Math.max(result.getDuration(), 1);
+        this.errors = result.getErrors();
+    }
+}
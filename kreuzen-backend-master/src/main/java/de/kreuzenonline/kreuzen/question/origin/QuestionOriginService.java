@@ -0,0 +1,12 @@
+package de.kreuzenonline.kreuzen.question.origin;
+
+public interface QuestionOriginService {
+
+    /**
+     * Checks whether a question origin with the given name exists.
+     *
+     * @param name name of the origin
+     * @return true, if the origin exists
+     */
+    boolean exists(String name);
+}
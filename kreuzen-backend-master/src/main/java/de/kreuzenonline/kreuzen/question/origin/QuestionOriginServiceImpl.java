@@ -0,0 +1,24 @@
+package de.kreuzenonline.kreuzen.question.origin;
+
+import de.kreuzenonline.kreuzen.cache.CacheConfig;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+@Service
+public class QuestionOriginServiceImpl implements QuestionOriginService {
+
+    private final QuestionOriginRepo questionOriginRepo;
+
+    public QuestionOriginServiceImpl(QuestionOriginRepo questionOriginRepo) {
+        this.questionOriginRepo = questionOriginRepo;
+    }
+
+    /**
+     * Origins are only changed in the database directly, so the result is kept until the cache expires.
+     */
+    @Override
+    @Cacheable(cacheNames = CacheConfig.REFERENCE_DATA, keyGenerator = CacheConfig.REFERENCE_DATA_KEY_GENERATOR)
+    public boolean exists(String name) {
+        return Boolean.TRUE.equals(questionOriginRepo.existsByName(name));
+    }
+}
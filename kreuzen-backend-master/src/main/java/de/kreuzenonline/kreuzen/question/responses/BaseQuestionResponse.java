@@ -1,11 +1,13 @@
 package de.kreuzenonline.kreuzen.question.responses;
 
 import de.kreuzenonline.kreuzen.question.BaseQuestion;
+import de.kreuzenonline.kreuzen.question.attachment.responses.AttachmentResponse;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.Instant;
+import java.util.List;
 
 @Data
 @AllArgsConstructor
@@ -25,6 +27,7 @@ public class BaseQuestionResponse {
     private Boolean isApproved;
     private Instant createdAt;
     private Instant updatedAt;
+    private List<AttachmentResponse> attachments;
 
     public BaseQuestionResponse(BaseQuestion question) {
         this.id = question.getId();
@@ -0,0 +1,64 @@
+package de.kreuzenonline.kreuzen.question.types;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Differences between the stored answers of a question and the answers of an update request.
+ * Answers are compared by their local id, so answers that stay the same aren't written again.
+ */
+@Getter
+public class AnswerChanges {
+
+    private final Integer[] changedLocalIds;
+    private final String[] changedTexts;
+    private final Integer[] addedLocalIds;
+    private final String[] addedTexts;
+    /**
+     * Whether there are stored answers with a local id higher than the new amount of answers.
+     */
+    private final boolean removing;
+
+    private AnswerChanges(List<Integer> changedLocalIds, List<String> changedTexts, List<Integer> addedLocalIds, List<String> addedTexts, boolean removing) {
+        this.changedLocalIds = changedLocalIds.toArray(Integer[]::new);
+        this.changedTexts = changedTexts.toArray(String[]::new);
+        this.addedLocalIds = addedLocalIds.toArray(Integer[]::new);
+        this.addedTexts = addedTexts.toArray(String[]::new);
+        this.removing = removing;
+    }
+
+    /**
+     * @param storedTexts texts of the stored answers by their local id.
+     * @param texts       new texts of the answers, the local id of an answer is its position starting with 1.
+     * @return changes to be written.
+     */
+    public static AnswerChanges of(Map<Integer, String> storedTexts, String[] texts) {
+        List<Integer> changedLocalIds = new ArrayList<>();
+        List<String> changedTexts = new ArrayList<>();
+        List<Integer> addedLocalIds = new ArrayList<>();
+        List<String> addedTexts = new ArrayList<>();
+        for (int localId = 1; localId <= texts.length; localId++) {
+            String text = texts[localId - 1];
+            if (!storedTexts.containsKey(localId)) {
+                addedLocalIds.add(localId);
+                addedTexts.add(text);
+            } else if (!storedTexts.get(localId).equals(text)) {
+                changedLocalIds.add(localId);
+                changedTexts.add(text);
+            }
+        }
+        boolean removing = storedTexts.keySet().stream().anyMatch(localId -> localId > texts.length);
+        return new AnswerChanges(changedLocalIds, changedTexts, addedLocalIds, addedTexts, removing);
+    }
+
+    public boolean isChanging() {
+        return changedLocalIds.length > 0;
+    }
+
+    public boolean isAdding() {
+        return addedLocalIds.length > 0;
+    }
+}
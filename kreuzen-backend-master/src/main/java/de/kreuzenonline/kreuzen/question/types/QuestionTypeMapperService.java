@@ -1,5 +1,7 @@
 package de.kreuzenonline.kreuzen.question.types;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import de.kreuzenonline.kreuzen.question.BaseQuestion;
 import de.kreuzenonline.kreuzen.question.requests.CreateQuestionRequest;
 import de.kreuzenonline.kreuzen.question.requests.UpdateQuestionRequest;
@@ -17,4 +19,25 @@ public interface QuestionTypeMapperService {
      * @return the question type service.
      */
     Optional<QuestionTypeService<? extends BaseQuestion, ? extends CreateQuestionRequest, ? extends UpdateQuestionRequest>> getServiceByType(String type);
+
+    /**
+     * Maps a HTTP request body onto the create request of the question type that is set in the body.
+     * If the type is unknown, only the fields of the base question are read, so the type can be rejected later on.
+     *
+     * @param m    objectMapper
+     * @param node body with the fields of the create request.
+     * @return create request of the respective question type.
+     */
+    CreateQuestionRequest readCreateRequest(ObjectMapper m, JsonNode node);
+
+    /**
+     * Maps a HTTP request body onto the update request of a question type.
+     * Update requests don't contain the type, so it has to be taken from the stored question.
+     *
+     * @param m    objectMapper
+     * @param type type of the stored question.
+     * @param node body with the fields of the update request.
+     * @return update request of the respective question type.
+     */
+    UpdateQuestionRequest readUpdateRequest(ObjectMapper m, String type, JsonNode node);
 }
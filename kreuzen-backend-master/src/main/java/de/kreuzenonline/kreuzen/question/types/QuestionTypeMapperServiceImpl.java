@@ -1,5 +1,10 @@
 package de.kreuzenonline.kreuzen.question.types;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.kreuzenonline.kreuzen.exceptions.BadRequestException;
+import de.kreuzenonline.kreuzen.exceptions.ConflictException;
 import de.kreuzenonline.kreuzen.question.BaseQuestion;
 import de.kreuzenonline.kreuzen.question.requests.CreateQuestionRequest;
 import de.kreuzenonline.kreuzen.question.requests.UpdateQuestionRequest;
@@ -10,6 +15,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.Optional;
+import java.util.ResourceBundle;
 
 @Service
 public class QuestionTypeMapperServiceImpl implements QuestionTypeMapperService {
@@ -20,6 +26,8 @@ public class QuestionTypeMapperServiceImpl implements QuestionTypeMapperService
     private SingleChoiceServiceImpl singleChoiceService;
     @Autowired
     private AssignmentQuestionServiceImpl assignmentQuestionService;
+    @Autowired
+    private ResourceBundle resourceBundle;
 
     @Override
     public Optional<QuestionTypeService<? extends BaseQuestion, ? extends CreateQuestionRequest, ? extends UpdateQuestionRequest>> getServiceByType(String type) {
@@ -35,4 +43,33 @@ public class QuestionTypeMapperServiceImpl implements QuestionTypeMapperService
                 return Optional.empty();
         }
     }
+
+    @Override
+    public CreateQuestionRequest readCreateRequest(ObjectMapper m, JsonNode node) {
+        if (!node.isObject()) {
+            throw new BadRequestException(resourceBundle.getString("QuestionTypeService-bad-create-request"));
+        }
+
+        String type = node.path("type").textValue();
+        Optional<QuestionTypeService<? extends BaseQuestion, ? extends CreateQuestionRequest, ? extends UpdateQuestionRequest>> service = type == null ? Optional.empty() : getServiceByType(type);
+        if (service.isPresent()) {
+            return service.get().readCreateRequest(m, node);
+        }
+        try {
+            return m.treeToValue(node, CreateQuestionRequest.class);
+        } catch (JsonProcessingException e) {
+            throw new BadRequestException(resourceBundle.getString("QuestionTypeService-bad-create-request"));
+        }
+    }
+
+    @Override
+    public UpdateQuestionRequest readUpdateRequest(ObjectMapper m, String type, JsonNode node) {
+        if (!node.isObject()) {
+            throw new BadRequestException(resourceBundle.getString("QuestionTypeService-bad-update-request"));
+        }
+
+        return getServiceByType(type)
+                .orElseThrow(() -> new ConflictException(resourceBundle.getString("question-no-valid-type")))
+                .readUpdateRequest(m, node);
+    }
 }
@@ -1,39 +1,116 @@
 package de.kreuzenonline.kreuzen.question.types;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import de.kreuzenonline.kreuzen.cache.CacheConfig;
 import de.kreuzenonline.kreuzen.exceptions.BadRequestException;
 import de.kreuzenonline.kreuzen.question.BaseQuestion;
 import de.kreuzenonline.kreuzen.question.requests.CreateQuestionRequest;
 import de.kreuzenonline.kreuzen.question.requests.UpdateQuestionRequest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.stream.Collectors;
 
 public abstract class QuestionTypeService<T extends BaseQuestion, C extends CreateQuestionRequest, U extends UpdateQuestionRequest> {
 
+    private final Class<T> questionType;
+    private final String type;
     private final Class<C> createQuestionRequestType;
     private final Class<U> updateQuestionRequestType;
     private final ResourceBundle resourceBundle;
+    private final CacheManager cacheManager;
 
-    public QuestionTypeService(Class<C> createQuestionRequestType, Class<U> updateQuestionRequestType, ResourceBundle resourceBundle) {
+    public QuestionTypeService(Class<T> questionType, String type, Class<C> createQuestionRequestType, Class<U> updateQuestionRequestType, ResourceBundle resourceBundle, CacheManager cacheManager) {
+        this.questionType = questionType;
+        this.type = type;
         this.createQuestionRequestType = createQuestionRequestType;
         this.updateQuestionRequestType = updateQuestionRequestType;
         this.resourceBundle = resourceBundle;
+        this.cacheManager = cacheManager;
     }
 
     /**
      * Get a specific question by its id.
      * T is for question type so the function will deliver the full question and not just the base question.
+     * Implementations cache the assembled question, so the returned object must not be modified.
      *
      * @param questionId id of the base question.
      * @return type question.
      */
     abstract public T getByQuestionId(Integer questionId);
 
+    /**
+     * Gets the questions of this type for a list of already loaded base questions.
+     * Questions assembled before are taken from the cache, only the missing ones are assembled by the assemble-function.
+     * Base questions of other types are skipped.
+     *
+     * @param baseQuestions base questions, e.g. all questions of a session.
+     * @return type questions in the order of the given base questions.
+     */
+    public List<T> getByBaseQuestions(List<BaseQuestion> baseQuestions) {
+        Cache cache = cacheManager == null ? null : cacheManager.getCache(CacheConfig.TYPED_QUESTIONS);
+        Map<Integer, T> found = new HashMap<>();
+        List<BaseQuestion> missing = new ArrayList<>();
+        for (BaseQuestion baseQuestion : baseQuestions) {
+            if (!type.equals(baseQuestion.getType())) {
+                continue;
+            }
+            T question = cache == null ? null : cache.get(baseQuestion.getId(), questionType);
+            if (question != null) {
+                found.put(baseQuestion.getId(), question);
+            } else {
+                missing.add(baseQuestion);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            for (T question : assemble(missing)) {
+                if (cache != null) {
+                    cache.put(question.getId(), question);
+                }
+                found.put(question.getId(), question);
+            }
+        }
+
+        List<T> questions = new ArrayList<>();
+        for (BaseQuestion baseQuestion : baseQuestions) {
+            T question = found.get(baseQuestion.getId());
+            if (question != null) {
+                questions.add(question);
+            }
+        }
+        return questions;
+    }
+
+    /**
+     * Assembles the questions of this type for base questions that are not cached.
+     * The type-specific information of all questions is loaded at once, base questions without it are skipped.
+     *
+     * @param baseQuestions base questions of this type.
+     * @return type questions in the order of the given base questions.
+     */
+    abstract protected List<T> assemble(List<BaseQuestion> baseQuestions);
+
+    /**
+     * Checks the restrictions for the creation of a question of this type.
+     * They don't depend on the database, so requests can be checked before any base question is created.
+     *
+     * @param request the respective request that extends the CreateQuestionRequest, e.g. a CreateSingleChoiceRequest.
+     */
+    abstract public void validate(C request);
+
     /**
      * Create a new question of any type.
      * In a first step the base question will be created.
-     * In a second step the genericCreate-function below will map the universal HTTP request body onto the respective question type request.
+     * In a second step the genericCreate-function below will pass the request that was read by readCreateRequest.
      * In this step the QuestionTypeService will save the type-specific information for each question type.
      *
      * @param request the respective request that extends the CreateQuestionRequest, e.g. a CreateSingleChoiceRequest.
@@ -43,28 +120,67 @@ public abstract class QuestionTypeService<T extends BaseQuestion, C extends Crea
     abstract public T create(C request, Integer id);
 
     /**
-     * This function identifies which question type is needed.
-     * It maps the universal HTTP request body to the respective question type request and calls the create-function with it.
+     * Calls the create-function with a request that was read by readCreateRequest.
+     * This way the HTTP request body is only parsed once, no matter which question type is needed.
      *
-     * @param m    objectMapper
-     * @param body full HTTP request, that has to be mapped.
-     * @param id   id of the base question that will be set by the BaseQuestionService.
+     * @param request create request of the respective question type.
+     * @param id      id of the base question that will be set by the BaseQuestionService.
      * @return type question.
      */
-    public T genericCreate(ObjectMapper m, String body, Integer id) {
+    @CacheEvict(cacheNames = CacheConfig.TYPED_QUESTIONS, key = "#id")
+    public T genericCreate(CreateQuestionRequest request, Integer id) {
+        return this.create(createQuestionRequestType.cast(request), id);
+    }
+
+    /**
+     * Saves the type-specific information of many questions at once, e.g. for an import.
+     * The requests have to be validated and the base questions have to exist.
+     * In contrast to the create-function the created questions are not loaded again.
+     *
+     * @param requests    requests of the respective question type.
+     * @param questionIds ids of the base questions, in the same order as the requests.
+     */
+    abstract public void createAll(List<C> requests, List<Integer> questionIds);
+
+    /**
+     * Maps a HTTP request body or a record of an import onto the respective question type request.
+     *
+     * @param m    objectMapper
+     * @param node body or record with the fields of the create request.
+     * @return create request of the respective question type.
+     */
+    public C readCreateRequest(ObjectMapper m, JsonNode node) {
 
         try {
-            C request = m.readValue(body, createQuestionRequestType);
-            return this.create(request, id);
+            return m.treeToValue(node, createQuestionRequestType);
         } catch (JsonProcessingException e) {
             throw new BadRequestException(resourceBundle.getString("QuestionTypeService-bad-create-request"));
         }
     }
 
+    /**
+     * Calls the validate-function with a request that was read by readCreateRequest.
+     *
+     * @param request create request of the respective question type.
+     */
+    public void genericValidate(CreateQuestionRequest request) {
+        this.validate(createQuestionRequestType.cast(request));
+    }
+
+    /**
+     * Calls the createAll-function with requests that were read by readCreateRequest.
+     *
+     * @param requests    create requests of the respective question type.
+     * @param questionIds ids of the base questions, in the same order as the requests.
+     */
+    public void genericCreateAll(List<? extends CreateQuestionRequest> requests, List<Integer> questionIds) {
+        this.createAll(requests.stream().map(createQuestionRequestType::cast).collect(Collectors.toList()), questionIds);
+    }
+
     /**
      * Update a question of any type.
      * In a first step the existing base question will be called.
-     * In a second step the genericUpdate-function below will map the universal HTTP request body onto the respective question type request.
+     * In a second step the genericUpdate-function below will pass the request that was read by readUpdateRequest.
      * In this step the QuestionTypeService will update the type-specific information for each question type.
      *
      * @param request the respective request thant extends the UpdateQuestionRequest, e.g. an UpdateSingleChoiceRequest.
@@ -74,21 +190,44 @@ public abstract class QuestionTypeService<T extends BaseQuestion, C extends Crea
     abstract public T update(U request, Integer id);
 
     /**
-     * This function identifies which question type is needed.
-     * It maps the universal HTTP request body to the respective question type request and calls the update-function with it.
+     * Maps a HTTP request body onto the respective question type request.
      *
      * @param m    objectMapper
-     * @param body full HTTP request, that has to be mapped.
-     * @param id   id of the base question that will be set by the BaseQuestionService.
-     * @return updated type question
+     * @param node body with the fields of the update request.
+     * @return update request of the respective question type.
      */
-    public T genericUpdate(ObjectMapper m, String body, Integer id) {
+    public U readUpdateRequest(ObjectMapper m, JsonNode node) {
 
         try {
-            U request = m.readValue(body, updateQuestionRequestType);
-            return this.update(request, id);
+            return m.treeToValue(node, updateQuestionRequestType);
         } catch (JsonProcessingException e) {
             throw new BadRequestException(resourceBundle.getString("QuestionTypeService-bad-update-request"));
         }
     }
+
+    /**
+     * Calls the update-function with a request that was read by readUpdateRequest.
+     *
+     * @param request update request of the respective question type.
+     * @param id      id of the base question.
+     * @return updated type question
+     */
+    @CacheEvict(cacheNames = CacheConfig.TYPED_QUESTIONS, key = "#id")
+    public T genericUpdate(UpdateQuestionRequest request, Integer id) {
+        return this.update(updateQuestionRequestType.cast(request), id);
+    }
+
+    /**
+     * Local ids keep the order of answers and identifiers, they are numbered from 1.
+     *
+     * @param count amount of answers or identifiers.
+     * @return local ids from 1 to count.
+     */
+    protected static Integer[] localIds(int count) {
+        Integer[] localIds = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            localIds[i] = i + 1;
+        }
+        return localIds;
+    }
 }
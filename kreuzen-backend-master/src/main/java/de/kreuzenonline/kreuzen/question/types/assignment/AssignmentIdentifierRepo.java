@@ -1,5 +1,7 @@
 package de.kreuzenonline.kreuzen.question.types.assignment;
 
+import org.springframework.data.jdbc.repository.query.Modifying;
+import org.springframework.data.jdbc.repository.query.Query;
 import org.springframework.data.repository.CrudRepository;
 
 import java.util.List;
@@ -7,4 +9,25 @@ import java.util.List;
 public interface AssignmentIdentifierRepo extends CrudRepository<AssignmentIdentifier, Integer> {
 
     List<AssignmentIdentifier> findAllByQuestionId(Integer questionId);
+
+    @Query("SELECT * FROM question_assignment_identifier WHERE question_id = ANY(:questionIds) ORDER BY question_id, local_id")
+    List<AssignmentIdentifier> findAllByQuestionIds(Integer[] questionIds);
+
+    /**
+     * Inserts identifiers of a question in one statement.
+     */
+    @Modifying
+    @Query("INSERT INTO question_assignment_identifier(question_id, local_id, identifier, correct_answer_local_id) " +
+            " SELECT :questionId, x.local_id, x.identifier, x.correct_answer_local_id " +
+            " FROM unnest(CAST(:localIds AS int[]), CAST(:identifiers AS text[]), CAST(:correctAnswerLocalIds AS int[])) AS x(local_id, identifier, correct_answer_local_id)")
+    void insertAll(Integer questionId, Integer[] localIds, String[] identifiers, Integer[] correctAnswerLocalIds);
+
+    /**
+     * Changes identifiers and correct answers of a question in one statement.
+     */
+    @Modifying
+    @Query("UPDATE question_assignment_identifier i SET identifier = x.identifier, correct_answer_local_id = x.correct_answer_local_id " +
+            " FROM unnest(CAST(:localIds AS int[]), CAST(:identifiers AS text[]), CAST(:correctAnswerLocalIds AS int[])) AS x(local_id, identifier, correct_answer_local_id) " +
+            " WHERE i.question_id = :questionId AND i.local_id = x.local_id")
+    void updateAll(Integer questionId, Integer[] localIds, String[] identifiers, Integer[] correctAnswerLocalIds);
 }
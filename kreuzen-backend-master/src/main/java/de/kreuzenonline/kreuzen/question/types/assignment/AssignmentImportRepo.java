@@ -0,0 +1,18 @@
+package de.kreuzenonline.kreuzen.question.types.assignment;
+
+import java.util.Collection;
+
+/**
+ * Batch inserts of assignment questions, which can not be expressed as a query method.
+ */
+public interface AssignmentImportRepo {
+
+    /**
+     * Inserts the given entries, their answers and their identifiers in one JDBC batch per table.
+     *
+     * @param entries     type entries of base questions that already exist
+     * @param answers     answers of the entries
+     * @param identifiers identifiers of the entries
+     */
+    void insertAll(Collection<AssignmentQuestionEntry> entries, Collection<AssignmentAnswer> answers, Collection<AssignmentIdentifier> identifiers);
+}
@@ -0,0 +1,43 @@
+package de.kreuzenonline.kreuzen.question.types.assignment;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.util.Collection;
+
+public class AssignmentImportRepoImpl implements AssignmentImportRepo {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public AssignmentImportRepoImpl(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertAll(Collection<AssignmentQuestionEntry> entries, Collection<AssignmentAnswer> answers, Collection<AssignmentIdentifier> identifiers) {
+        SqlParameterSource[] entryParams = entries.stream()
+                .map(entry -> new MapSqlParameterSource("questionId", entry.getQuestionId()))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate("INSERT INTO question_assignment (question_id) VALUES (:questionId)", entryParams);
+
+        // Answers are inserted before the identifiers, as identifiers reference them.
+        SqlParameterSource[] answerParams = answers.stream()
+                .map(answer -> new MapSqlParameterSource()
+                        .addValue("questionId", answer.getQuestionId())
+                        .addValue("localId", answer.getLocalId())
+                        .addValue("answer", answer.getAnswer()))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate("INSERT INTO question_assignment_answer (question_id, local_id, answer) VALUES (:questionId, :localId, :answer)", answerParams);
+
+        SqlParameterSource[] identifierParams = identifiers.stream()
+                .map(identifier -> new MapSqlParameterSource()
+                        .addValue("questionId", identifier.getQuestionId())
+                        .addValue("localId", identifier.getLocalId())
+                        .addValue("identifier", identifier.getIdentifier())
+                        .addValue("correctAnswerLocalId", identifier.getCorrectAnswerLocalId()))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate("INSERT INTO question_assignment_identifier (question_id, local_id, identifier, correct_answer_local_id) " +
+                "VALUES (:questionId, :localId, :identifier, :correctAnswerLocalId)", identifierParams);
+    }
+}
@@ -1,13 +1,19 @@
 package de.kreuzenonline.kreuzen.question.types.assignment;
 
+import org.springframework.data.jdbc.repository.query.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
-public interface AssignmentQuestionRepo extends CrudRepository<AssignmentQuestionEntry, Integer> {
+public interface AssignmentQuestionRepo extends CrudRepository<AssignmentQuestionEntry, Integer>, AssignmentImportRepo {
 
     AssignmentQuestionEntry findByQuestionId(Integer questionId);
 
     Boolean existsByQuestionId(Integer questionId);
 
+    @Query("SELECT * FROM question_assignment WHERE question_id = ANY(:questionIds)")
+    List<AssignmentQuestionEntry> findAllByQuestionIds(Integer[] questionIds);
+
 }
@@ -1,8 +1,11 @@
 package de.kreuzenonline.kreuzen.question.types.assignment;
 
+import de.kreuzenonline.kreuzen.question.BaseQuestion;
 import de.kreuzenonline.kreuzen.question.types.assignment.requests.CreateAssignmentQuestionRequest;
 import de.kreuzenonline.kreuzen.question.types.assignment.requests.UpdateAssignmentQuestionRequest;
 
+import java.util.List;
+
 public interface AssignmentQuestionService {
 
     /**
@@ -13,6 +16,15 @@ public interface AssignmentQuestionService {
      */
     AssignmentQuestion getByQuestionId(Integer questionId);
 
+    /**
+     * Gets the assignment questions for a list of already loaded base questions.
+     * Identifiers and answers of all questions are loaded at once, base questions of other types are skipped.
+     *
+     * @param baseQuestions base questions, e.g. all questions of a session.
+     * @return assignment questions in the order of the given base questions.
+     */
+    List<AssignmentQuestion> getByBaseQuestions(List<BaseQuestion> baseQuestions);
+
     /**
      * Creates a new assignment question.
      *
@@ -1,17 +1,20 @@
 package de.kreuzenonline.kreuzen.question.types.assignment;
 
+import de.kreuzenonline.kreuzen.cache.CacheConfig;
 import de.kreuzenonline.kreuzen.exceptions.ConflictException;
 import de.kreuzenonline.kreuzen.exceptions.NotFoundException;
 import de.kreuzenonline.kreuzen.question.BaseQuestion;
 import de.kreuzenonline.kreuzen.question.BaseQuestionRepo;
+import de.kreuzenonline.kreuzen.question.types.AnswerChanges;
 import de.kreuzenonline.kreuzen.question.types.QuestionTypeService;
 import de.kreuzenonline.kreuzen.question.types.assignment.requests.CreateAssignmentQuestionRequest;
 import de.kreuzenonline.kreuzen.question.types.assignment.requests.UpdateAssignmentQuestionRequest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.ResourceBundle;
+import java.util.*;
+import java.util.stream.Collectors;
 
 @Service("assignmentQuestion")
 public class AssignmentQuestionServiceImpl extends QuestionTypeService<AssignmentQuestion, CreateAssignmentQuestionRequest, UpdateAssignmentQuestionRequest> implements AssignmentQuestionService {
@@ -24,9 +27,8 @@ public class AssignmentQuestionServiceImpl extends QuestionTypeService<Assignmen
     private final BaseQuestionRepo baseQuestionRepo;
     private final ResourceBundle resourceBundle;
 
-    public AssignmentQuestionServiceImpl(AssignmentQuestionRepo assignmentQuestionRepo, AssignmentIdentifierRepo assignmentIdentifierRepo, AssignmentAnswerRepo assignmentAnswerRepo, BaseQuestionRepo baseQuestionRepo, ResourceBundle resourceBundle) {
-        super(CreateAssignmentQuestionRequest.class,
-                UpdateAssignmentQuestionRequest.class, resourceBundle);
+    public AssignmentQuestionServiceImpl(AssignmentQuestionRepo assignmentQuestionRepo, AssignmentIdentifierRepo assignmentIdentifierRepo, AssignmentAnswerRepo assignmentAnswerRepo, BaseQuestionRepo baseQuestionRepo, ResourceBundle resourceBundle, CacheManager cacheManager) {
+        super(AssignmentQuestion.class, TYPE, CreateAssignmentQuestionRequest.class, UpdateAssignmentQuestionRequest.class, resourceBundle, cacheManager);
         this.assignmentQuestionRepo = assignmentQuestionRepo;
         this.assignmentIdentifierRepo = assignmentIdentifierRepo;
         this.assignmentAnswerRepo = assignmentAnswerRepo;
@@ -35,6 +37,7 @@ public class AssignmentQuestionServiceImpl extends QuestionTypeService<Assignmen
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.TYPED_QUESTIONS)
     public AssignmentQuestion getByQuestionId(Integer questionId) {
         BaseQuestion baseQuestion = baseQuestionRepo.findById(questionId).orElseThrow(() -> new NotFoundException(resourceBundle.getString("question-not-found")));
         if (!assignmentQuestionRepo.existsByQuestionId(questionId)) {
@@ -59,9 +62,44 @@ public class AssignmentQuestionServiceImpl extends QuestionTypeService<Assignmen
     }
 
     @Override
-    public AssignmentQuestion create(CreateAssignmentQuestionRequest request, Integer questionId) {
-        AssignmentQuestionEntry assignmentQuestionEntry = new AssignmentQuestionEntry();
+    protected List<AssignmentQuestion> assemble(List<BaseQuestion> baseQuestions) {
+        Integer[] questionIds = baseQuestions.stream().map(BaseQuestion::getId).toArray(Integer[]::new);
+
+        Set<Integer> existingIds = new HashSet<>();
+        for (AssignmentQuestionEntry entry : assignmentQuestionRepo.findAllByQuestionIds(questionIds)) {
+            existingIds.add(entry.getQuestionId());
+        }
+        Map<Integer, List<AssignmentIdentifier>> identifiers = assignmentIdentifierRepo.findAllByQuestionIds(questionIds).stream()
+                .collect(Collectors.groupingBy(AssignmentIdentifier::getQuestionId));
+        Map<Integer, List<AssignmentAnswer>> answers = assignmentAnswerRepo.findAllByQuestionIds(questionIds).stream()
+                .collect(Collectors.groupingBy(AssignmentAnswer::getQuestionId));
 
+        List<AssignmentQuestion> questions = new ArrayList<>();
+        for (BaseQuestion baseQuestion : baseQuestions) {
+            if (!existingIds.contains(baseQuestion.getId())) {
+                continue;
+            }
+            questions.add(new AssignmentQuestion(
+                    baseQuestion.getId(),
+                    baseQuestion.getText(),
+                    baseQuestion.getType(),
+                    baseQuestion.getAdditionalInformation(),
+                    baseQuestion.getPoints(),
+                    baseQuestion.getExamId(),
+                    baseQuestion.getCourseId(),
+                    baseQuestion.getCreatorId(),
+                    baseQuestion.getUpdaterId(),
+                    baseQuestion.getOrigin(),
+                    baseQuestion.getIsApproved(),
+                    identifiers.getOrDefault(baseQuestion.getId(), new ArrayList<>()),
+                    answers.getOrDefault(baseQuestion.getId(), new ArrayList<>())
+            ));
+        }
+        return questions;
+    }
+
+    @Override
+    public void validate(CreateAssignmentQuestionRequest request) {
         /*
          * Restrictions for the creation of assignment questions:
          * both identifiers and answers can't be empty.
@@ -96,42 +134,50 @@ public class AssignmentQuestionServiceImpl extends QuestionTypeService<Assignmen
         if (request.getIdentifiers().length != request.getCorrectAssignmentIds().length) {
             throw new ConflictException(resourceBundle.getString("assignment-question-correct-assignment-ids-corrupt"));
         }
+    }
+
+    @Override
+    public AssignmentQuestion create(CreateAssignmentQuestionRequest request, Integer questionId) {
+        validate(request);
+
+        AssignmentQuestionEntry assignmentQuestionEntry = new AssignmentQuestionEntry();
+        assignmentQuestionEntry.setQuestionId(questionId);
+        assignmentQuestionRepo.save(assignmentQuestionEntry);
 
         /*
          * local ids are necessary to save the order of identifiers and answers to the database.
-         * Therefore the following integers are initialized with 0 and later incremented by 1 with every option.
+         * They are numbered from 1 in the order of the request and inserted in one statement each.
+         * Answers are inserted first, as identifiers reference them.
          */
-        int identifierLocalId = 0;
-        Integer answerLocalId = 0;
+        assignmentAnswerRepo.insertAll(questionId, localIds(request.getAnswers().length), request.getAnswers());
+        assignmentIdentifierRepo.insertAll(questionId, localIds(request.getIdentifiers().length), request.getIdentifiers(), request.getCorrectAssignmentIds());
 
-        List<AssignmentIdentifier> identifiers = new ArrayList<>();
-        List<AssignmentAnswer> answers = new ArrayList<>();
-
-        for (String identifier : request.getIdentifiers()) {
-            identifierLocalId++;
-            AssignmentIdentifier assignmentIdentifier = new AssignmentIdentifier(null, questionId, identifierLocalId, identifier, request.getCorrectAssignmentIds()[identifierLocalId - 1]);
-            identifiers.add(assignmentIdentifierRepo.save(assignmentIdentifier));
-        }
+        return this.getByQuestionId(questionId);
+    }
 
-        for (String answer : request.getAnswers()) {
-            answerLocalId++;
-            AssignmentAnswer assignmentAnswer = new AssignmentAnswer(null, questionId, answerLocalId, answer);
-            answers.add(assignmentAnswerRepo.save(assignmentAnswer));
+    @Override
+    public void createAll(List<CreateAssignmentQuestionRequest> requests, List<Integer> questionIds) {
+        List<AssignmentQuestionEntry> entries = new ArrayList<>();
+        List<AssignmentAnswer> answers = new ArrayList<>();
+        List<AssignmentIdentifier> identifiers = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            CreateAssignmentQuestionRequest request = requests.get(i);
+            Integer questionId = questionIds.get(i);
+            entries.add(new AssignmentQuestionEntry(null, questionId));
+            for (int localId = 1; localId <= request.getAnswers().length; localId++) {
+                answers.add(new AssignmentAnswer(null, questionId, localId, request.getAnswers()[localId - 1]));
+            }
+            // The correct assignment ids are stored like in the create-function.
+            for (int localId = 1; localId <= request.getIdentifiers().length; localId++) {
+                identifiers.add(new AssignmentIdentifier(null, questionId, localId, request.getIdentifiers()[localId - 1], request.getCorrectAssignmentIds()[localId - 1]));
+            }
         }
-
-        assignmentQuestionEntry.setQuestionId(questionId);
-        assignmentQuestionRepo.save(assignmentQuestionEntry);
-
-        AssignmentQuestion enteredQuestion = this.getByQuestionId(questionId);
-        enteredQuestion.setIdentifiers(identifiers);
-        enteredQuestion.setAnswers(answers);
-
-        return enteredQuestion;
+        assignmentQuestionRepo.insertAll(entries, answers, identifiers);
     }
 
     @Override
     public AssignmentQuestion update(UpdateAssignmentQuestionRequest request, Integer questionId) {
-        AssignmentQuestionEntry entry = assignmentQuestionRepo.findByQuestionId(questionId);
+        List<AssignmentIdentifier> storedIdentifiers = assignmentIdentifierRepo.findAllByQuestionId(questionId);
 
         /*
          * When an assignment question shall be updated, it has to be ensured that the restrictions won't be violated.
@@ -140,16 +186,14 @@ public class AssignmentQuestionServiceImpl extends QuestionTypeService<Assignmen
          * the amounts of identifiers and answers have to be equal and is limited to 2-26.
          * there shouldn't be more identifiers than answers.
          * the amount of identifiers has to match with the amount of correct assignment ids.
-         *
-         * If identifiers and/or answers shall be updated, the existing identifiers/answers will be deleted from the database and the new values will be inserted.
          */
         if (request.getIdentifiers() != null && request.getAnswers() != null && request.getCorrectAssignmentIds() != null) {
             throw new ConflictException(resourceBundle.getString("assignment-question-update-too-many-arguments"));
         }
-        if (request.getIdentifiers() != null && request.getIdentifiers().length != assignmentIdentifierRepo.findAllByQuestionId(questionId).size()) {
+        if (request.getIdentifiers() != null && request.getIdentifiers().length != storedIdentifiers.size()) {
             throw new ConflictException(resourceBundle.getString("assignment-question-update-identifier-length-difference"));
         }
-        if (request.getCorrectAssignmentIds() != null && request.getCorrectAssignmentIds().length != assignmentIdentifierRepo.findAllByQuestionId(questionId).size()) {
+        if (request.getCorrectAssignmentIds() != null && request.getCorrectAssignmentIds().length != storedIdentifiers.size()) {
             throw new ConflictException(resourceBundle.getString("assignment-question-update-correct-identifiers-length-difference"));
         }
 
@@ -178,48 +222,46 @@ public class AssignmentQuestionServiceImpl extends QuestionTypeService<Assignmen
             throw new ConflictException(resourceBundle.getString("assignment-question-correct-assignment-ids-corrupt"));
         }
 
-        int identifierLocalId = 0;
-        if (request.getIdentifiers() != null) {
-            for (AssignmentIdentifier ident : assignmentIdentifierRepo.findAllByQuestionId(questionId)) {
-                ident.setIdentifier(request.getIdentifiers()[identifierLocalId]);
-                assignmentIdentifierRepo.save(ident);
-                identifierLocalId++;
+        if (request.getIdentifiers() != null || request.getCorrectAssignmentIds() != null) {
+            // Only identifiers whose text or correct answer changes are written.
+            List<Integer> localIds = new ArrayList<>();
+            List<String> identifiers = new ArrayList<>();
+            List<Integer> correctAnswerLocalIds = new ArrayList<>();
+            List<AssignmentIdentifier> sortedIdentifiers = new ArrayList<>(storedIdentifiers);
+            sortedIdentifiers.sort(Comparator.comparing(AssignmentIdentifier::getLocalId));
+            for (int index = 0; index < sortedIdentifiers.size(); index++) {
+                AssignmentIdentifier stored = sortedIdentifiers.get(index);
+                String identifier = request.getIdentifiers() != null ? request.getIdentifiers()[index] : stored.getIdentifier();
+                Integer correctAnswerLocalId = request.getCorrectAssignmentIds() != null ? request.getCorrectAssignmentIds()[index] : stored.getCorrectAnswerLocalId();
+                if (!identifier.equals(stored.getIdentifier()) || !correctAnswerLocalId.equals(stored.getCorrectAnswerLocalId())) {
+                    localIds.add(stored.getLocalId());
+                    identifiers.add(identifier);
+                    correctAnswerLocalIds.add(correctAnswerLocalId);
+                }
+            }
+            if (!localIds.isEmpty()) {
+                assignmentIdentifierRepo.updateAll(questionId, localIds.toArray(Integer[]::new), identifiers.toArray(String[]::new), correctAnswerLocalIds.toArray(Integer[]::new));
             }
-
         }
 
         if (request.getAnswers() != null) {
-            for (AssignmentAnswer answer : assignmentAnswerRepo.findAllByQuestionId(questionId)) {
-                assignmentAnswerRepo.delete(answer);
+            /*
+             * The new answers are compared with the existing ones by their local id,
+             * so only changed answers are updated, additional ones inserted and surplus ones deleted.
+             */
+            AnswerChanges changes = AnswerChanges.of(assignmentAnswerRepo.findAllByQuestionId(questionId).stream()
+                    .collect(Collectors.toMap(AssignmentAnswer::getLocalId, AssignmentAnswer::getAnswer)), request.getAnswers());
+            if (changes.isChanging()) {
+                assignmentAnswerRepo.updateTexts(questionId, changes.getChangedLocalIds(), changes.getChangedTexts());
             }
-
-            Integer answerLocalId = 0;
-            for (String answer : request.getAnswers()) {
-                answerLocalId++;
-                AssignmentAnswer assignAnswer = new AssignmentAnswer(null, questionId, answerLocalId, answer);
-                assignmentAnswerRepo.save(assignAnswer);
+            if (changes.isAdding()) {
+                assignmentAnswerRepo.insertAll(questionId, changes.getAddedLocalIds(), changes.getAddedTexts());
             }
-        }
-
-        if (request.getCorrectAssignmentIds() != null) {
-            List<AssignmentIdentifier> existingIdentifiers = assignmentIdentifierRepo.findAllByQuestionId(questionId);
-            int correctAnswerLocalId = 0;
-
-            if (request.getCorrectAssignmentIds().length != existingIdentifiers.size()) {
-                throw new ConflictException("assignment-question-correct-assignment-ids-corrupt");
-            } else {
-                for (AssignmentIdentifier a : existingIdentifiers) {
-                    a.setCorrectAnswerLocalId(request.getCorrectAssignmentIds()[correctAnswerLocalId]);
-                    correctAnswerLocalId++;
-                    assignmentIdentifierRepo.save(a);
-                }
+            if (changes.isRemoving()) {
+                assignmentAnswerRepo.deleteAllByQuestionIdAndLocalIdGreaterThan(questionId, request.getAnswers().length);
             }
         }
 
-        AssignmentQuestion enteredQuestion = this.getByQuestionId(questionId);
-        enteredQuestion.setIdentifiers(assignmentIdentifierRepo.findAllByQuestionId(questionId));
-        enteredQuestion.setAnswers(assignmentAnswerRepo.findAllByQuestionId(questionId));
-        return enteredQuestion;
-
+        return this.getByQuestionId(questionId);
     }
 }
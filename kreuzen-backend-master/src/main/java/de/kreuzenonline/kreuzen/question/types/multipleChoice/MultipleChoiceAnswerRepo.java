@@ -1,5 +1,7 @@
 package de.kreuzenonline.kreuzen.question.types.multipleChoice;
 
+import org.springframework.data.jdbc.repository.query.Modifying;
+import org.springframework.data.jdbc.repository.query.Query;
 import org.springframework.data.repository.CrudRepository;
 
 import java.util.List;
@@ -7,4 +9,28 @@ import java.util.List;
 public interface MultipleChoiceAnswerRepo extends CrudRepository<MultipleChoiceAnswer, Integer> {
 
     List<MultipleChoiceAnswer> findAllByQuestionId(Integer questionId);
+
+    @Query("SELECT * FROM question_multiple_choice_answer WHERE question_id = ANY(:questionIds) ORDER BY question_id, local_id")
+    List<MultipleChoiceAnswer> findAllByQuestionIds(Integer[] questionIds);
+
+    /**
+     * Inserts answers of a question in one statement.
+     */
+    @Modifying
+    @Query("INSERT INTO question_multiple_choice_answer(question_id, local_id, text) " +
+            " SELECT :questionId, x.local_id, x.text FROM unnest(CAST(:localIds AS int[]), CAST(:texts AS text[])) AS x(local_id, text)")
+    void insertAll(Integer questionId, Integer[] localIds, String[] texts);
+
+    /**
+     * Changes the texts of answers of a question in one statement.
+     */
+    @Modifying
+    @Query("UPDATE question_multiple_choice_answer a SET text = x.text " +
+            " FROM unnest(CAST(:localIds AS int[]), CAST(:texts AS text[])) AS x(local_id, text) " +
+            " WHERE a.question_id = :questionId AND a.local_id = x.local_id")
+    void updateTexts(Integer questionId, Integer[] localIds, String[] texts);
+
+    @Modifying
+    @Query("DELETE FROM question_multiple_choice_answer WHERE question_id = :questionId AND local_id > :localId")
+    void deleteAllByQuestionIdAndLocalIdGreaterThan(Integer questionId, Integer localId);
 }
@@ -0,0 +1,45 @@
+package de.kreuzenonline.kreuzen.question.types.multipleChoice;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.core.support.AbstractSqlTypeValue;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Collection;
+
+public class MultipleChoiceImportRepoImpl implements MultipleChoiceImportRepo {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public MultipleChoiceImportRepoImpl(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertAll(Collection<MultipleChoiceQuestionEntry> entries, Collection<MultipleChoiceAnswer> answers) {
+        SqlParameterSource[] entryParams = entries.stream()
+                .map(entry -> new MapSqlParameterSource()
+                        .addValue("questionId", entry.getQuestionId())
+                        // Arrays would be expanded to a list of parameters, so the array is created by the driver.
+                        .addValue("correctAnswerLocalIds", new AbstractSqlTypeValue() {
+                            @Override
+                            protected Array createTypeValue(Connection con, int sqlType, String typeName) throws SQLException {
+                                return con.createArrayOf("int4", entry.getCorrectAnswerLocalIds());
+                            }
+                        }, Types.ARRAY))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate("INSERT INTO question_multiple_choice (question_id, correct_answer_local_ids) VALUES (:questionId, :correctAnswerLocalIds)", entryParams);
+
+        SqlParameterSource[] answerParams = answers.stream()
+                .map(answer -> new MapSqlParameterSource()
+                        .addValue("questionId", answer.getQuestionId())
+                        .addValue("localId", answer.getLocalId())
+                        .addValue("text", answer.getText()))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate("INSERT INTO question_multiple_choice_answer (question_id, local_id, text) VALUES (:questionId, :localId, :text)", answerParams);
+    }
+}
@@ -1,10 +1,16 @@
 package de.kreuzenonline.kreuzen.question.types.multipleChoice;
 
+import org.springframework.data.jdbc.repository.query.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
-public interface MultipleChoiceQuestionRepo extends CrudRepository<MultipleChoiceQuestionEntry, Integer> {
+public interface MultipleChoiceQuestionRepo extends CrudRepository<MultipleChoiceQuestionEntry, Integer>, MultipleChoiceImportRepo {
 
     MultipleChoiceQuestionEntry findByQuestionId(Integer questionId);
+
+    @Query("SELECT * FROM question_multiple_choice WHERE question_id = ANY(:questionIds)")
+    List<MultipleChoiceQuestionEntry> findAllByQuestionIds(Integer[] questionIds);
 }
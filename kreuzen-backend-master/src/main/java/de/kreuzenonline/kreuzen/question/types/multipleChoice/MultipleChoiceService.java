@@ -1,9 +1,12 @@
 package de.kreuzenonline.kreuzen.question.types.multipleChoice;
 
 
+import de.kreuzenonline.kreuzen.question.BaseQuestion;
 import de.kreuzenonline.kreuzen.question.types.multipleChoice.requests.CreateMultipleChoiceRequest;
 import de.kreuzenonline.kreuzen.question.types.multipleChoice.requests.UpdateMultipleChoiceRequest;
 
+import java.util.List;
+
 public interface MultipleChoiceService {
 
     /**
@@ -14,6 +17,15 @@ public interface MultipleChoiceService {
      */
     MultipleChoiceQuestion getByQuestionId(Integer questionId);
 
+    /**
+     * Gets the multiple-choice questions for a list of already loaded base questions.
+     * Answers and correct answers of all questions are loaded at once, base questions of other types are skipped.
+     *
+     * @param baseQuestions base questions, e.g. all questions of a session.
+     * @return multiple-choice questions in the order of the given base questions.
+     */
+    List<MultipleChoiceQuestion> getByBaseQuestions(List<BaseQuestion> baseQuestions);
+
     /**
      * Creates a new multiple-choice question.
      *
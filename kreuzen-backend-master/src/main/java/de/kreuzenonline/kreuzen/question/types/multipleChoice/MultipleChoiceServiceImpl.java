@@ -1,17 +1,20 @@
 package de.kreuzenonline.kreuzen.question.types.multipleChoice;
 
+import de.kreuzenonline.kreuzen.cache.CacheConfig;
 import de.kreuzenonline.kreuzen.exceptions.ConflictException;
 import de.kreuzenonline.kreuzen.exceptions.NotFoundException;
 import de.kreuzenonline.kreuzen.question.BaseQuestion;
 import de.kreuzenonline.kreuzen.question.BaseQuestionRepo;
+import de.kreuzenonline.kreuzen.question.types.AnswerChanges;
 import de.kreuzenonline.kreuzen.question.types.QuestionTypeService;
 import de.kreuzenonline.kreuzen.question.types.multipleChoice.requests.CreateMultipleChoiceRequest;
 import de.kreuzenonline.kreuzen.question.types.multipleChoice.requests.UpdateMultipleChoiceRequest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.ResourceBundle;
+import java.util.*;
+import java.util.stream.Collectors;
 
 @Service("multipleChoice")
 public class MultipleChoiceServiceImpl extends QuestionTypeService<MultipleChoiceQuestion, CreateMultipleChoiceRequest, UpdateMultipleChoiceRequest> implements MultipleChoiceService {
@@ -23,9 +26,8 @@ public class MultipleChoiceServiceImpl extends QuestionTypeService<MultipleChoic
     private final BaseQuestionRepo baseQuestionRepo;
     private final ResourceBundle resourceBundle;
 
-    public MultipleChoiceServiceImpl(MultipleChoiceQuestionRepo multipleChoiceQuestionRepo, MultipleChoiceAnswerRepo multipleChoiceAnswerRepo, BaseQuestionRepo baseQuestionRepo, ResourceBundle resourceBundle) {
-        super(CreateMultipleChoiceRequest.class,
-                UpdateMultipleChoiceRequest.class, resourceBundle);
+    public MultipleChoiceServiceImpl(MultipleChoiceQuestionRepo multipleChoiceQuestionRepo, MultipleChoiceAnswerRepo multipleChoiceAnswerRepo, BaseQuestionRepo baseQuestionRepo, ResourceBundle resourceBundle, CacheManager cacheManager) {
+        super(MultipleChoiceQuestion.class, TYPE, CreateMultipleChoiceRequest.class, UpdateMultipleChoiceRequest.class, resourceBundle, cacheManager);
         this.multipleChoiceQuestionRepo = multipleChoiceQuestionRepo;
         this.multipleChoiceAnswerRepo = multipleChoiceAnswerRepo;
         this.baseQuestionRepo = baseQuestionRepo;
@@ -33,12 +35,13 @@ public class MultipleChoiceServiceImpl extends QuestionTypeService<MultipleChoic
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.TYPED_QUESTIONS)
     public MultipleChoiceQuestion getByQuestionId(Integer questionId) {
         BaseQuestion baseQuestion = baseQuestionRepo.findById(questionId).orElseThrow(() -> new NotFoundException(resourceBundle.getString("question-not-found")));
-        if (multipleChoiceQuestionRepo.findByQuestionId(questionId) == null) {
+        MultipleChoiceQuestionEntry questionEntry = multipleChoiceQuestionRepo.findByQuestionId(questionId);
+        if (questionEntry == null) {
             throw new NotFoundException(resourceBundle.getString("multiple-choice-question-not-found"));
         }
-        MultipleChoiceQuestionEntry questionEntry = multipleChoiceQuestionRepo.findByQuestionId(questionId);
         return new MultipleChoiceQuestion(
                 baseQuestion.getId(),
                 baseQuestion.getText(),
@@ -57,9 +60,42 @@ public class MultipleChoiceServiceImpl extends QuestionTypeService<MultipleChoic
     }
 
     @Override
-    public MultipleChoiceQuestion create(CreateMultipleChoiceRequest request, Integer questionId) {
-        MultipleChoiceQuestionEntry entry = new MultipleChoiceQuestionEntry();
+    protected List<MultipleChoiceQuestion> assemble(List<BaseQuestion> baseQuestions) {
+        Integer[] questionIds = baseQuestions.stream().map(BaseQuestion::getId).toArray(Integer[]::new);
+
+        Map<Integer, Integer[]> correctAnswers = new HashMap<>();
+        for (MultipleChoiceQuestionEntry entry : multipleChoiceQuestionRepo.findAllByQuestionIds(questionIds)) {
+            correctAnswers.put(entry.getQuestionId(), entry.getCorrectAnswerLocalIds());
+        }
+        Map<Integer, List<MultipleChoiceAnswer>> answers = multipleChoiceAnswerRepo.findAllByQuestionIds(questionIds).stream()
+                .collect(Collectors.groupingBy(MultipleChoiceAnswer::getQuestionId));
+
+        List<MultipleChoiceQuestion> questions = new ArrayList<>();
+        for (BaseQuestion baseQuestion : baseQuestions) {
+            if (!correctAnswers.containsKey(baseQuestion.getId())) {
+                continue;
+            }
+            questions.add(new MultipleChoiceQuestion(
+                    baseQuestion.getId(),
+                    baseQuestion.getText(),
+                    baseQuestion.getType(),
+                    baseQuestion.getAdditionalInformation(),
+                    baseQuestion.getPoints(),
+                    baseQuestion.getExamId(),
+                    baseQuestion.getCourseId(),
+                    baseQuestion.getCreatorId(),
+                    baseQuestion.getUpdaterId(),
+                    baseQuestion.getOrigin(),
+                    baseQuestion.getIsApproved(),
+                    correctAnswers.get(baseQuestion.getId()),
+                    answers.getOrDefault(baseQuestion.getId(), new ArrayList<>())
+            ));
+        }
+        return questions;
+    }
 
+    @Override
+    public void validate(CreateMultipleChoiceRequest request) {
         /*
          * Restrictions for the creation of multiple choice questions:
          * both answers and correct local ids can't be empty.
@@ -86,34 +122,48 @@ public class MultipleChoiceServiceImpl extends QuestionTypeService<MultipleChoic
         if (request.getAnswers().length < request.getCorrectAnswerLocalIds().length) {
             throw new ConflictException(resourceBundle.getString("MultipleChoiceQuestion-correct-answer-ids-corrupt"));
         }
+    }
 
+    @Override
+    public MultipleChoiceQuestion create(CreateMultipleChoiceRequest request, Integer questionId) {
+        validate(request);
+
+        MultipleChoiceQuestionEntry entry = new MultipleChoiceQuestionEntry();
         entry.setQuestionId(questionId);
         entry.setCorrectAnswerLocalIds(request.getCorrectAnswerLocalIds());
         multipleChoiceQuestionRepo.save(entry);
 
         /*
          * local id is necessary to save the order of the answers to the database.
-         * Therefore the following integer is initialized with 0 and later incremented by 1 with every option.
+         * The answers are numbered from 1 in the order of the request and inserted in one statement.
          */
-        Integer answerLocalId = 0;
-
-        List<MultipleChoiceAnswer> answers = new ArrayList<>();
-
-        for (String answer : request.getAnswers()) {
-            answerLocalId++;
-            answers.add(multipleChoiceAnswerRepo.save(new MultipleChoiceAnswer(null, questionId, answerLocalId, answer)));
-        }
+        multipleChoiceAnswerRepo.insertAll(questionId, localIds(request.getAnswers().length), request.getAnswers());
 
         MultipleChoiceQuestion enteredQuestion = this.getByQuestionId(questionId);
         enteredQuestion.setCorrectAnswerLocalIds(request.getCorrectAnswerLocalIds());
-        enteredQuestion.setAnswers(answers);
 
         return enteredQuestion;
     }
 
+    @Override
+    public void createAll(List<CreateMultipleChoiceRequest> requests, List<Integer> questionIds) {
+        List<MultipleChoiceQuestionEntry> entries = new ArrayList<>();
+        List<MultipleChoiceAnswer> answers = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            CreateMultipleChoiceRequest request = requests.get(i);
+            Integer questionId = questionIds.get(i);
+            entries.add(new MultipleChoiceQuestionEntry(null, questionId, request.getCorrectAnswerLocalIds()));
+            for (int localId = 1; localId <= request.getAnswers().length; localId++) {
+                answers.add(new MultipleChoiceAnswer(null, questionId, localId, request.getAnswers()[localId - 1]));
+            }
+        }
+        multipleChoiceQuestionRepo.insertAll(entries, answers);
+    }
+
     @Override
     public MultipleChoiceQuestion update(UpdateMultipleChoiceRequest request, Integer questionId) {
         MultipleChoiceQuestionEntry mcq = multipleChoiceQuestionRepo.findByQuestionId(questionId);
+        List<MultipleChoiceAnswer> storedAnswers = multipleChoiceAnswerRepo.findAllByQuestionId(questionId);
 
         /*
          * When a multiple choice question shall be updated, it has to be ensured that the restrictions won't be violated.
@@ -135,37 +185,35 @@ public class MultipleChoiceServiceImpl extends QuestionTypeService<MultipleChoic
             throw new ConflictException(resourceBundle.getString("CreateMultipleChoiceRequest-correct-answers-not-enough"));
         }
 
-        if (request.getCorrectAnswerLocalIds() != null && request.getAnswers() != null && request.getCorrectAnswerLocalIds().length > request.getAnswers().length
-                || request.getCorrectAnswerLocalIds() == null && request.getAnswers() != null && request.getCorrectAnswerLocalIds().length > request.getAnswers().length
-                || request.getCorrectAnswerLocalIds() != null && request.getAnswers() == null && request.getCorrectAnswerLocalIds().length > multipleChoiceAnswerRepo.findAllByQuestionId(questionId).size()
-        ) {
+        Integer[] correctAnswerLocalIds = request.getCorrectAnswerLocalIds() != null ? request.getCorrectAnswerLocalIds() : mcq.getCorrectAnswerLocalIds();
+        int answerCount = request.getAnswers() != null ? request.getAnswers().length : storedAnswers.size();
+        if (correctAnswerLocalIds.length > answerCount) {
             throw new ConflictException(resourceBundle.getString("MultipleChoiceQuestion-correct-answer-ids-corrupt"));
         }
 
         if (request.getAnswers() != null) {
             /*
-             * If there are new answers set in the update request, the existing ones will be deleted and
-             * the new ones will be saved to the database.
+             * The new answers are compared with the existing ones by their local id,
+             * so only changed answers are updated, additional ones inserted and surplus ones deleted.
              */
-            for (MultipleChoiceAnswer mca : multipleChoiceAnswerRepo.findAllByQuestionId(questionId)) {
-                multipleChoiceAnswerRepo.delete(mca);
+            AnswerChanges changes = AnswerChanges.of(storedAnswers.stream()
+                    .collect(Collectors.toMap(MultipleChoiceAnswer::getLocalId, MultipleChoiceAnswer::getText)), request.getAnswers());
+            if (changes.isChanging()) {
+                multipleChoiceAnswerRepo.updateTexts(questionId, changes.getChangedLocalIds(), changes.getChangedTexts());
             }
-
-            Integer answerLocalId = 0;
-
-            for (String answer : request.getAnswers()) {
-                answerLocalId++;
-                multipleChoiceAnswerRepo.save(new MultipleChoiceAnswer(null, questionId, answerLocalId, answer));
+            if (changes.isAdding()) {
+                multipleChoiceAnswerRepo.insertAll(questionId, changes.getAddedLocalIds(), changes.getAddedTexts());
+            }
+            if (changes.isRemoving()) {
+                multipleChoiceAnswerRepo.deleteAllByQuestionIdAndLocalIdGreaterThan(questionId, request.getAnswers().length);
             }
-        }
-        if (request.getCorrectAnswerLocalIds() != null) {
-            mcq.setCorrectAnswerLocalIds(request.getCorrectAnswerLocalIds());
         }
 
-        MultipleChoiceQuestion updatedQuestion = this.getByQuestionId(questionId);
-        updatedQuestion.setAnswers(multipleChoiceAnswerRepo.findAllByQuestionId(questionId));
-        updatedQuestion.setCorrectAnswerLocalIds(mcq.getCorrectAnswerLocalIds());
+        if (!Arrays.equals(correctAnswerLocalIds, mcq.getCorrectAnswerLocalIds())) {
+            mcq.setCorrectAnswerLocalIds(correctAnswerLocalIds);
+            multipleChoiceQuestionRepo.save(mcq);
+        }
 
-        return updatedQuestion;
+        return this.getByQuestionId(questionId);
     }
 }
@@ -0,0 +1,17 @@
+package de.kreuzenonline.kreuzen.question.types.singleChoice;
+
+import java.util.Collection;
+
+/**
+ * Batch inserts of single choice questions, which can not be expressed as a query method.
+ */
+public interface SingleChoiceImportRepo {
+
+    /**
+     * Inserts the given entries and their answers in one JDBC batch per table.
+     *
+     * @param entries type entries of base questions that already exist
+     * @param answers answers of the entries
+     */
+    void insertAll(Collection<SingleChoiceQuestionEntry> entries, Collection<SingleChoiceAnswer> answers);
+}
@@ -0,0 +1,34 @@
+package de.kreuzenonline.kreuzen.question.types.singleChoice;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.util.Collection;
+
+public class SingleChoiceImportRepoImpl implements SingleChoiceImportRepo {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public SingleChoiceImportRepoImpl(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertAll(Collection<SingleChoiceQuestionEntry> entries, Collection<SingleChoiceAnswer> answers) {
+        SqlParameterSource[] entryParams = entries.stream()
+                .map(entry -> new MapSqlParameterSource()
+                        .addValue("questionId", entry.getQuestionId())
+                        .addValue("correctAnswerLocalId", entry.getCorrectAnswerLocalId()))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate("INSERT INTO question_single_choice (question_id, correct_answer_local_id) VALUES (:questionId, :correctAnswerLocalId)", entryParams);
+
+        SqlParameterSource[] answerParams = answers.stream()
+                .map(answer -> new MapSqlParameterSource()
+                        .addValue("questionId", answer.getQuestionId())
+                        .addValue("localId", answer.getLocalId())
+                        .addValue("text", answer.getText()))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate("INSERT INTO question_single_choice_answer (question_id, local_id, text) VALUES (:questionId, :localId, :text)", answerParams);
+    }
+}
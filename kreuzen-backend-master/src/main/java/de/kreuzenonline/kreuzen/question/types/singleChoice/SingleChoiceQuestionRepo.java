@@ -1,11 +1,17 @@
 package de.kreuzenonline.kreuzen.question.types.singleChoice;
 
+import org.springframework.data.jdbc.repository.query.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
-public interface SingleChoiceQuestionRepo extends CrudRepository<SingleChoiceQuestionEntry, Integer> {
+public interface SingleChoiceQuestionRepo extends CrudRepository<SingleChoiceQuestionEntry, Integer>, SingleChoiceImportRepo {
 
     SingleChoiceQuestionEntry findByQuestionId(Integer questionId);
 
+    @Query("SELECT * FROM question_single_choice WHERE question_id = ANY(:questionIds)")
+    List<SingleChoiceQuestionEntry> findAllByQuestionIds(Integer[] questionIds);
+
 }
@@ -1,8 +1,11 @@
 package de.kreuzenonline.kreuzen.question.types.singleChoice;
 
+import de.kreuzenonline.kreuzen.question.BaseQuestion;
 import de.kreuzenonline.kreuzen.question.types.singleChoice.requests.CreateSingleChoiceRequest;
 import de.kreuzenonline.kreuzen.question.types.singleChoice.requests.UpdateSingleChoiceRequest;
 
+import java.util.List;
+
 public interface SingleChoiceService {
 
     /**
@@ -13,6 +16,15 @@ public interface SingleChoiceService {
      */
     SingleChoiceQuestion getByQuestionId(Integer questionId);
 
+    /**
+     * Gets the single-choice questions for a list of already loaded base questions.
+     * Answers and correct answers of all questions are loaded at once, base questions of other types are skipped.
+     *
+     * @param baseQuestions base questions, e.g. all questions of a session.
+     * @return single-choice questions in the order of the given base questions.
+     */
+    List<SingleChoiceQuestion> getByBaseQuestions(List<BaseQuestion> baseQuestions);
+
     /**
      * Creates a new single-choice question.
      *
@@ -1,17 +1,20 @@
 package de.kreuzenonline.kreuzen.question.types.singleChoice;
 
+import de.kreuzenonline.kreuzen.cache.CacheConfig;
 import de.kreuzenonline.kreuzen.exceptions.ConflictException;
 import de.kreuzenonline.kreuzen.exceptions.NotFoundException;
 import de.kreuzenonline.kreuzen.question.BaseQuestion;
 import de.kreuzenonline.kreuzen.question.BaseQuestionRepo;
+import de.kreuzenonline.kreuzen.question.types.AnswerChanges;
 import de.kreuzenonline.kreuzen.question.types.QuestionTypeService;
 import de.kreuzenonline.kreuzen.question.types.singleChoice.requests.CreateSingleChoiceRequest;
 import de.kreuzenonline.kreuzen.question.types.singleChoice.requests.UpdateSingleChoiceRequest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.ResourceBundle;
+import java.util.*;
+import java.util.stream.Collectors;
 
 @Service("singleChoice")
 public class SingleChoiceServiceImpl extends QuestionTypeService<SingleChoiceQuestion, CreateSingleChoiceRequest, UpdateSingleChoiceRequest> implements SingleChoiceService {
@@ -23,20 +26,22 @@ public class SingleChoiceServiceImpl extends QuestionTypeService<SingleChoiceQue
     private final BaseQuestionRepo baseQuestionRepo;
     private final ResourceBundle resourceBundle;
 
-    public SingleChoiceServiceImpl(SingleChoiceQuestionRepo singleChoiceQuestionRepo, SingleChoiceAnswerRepo singleChoiceAnswerRepo, BaseQuestionRepo baseQuestionRepo, ResourceBundle resourceBundle) {
-        super(CreateSingleChoiceRequest.class, UpdateSingleChoiceRequest.class, resourceBundle);
+    public SingleChoiceServiceImpl(SingleChoiceQuestionRepo singleChoiceQuestionRepo, SingleChoiceAnswerRepo singleChoiceAnswerRepo, BaseQuestionRepo baseQuestionRepo, ResourceBundle resourceBundle, CacheManager cacheManager) {
+        super(SingleChoiceQuestion.class, TYPE, CreateSingleChoiceRequest.class, UpdateSingleChoiceRequest.class, resourceBundle, cacheManager);
         this.singleChoiceQuestionRepo = singleChoiceQuestionRepo;
         this.singleChoiceAnswerRepo = singleChoiceAnswerRepo;
         this.baseQuestionRepo = baseQuestionRepo;
         this.resourceBundle = resourceBundle;
     }
 
+    @Override
+    @Cacheable(cacheNames = CacheConfig.TYPED_QUESTIONS)
     public SingleChoiceQuestion getByQuestionId(Integer questionId) {
         BaseQuestion baseQuestion = baseQuestionRepo.findById(questionId).orElseThrow(() -> new NotFoundException(resourceBundle.getString("question-not-found")));
-        if (singleChoiceQuestionRepo.findByQuestionId(questionId) == null) {
+        SingleChoiceQuestionEntry questionEntry = singleChoiceQuestionRepo.findByQuestionId(questionId);
+        if (questionEntry == null) {
             throw new NotFoundException(resourceBundle.getString("single-choice-question-not-found"));
         }
-        SingleChoiceQuestionEntry questionEntry = singleChoiceQuestionRepo.findByQuestionId(questionId);
         return new SingleChoiceQuestion(
                 baseQuestion.getId(),
                 baseQuestion.getText(),
@@ -55,7 +60,42 @@ public class SingleChoiceServiceImpl extends QuestionTypeService<SingleChoiceQue
     }
 
     @Override
-    public SingleChoiceQuestion create(CreateSingleChoiceRequest request, Integer questionId) {
+    protected List<SingleChoiceQuestion> assemble(List<BaseQuestion> baseQuestions) {
+        Integer[] questionIds = baseQuestions.stream().map(BaseQuestion::getId).toArray(Integer[]::new);
+
+        Map<Integer, Integer> correctAnswers = new HashMap<>();
+        for (SingleChoiceQuestionEntry entry : singleChoiceQuestionRepo.findAllByQuestionIds(questionIds)) {
+            correctAnswers.put(entry.getQuestionId(), entry.getCorrectAnswerLocalId());
+        }
+        Map<Integer, List<SingleChoiceAnswer>> answers = singleChoiceAnswerRepo.findAllByQuestionIds(questionIds).stream()
+                .collect(Collectors.groupingBy(SingleChoiceAnswer::getQuestionId));
+
+        List<SingleChoiceQuestion> questions = new ArrayList<>();
+        for (BaseQuestion baseQuestion : baseQuestions) {
+            if (!correctAnswers.containsKey(baseQuestion.getId())) {
+                continue;
+            }
+            questions.add(new SingleChoiceQuestion(
+                    baseQuestion.getId(),
+                    baseQuestion.getText(),
+                    baseQuestion.getType(),
+                    baseQuestion.getAdditionalInformation(),
+                    baseQuestion.getPoints(),
+                    baseQuestion.getExamId(),
+                    baseQuestion.getCourseId(),
+                    baseQuestion.getCreatorId(),
+                    baseQuestion.getUpdaterId(),
+                    baseQuestion.getOrigin(),
+                    baseQuestion.getIsApproved(),
+                    correctAnswers.get(baseQuestion.getId()),
+                    answers.getOrDefault(baseQuestion.getId(), new ArrayList<>())
+            ));
+        }
+        return questions;
+    }
+
+    @Override
+    public void validate(CreateSingleChoiceRequest request) {
         /*
          * Restrictions for the creation of single choice questions:
          * both answers and local id of the correct answer can't be empty.
@@ -77,40 +117,51 @@ public class SingleChoiceServiceImpl extends QuestionTypeService<SingleChoiceQue
         if (request.getCorrectAnswerLocalId() < 1) {
             throw new ConflictException(resourceBundle.getString("CreateSingleChoiceRequest-correct-answer-not-so-low"));
         }
-
-        SingleChoiceQuestionEntry entry = new SingleChoiceQuestionEntry();
-
         if (request.getAnswers().length < request.getCorrectAnswerLocalId()) {
             throw new ConflictException(resourceBundle.getString("SingleChoiceQuestion-correct-answer-id-corrupt"));
         }
+    }
+
+    @Override
+    public SingleChoiceQuestion create(CreateSingleChoiceRequest request, Integer questionId) {
+        validate(request);
 
+        SingleChoiceQuestionEntry entry = new SingleChoiceQuestionEntry();
         entry.setQuestionId(questionId);
         entry.setCorrectAnswerLocalId(request.getCorrectAnswerLocalId());
         singleChoiceQuestionRepo.save(entry);
 
         /*
          * local id is necessary to save the order of the answers to the database.
-         * Therefore the following integer is initialized with 0 and later incremented by 1 with every option.
+         * The answers are numbered from 1 in the order of the request and inserted in one statement.
          */
-        Integer answerLocalId = 0;
-
-        List<SingleChoiceAnswer> answers = new ArrayList<>();
-
-        for (String answer : request.getAnswers()) {
-            answerLocalId++;
-            answers.add(singleChoiceAnswerRepo.save(new SingleChoiceAnswer(null, questionId, answerLocalId, answer)));
-        }
+        singleChoiceAnswerRepo.insertAll(questionId, localIds(request.getAnswers().length), request.getAnswers());
 
         SingleChoiceQuestion enteredQuestion = this.getByQuestionId(questionId);
         enteredQuestion.setCorrectAnswerLocalId(request.getCorrectAnswerLocalId());
-        enteredQuestion.setAnswers(answers);
 
         return enteredQuestion;
     }
 
+    @Override
+    public void createAll(List<CreateSingleChoiceRequest> requests, List<Integer> questionIds) {
+        List<SingleChoiceQuestionEntry> entries = new ArrayList<>();
+        List<SingleChoiceAnswer> answers = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            CreateSingleChoiceRequest request = requests.get(i);
+            Integer questionId = questionIds.get(i);
+            entries.add(new SingleChoiceQuestionEntry(null, questionId, request.getCorrectAnswerLocalId()));
+            for (int localId = 1; localId <= request.getAnswers().length; localId++) {
+                answers.add(new SingleChoiceAnswer(null, questionId, localId, request.getAnswers()[localId - 1]));
+            }
+        }
+        singleChoiceQuestionRepo.insertAll(entries, answers);
+    }
+
     @Override
     public SingleChoiceQuestion update(UpdateSingleChoiceRequest request, Integer questionId) {
         SingleChoiceQuestionEntry scq = singleChoiceQuestionRepo.findByQuestionId(questionId);
+        List<SingleChoiceAnswer> storedAnswers = singleChoiceAnswerRepo.findAllByQuestionId(questionId);
 
         /*
          * When a single choice question shall be updated, it has to be ensured that the restrictions won't be violated.
@@ -133,39 +184,35 @@ public class SingleChoiceServiceImpl extends QuestionTypeService<SingleChoiceQue
             }
         }
 
-        if (request.getCorrectAnswerLocalId() != null && request.getAnswers() != null && request.getCorrectAnswerLocalId() > request.getAnswers().length
-                || request.getCorrectAnswerLocalId() == null && request.getAnswers() != null && request.getCorrectAnswerLocalId() > request.getAnswers().length
-                || request.getCorrectAnswerLocalId() != null && request.getAnswers() == null && request.getCorrectAnswerLocalId() > singleChoiceAnswerRepo.findAllByQuestionId(questionId).size()
-        ) {
+        Integer correctAnswerLocalId = request.getCorrectAnswerLocalId() != null ? request.getCorrectAnswerLocalId() : scq.getCorrectAnswerLocalId();
+        int answerCount = request.getAnswers() != null ? request.getAnswers().length : storedAnswers.size();
+        if (correctAnswerLocalId > answerCount) {
             throw new ConflictException(resourceBundle.getString("SingleChoiceQuestion-correct-answer-id-corrupt"));
         }
 
         if (request.getAnswers() != null) {
             /*
-             * If there are new answers set in the update request, the existing ones will be deleted and
-             * the new ones will be saved to the database.
+             * The new answers are compared with the existing ones by their local id,
+             * so only changed answers are updated, additional ones inserted and surplus ones deleted.
              */
-            for (SingleChoiceAnswer sca : singleChoiceAnswerRepo.findAllByQuestionId(questionId)) {
-                singleChoiceAnswerRepo.delete(sca);
+            AnswerChanges changes = AnswerChanges.of(storedAnswers.stream()
+                    .collect(Collectors.toMap(SingleChoiceAnswer::getLocalId, SingleChoiceAnswer::getText)), request.getAnswers());
+            if (changes.isChanging()) {
+                singleChoiceAnswerRepo.updateTexts(questionId, changes.getChangedLocalIds(), changes.getChangedTexts());
             }
-
-            Integer answerLocalId = 0;
-
-            for (String answer : request.getAnswers()) {
-                answerLocalId++;
-                singleChoiceAnswerRepo.save(new SingleChoiceAnswer(null, questionId, answerLocalId, answer));
+            if (changes.isAdding()) {
+                singleChoiceAnswerRepo.insertAll(questionId, changes.getAddedLocalIds(), changes.getAddedTexts());
+            }
+            if (changes.isRemoving()) {
+                singleChoiceAnswerRepo.deleteAllByQuestionIdAndLocalIdGreaterThan(questionId, request.getAnswers().length);
             }
         }
 
-        if (request.getCorrectAnswerLocalId() != null) {
-
-            scq.setCorrectAnswerLocalId(request.getCorrectAnswerLocalId());
+        if (!correctAnswerLocalId.equals(scq.getCorrectAnswerLocalId())) {
+            scq.setCorrectAnswerLocalId(correctAnswerLocalId);
+            singleChoiceQuestionRepo.save(scq);
         }
 
-        SingleChoiceQuestion updatedQuestion = this.getByQuestionId(questionId);
-        updatedQuestion.setAnswers(singleChoiceAnswerRepo.findAllByQuestionId((questionId)));
-        updatedQuestion.setCorrectAnswerLocalId(scq.getCorrectAnswerLocalId());
-
-        return updatedQuestion;
+        return this.getByQuestionId(questionId);
     }
 }
@@ -1,6 +1,8 @@
 package de.kreuzenonline.kreuzen.role;
 
 import de.kreuzenonline.kreuzen.auth.CustomUserDetails;
+import de.kreuzenonline.kreuzen.cache.ConditionalGet;
+import de.kreuzenonline.kreuzen.cache.HttpCachePolicy;
 import de.kreuzenonline.kreuzen.exceptions.ForbiddenException;
 import de.kreuzenonline.kreuzen.role.responses.RoleResponse;
 import io.swagger.annotations.ApiOperation;
@@ -24,6 +26,7 @@ public class RoleController {
     }
 
     @GetMapping("/role")
+    @ConditionalGet(HttpCachePolicy.CATALOG)
     @ApiOperation(
             value = "Get list of all available roles."
     )
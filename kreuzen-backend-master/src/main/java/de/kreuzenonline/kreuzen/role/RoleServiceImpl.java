@@ -1,5 +1,7 @@
 package de.kreuzenonline.kreuzen.role;
 
+import de.kreuzenonline.kreuzen.cache.CacheConfig;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
@@ -15,6 +17,7 @@ public class RoleServiceImpl implements RoleService {
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.REFERENCE_DATA, keyGenerator = CacheConfig.REFERENCE_DATA_KEY_GENERATOR)
     public List<Role> getAllRoles() {
         List<Role> roles = new ArrayList<>();
         roleRepo.findAll().forEach(roles::add);
@@ -1,6 +1,8 @@
 package de.kreuzenonline.kreuzen.section;
 
 import de.kreuzenonline.kreuzen.auth.CustomUserDetails;
+import de.kreuzenonline.kreuzen.cache.ConditionalGet;
+import de.kreuzenonline.kreuzen.cache.HttpCachePolicy;
 import de.kreuzenonline.kreuzen.exceptions.ForbiddenException;
 import de.kreuzenonline.kreuzen.role.Roles;
 import de.kreuzenonline.kreuzen.section.requests.CreateSectionRequest;
@@ -31,6 +33,7 @@ public class SectionController {
     }
 
     @GetMapping("major/{majorId}/section")
+    @ConditionalGet(HttpCachePolicy.CATALOG)
     @ApiOperation(
             value = "Get all sections by major.",
             notes = "Get all sections that a major can have."
@@ -46,6 +49,7 @@ public class SectionController {
     }
 
     @GetMapping("module/{moduleId}/section")
+    @ConditionalGet(HttpCachePolicy.CATALOG)
     @ApiOperation(
             value = "Get all sections assigned to a module.",
             notes = "Get all sections that are assigned to a module."
@@ -63,6 +67,7 @@ public class SectionController {
     }
 
     @GetMapping("/section/{sectionId}")
+    @ConditionalGet(HttpCachePolicy.CATALOG)
     @ApiOperation(
             value = "Get section by Id."
     )
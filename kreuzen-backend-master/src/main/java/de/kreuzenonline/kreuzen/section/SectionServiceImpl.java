@@ -1,6 +1,9 @@
 package de.kreuzenonline.kreuzen.section;
 
+import de.kreuzenonline.kreuzen.cache.CacheConfig;
 import de.kreuzenonline.kreuzen.exceptions.NotFoundException;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -18,6 +21,7 @@ public class SectionServiceImpl implements SectionService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.REFERENCE_DATA, allEntries = true)
     public Section create(Integer majorId, String name) {
         Section section = new Section();
         section.setMajorId(majorId);
@@ -41,16 +45,19 @@ public class SectionServiceImpl implements SectionService {
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.REFERENCE_DATA, keyGenerator = CacheConfig.REFERENCE_DATA_KEY_GENERATOR)
     public Iterable<Section> findAllByMajor(Integer majorId) {
         return sectionRepo.getAllSectionsByMajorId(majorId);
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.REFERENCE_DATA, keyGenerator = CacheConfig.REFERENCE_DATA_KEY_GENERATOR)
     public Iterable<Section> findAllByModule(Integer moduleId) {
         return sectionRepo.findAllByModuleId(moduleId);
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.REFERENCE_DATA, keyGenerator = CacheConfig.REFERENCE_DATA_KEY_GENERATOR)
     public Section findById(Integer sectionId) {
         return sectionRepo.findById(sectionId)
                 .orElseThrow(() -> new NotFoundException(resourceBundle.getString("section-not-found")));
@@ -63,6 +70,7 @@ public class SectionServiceImpl implements SectionService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.REFERENCE_DATA, allEntries = true)
     public Section update(Integer id, String name) {
         Section section = findById(id);
         if (name != null) {
@@ -73,6 +81,7 @@ public class SectionServiceImpl implements SectionService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.REFERENCE_DATA, allEntries = true)
     public void delete(Integer id) {
         sectionRepo.deleteById(id);
     }
@@ -1,6 +1,9 @@
 package de.kreuzenonline.kreuzen.semester;
 
 import de.kreuzenonline.kreuzen.auth.CustomUserDetails;
+import de.kreuzenonline.kreuzen.auth.CustomUserDetailsService;
+import de.kreuzenonline.kreuzen.cache.ConditionalGet;
+import de.kreuzenonline.kreuzen.cache.HttpCachePolicy;
 import de.kreuzenonline.kreuzen.exceptions.ForbiddenException;
 import de.kreuzenonline.kreuzen.role.Roles;
 import de.kreuzenonline.kreuzen.semester.requests.CreateSemesterRequest;
@@ -28,14 +31,17 @@ public class SemesterController {
     private final SemesterService semesterService;
     private final PasswordEncoder passwordEncoder;
     private final ResourceBundle resourceBundle;
+    private final CustomUserDetailsService userDetailsService;
 
-    public SemesterController(SemesterService semesterService, PasswordEncoder passwordEncoder, ResourceBundle resourceBundle) {
+    public SemesterController(SemesterService semesterService, PasswordEncoder passwordEncoder, ResourceBundle resourceBundle, CustomUserDetailsService userDetailsService) {
         this.semesterService = semesterService;
         this.passwordEncoder = passwordEncoder;
         this.resourceBundle = resourceBundle;
+        this.userDetailsService = userDetailsService;
     }
 
     @GetMapping
+    @ConditionalGet(HttpCachePolicy.CATALOG)
     @ApiOperation(value = "Get all semesters")
     public List<SemesterResponse> getAllSemesters(@AuthenticationPrincipal CustomUserDetails userDetails) {
 
@@ -145,7 +151,7 @@ public class SemesterController {
         }
 
         // To delete a password, the Administrator has to re-enter his password for security purposes.
-        if (!passwordEncoder.matches(request.getPassword(), userDetails.getPassword())) {
+        if (!passwordEncoder.matches(request.getPassword(), userDetailsService.getCompleteDetails(userDetails).getPassword())) {
             throw new ForbiddenException(resourceBundle.getString("delete-semester-password-wrong"));
         }
 
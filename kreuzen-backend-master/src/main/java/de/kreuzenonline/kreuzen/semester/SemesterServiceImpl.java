@@ -1,7 +1,10 @@
 package de.kreuzenonline.kreuzen.semester;
 
+import de.kreuzenonline.kreuzen.cache.CacheConfig;
 import de.kreuzenonline.kreuzen.exceptions.ConflictException;
 import de.kreuzenonline.kreuzen.exceptions.NotFoundException;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import java.util.Optional;
@@ -19,11 +22,13 @@ public class SemesterServiceImpl implements SemesterService {
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.REFERENCE_DATA, keyGenerator = CacheConfig.REFERENCE_DATA_KEY_GENERATOR)
     public Iterable<Semester> getAll() {
         return semesterRepo.findAll();
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.REFERENCE_DATA, keyGenerator = CacheConfig.REFERENCE_DATA_KEY_GENERATOR)
     public Semester getById(Integer id) {
         Optional<Semester> semester = semesterRepo.findById(id);
 
@@ -34,11 +39,13 @@ public class SemesterServiceImpl implements SemesterService {
     }
 
     @Override
+    @CacheEvict(cacheNames = {CacheConfig.QUESTION_COUNTS, CacheConfig.REFERENCE_DATA}, allEntries = true)
     public void delete(Integer id) {
         semesterRepo.deleteById(id);
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.REFERENCE_DATA, allEntries = true)
     public Semester create(String name, Integer startYear, Integer endYear) {
         Semester semester = new Semester();
         // Two semesters with the same name are not allowed
@@ -59,6 +66,7 @@ public class SemesterServiceImpl implements SemesterService {
     }
 
     @Override
+    @CacheEvict(cacheNames = {CacheConfig.QUESTION_COUNTS, CacheConfig.REFERENCE_DATA}, allEntries = true)
     public Semester update(Integer id, String name, Integer startYear, Integer endYear) {
         Semester semester = getById(id);
         if (name != null) {
@@ -6,6 +6,8 @@ import org.springframework.data.jdbc.repository.query.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface MultipleChoiceSelectionRepo extends CrudRepository<MultipleChoiceSelection, Integer> {
 
@@ -18,4 +20,38 @@ public interface MultipleChoiceSelectionRepo extends CrudRepository<MultipleChoi
             " WHERE smcs.session_id = :sessionId AND shq.local_id = :localId")
     Iterable<MultipleChoiceSelection> findMultipleChoiceSelections(Integer sessionId, Integer localId);
 
+    @Query("SELECT " +
+            " smcs.id AS id, smcs.session_id as session_id, shq.local_id AS local_question_id, " +
+            " qmca.local_id AS local_answer_id, smcs.is_checked AS is_checked, smcs.is_crossed AS is_crossed " +
+            " FROM session_multiple_choice_selection smcs " +
+            "    JOIN question_multiple_choice_answer qmca on smcs.answer_id = qmca.id " +
+            "    JOIN session_has_question shq on qmca.question_id = shq.question_id AND smcs.session_id = shq.session_id " +
+            " WHERE smcs.session_id = :sessionId")
+    List<MultipleChoiceSelection> findMultipleChoiceSelectionsBySession(Integer sessionId);
+
+    @Query("SELECT " +
+            " smcs.id AS id, smcs.session_id as session_id, shq.local_id AS local_question_id, " +
+            " qmca.local_id AS local_answer_id, smcs.is_checked AS is_checked, smcs.is_crossed AS is_crossed " +
+            " FROM session_multiple_choice_selection smcs " +
+            "    JOIN question_multiple_choice_answer qmca on smcs.answer_id = qmca.id " +
+            "    JOIN session_has_question shq on qmca.question_id = shq.question_id AND smcs.session_id = shq.session_id " +
+            " WHERE smcs.session_id = :sessionId AND shq.local_id BETWEEN :fromLocalId AND :toLocalId")
+    List<MultipleChoiceSelection> findMultipleChoiceSelectionsBySessionAndLocalIdRange(Integer sessionId, Integer fromLocalId, Integer toLocalId);
+
+    @Query("WITH upserted AS (" +
+            "    INSERT INTO session_multiple_choice_selection (session_id, answer_id, is_checked, is_crossed) " +
+            "    SELECT shq.session_id, qmca.id, qmca.local_id = ANY(:checkedLocalAnswerIds), qmca.local_id = ANY(:crossedLocalAnswerIds) " +
+            "    FROM session_has_question shq " +
+            "    JOIN question_multiple_choice_answer qmca ON qmca.question_id = shq.question_id " +
+            "    WHERE shq.session_id = :sessionId AND shq.local_id = :localId " +
+            "    ON CONFLICT (session_id, answer_id) DO UPDATE SET is_checked = EXCLUDED.is_checked, is_crossed = EXCLUDED.is_crossed " +
+            "    RETURNING id, session_id, answer_id, is_checked, is_crossed" +
+            ") " +
+            "SELECT " +
+            " smcs.id AS id, smcs.session_id AS session_id, CAST(:localId AS int) AS local_question_id, " +
+            " qmca.local_id AS local_answer_id, smcs.is_checked AS is_checked, smcs.is_crossed AS is_crossed " +
+            " FROM upserted smcs " +
+            "    JOIN question_multiple_choice_answer qmca on smcs.answer_id = qmca.id " +
+            " ORDER BY qmca.local_id")
+    List<MultipleChoiceSelection> upsertMultipleChoiceSelections(Integer sessionId, Integer localId, Integer[] checkedLocalAnswerIds, Integer[] crossedLocalAnswerIds);
 }
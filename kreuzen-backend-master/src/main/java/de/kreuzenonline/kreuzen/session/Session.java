@@ -22,6 +22,7 @@ public class Session {
     private String name;
     private Boolean isRandom;
     private Boolean isFinished;
+    private Long seed;
     private Instant createdAt;
     private Instant updatedAt;
 
@@ -1,13 +1,12 @@
 package de.kreuzenonline.kreuzen.session;
 
 import de.kreuzenonline.kreuzen.auth.CustomUserDetails;
+import de.kreuzenonline.kreuzen.exceptions.BadRequestException;
 import de.kreuzenonline.kreuzen.exceptions.ConflictException;
 import de.kreuzenonline.kreuzen.exceptions.ForbiddenException;
 import de.kreuzenonline.kreuzen.question.BaseQuestion;
 import de.kreuzenonline.kreuzen.question.BaseQuestionService;
 import de.kreuzenonline.kreuzen.question.types.QuestionTypeMapperService;
-import de.kreuzenonline.kreuzen.question.types.multipleChoice.MultipleChoiceService;
-import de.kreuzenonline.kreuzen.question.types.singleChoice.SingleChoiceService;
 import de.kreuzenonline.kreuzen.role.Roles;
 import de.kreuzenonline.kreuzen.session.requests.CreateSessionRequest;
 import de.kreuzenonline.kreuzen.session.requests.SetSelectionRequest;
@@ -35,16 +34,12 @@ public class SessionController {
     private final BaseQuestionService baseQuestionService;
     private final SessionService sessionService;
     private final ResourceBundle resourceBundle;
-    private final SingleChoiceService singleChoiceService;
-    private final MultipleChoiceService multipleChoiceService;
     private final QuestionTypeMapperService questionTypeMapperService;
 
-    public SessionController(BaseQuestionService baseQuestionService, SessionService sessionService, ResourceBundle resourceBundle, SingleChoiceService singleChoiceService, MultipleChoiceService multipleChoiceService, QuestionTypeMapperService questionTypeMapperService) {
+    public SessionController(BaseQuestionService baseQuestionService, SessionService sessionService, ResourceBundle resourceBundle, QuestionTypeMapperService questionTypeMapperService) {
         this.baseQuestionService = baseQuestionService;
         this.sessionService = sessionService;
         this.resourceBundle = resourceBundle;
-        this.singleChoiceService = singleChoiceService;
-        this.multipleChoiceService = multipleChoiceService;
         this.questionTypeMapperService = questionTypeMapperService;
     }
 
@@ -71,10 +66,43 @@ public class SessionController {
         return new SessionResponse(session);
     }
 
+    @GetMapping("/session/{id}/bundle")
+    @ApiOperation(
+            value = "Get session bundle",
+            notes = "Get the session together with its typed questions, their answers, the current selections and the status of each question. " +
+                    "The questions are returned in chunks of at most limit questions, starting at fromLocalId. " +
+                    "Pass the nextLocalId of a response as fromLocalId to get the following chunk."
+    )
+    public SessionBundleResponse getSessionBundle(@PathVariable Integer id,
+                                                  @RequestParam(defaultValue = "1") Integer fromLocalId,
+                                                  @RequestParam(defaultValue = "100") Integer limit,
+                                                  @AuthenticationPrincipal CustomUserDetails userDetails) {
+        if (userDetails == null) {
+            throw new ForbiddenException(resourceBundle.getString("unauthorized"));
+        }
+        if (limit < 1 || limit > 500) {
+            throw new BadRequestException(resourceBundle.getString("session-bundle-limit-invalid"));
+        }
+        Session session = sessionService.getById(id);
+
+        boolean isCreator = userDetails.getId().equals(session.getCreatorId());
+        boolean isAdmin = userDetails.getAuthorities().contains(new SimpleGrantedAuthority(Roles.ADMIN.getId()))
+                || userDetails.getAuthorities().contains(new SimpleGrantedAuthority(Roles.SUDO.getId()));
+
+        // Only admins/mods and the initial creator are allowed to access the session.
+        if (!isAdmin && !isCreator) {
+            throw new ForbiddenException(resourceBundle.getString("get-session-forbidden"));
+        }
+
+        return sessionService.getBundle(session, fromLocalId, limit);
+    }
+
     @PostMapping("/session")
     @ApiOperation(
             value = "Create session",
-            notes = "Create a new session"
+            notes = "Create a new session. questionCount limits the session to a sample of the matching questions. " +
+                    "Random sessions are shuffled with the given seed or a generated one, which is returned with the session. " +
+                    "The same seed leads to the same questions as long as the matching questions do not change."
     )
     public SessionResponse createSession(@Valid @RequestBody CreateSessionRequest request,
                                          @AuthenticationPrincipal CustomUserDetails userDetails) {
@@ -93,7 +121,9 @@ public class SessionController {
                 request.getTagIds(),
                 request.getQuestionTypes(),
                 request.getQuestionOrigins(),
-                request.getFilterTerm()
+                request.getFilterTerm(),
+                request.getQuestionCount(),
+                request.getSeed()
         );
         return new SessionResponse(session);
     }
@@ -211,30 +241,28 @@ public class SessionController {
             throw new ForbiddenException(resourceBundle.getString("get-question-result-forbidden"));
         }
 
-        Iterable<SessionQuestion> questions = sessionService.getAllSessionQuestions(id);
-        List<QuestionResultResponse> responses = new ArrayList<>();
-        for (SessionQuestion question : questions) {
-            BaseQuestion q = baseQuestionService.getById(question.getQuestionId()); // for better performance just fetch the type of the question.
-            switch (q.getType()) {
-                case "single-choice":
-                    QuestionResultResponse singleResponse = sessionService.singleChoiceResult(id, singleChoiceService.getByQuestionId(q.getId()), question.getLocalId());
-                    responses.add(singleResponse);
-                    break;
+        return sessionService.getResults(id);
+    }
 
-                case "multiple-choice":
-                    QuestionResultResponse multipleResponse = sessionService.multipleChoiceResult(id, multipleChoiceService.getByQuestionId(q.getId()), question.getLocalId());
-                    responses.add(multipleResponse);
-                    break;
+    @GetMapping("/session/{id}/results/summary")
+    @ApiOperation(value = "Get result summary of session",
+            notes = "Sums up the reached points, the number of correctly answered questions and the answer time of a session.")
+    public SessionResultSummaryResponse getResultSummary(@PathVariable Integer id,
+                                                         @AuthenticationPrincipal CustomUserDetails userDetails) {
 
-                default:
-                    responses.add(new QuestionResultResponse(id, q, 0, question.getLocalId()));
-                    break;
-            }
+        if (userDetails == null) {
+            throw new ForbiddenException(resourceBundle.getString("unauthorized"));
         }
 
-        responses.sort((o1, o2) -> o1.getLocalId() - o2.getLocalId());
+        boolean isCreator = userDetails.getId().equals(sessionService.getById(id).getCreatorId());
+        boolean isAdmin = userDetails.getAuthorities().contains(new SimpleGrantedAuthority(Roles.ADMIN.getId()))
+                || userDetails.getAuthorities().contains(new SimpleGrantedAuthority(Roles.SUDO.getId()));
+
+        if (!isAdmin && !isCreator) {
+            throw new ForbiddenException(resourceBundle.getString("get-question-result-forbidden"));
+        }
 
-        return responses;
+        return sessionService.getResultSummary(id);
     }
 
     @PatchMapping("/session/{id}/reset")
@@ -264,11 +292,13 @@ public class SessionController {
     }
 
     @GetMapping("/user/{userId}/session")
-    @ApiOperation(value = "Get sessions by user.")
+    @ApiOperation(value = "Get sessions by user.",
+            notes = "Pass the nextCursor of a response as cursor to get the following page, skip is ignored then.")
     public PaginationResponse<SessionResponse> getSessionByUser(
             @AuthenticationPrincipal CustomUserDetails userDetails, @PathVariable Integer userId,
             @RequestParam(defaultValue = "20") Integer limit,
-            @RequestParam(defaultValue = "0") Integer skip) {
+            @RequestParam(defaultValue = "0") Integer skip,
+            @RequestParam(required = false) String cursor) {
         if (userDetails == null) {
             throw new ForbiddenException(resourceBundle.getString("unauthorized"));
         }
@@ -283,12 +313,13 @@ public class SessionController {
         List<Session> sessions;
 
         Integer count;
-        sessions = sessionService.getByPagination(userId, limit, skip);
+        sessions = sessionService.getByPagination(userId, limit, skip, cursor);
         count = sessionService.getCountByUser(userId);
 
         return new PaginationResponse<>(
                 count,
-                sessions.stream().map(SessionResponse::new).collect(Collectors.toList())
+                sessions.stream().map(SessionResponse::new).collect(Collectors.toList()),
+                sessionService.getNextCursor(sessions, limit)
         );
     }
 
@@ -318,8 +349,7 @@ public class SessionController {
         List<Object> selectionResponse = new ArrayList<>();
         switch (request.getType()) {
             case "single-choice":
-                sessionService.addSingleChoiceSelection(sessionId, localId, request.getCheckedLocalAnswerId(), request.getCrossedLocalAnswerIds());
-                Iterable<SingleChoiceSelection> singleChoiceSelections = sessionService.findAllSingleChoiceSelections(sessionId, localId);
+                List<SingleChoiceSelection> singleChoiceSelections = sessionService.addSingleChoiceSelection(sessionId, localId, request.getCheckedLocalAnswerId(), request.getCrossedLocalAnswerIds());
                 for (SingleChoiceSelection selection : singleChoiceSelections) {
                     selectionResponse.add(new SingleChoiceSelectionResponse(selection));
                 }
@@ -328,8 +358,7 @@ public class SessionController {
                 if (request.getCheckedLocalAnswerIds() == null) {
                     request.setCheckedLocalAnswerIds(new Integer[]{});
                 }
-                sessionService.addMultipleChoiceSelection(sessionId, localId, request.getCheckedLocalAnswerIds(), request.getCrossedLocalAnswerIds());
-                Iterable<MultipleChoiceSelection> multipleChoiceSelections = sessionService.findAllMultipleChoiceSelections(sessionId, localId);
+                List<MultipleChoiceSelection> multipleChoiceSelections = sessionService.addMultipleChoiceSelection(sessionId, localId, request.getCheckedLocalAnswerIds(), request.getCrossedLocalAnswerIds());
                 for (MultipleChoiceSelection selection : multipleChoiceSelections) {
                     selectionResponse.add(new MultipleChoiceSelectionResponse(selection));
                 }
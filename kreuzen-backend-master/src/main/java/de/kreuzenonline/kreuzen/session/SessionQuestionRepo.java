@@ -1,5 +1,6 @@
 package de.kreuzenonline.kreuzen.session;
 
+import org.springframework.data.jdbc.repository.query.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
@@ -11,4 +12,7 @@ public interface SessionQuestionRepo extends CrudRepository<SessionQuestion, Int
     SessionQuestion findBySessionIdAndLocalId(Integer sessionId, Integer localId);
 
     List<SessionQuestion> findAllBySessionId(Integer sessionId);
+
+    @Query("SELECT * FROM session_has_question WHERE session_id = :sessionId AND local_id >= :fromLocalId ORDER BY local_id LIMIT :limit")
+    List<SessionQuestion> findAllBySessionIdFromLocalId(Integer sessionId, Integer fromLocalId, Integer limit);
 }
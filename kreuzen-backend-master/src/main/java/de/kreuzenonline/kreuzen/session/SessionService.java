@@ -3,6 +3,8 @@ package de.kreuzenonline.kreuzen.session;
 import de.kreuzenonline.kreuzen.question.types.multipleChoice.MultipleChoiceQuestion;
 import de.kreuzenonline.kreuzen.question.types.singleChoice.SingleChoiceQuestion;
 import de.kreuzenonline.kreuzen.session.responses.QuestionResultResponse;
+import de.kreuzenonline.kreuzen.session.responses.SessionBundleResponse;
+import de.kreuzenonline.kreuzen.session.responses.SessionResultSummaryResponse;
 import de.kreuzenonline.kreuzen.session.selections.MultipleChoiceSelection;
 import de.kreuzenonline.kreuzen.session.selections.SingleChoiceSelection;
 
@@ -40,6 +42,8 @@ public interface SessionService {
      * @param questionTypes   question type(s) that may define the questions
      * @param questionOrigins question origin(s) that may appear in questions
      * @param textFilter      term that may be contained in questions
+     * @param questionCount   maximum amount of questions in the session, all matching questions if null
+     * @param seed            seed of the random selection and order, a new one is generated if null
      * @return session
      */
     Session create(
@@ -53,7 +57,9 @@ public interface SessionService {
             Integer[] tagIds,
             String[] questionTypes,
             String[] questionOrigins,
-            String textFilter
+            String textFilter,
+            Integer questionCount,
+            Long seed
     );
 
     /**
@@ -114,6 +120,35 @@ public interface SessionService {
      */
     QuestionResultResponse multipleChoiceResult(Integer sessionId, MultipleChoiceQuestion question, Integer localId);
 
+    /**
+     * Evaluates all questions of a session.
+     * Questions, correct answers and selections are loaded for the whole session at once,
+     * so the number of queries does not depend on the number of questions.
+     *
+     * @param sessionId id of the session
+     * @return question results ordered by the local id of the questions
+     */
+    List<QuestionResultResponse> getResults(Integer sessionId);
+
+    /**
+     * Sums up the results of a session.
+     *
+     * @param sessionId id of the session
+     * @return reached and reachable points, number of correctly answered questions and the total answer time
+     */
+    SessionResultSummaryResponse getResultSummary(Integer sessionId);
+
+    /**
+     * Gets a chunk of a session with the typed questions, their answers, the current selections and the status of each question.
+     * The chunk is loaded with a fixed number of queries, independent of how many questions it contains.
+     *
+     * @param session     session to load
+     * @param fromLocalId local id of the first question in the chunk
+     * @param limit       maximum number of questions in the chunk
+     * @return session bundle, containing the local id of the next chunk if there may be more questions
+     */
+    SessionBundleResponse getBundle(Session session, Integer fromLocalId, Integer limit);
+
     /**
      * Get all session questions that belong to a session.
      *
@@ -139,14 +174,25 @@ public interface SessionService {
     Session finishSession(Integer sessionId);
 
     /**
-     * Returns a list of session created by user
+     * Returns a list of session created by user, newest first. If a cursor is given, the list continues
+     * after the session the cursor points to.
      *
      * @param userId id of the user
      * @param limit  max length of returned list
-     * @param skip   amount of questions to skip
+     * @param skip   amount of sessions to skip, ignored if a cursor is given
+     * @param cursor cursor of the previous page, may be null
      * @return list of sessions
      */
-    List<Session> getByPagination(Integer userId, Integer limit, Integer skip);
+    List<Session> getByPagination(Integer userId, Integer limit, Integer skip, String cursor);
+
+    /**
+     * Creates the cursor pointing to the page after the given one.
+     *
+     * @param sessions page of sessions
+     * @param limit    max length of the page
+     * @return cursor or null if there are no more sessions
+     */
+    String getNextCursor(List<Session> sessions, Integer limit);
 
     /**
      * Counts amount of sessions created by user
@@ -157,31 +203,37 @@ public interface SessionService {
     Integer getCountByUser(Integer userId);
 
     /**
-     * Adds answer of single choice question from user
+     * Adds answer of single choice question from user.
+     * All answers of the question are written with a single statement.
      *
      * @param sessionId             Id of session
      * @param localId               local id of the question within the session
      * @param checkedLocalAnswerId  Contains id of checked answer
      * @param crossedLocalAnswerIds Contains id's of crossed answers
+     * @return the new selections of all answers of the question
      */
-    void addSingleChoiceSelection(Integer sessionId, Integer localId, Integer checkedLocalAnswerId, Integer[] crossedLocalAnswerIds);
+    List<SingleChoiceSelection> addSingleChoiceSelection(Integer sessionId, Integer localId, Integer checkedLocalAnswerId, Integer[] crossedLocalAnswerIds);
 
     /**
-     * Adds answer of multiple choice question from user
+     * Adds answer of multiple choice question from user.
+     * All answers of the question are written with a single statement.
      *
      * @param sessionId             Id of session
      * @param localId               local id of the question within the session
      * @param checkedLocalAnswerIds Contains id's of checked answer
      * @param crossedLocalAnswerIds Contains id's of crossed answers
+     * @return the new selections of all answers of the question
      */
-    void addMultipleChoiceSelection(Integer sessionId, Integer localId, Integer[] checkedLocalAnswerIds, Integer[] crossedLocalAnswerIds);
+    List<MultipleChoiceSelection> addMultipleChoiceSelection(Integer sessionId, Integer localId, Integer[] checkedLocalAnswerIds, Integer[] crossedLocalAnswerIds);
 
     /**
-     * Adds time to session
+     * Adds time to session.
+     * The time is written to the database with a delay, together with the times of other questions.
      *
      * @param sessionId  Id of session
      * @param localId    Id of question in session
      * @param answerTime Time the user needed to answer the question
+     * @return the session question with the new time
      */
     SessionQuestion addTime(Integer sessionId, Integer localId, Integer answerTime);
 
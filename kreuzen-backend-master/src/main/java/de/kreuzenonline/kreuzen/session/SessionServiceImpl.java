@@ -1,15 +1,31 @@
 package de.kreuzenonline.kreuzen.session;
 
+import de.kreuzenonline.kreuzen.exceptions.BadRequestException;
 import de.kreuzenonline.kreuzen.exceptions.ForbiddenException;
 import de.kreuzenonline.kreuzen.exceptions.NotFoundException;
+import de.kreuzenonline.kreuzen.question.BaseQuestion;
+import de.kreuzenonline.kreuzen.question.BaseQuestionService;
+import de.kreuzenonline.kreuzen.question.attachment.Attachment;
+import de.kreuzenonline.kreuzen.question.attachment.AttachmentService;
+import de.kreuzenonline.kreuzen.question.attachment.responses.AttachmentResponse;
+import de.kreuzenonline.kreuzen.question.responses.BaseQuestionResponse;
+import de.kreuzenonline.kreuzen.question.types.assignment.AssignmentQuestion;
+import de.kreuzenonline.kreuzen.question.types.assignment.AssignmentQuestionService;
 import de.kreuzenonline.kreuzen.question.types.multipleChoice.MultipleChoiceQuestion;
+import de.kreuzenonline.kreuzen.question.types.multipleChoice.MultipleChoiceService;
 import de.kreuzenonline.kreuzen.question.types.singleChoice.SingleChoiceQuestion;
-import de.kreuzenonline.kreuzen.session.responses.QuestionResultResponse;
+import de.kreuzenonline.kreuzen.question.types.singleChoice.SingleChoiceService;
+import de.kreuzenonline.kreuzen.session.responses.*;
 import de.kreuzenonline.kreuzen.session.selections.MultipleChoiceSelection;
 import de.kreuzenonline.kreuzen.session.selections.SingleChoiceSelection;
+import de.kreuzenonline.kreuzen.utils.PaginationCursor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
 
 @Service
 public class SessionServiceImpl implements SessionService {
@@ -18,15 +34,27 @@ public class SessionServiceImpl implements SessionService {
     private final SingleChoiceSelectionRepo singleChoiceSelectionRepo;
     private final SessionQuestionRepo sessionQuestionRepo;
     private final SessionRepo sessionRepo;
+    private final BaseQuestionService baseQuestionService;
+    private final SingleChoiceService singleChoiceService;
+    private final MultipleChoiceService multipleChoiceService;
+    private final AssignmentQuestionService assignmentQuestionService;
+    private final SessionTimeBuffer sessionTimeBuffer;
+    private final AttachmentService attachmentService;
     private final ResourceBundle resourceBundle;
 
 
-    public SessionServiceImpl(SessionRepo sessionRepo, ResourceBundle resourceBundle, MultipleChoiceSelectionRepo multipleChoiceSelectionRepo, SingleChoiceSelectionRepo singleChoiceSelectionRepo, SessionQuestionRepo sessionQuestionRepo) {
+    public SessionServiceImpl(SessionRepo sessionRepo, ResourceBundle resourceBundle, MultipleChoiceSelectionRepo multipleChoiceSelectionRepo, SingleChoiceSelectionRepo singleChoiceSelectionRepo, SessionQuestionRepo sessionQuestionRepo, BaseQuestionService baseQuestionService, SingleChoiceService singleChoiceService, MultipleChoiceService multipleChoiceService, AssignmentQuestionService assignmentQuestionService, SessionTimeBuffer sessionTimeBuffer, AttachmentService attachmentService) {
         this.sessionRepo = sessionRepo;
         this.resourceBundle = resourceBundle;
         this.multipleChoiceSelectionRepo = multipleChoiceSelectionRepo;
         this.singleChoiceSelectionRepo = singleChoiceSelectionRepo;
         this.sessionQuestionRepo = sessionQuestionRepo;
+        this.baseQuestionService = baseQuestionService;
+        this.singleChoiceService = singleChoiceService;
+        this.multipleChoiceService = multipleChoiceService;
+        this.assignmentQuestionService = assignmentQuestionService;
+        this.sessionTimeBuffer = sessionTimeBuffer;
+        this.attachmentService = attachmentService;
     }
 
     @Override
@@ -41,6 +69,7 @@ public class SessionServiceImpl implements SessionService {
 
     @Override
     public SessionQuestion getQuestionBySessionAndLocalId(Integer sessionId, Integer localId) {
+        sessionTimeBuffer.flush(sessionId);
         return sessionQuestionRepo.findBySessionIdAndLocalId(sessionId, localId);
     }
 
@@ -55,7 +84,9 @@ public class SessionServiceImpl implements SessionService {
                           Integer[] tagIds,
                           String[] questionTypes,
                           String[] questionOrigins,
-                          String textFilter) {
+                          String textFilter,
+                          Integer questionCount,
+                          Long seed) {
         Session session = new Session();
         session.setCreatorId(creatorId);
         session.setName(name);
@@ -63,6 +94,9 @@ public class SessionServiceImpl implements SessionService {
         session.setIsRandom(isRandom);
         session.setNotes(notes);
         session.setIsFinished(false);
+        if (isRandom) {
+            session.setSeed(seed != null ? seed : ThreadLocalRandom.current().nextLong());
+        }
 
         session = sessionRepo.save(session);
 
@@ -72,26 +106,18 @@ public class SessionServiceImpl implements SessionService {
         if (questionTypes == null) questionTypes = new String[0];
         if (questionOrigins == null) questionOrigins = new String[0];
 
-        if (isRandom) {
-            sessionRepo.assignQuestionsRandom(
-                    session.getId(),
-                    moduleIds,
-                    semesterIds,
-                    tagIds,
-                    questionTypes,
-                    questionOrigins,
-                    textFilter
-            );
-        } else {
-            sessionRepo.assignQuestions(
-                    session.getId(),
-                    moduleIds,
-                    semesterIds,
-                    tagIds,
-                    questionTypes,
-                    questionOrigins,
-                    textFilter
-            );
+        Integer[] selectedIds = sessionRepo.findQuestionIds(
+                moduleIds,
+                semesterIds,
+                tagIds,
+                questionTypes,
+                questionOrigins,
+                textFilter,
+                isRandom ? session.getSeed() : null,
+                questionCount
+        ).toArray(Integer[]::new);
+        if (selectedIds.length > 0) {
+            sessionRepo.assignQuestions(session.getId(), selectedIds);
         }
 
         return session;
@@ -134,7 +160,142 @@ public class SessionServiceImpl implements SessionService {
     @Override
     public QuestionResultResponse singleChoiceResult(Integer sessionId, SingleChoiceQuestion question, Integer localId) {
         Iterable<SingleChoiceSelection> selections = singleChoiceSelectionRepo.findSingleChoiceSelections(sessionId, localId);
-        Integer points = 0;
+        return new QuestionResultResponse(sessionId, question, scoreSingleChoice(question, selections), localId);
+    }
+
+    @Override
+    public QuestionResultResponse multipleChoiceResult(Integer sessionId, MultipleChoiceQuestion question, Integer localId) {
+        Iterable<MultipleChoiceSelection> selections = multipleChoiceSelectionRepo.findMultipleChoiceSelections(sessionId, localId);
+        return new QuestionResultResponse(sessionId, question, scoreMultipleChoice(question, selections), localId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<QuestionResultResponse> getResults(Integer sessionId) {
+        return evaluate(sessionId, sessionQuestionRepo.findAllBySessionId(sessionId));
+    }
+
+    @Override
+    public SessionResultSummaryResponse getResultSummary(Integer sessionId) {
+        sessionTimeBuffer.flush(sessionId);
+        List<SessionQuestion> sessionQuestions = sessionQuestionRepo.findAllBySessionId(sessionId);
+        List<QuestionResultResponse> results = evaluate(sessionId, sessionQuestions);
+
+        int points = 0;
+        int maxPoints = 0;
+        int correctCount = 0;
+        for (QuestionResultResponse result : results) {
+            points += result.getPoints();
+            maxPoints += result.getQuestion().getPoints();
+            if (result.getPoints() > 0) {
+                correctCount++;
+            }
+        }
+        int time = 0;
+        for (SessionQuestion sessionQuestion : sessionQuestions) {
+            time += sessionQuestion.getTime();
+        }
+
+        return new SessionResultSummaryResponse(sessionId, results.size(), correctCount, points, maxPoints, time);
+    }
+
+    /**
+     * Scores all given session questions in one pass.
+     * Questions and selections of the whole session are loaded up front instead of once per question.
+     */
+    private List<QuestionResultResponse> evaluate(Integer sessionId, List<SessionQuestion> sessionQuestions) {
+        List<BaseQuestion> baseQuestions = new ArrayList<>();
+        baseQuestionService.findAllBySession(sessionId).forEach(baseQuestions::add);
+
+        Map<Integer, BaseQuestion> questions = new HashMap<>();
+        for (BaseQuestion question : baseQuestions) {
+            questions.put(question.getId(), question);
+        }
+        for (SingleChoiceQuestion question : singleChoiceService.getByBaseQuestions(baseQuestions)) {
+            questions.put(question.getId(), question);
+        }
+        for (MultipleChoiceQuestion question : multipleChoiceService.getByBaseQuestions(baseQuestions)) {
+            questions.put(question.getId(), question);
+        }
+
+        Map<Integer, List<SingleChoiceSelection>> singleChoiceSelections = singleChoiceSelectionRepo.findSingleChoiceSelectionsBySession(sessionId)
+                .stream().collect(Collectors.groupingBy(SingleChoiceSelection::getLocalQuestionId));
+        Map<Integer, List<MultipleChoiceSelection>> multipleChoiceSelections = multipleChoiceSelectionRepo.findMultipleChoiceSelectionsBySession(sessionId)
+                .stream().collect(Collectors.groupingBy(MultipleChoiceSelection::getLocalQuestionId));
+
+        List<QuestionResultResponse> results = new ArrayList<>();
+        for (SessionQuestion sessionQuestion : sessionQuestions) {
+            BaseQuestion question = questions.get(sessionQuestion.getQuestionId());
+            if (question == null) {
+                continue;
+            }
+            Integer localId = sessionQuestion.getLocalId();
+            int points = 0;
+            if (question instanceof SingleChoiceQuestion) {
+                points = scoreSingleChoice((SingleChoiceQuestion) question, singleChoiceSelections.getOrDefault(localId, Collections.emptyList()));
+            } else if (question instanceof MultipleChoiceQuestion) {
+                points = scoreMultipleChoice((MultipleChoiceQuestion) question, multipleChoiceSelections.getOrDefault(localId, Collections.emptyList()));
+            }
+            results.add(new QuestionResultResponse(sessionId, question, points, localId));
+        }
+
+        results.sort(Comparator.comparing(QuestionResultResponse::getLocalId));
+        return results;
+    }
+
+    @Override
+    public SessionBundleResponse getBundle(Session session, Integer fromLocalId, Integer limit) {
+        Integer sessionId = session.getId();
+        sessionTimeBuffer.flush(sessionId);
+        List<SessionQuestion> sessionQuestions = sessionQuestionRepo.findAllBySessionIdFromLocalId(sessionId, fromLocalId, limit);
+        if (sessionQuestions.isEmpty()) {
+            return new SessionBundleResponse(new SessionResponse(session), new ArrayList<>(), null);
+        }
+        Integer toLocalId = sessionQuestions.get(sessionQuestions.size() - 1).getLocalId();
+
+        List<BaseQuestion> baseQuestions = baseQuestionService.findAllBySessionAndLocalIdRange(sessionId, fromLocalId, toLocalId);
+        Map<Integer, BaseQuestionResponse> questions = new HashMap<>();
+        for (BaseQuestion question : baseQuestions) {
+            questions.put(question.getId(), question.toResponse());
+        }
+        for (SingleChoiceQuestion question : singleChoiceService.getByBaseQuestions(baseQuestions)) {
+            questions.put(question.getId(), question.toResponse());
+        }
+        for (MultipleChoiceQuestion question : multipleChoiceService.getByBaseQuestions(baseQuestions)) {
+            questions.put(question.getId(), question.toResponse());
+        }
+        for (AssignmentQuestion question : assignmentQuestionService.getByBaseQuestions(baseQuestions)) {
+            questions.put(question.getId(), question.toResponse());
+        }
+        Map<Integer, List<Attachment>> attachments = attachmentService.getByQuestionIds(questions.keySet());
+        for (BaseQuestionResponse question : questions.values()) {
+            question.setAttachments(attachments.getOrDefault(question.getId(), Collections.emptyList()).stream()
+                    .map(attachment -> new AttachmentResponse(question.getId(), attachment))
+                    .collect(Collectors.toList()));
+        }
+
+        Map<Integer, List<Object>> selections = new HashMap<>();
+        for (SingleChoiceSelection selection : singleChoiceSelectionRepo.findSingleChoiceSelectionsBySessionAndLocalIdRange(sessionId, fromLocalId, toLocalId)) {
+            selections.computeIfAbsent(selection.getLocalQuestionId(), k -> new ArrayList<>()).add(new SingleChoiceSelectionResponse(selection));
+        }
+        for (MultipleChoiceSelection selection : multipleChoiceSelectionRepo.findMultipleChoiceSelectionsBySessionAndLocalIdRange(sessionId, fromLocalId, toLocalId)) {
+            selections.computeIfAbsent(selection.getLocalQuestionId(), k -> new ArrayList<>()).add(new MultipleChoiceSelectionResponse(selection));
+        }
+
+        List<SessionBundleQuestionResponse> bundleQuestions = new ArrayList<>();
+        for (SessionQuestion sessionQuestion : sessionQuestions) {
+            bundleQuestions.add(new SessionBundleQuestionResponse(
+                    sessionQuestion,
+                    questions.get(sessionQuestion.getQuestionId()),
+                    selections.getOrDefault(sessionQuestion.getLocalId(), new ArrayList<>())
+            ));
+        }
+
+        Integer nextLocalId = sessionQuestions.size() < limit ? null : toLocalId + 1;
+        return new SessionBundleResponse(new SessionResponse(session), bundleQuestions, nextLocalId);
+    }
+
+    private int scoreSingleChoice(SingleChoiceQuestion question, Iterable<SingleChoiceSelection> selections) {
         Integer checkedSelectionLocalId = -1;
         for (SingleChoiceSelection selection : selections) {
             if (selection.getIsChecked()) {
@@ -143,43 +304,34 @@ public class SessionServiceImpl implements SessionService {
             }
         }
         if (question.getCorrectAnswerLocalId().equals(checkedSelectionLocalId)) {
-            points = question.getPoints();
+            return question.getPoints();
         }
-
-
-        return new QuestionResultResponse(sessionId, question, points, localId);
+        return 0;
     }
 
-    @Override
-    public QuestionResultResponse multipleChoiceResult(Integer sessionId, MultipleChoiceQuestion question, Integer localId) {
-        Iterable<MultipleChoiceSelection> selections = multipleChoiceSelectionRepo.findMultipleChoiceSelections(sessionId, localId);
-        Integer points = 0;
-        Integer correctAnswers = 0;
+    private int scoreMultipleChoice(MultipleChoiceQuestion question, Iterable<MultipleChoiceSelection> selections) {
+        Set<Integer> correctAnswers = new HashSet<>(Arrays.asList(question.getCorrectAnswerLocalIds()));
+        int correctlyChecked = 0;
         for (MultipleChoiceSelection selection : selections) {
-            if (selection.getIsChecked().equals(true)) {
-                for (Integer correctAnswer : question.getCorrectAnswerLocalIds()) {
-                    Boolean choice = selection.getLocalAnswerId().equals(correctAnswer);
-                    if (choice.equals(true)) {
-                        correctAnswers = correctAnswers + 1;
-                        break;
-                    }
-                }
+            if (selection.getIsChecked() && correctAnswers.contains(selection.getLocalAnswerId())) {
+                correctlyChecked++;
             }
         }
-        if (correctAnswers.equals(question.getCorrectAnswerLocalIds().length)) {
-            points = question.getPoints();
+        if (correctlyChecked == question.getCorrectAnswerLocalIds().length) {
+            return question.getPoints();
         }
-
-        return new QuestionResultResponse(sessionId, question, points, localId);
+        return 0;
     }
 
     @Override
     public List<SessionQuestion> getAllSessionQuestions(Integer sessionId) {
+        sessionTimeBuffer.flush(sessionId);
         return sessionQuestionRepo.findAllBySessionId(sessionId);
     }
 
     @Override
     public Session resetSelection(Integer sessionId) {
+        sessionTimeBuffer.flush(sessionId);
         sessionRepo.resetSession(sessionId);
         sessionRepo.resetSessionQuestions(sessionId);
         sessionRepo.resetSessionSingleChoiceSelections(sessionId);
@@ -189,69 +341,87 @@ public class SessionServiceImpl implements SessionService {
 
     @Override
     public Session finishSession(Integer sessionId) {
+        sessionTimeBuffer.flush(sessionId);
         sessionRepo.submitSession(sessionId);
         sessionRepo.submitAllQuestions(sessionId);
         return this.getById(sessionId);
     }
 
     @Override
-    public List<Session> getByPagination(Integer userId, Integer limit, Integer skip) {
-        return sessionRepo.findAllPagination(userId, limit, skip);
+    @Transactional(readOnly = true)
+    public List<Session> getByPagination(Integer userId, Integer limit, Integer skip, String cursor) {
+        if (cursor == null) {
+            return sessionRepo.findAllPagination(userId, null, null, limit, skip);
+        }
+        Instant cursorCreatedAt;
+        Integer cursorId;
+        try {
+            PaginationCursor decoded = PaginationCursor.decode(cursor, 2);
+            cursorCreatedAt = decoded.getInstant(0);
+            cursorId = decoded.getInteger(1);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(resourceBundle.getString("pagination-cursor-invalid"));
+        }
+        return sessionRepo.findAllPagination(userId, cursorCreatedAt, cursorId, limit, skip);
     }
 
     @Override
+    public String getNextCursor(List<Session> sessions, Integer limit) {
+        if (sessions.isEmpty() || sessions.size() < limit) {
+            return null;
+        }
+        Session last = sessions.get(sessions.size() - 1);
+        return PaginationCursor.encode(last.getCreatedAt(), last.getId());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Integer getCountByUser(Integer userId) {
         return sessionRepo.getCountByUser(userId);
 
     }
 
     @Override
-    public void addSingleChoiceSelection(Integer sessionId, Integer localId, Integer checkedLocalAnswerId, Integer[] crossedLocalAnswerIds) {
+    public List<SingleChoiceSelection> addSingleChoiceSelection(Integer sessionId, Integer localId, Integer checkedLocalAnswerId, Integer[] crossedLocalAnswerIds) {
 
         Set<Integer> crossed = new HashSet<>(Arrays.asList(crossedLocalAnswerIds));
-        Integer answerCount = sessionRepo.getSingleChoiceAnswerCount(sessionId, localId);
-        for (int i = 1; i <= answerCount; i++) {
-            boolean isChecked = false;
-            if (checkedLocalAnswerId != null) {
-                isChecked = i == checkedLocalAnswerId;
-            }
-            boolean isCrossed = crossed.contains(i);
-            if (isChecked && isCrossed) {
-                throw new ForbiddenException(resourceBundle.getString("answer-can't-be-checked-and-crossed"));
-            }
-            sessionRepo.addSingleChoiceSelection(sessionId, localId, i, isChecked, isCrossed);
+        if (checkedLocalAnswerId != null && crossed.contains(checkedLocalAnswerId)) {
+            throw new ForbiddenException(resourceBundle.getString("answer-can't-be-checked-and-crossed"));
         }
+        Integer[] checked = checkedLocalAnswerId == null ? new Integer[0] : new Integer[]{checkedLocalAnswerId};
+
+        return singleChoiceSelectionRepo.upsertSingleChoiceSelections(sessionId, localId, checked, crossedLocalAnswerIds);
     }
 
     @Override
-    public void addMultipleChoiceSelection(Integer sessionId, Integer localId, Integer[] checkedLocalAnswerIds, Integer[] crossedLocalAnswerIds) {
+    public List<MultipleChoiceSelection> addMultipleChoiceSelection(Integer sessionId, Integer localId, Integer[] checkedLocalAnswerIds, Integer[] crossedLocalAnswerIds) {
 
-        Set<Integer> checked = new HashSet<>(Arrays.asList(checkedLocalAnswerIds));
         Set<Integer> crossed = new HashSet<>(Arrays.asList(crossedLocalAnswerIds));
-        Integer answerCount = sessionRepo.getMultipleChoiceAnswerCount(sessionId, localId);
-        boolean isChecked;
-        boolean isCrossed;
-        for(int i = 1; i<=answerCount;i++) {
-            isChecked = checked.contains(i);
-            isCrossed = crossed.contains(i);
-            if (isChecked && isCrossed) {
+        for (Integer checked : checkedLocalAnswerIds) {
+            if (crossed.contains(checked)) {
                 throw new ForbiddenException(resourceBundle.getString("answer-can't-be-checked-and-crossed"));
             }
         }
-        for (int i = 1; i <= answerCount; i++) {
-            isChecked = checked.contains(i);
-            isCrossed = crossed.contains(i);
-            sessionRepo.addMultipleChoiceSelection(sessionId, localId, i, isChecked, isCrossed);
-        }
+
+        return multipleChoiceSelectionRepo.upsertMultipleChoiceSelections(sessionId, localId, checkedLocalAnswerIds, crossedLocalAnswerIds);
     }
 
     @Override
     public SessionQuestion addTime(Integer sessionId, Integer localId, Integer answerTime) {
-        sessionRepo.addTime(sessionId, localId, answerTime);
-        return sessionQuestionRepo.findBySessionIdAndLocalId(sessionId, localId);
+        // The time is only buffered, the session question is read once until the buffer of the session is flushed.
+        SessionQuestion sessionQuestion = sessionTimeBuffer.setTime(sessionId, localId, answerTime);
+        if (sessionQuestion != null) {
+            return sessionQuestion;
+        }
+        sessionQuestion = sessionQuestionRepo.findBySessionIdAndLocalId(sessionId, localId);
+        if (sessionQuestion == null) {
+            return null;
+        }
+        return sessionTimeBuffer.setTime(sessionQuestion, answerTime);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Integer getCountByParameters(Integer[] moduleIds, Integer[] semesterIds, Integer[] tagIds, String[] questionTypes, String[] questionOrigins, String textFilter) {
 
         if (moduleIds == null) moduleIds = new Integer[0];
@@ -265,11 +435,13 @@ public class SessionServiceImpl implements SessionService {
 
     @Override
     public SessionQuestion submitQuestion(Integer sessionId, Integer localId) {
+        sessionTimeBuffer.flush(sessionId);
         sessionRepo.submitQuestion(sessionId, localId);
         return sessionQuestionRepo.findBySessionIdAndLocalId(sessionId, localId);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Integer getCount(Integer id) {
         return sessionRepo.getQuestionCountBySessionId(id);
     }
@@ -0,0 +1,165 @@
+package de.kreuzenonline.kreuzen.session;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind buffer for the answer times of session questions.
+ * Clients send the cumulated answer time of a question on every timer tick, so only the latest time of each question
+ * is kept in memory and written periodically in one JDBC batch. The buffer is striped by session, so ticks of
+ * different sessions rarely wait for each other.
+ * <p>
+ * A session has to be flushed before its questions are read from the database or changed in another way,
+ * e.g. when a question or the session is submitted or reset. Each stripe has a write lock that is held until its
+ * times are written, so flushing a session also waits for a periodic flush that is still writing the session.
+ */
+@Component
+public class SessionTimeBuffer {
+
+    private final SessionRepo sessionRepo;
+    private final Stripe[] stripes;
+
+    public SessionTimeBuffer(SessionRepo sessionRepo,
+                             @Value("${app.session.time-buffer.stripes:16}") int stripeCount) {
+        this.sessionRepo = sessionRepo;
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Sets the time of a buffered session question.
+     *
+     * @param sessionId id of the session
+     * @param localId   local id of the question within the session
+     * @param time      cumulated answer time
+     * @return session question with the new time, null if the question is not buffered yet
+     */
+    public SessionQuestion setTime(Integer sessionId, Integer localId, Integer time) {
+        Stripe stripe = getStripe(sessionId);
+        synchronized (stripe) {
+            Map<Integer, SessionQuestion> questions = stripe.sessions.get(sessionId);
+            SessionQuestion buffered = questions == null ? null : questions.get(localId);
+            if (buffered == null) {
+                return null;
+            }
+            buffered.setTime(time);
+            return copy(buffered);
+        }
+    }
+
+    /**
+     * Buffers a session question with a new time.
+     *
+     * @param sessionQuestion session question as stored in the database
+     * @param time            cumulated answer time
+     * @return session question with the new time
+     */
+    public SessionQuestion setTime(SessionQuestion sessionQuestion, Integer time) {
+        SessionQuestion buffered = copy(sessionQuestion);
+        buffered.setTime(time);
+        Stripe stripe = getStripe(buffered.getSessionId());
+        synchronized (stripe) {
+            stripe.sessions.computeIfAbsent(buffered.getSessionId(), k -> new HashMap<>()).put(buffered.getLocalId(), buffered);
+            return copy(buffered);
+        }
+    }
+
+    /**
+     * Writes the buffered times of a session to the database.
+     *
+     * @param sessionId id of the session
+     */
+    public void flush(Integer sessionId) {
+        Stripe stripe = getStripe(sessionId);
+        stripe.writeLock.lock();
+        try {
+            Map<Integer, SessionQuestion> questions;
+            synchronized (stripe) {
+                questions = stripe.sessions.remove(sessionId);
+            }
+            if (questions != null) {
+                write(questions.values());
+            }
+        } finally {
+            stripe.writeLock.unlock();
+        }
+    }
+
+    /**
+     * Writes all buffered times to the database.
+     */
+    @Scheduled(fixedDelayString = "${app.session.time-flush-interval:5000}")
+    public void flush() {
+        // All stripes are written in one batch. They are locked in the same order, while setTime only waits for the swap.
+        int locked = 0;
+        try {
+            List<SessionQuestion> questions = new ArrayList<>();
+            for (Stripe stripe : stripes) {
+                stripe.writeLock.lock();
+                locked++;
+                Map<Integer, Map<Integer, SessionQuestion>> sessions;
+                synchronized (stripe) {
+                    sessions = stripe.sessions;
+                    stripe.sessions = new HashMap<>();
+                }
+                sessions.values().forEach(session -> questions.addAll(session.values()));
+            }
+            if (!questions.isEmpty()) {
+                write(questions);
+            }
+        } finally {
+            for (int i = 0; i < locked; i++) {
+                stripes[i].writeLock.unlock();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void write(Collection<SessionQuestion> questions) {
+        try {
+            sessionRepo.updateTimes(questions);
+        } catch (DataAccessException e) {
+            // Keep the times for the next flush, unless a newer time was set in the meantime.
+            for (SessionQuestion question : questions) {
+                Stripe stripe = getStripe(question.getSessionId());
+                synchronized (stripe) {
+                    stripe.sessions.computeIfAbsent(question.getSessionId(), k -> new HashMap<>()).putIfAbsent(question.getLocalId(), question);
+                }
+            }
+            throw e;
+        }
+    }
+
+    private Stripe getStripe(Integer sessionId) {
+        return stripes[Math.floorMod(sessionId, stripes.length)];
+    }
+
+    private static SessionQuestion copy(SessionQuestion sessionQuestion) {
+        return new SessionQuestion(
+                sessionQuestion.getId(),
+                sessionQuestion.getSessionId(),
+                sessionQuestion.getQuestionId(),
+                sessionQuestion.getLocalId(),
+                sessionQuestion.getTime(),
+                sessionQuestion.getIsSubmitted()
+        );
+    }
+
+    private static class Stripe {
+
+        private final ReentrantLock writeLock = new ReentrantLock();
+        private Map<Integer, Map<Integer, SessionQuestion>> sessions = new HashMap<>();
+    }
+}
@@ -0,0 +1,16 @@
+package de.kreuzenonline.kreuzen.session;
+
+import java.util.Collection;
+
+/**
+ * Batch writes of answer times, which can not be expressed as a query method.
+ */
+public interface SessionTimeRepo {
+
+    /**
+     * Sets the answer time of the given session questions in one JDBC batch.
+     *
+     * @param sessionQuestions session questions, identified by session id and local id
+     */
+    void updateTimes(Collection<SessionQuestion> sessionQuestions);
+}
@@ -0,0 +1,27 @@
+package de.kreuzenonline.kreuzen.session;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.util.Collection;
+
+public class SessionTimeRepoImpl implements SessionTimeRepo {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public SessionTimeRepoImpl(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void updateTimes(Collection<SessionQuestion> sessionQuestions) {
+        SqlParameterSource[] params = sessionQuestions.stream()
+                .map(sessionQuestion -> new MapSqlParameterSource()
+                        .addValue("sessionId", sessionQuestion.getSessionId())
+                        .addValue("localId", sessionQuestion.getLocalId())
+                        .addValue("time", sessionQuestion.getTime()))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate("UPDATE session_has_question SET time = :time WHERE session_id = :sessionId AND local_id = :localId", params);
+    }
+}
@@ -6,6 +6,8 @@ import org.springframework.data.jdbc.repository.query.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface SingleChoiceSelectionRepo extends CrudRepository<SingleChoiceSelection, Integer> {
 
@@ -17,4 +19,39 @@ public interface SingleChoiceSelectionRepo extends CrudRepository<SingleChoiceSe
             "    JOIN session_has_question shq on qsca.question_id = shq.question_id AND sscs.session_id = shq.session_id " +
             " WHERE sscs.session_id = :sessionId AND shq.local_id = :localId")
     Iterable<SingleChoiceSelection> findSingleChoiceSelections(Integer sessionId, Integer localId);
+
+    @Query("SELECT " +
+            " sscs.id AS id, sscs.session_id as session_id, shq.local_id AS local_question_id, " +
+            " qsca.local_id AS local_answer_id, sscs.is_checked AS is_checked, sscs.is_crossed AS is_crossed " +
+            " FROM session_single_choice_selection sscs " +
+            "    JOIN question_single_choice_answer qsca on sscs.answer_id = qsca.id " +
+            "    JOIN session_has_question shq on qsca.question_id = shq.question_id AND sscs.session_id = shq.session_id " +
+            " WHERE sscs.session_id = :sessionId")
+    List<SingleChoiceSelection> findSingleChoiceSelectionsBySession(Integer sessionId);
+
+    @Query("SELECT " +
+            " sscs.id AS id, sscs.session_id as session_id, shq.local_id AS local_question_id, " +
+            " qsca.local_id AS local_answer_id, sscs.is_checked AS is_checked, sscs.is_crossed AS is_crossed " +
+            " FROM session_single_choice_selection sscs " +
+            "    JOIN question_single_choice_answer qsca on sscs.answer_id = qsca.id " +
+            "    JOIN session_has_question shq on qsca.question_id = shq.question_id AND sscs.session_id = shq.session_id " +
+            " WHERE sscs.session_id = :sessionId AND shq.local_id BETWEEN :fromLocalId AND :toLocalId")
+    List<SingleChoiceSelection> findSingleChoiceSelectionsBySessionAndLocalIdRange(Integer sessionId, Integer fromLocalId, Integer toLocalId);
+
+    @Query("WITH upserted AS (" +
+            "    INSERT INTO session_single_choice_selection (session_id, answer_id, is_checked, is_crossed) " +
+            "    SELECT shq.session_id, qsca.id, qsca.local_id = ANY(:checkedLocalAnswerIds), qsca.local_id = ANY(:crossedLocalAnswerIds) " +
+            "    FROM session_has_question shq " +
+            "    JOIN question_single_choice_answer qsca ON qsca.question_id = shq.question_id " +
+            "    WHERE shq.session_id = :sessionId AND shq.local_id = :localId " +
+            "    ON CONFLICT (session_id, answer_id) DO UPDATE SET is_checked = EXCLUDED.is_checked, is_crossed = EXCLUDED.is_crossed " +
+            "    RETURNING id, session_id, answer_id, is_checked, is_crossed" +
+            ") " +
+            "SELECT " +
+            " sscs.id AS id, sscs.session_id AS session_id, CAST(:localId AS int) AS local_question_id, " +
+            " qsca.local_id AS local_answer_id, sscs.is_checked AS is_checked, sscs.is_crossed AS is_crossed " +
+            " FROM upserted sscs " +
+            "    JOIN question_single_choice_answer qsca on sscs.answer_id = qsca.id " +
+            " ORDER BY qsca.local_id")
+    List<SingleChoiceSelection> upsertSingleChoiceSelections(Integer sessionId, Integer localId, Integer[] checkedLocalAnswerIds, Integer[] crossedLocalAnswerIds);
 }
@@ -4,6 +4,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Size;
 
@@ -32,4 +34,10 @@ public class CreateSessionRequest {
     private String[] questionTypes;
     private String[] questionOrigins;
     private String filterTerm;
+
+    @Min(value = 1, message = "CreateSessionRequest-questionCount-too-low")
+    @Max(value = 500, message = "CreateSessionRequest-questionCount-too-high")
+    private Integer questionCount;
+
+    private Long seed;
 }
@@ -0,0 +1,30 @@
+package de.kreuzenonline.kreuzen.session.responses;
+
+import de.kreuzenonline.kreuzen.question.responses.BaseQuestionResponse;
+import de.kreuzenonline.kreuzen.session.SessionQuestion;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SessionBundleQuestionResponse {
+
+    private Integer localId;
+    private Integer time;
+    private Boolean isSubmitted;
+    private BaseQuestionResponse question;
+    private List<Object> selections;
+
+    public SessionBundleQuestionResponse(SessionQuestion sessionQuestion, BaseQuestionResponse question, List<Object> selections) {
+        this.localId = sessionQuestion.getLocalId();
+        this.time = sessionQuestion.getTime();
+        this.isSubmitted = sessionQuestion.getIsSubmitted();
+        this.question = question;
+        this.selections = selections;
+    }
+
+}
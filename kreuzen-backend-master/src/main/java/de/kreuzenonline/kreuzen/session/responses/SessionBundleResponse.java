@@ -0,0 +1,21 @@
+package de.kreuzenonline.kreuzen.session.responses;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SessionBundleResponse {
+
+    private SessionResponse session;
+    private List<SessionBundleQuestionResponse> questions;
+    /**
+     * Local id to request the next chunk of questions with, null if this chunk contains the last question.
+     */
+    private Integer nextLocalId;
+
+}
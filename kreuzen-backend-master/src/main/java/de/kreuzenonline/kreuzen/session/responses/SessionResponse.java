@@ -19,6 +19,7 @@ public class SessionResponse {
     private Boolean isRandom;
     private String notes;
     private Boolean isFinished;
+    private Long seed;
     private Instant createdAt;
     private Instant updatedAt;
 
@@ -30,6 +31,7 @@ public class SessionResponse {
         this.isRandom = session.getIsRandom();
         this.notes = session.getNotes();
         this.isFinished = session.getIsFinished();
+        this.seed = session.getSeed();
         this.createdAt = session.getCreatedAt();
         this.updatedAt = session.getUpdatedAt();
     }
@@ -0,0 +1,18 @@
+package de.kreuzenonline.kreuzen.session.responses;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SessionResultSummaryResponse {
+
+    private Integer sessionId;
+    private Integer questionCount;
+    private Integer correctCount;
+    private Integer points;
+    private Integer maxPoints;
+    private Integer time;
+}
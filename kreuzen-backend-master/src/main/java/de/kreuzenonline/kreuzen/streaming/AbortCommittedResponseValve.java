@@ -0,0 +1,33 @@
+package de.kreuzenonline.kreuzen.streaming;
+
+import org.apache.catalina.connector.Request;
+import org.apache.catalina.connector.Response;
+import org.apache.catalina.valves.ValveBase;
+import org.apache.coyote.ActionCode;
+
+import javax.servlet.RequestDispatcher;
+import javax.servlet.ServletException;
+import java.io.IOException;
+
+/**
+ * Closes the connection if a request fails after its response was committed, e.g. while a {@link JsonArrayStream}
+ * is written. The status has already been sent, so only a response that is never completed tells the client that the
+ * body is cut off. Otherwise Tomcat would append the error page to the partial body and complete the response.
+ */
+class AbortCommittedResponseValve extends ValveBase {
+
+    AbortCommittedResponseValve() {
+        super(true);
+    }
+
+    @Override
+    public void invoke(Request request, Response response) throws IOException, ServletException {
+        getNext().invoke(request, response);
+
+        Throwable error = (Throwable) request.getAttribute(RequestDispatcher.ERROR_EXCEPTION);
+        // Reporting the error here keeps the error page from being included.
+        if (error != null && response.isCommitted() && response.setErrorReported()) {
+            response.getCoyoteResponse().action(ActionCode.CLOSE_NOW, error);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package de.kreuzenonline.kreuzen.streaming;
+
+import java.util.function.Consumer;
+
+/**
+ * Response body of a JSON array, whose elements are serialized one by one as they are produced.
+ * Unlike a list, the response is never held in memory as a whole.
+ *
+ * @param <T> type of the elements
+ */
+public class JsonArrayStream<T> {
+
+    private final Consumer<Consumer<? super T>> producer;
+
+    private JsonArrayStream(Consumer<Consumer<? super T>> producer) {
+        this.producer = producer;
+    }
+
+    /**
+     * @param producer passes every element to the given action, e.g. while the rows are read page by page.
+     */
+    public static <T> JsonArrayStream<T> of(Consumer<Consumer<? super T>> producer) {
+        return new JsonArrayStream<>(producer);
+    }
+
+    /**
+     * Produces the elements. Is called once while the response is written.
+     */
+    public void forEach(Consumer<? super T> action) {
+        producer.accept(action);
+    }
+}
@@ -0,0 +1,71 @@
+package de.kreuzenonline.kreuzen.streaming;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes a {@link JsonArrayStream} with the application's object mapper.
+ * Elements are serialized into the response as they are produced, the response is sent in chunks.
+ * <p>
+ * If producing the elements fails, the array is left open and the exception is passed on.
+ * Once parts of the response have been sent, {@link AbortCommittedResponseValve} closes the connection.
+ */
+@Component
+public class JsonArrayStreamConverter extends AbstractHttpMessageConverter<JsonArrayStream<?>> {
+
+    private final ObjectMapper mapper;
+    private final ObjectWriter writer;
+
+    public JsonArrayStreamConverter(ObjectMapper mapper) {
+        super(MediaType.APPLICATION_JSON);
+        this.mapper = mapper;
+        // Flushing after every element would send each of them in its own chunk.
+        this.writer = mapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return JsonArrayStream.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected JsonArrayStream<?> readInternal(Class<? extends JsonArrayStream<?>> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("JsonArrayStream can only be written", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(JsonArrayStream<?> stream, HttpOutputMessage outputMessage) throws IOException {
+        JsonGenerator generator = mapper.getFactory().createGenerator(outputMessage.getBody(), JsonEncoding.UTF8);
+        generator.writeStartArray();
+        try {
+            stream.forEach(element -> {
+                try {
+                    writer.writeValue(generator, element);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        generator.writeEndArray();
+        generator.flush();
+    }
+}
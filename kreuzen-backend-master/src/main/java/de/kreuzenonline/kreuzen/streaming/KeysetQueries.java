@@ -0,0 +1,55 @@
+package de.kreuzenonline.kreuzen.streaming;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Runs queries whose rows are passed on page by page, instead of being collected in a single list first.
+ * <p>
+ * Every page is a query of its own that continues after the key of the last row of the previous page. The connection
+ * is given back to the pool before the rows of a page are passed on, so a slow client reading the rows from a response
+ * does not hold one of the few pooled connections, while at most app.streaming.fetch-size rows are kept in memory.
+ */
+@Component
+public class KeysetQueries {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final int pageSize;
+
+    public KeysetQueries(NamedParameterJdbcTemplate jdbcTemplate,
+                         @Value("${app.streaming.fetch-size:500}") int pageSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * @param sql       query with named parameters, that must only return rows with a key greater than :after,
+     *                  ordered by the key and limited to :limit rows
+     * @param params    values of the other named parameters
+     * @param rowMapper maps a single row
+     * @param key       key of a mapped row, the first page starts after 0
+     * @param action    is called for every row, in the order of the key
+     */
+    public <T> void forEach(String sql, Map<String, ?> params, RowMapper<T> rowMapper,
+                            Function<? super T, Integer> key, Consumer<? super T> action) {
+        Map<String, Object> pageParams = new HashMap<>(params);
+        pageParams.put("limit", pageSize);
+        pageParams.put("after", 0);
+        List<T> page;
+        do {
+            page = jdbcTemplate.query(sql, pageParams, rowMapper);
+            page.forEach(action);
+            if (!page.isEmpty()) {
+                pageParams.put("after", key.apply(page.get(page.size() - 1)));
+            }
+        } while (page.size() == pageSize);
+    }
+}
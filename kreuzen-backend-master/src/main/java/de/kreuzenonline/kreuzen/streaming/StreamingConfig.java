@@ -0,0 +1,15 @@
+package de.kreuzenonline.kreuzen.streaming;
+
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class StreamingConfig {
+
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> abortCommittedResponseCustomizer() {
+        return factory -> factory.addContextValves(new AbortCommittedResponseValve());
+    }
+}
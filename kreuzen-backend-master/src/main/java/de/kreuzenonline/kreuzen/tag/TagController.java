@@ -1,6 +1,8 @@
 package de.kreuzenonline.kreuzen.tag;
 
 import de.kreuzenonline.kreuzen.auth.CustomUserDetails;
+import de.kreuzenonline.kreuzen.cache.ConditionalGet;
+import de.kreuzenonline.kreuzen.cache.HttpCachePolicy;
 import de.kreuzenonline.kreuzen.exceptions.ForbiddenException;
 import de.kreuzenonline.kreuzen.question.BaseQuestionServiceImpl;
 import de.kreuzenonline.kreuzen.role.Roles;
@@ -85,6 +87,7 @@ public class TagController {
     }
 
     @GetMapping("/module/{moduleId}/tag")
+    @ConditionalGet(HttpCachePolicy.CATALOG)
     @ApiOperation(
             value = "Get tags.",
             notes = "Get a list of all tags that belong to a semester."
@@ -1,6 +1,10 @@
 package de.kreuzenonline.kreuzen.tag;
 
+import de.kreuzenonline.kreuzen.cache.CacheConfig;
 import de.kreuzenonline.kreuzen.exceptions.NotFoundException;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -18,6 +22,7 @@ public class TagServiceImpl implements TagService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.REFERENCE_DATA, allEntries = true)
     public Tag create(String name, Integer moduleId) {
         Tag tag = new Tag();
         tag.setName(name);
@@ -26,18 +31,21 @@ public class TagServiceImpl implements TagService {
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.REFERENCE_DATA, keyGenerator = CacheConfig.REFERENCE_DATA_KEY_GENERATOR)
     public Tag findById(Integer id) {
         return tagRepo.findById(id)
                 .orElseThrow(() -> new NotFoundException(resourceBundle.getString("tag-not-found")));
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.REFERENCE_DATA, keyGenerator = CacheConfig.REFERENCE_DATA_KEY_GENERATOR)
     public Iterable<Tag> findAllByModule(Integer moduleId) {
         return tagRepo.findAllByModuleId(moduleId);
     }
 
 
     @Override
+    @CacheEvict(cacheNames = {CacheConfig.QUESTION_COUNTS, CacheConfig.REFERENCE_DATA, CacheConfig.TYPED_QUESTIONS}, allEntries = true)
     public Tag update(Integer id, String name) {
         Tag tag = findById(id);
 
@@ -47,6 +55,7 @@ public class TagServiceImpl implements TagService {
     }
 
     @Override
+    @CacheEvict(cacheNames = {CacheConfig.QUESTION_COUNTS, CacheConfig.REFERENCE_DATA, CacheConfig.TYPED_QUESTIONS}, allEntries = true)
     public void delete(Integer id) {
         tagRepo.deleteById(id);
     }
@@ -57,11 +66,19 @@ public class TagServiceImpl implements TagService {
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.QUESTION_COUNTS, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.TYPED_QUESTIONS, key = "#questionId")
+    })
     public void addTagToQuestion(Integer questionId, Integer tagId) {
         tagRepo.addTagToQuestion(questionId, tagId);
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.QUESTION_COUNTS, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.TYPED_QUESTIONS, key = "#questionId")
+    })
     public void removeTagFromQuestion(Integer questionId, Integer tagId) {
         tagRepo.removeTagFromQuestion(questionId, tagId);
     }
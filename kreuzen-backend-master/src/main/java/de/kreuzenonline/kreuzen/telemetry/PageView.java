@@ -0,0 +1,19 @@
+package de.kreuzenonline.kreuzen.telemetry;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table("page_views_per_day")
+public class PageView {
+
+    private LocalDate date;
+    private String url;
+    private Integer views;
+}
@@ -0,0 +1,25 @@
+package de.kreuzenonline.kreuzen.telemetry;
+
+import org.springframework.data.jdbc.repository.query.Modifying;
+import org.springframework.data.jdbc.repository.query.Query;
+import org.springframework.data.repository.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface PageViewRepo extends Repository<PageView, Integer> {
+
+    /**
+     * Adds views to the daily view counts of urls in one statement.
+     */
+    @Modifying
+    @Query("INSERT INTO page_views_per_day(date, url, views) " +
+            " SELECT CAST(x.date AS date), x.url, x.views " +
+            " FROM unnest(CAST(:dates AS text[]), CAST(:urls AS text[]), CAST(:views AS int[])) AS x(date, url, views) " +
+            " ON CONFLICT (date, url) DO UPDATE SET views = page_views_per_day.views + EXCLUDED.views")
+    void addViews(String[] dates, String[] urls, Integer[] views);
+
+    @Query("SELECT NULL AS date, url, SUM(views) AS views FROM page_views_per_day " +
+            "WHERE date BETWEEN :from AND :to GROUP BY url ORDER BY views DESC, url LIMIT :limit")
+    List<PageView> findTotals(LocalDate from, LocalDate to, Integer limit);
+}
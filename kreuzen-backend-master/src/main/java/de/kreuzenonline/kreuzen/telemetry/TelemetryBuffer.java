@@ -0,0 +1,181 @@
+package de.kreuzenonline.kreuzen.telemetry;
+
+import lombok.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts usage minutes per user and page views per url in memory and adds them to the usage_time and
+ * page_views_per_day tables in batches. Counting does not block, so it can be done on every request.
+ * <p>
+ * A user is counted for every minute (UTC) in which at least one of their requests was handled.
+ * Counts are moved to the database periodically and on shutdown, a failed flush keeps them for the next one.
+ */
+@Component
+public class TelemetryBuffer {
+
+    private final UsageTimeRepo usageTimeRepo;
+    private final PageViewRepo pageViewRepo;
+
+    private final Map<UsageKey, LongAdder> usageMinutes = new ConcurrentHashMap<>();
+    private final Map<PageViewKey, LongAdder> pageViews = new ConcurrentHashMap<>();
+    /**
+     * Last minute since epoch each user was counted for.
+     */
+    private final Map<Integer, Long> lastActiveMinutes = new ConcurrentHashMap<>();
+
+    public TelemetryBuffer(UsageTimeRepo usageTimeRepo, PageViewRepo pageViewRepo) {
+        this.usageTimeRepo = usageTimeRepo;
+        this.pageViewRepo = pageViewRepo;
+    }
+
+    /**
+     * Counts the minute of a request of a user, unless the user was already counted for it.
+     *
+     * @param userId id of the user
+     * @param time   time of the request
+     */
+    public void recordActivity(Integer userId, Instant time) {
+        long minute = time.getEpochSecond() / 60;
+        Long previous = lastActiveMinutes.put(userId, minute);
+        if (previous == null || previous < minute) {
+            usageMinutes.computeIfAbsent(new UsageKey(toDate(time), userId), k -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * Counts a view of an url.
+     *
+     * @param url  url of the page
+     * @param time time of the view
+     */
+    public void recordPageView(String url, Instant time) {
+        pageViews.computeIfAbsent(new PageViewKey(toDate(time), url), k -> new LongAdder()).increment();
+    }
+
+    /**
+     * Adds all counts to the database.
+     */
+    @Scheduled(fixedDelayString = "${app.telemetry.flush-interval:60000}")
+    public void flush() {
+        flushUsageMinutes();
+        flushPageViews();
+
+        // Users whose last request was in an earlier minute are counted again with their next request anyway.
+        long currentMinute = Instant.now().getEpochSecond() / 60;
+        lastActiveMinutes.values().removeIf(minute -> minute < currentMinute);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void flushUsageMinutes() {
+        List<UsageKey> keys = new ArrayList<>();
+        List<Long> counts = new ArrayList<>();
+        drain(usageMinutes, keys, counts);
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        String[] dates = new String[keys.size()];
+        Integer[] userIds = new Integer[keys.size()];
+        Integer[] minuteCounts = new Integer[keys.size()];
+        for (int i = 0; i < keys.size(); i++) {
+            dates[i] = keys.get(i).getDate().toString();
+            userIds[i] = keys.get(i).getUserId();
+            minuteCounts[i] = counts.get(i).intValue();
+        }
+        try {
+            usageTimeRepo.addMinutes(dates, userIds, minuteCounts);
+        } catch (DataAccessException e) {
+            restore(usageMinutes, keys, counts);
+            throw e;
+        }
+    }
+
+    private void flushPageViews() {
+        List<PageViewKey> keys = new ArrayList<>();
+        List<Long> counts = new ArrayList<>();
+        drain(pageViews, keys, counts);
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        String[] dates = new String[keys.size()];
+        String[] urls = new String[keys.size()];
+        Integer[] views = new Integer[keys.size()];
+        for (int i = 0; i < keys.size(); i++) {
+            dates[i] = keys.get(i).getDate().toString();
+            urls[i] = keys.get(i).getUrl();
+            views[i] = counts.get(i).intValue();
+        }
+        try {
+            pageViewRepo.addViews(dates, urls, views);
+        } catch (DataAccessException e) {
+            restore(pageViews, keys, counts);
+            throw e;
+        }
+    }
+
+    /**
+     * Takes the current counts out of the counters. Only the counted amount is subtracted,
+     * so increments that happen at the same time are kept for the next flush.
+     * Counters of past days are removed, as they are not incremented anymore.
+     */
+    private static <K extends DailyKey> void drain(Map<K, LongAdder> counters, List<K> keys, List<Long> counts) {
+        LocalDate today = toDate(Instant.now());
+        for (Map.Entry<K, LongAdder> entry : counters.entrySet()) {
+            long count = entry.getValue().sum();
+            if (count > 0) {
+                entry.getValue().add(-count);
+                keys.add(entry.getKey());
+                counts.add(count);
+            }
+            if (entry.getKey().getDate().isBefore(today)) {
+                counters.remove(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    private static <K> void restore(Map<K, LongAdder> counters, List<K> keys, List<Long> counts) {
+        for (int i = 0; i < keys.size(); i++) {
+            counters.computeIfAbsent(keys.get(i), k -> new LongAdder()).add(counts.get(i));
+        }
+    }
+
+    private static LocalDate toDate(Instant time) {
+        return time.atOffset(ZoneOffset.UTC).toLocalDate();
+    }
+
+    private interface DailyKey {
+
+        LocalDate getDate();
+    }
+
+    @Value
+    private static class UsageKey implements DailyKey {
+
+        LocalDate date;
+        Integer userId;
+    }
+
+    @Value
+    private static class PageViewKey implements DailyKey {
+
+        LocalDate date;
+        String url;
+    }
+}
@@ -0,0 +1,20 @@
+package de.kreuzenonline.kreuzen.telemetry;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class TelemetryConfig implements WebMvcConfigurer {
+
+    private final TelemetryInterceptor telemetryInterceptor;
+
+    public TelemetryConfig(TelemetryInterceptor telemetryInterceptor) {
+        this.telemetryInterceptor = telemetryInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(telemetryInterceptor);
+    }
+}
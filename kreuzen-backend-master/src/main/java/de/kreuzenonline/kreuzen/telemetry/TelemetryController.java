@@ -0,0 +1,107 @@
+package de.kreuzenonline.kreuzen.telemetry;
+
+import de.kreuzenonline.kreuzen.auth.CustomUserDetails;
+import de.kreuzenonline.kreuzen.exceptions.BadRequestException;
+import de.kreuzenonline.kreuzen.exceptions.ForbiddenException;
+import de.kreuzenonline.kreuzen.role.Roles;
+import de.kreuzenonline.kreuzen.telemetry.responses.PageViewResponse;
+import de.kreuzenonline.kreuzen.telemetry.responses.UsageTimeResponse;
+import de.kreuzenonline.kreuzen.telemetry.responses.UsageTimeSummaryResponse;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.ResourceBundle;
+import java.util.stream.Collectors;
+
+@RestController
+@Api(tags = "Telemetry")
+public class TelemetryController {
+
+    private final TelemetryService telemetryService;
+    private final ResourceBundle resourceBundle;
+
+    public TelemetryController(TelemetryService telemetryService, ResourceBundle resourceBundle) {
+        this.telemetryService = telemetryService;
+        this.resourceBundle = resourceBundle;
+    }
+
+    @GetMapping("/telemetry/usage")
+    @ApiOperation(value = "Get daily usage",
+            notes = "Gets the number of active users and their usage minutes per day. Without a range the last 30 days are returned. " +
+                    "Counts are written with a delay of up to a minute.")
+    public List<UsageTimeSummaryResponse> getUsage(@AuthenticationPrincipal CustomUserDetails userDetails,
+                                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        checkAdmin(userDetails);
+        LocalDate end = getEnd(to);
+
+        return telemetryService.getUsageSummaries(getStart(from, end), end).stream()
+                .map(UsageTimeSummaryResponse::new)
+                .collect(Collectors.toList());
+    }
+
+    @GetMapping("/telemetry/usage/user/{userId}")
+    @ApiOperation(value = "Get daily usage of a user",
+            notes = "Gets the usage minutes of a user per day. Without a range the last 30 days are returned.")
+    public List<UsageTimeResponse> getUsageByUser(@AuthenticationPrincipal CustomUserDetails userDetails,
+                                                  @PathVariable Integer userId,
+                                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        checkAdmin(userDetails);
+        LocalDate end = getEnd(to);
+
+        return telemetryService.getUsageByUser(userId, getStart(from, end), end).stream()
+                .map(UsageTimeResponse::new)
+                .collect(Collectors.toList());
+    }
+
+    @GetMapping("/telemetry/page-views")
+    @ApiOperation(value = "Get most viewed urls",
+            notes = "Gets the most viewed urls with their views within a range of days. Without a range the last 30 days are used. " +
+                    "Urls are the path patterns of the api, e.g. /session/{id}.")
+    public List<PageViewResponse> getPageViews(@AuthenticationPrincipal CustomUserDetails userDetails,
+                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                               @RequestParam(defaultValue = "50") Integer limit) {
+        checkAdmin(userDetails);
+        if (limit < 1 || limit > 500) {
+            throw new BadRequestException(resourceBundle.getString("telemetry-limit-invalid"));
+        }
+        LocalDate end = getEnd(to);
+
+        return telemetryService.getPageViewTotals(getStart(from, end), end, limit).stream()
+                .map(PageViewResponse::new)
+                .collect(Collectors.toList());
+    }
+
+    private void checkAdmin(CustomUserDetails userDetails) {
+        if (userDetails == null) {
+            throw new ForbiddenException(resourceBundle.getString("unauthorized"));
+        }
+        boolean isAdmin = userDetails.getAuthorities().contains(new SimpleGrantedAuthority(Roles.ADMIN.getId()))
+                || userDetails.getAuthorities().contains(new SimpleGrantedAuthority(Roles.SUDO.getId()));
+
+        // Only admins are allowed to access the telemetry.
+        if (!isAdmin) {
+            throw new ForbiddenException(resourceBundle.getString("get-telemetry-forbidden"));
+        }
+    }
+
+    private static LocalDate getEnd(LocalDate to) {
+        return to != null ? to : LocalDate.now(ZoneOffset.UTC);
+    }
+
+    private static LocalDate getStart(LocalDate from, LocalDate end) {
+        return from != null ? from : end.minusDays(29);
+    }
+}
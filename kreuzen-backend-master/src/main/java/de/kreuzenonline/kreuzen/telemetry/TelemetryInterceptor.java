@@ -0,0 +1,42 @@
+package de.kreuzenonline.kreuzen.telemetry;
+
+import de.kreuzenonline.kreuzen.auth.CustomUserDetails;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.time.Instant;
+
+/**
+ * Counts every handled request for the usage time of the authenticated user and every GET request as a view
+ * of its url. The url is the path pattern of the handler (e.g. "/session/{id}"), so all sessions share one count.
+ */
+@Component
+public class TelemetryInterceptor implements HandlerInterceptor {
+
+    private final TelemetryBuffer telemetryBuffer;
+
+    public TelemetryInterceptor(TelemetryBuffer telemetryBuffer) {
+        this.telemetryBuffer = telemetryBuffer;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Instant now = Instant.now();
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof CustomUserDetails) {
+            telemetryBuffer.recordActivity(((CustomUserDetails) authentication.getPrincipal()).getId(), now);
+        }
+
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern != null && HttpMethod.GET.matches(request.getMethod()) && response.getStatus() < 400) {
+            telemetryBuffer.recordPageView(pattern.toString(), now);
+        }
+    }
+}
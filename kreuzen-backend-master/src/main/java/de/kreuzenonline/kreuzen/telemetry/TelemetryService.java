@@ -0,0 +1,36 @@
+package de.kreuzenonline.kreuzen.telemetry;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface TelemetryService {
+
+    /**
+     * Gets the number of active users and their summed up usage minutes per day.
+     *
+     * @param from first day, inclusive
+     * @param to   last day, inclusive
+     * @return one summary for each day with usage, ordered by date
+     */
+    List<UsageTimeSummary> getUsageSummaries(LocalDate from, LocalDate to);
+
+    /**
+     * Gets the usage minutes of a user per day.
+     *
+     * @param userId id of the user
+     * @param from   first day, inclusive
+     * @param to     last day, inclusive
+     * @return usage time for each day the user was active, ordered by date
+     */
+    List<UsageTime> getUsageByUser(Integer userId, LocalDate from, LocalDate to);
+
+    /**
+     * Gets the most viewed urls within a range of days.
+     *
+     * @param from  first day, inclusive
+     * @param to    last day, inclusive
+     * @param limit maximum number of urls
+     * @return urls with their summed up views, most viewed first
+     */
+    List<PageView> getPageViewTotals(LocalDate from, LocalDate to, Integer limit);
+}
@@ -0,0 +1,46 @@
+package de.kreuzenonline.kreuzen.telemetry;
+
+import de.kreuzenonline.kreuzen.exceptions.BadRequestException;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.ResourceBundle;
+
+@Service
+public class TelemetryServiceImpl implements TelemetryService {
+
+    private final UsageTimeRepo usageTimeRepo;
+    private final PageViewRepo pageViewRepo;
+    private final ResourceBundle resourceBundle;
+
+    public TelemetryServiceImpl(UsageTimeRepo usageTimeRepo, PageViewRepo pageViewRepo, ResourceBundle resourceBundle) {
+        this.usageTimeRepo = usageTimeRepo;
+        this.pageViewRepo = pageViewRepo;
+        this.resourceBundle = resourceBundle;
+    }
+
+    @Override
+    public List<UsageTimeSummary> getUsageSummaries(LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        return usageTimeRepo.findSummaries(from, to);
+    }
+
+    @Override
+    public List<UsageTime> getUsageByUser(Integer userId, LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        return usageTimeRepo.findAllByUserId(userId, from, to);
+    }
+
+    @Override
+    public List<PageView> getPageViewTotals(LocalDate from, LocalDate to, Integer limit) {
+        checkRange(from, to);
+        return pageViewRepo.findTotals(from, to, limit);
+    }
+
+    private void checkRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new BadRequestException(resourceBundle.getString("telemetry-range-invalid"));
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package de.kreuzenonline.kreuzen.telemetry;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table("usage_time")
+public class UsageTime {
+
+    private LocalDate date;
+    private Integer userId;
+    private Integer minuteCount;
+}
@@ -0,0 +1,29 @@
+package de.kreuzenonline.kreuzen.telemetry;
+
+import org.springframework.data.jdbc.repository.query.Modifying;
+import org.springframework.data.jdbc.repository.query.Query;
+import org.springframework.data.repository.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface UsageTimeRepo extends Repository<UsageTime, Integer> {
+
+    /**
+     * Adds minutes to the usage time of users in one statement. Minutes of users that were deleted in the meantime are dropped.
+     */
+    @Modifying
+    @Query("INSERT INTO usage_time(date, user_id, minute_count) " +
+            " SELECT CAST(x.date AS date), x.user_id, x.minute_count " +
+            " FROM unnest(CAST(:dates AS text[]), CAST(:userIds AS int[]), CAST(:minuteCounts AS int[])) AS x(date, user_id, minute_count) " +
+            " WHERE EXISTS(SELECT 1 FROM app_user u WHERE u.id = x.user_id) " +
+            " ON CONFLICT (user_id, date) DO UPDATE SET minute_count = usage_time.minute_count + EXCLUDED.minute_count")
+    void addMinutes(String[] dates, Integer[] userIds, Integer[] minuteCounts);
+
+    @Query("SELECT date, COUNT(*) AS user_count, SUM(minute_count) AS minute_count FROM usage_time " +
+            "WHERE date BETWEEN :from AND :to GROUP BY date ORDER BY date")
+    List<UsageTimeSummary> findSummaries(LocalDate from, LocalDate to);
+
+    @Query("SELECT * FROM usage_time WHERE user_id = :userId AND date BETWEEN :from AND :to ORDER BY date")
+    List<UsageTime> findAllByUserId(Integer userId, LocalDate from, LocalDate to);
+}
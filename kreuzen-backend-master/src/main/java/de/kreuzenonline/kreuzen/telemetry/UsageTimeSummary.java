@@ -0,0 +1,20 @@
+package de.kreuzenonline.kreuzen.telemetry;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Usage time of all users on one day.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UsageTimeSummary {
+
+    private LocalDate date;
+    private Integer userCount;
+    private Integer minuteCount;
+}
@@ -0,0 +1,20 @@
+package de.kreuzenonline.kreuzen.telemetry.responses;
+
+import de.kreuzenonline.kreuzen.telemetry.PageView;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PageViewResponse {
+
+    private String url;
+    private Integer views;
+
+    public PageViewResponse(PageView pageView) {
+        this.url = pageView.getUrl();
+        this.views = pageView.getViews();
+    }
+}
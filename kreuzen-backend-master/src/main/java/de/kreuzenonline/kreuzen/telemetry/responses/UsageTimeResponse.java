@@ -0,0 +1,24 @@
+package de.kreuzenonline.kreuzen.telemetry.responses;
+
+import de.kreuzenonline.kreuzen.telemetry.UsageTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UsageTimeResponse {
+
+    private LocalDate date;
+    private Integer userId;
+    private Integer minuteCount;
+
+    public UsageTimeResponse(UsageTime usageTime) {
+        this.date = usageTime.getDate();
+        this.userId = usageTime.getUserId();
+        this.minuteCount = usageTime.getMinuteCount();
+    }
+}
@@ -0,0 +1,24 @@
+package de.kreuzenonline.kreuzen.telemetry.responses;
+
+import de.kreuzenonline.kreuzen.telemetry.UsageTimeSummary;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UsageTimeSummaryResponse {
+
+    private LocalDate date;
+    private Integer userCount;
+    private Integer minuteCount;
+
+    public UsageTimeSummaryResponse(UsageTimeSummary summary) {
+        this.date = summary.getDate();
+        this.userCount = summary.getUserCount();
+        this.minuteCount = summary.getMinuteCount();
+    }
+}
@@ -1,6 +1,8 @@
 package de.kreuzenonline.kreuzen.university;
 
 import de.kreuzenonline.kreuzen.auth.CustomUserDetails;
+import de.kreuzenonline.kreuzen.cache.ConditionalGet;
+import de.kreuzenonline.kreuzen.cache.HttpCachePolicy;
 import de.kreuzenonline.kreuzen.exceptions.ForbiddenException;
 import de.kreuzenonline.kreuzen.role.Roles;
 import de.kreuzenonline.kreuzen.university.requests.CreateUniversityRequest;
@@ -32,6 +34,7 @@ public class UniversityController {
     }
 
     @GetMapping
+    @ConditionalGet(HttpCachePolicy.CATALOG)
     @ApiOperation(
             value = "Get all universities",
             notes = "Get all registered universities."
@@ -50,6 +53,7 @@ public class UniversityController {
     }
 
     @GetMapping("/{id}")
+    @ConditionalGet(HttpCachePolicy.CATALOG)
     @ApiOperation(
             value = "Get university",
             notes = "Get a specific university by its id."
@@ -1,7 +1,10 @@
 package de.kreuzenonline.kreuzen.university;
 
+import de.kreuzenonline.kreuzen.cache.CacheConfig;
 import de.kreuzenonline.kreuzen.exceptions.NotFoundException;
 import de.kreuzenonline.kreuzen.exceptions.VerificationException;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -20,11 +23,13 @@ public class UniversityServiceImpl implements UniversityService {
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.REFERENCE_DATA, keyGenerator = CacheConfig.REFERENCE_DATA_KEY_GENERATOR)
     public Iterable<University> getAll() {
         return universityRepo.findAll();
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.REFERENCE_DATA, keyGenerator = CacheConfig.REFERENCE_DATA_KEY_GENERATOR)
     public University getById(Integer id) {
 
         Optional<University> university = universityRepo.findById(id);
@@ -37,11 +42,13 @@ public class UniversityServiceImpl implements UniversityService {
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.REFERENCE_DATA, keyGenerator = CacheConfig.REFERENCE_DATA_KEY_GENERATOR)
     public List<University> getByDomain(String domain) {
         return universityRepo.findByAllowedMailDomain(domain);
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.REFERENCE_DATA, allEntries = true)
     public University create(String name, String[] allowedDomains) {
 
         University university = new University();
@@ -52,11 +59,13 @@ public class UniversityServiceImpl implements UniversityService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.REFERENCE_DATA, allEntries = true)
     public void delete(Integer id) {
         universityRepo.deleteById(id);
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.REFERENCE_DATA, allEntries = true)
     public University update(Integer id, String name, String[] allowedDomains) {
 
         University university = this.getById(id);
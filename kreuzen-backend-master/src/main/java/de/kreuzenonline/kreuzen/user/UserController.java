@@ -1,6 +1,7 @@
 package de.kreuzenonline.kreuzen.user;
 
 import de.kreuzenonline.kreuzen.auth.CustomUserDetails;
+import de.kreuzenonline.kreuzen.auth.CustomUserDetailsService;
 import de.kreuzenonline.kreuzen.exceptions.BadRequestException;
 import de.kreuzenonline.kreuzen.exceptions.ForbiddenException;
 import de.kreuzenonline.kreuzen.role.Roles;
@@ -9,6 +10,7 @@ import de.kreuzenonline.kreuzen.user.responses.UserResponse;
 import de.kreuzenonline.kreuzen.utils.PaginationResponse;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -29,11 +31,13 @@ public class UserController {
     private final UserService userService;
     private final PasswordEncoder passwordEncoder;
     private final ResourceBundle resourceBundle;
+    private final CustomUserDetailsService userDetailsService;
 
-    public UserController(UserService userService, PasswordEncoder passwordEncoder, ResourceBundle resourceBundle) {
+    public UserController(UserService userService, PasswordEncoder passwordEncoder, ResourceBundle resourceBundle, CustomUserDetailsService userDetailsService) {
         this.userService = userService;
         this.passwordEncoder = passwordEncoder;
         this.resourceBundle = resourceBundle;
+        this.userDetailsService = userDetailsService;
     }
 
     @GetMapping("/{userId}")
@@ -50,13 +54,15 @@ public class UserController {
 
     @GetMapping
     @ApiOperation(
-            value = "Get a list of users."
+            value = "Get a list of users.",
+            notes = "Pass the nextCursor of a response as cursor to get the following page, skip is ignored then."
     )
     public PaginationResponse<UserResponse> getUser(
             @AuthenticationPrincipal CustomUserDetails userDetails,
             @RequestParam(defaultValue = "20") int limit,
             @RequestParam(defaultValue = "0") int skip,
-            @RequestParam(required = false) String searchTerm
+            @RequestParam(required = false) String searchTerm,
+            @RequestParam(required = false) String cursor
     ) {
 
         if (userDetails == null) {
@@ -73,17 +79,18 @@ public class UserController {
         List<User> users;
         long count;
         if (StringUtils.hasLength(searchTerm)) {
-            users = userService.getByPagination(searchTerm, limit, skip);
+            users = userService.getByPagination(searchTerm, limit, skip, cursor);
             count = userService.getCount(searchTerm);
         } else {
-            users = userService.getByPagination(limit, skip);
+            users = userService.getByPagination(limit, skip, cursor);
             count = userService.getCount();
         }
 
 
         return new PaginationResponse<>(
                 count,
-                users.stream().map(UserResponse::new).collect(Collectors.toList())
+                users.stream().map(UserResponse::new).collect(Collectors.toList()),
+                userService.getNextCursor(users, limit)
         );
     }
 
@@ -115,9 +122,10 @@ public class UserController {
     @PatchMapping("/{userId}")
     @ApiOperation(
             value = "Updates the user's information.",
-            notes = "Updates the user's information. When the password shall be changed, the user also has to enter his old password for verification."
+            notes = "Updates the user's information. When the password shall be changed, the user also has to enter his old password for verification. " +
+                    "Changing password, email, role, lock state or university logs out all sessions of the user. Users updating themselves get a new token."
     )
-    public UserResponse updateUser(
+    public ResponseEntity<UserResponse> updateUser(
             @PathVariable Integer userId,
             @Valid @RequestBody UpdateUserRequest request,
             @AuthenticationPrincipal CustomUserDetails userDetails
@@ -181,6 +189,26 @@ public class UserController {
                 request.getNewLocked()
         );
 
-        return new UserResponse(updatedUser);
+        HttpHeaders headers = new HttpHeaders();
+        // The update may have revoked the token of the request, so users updating themselves get a new one
+        if (userDetails.getId().equals(userId) && !updatedUser.isLocked()) {
+            String jwt = userDetailsService.generateJwt(new CustomUserDetails(
+                    updatedUser.getId(),
+                    updatedUser.getUsername(),
+                    updatedUser.getFirstName(),
+                    updatedUser.getLastName(),
+                    updatedUser.getEmail(),
+                    updatedUser.getPasswordHash(),
+                    updatedUser.getRole(),
+                    updatedUser.getUniversityId(),
+                    updatedUser.isEmailConfirmed(),
+                    updatedUser.isLocked(),
+                    updatedUser.getCreatedAt(),
+                    updatedUser.getUpdatedAt()
+            ));
+            headers.add("Authorization", "Bearer " + jwt);
+        }
+
+        return ResponseEntity.ok().headers(headers).body(new UserResponse(updatedUser));
     }
 }
@@ -14,16 +14,19 @@ public interface UserRepo extends CrudRepository<User, Integer> {
 
     boolean existsByEmailIgnoreCase(String email);
 
-    @Query("SELECT * FROM app_user ORDER BY email_confirmed ASC, LOWER(first_name), LOWER(last_name) OFFSET :skip LIMIT :limit")
-    List<User> findAllPagination(int limit, int skip);
+    @Query("SELECT * FROM app_user WHERE " +
+            " (:cursorId IS NULL OR (email_confirmed, LOWER(first_name), LOWER(last_name), id) > (:cursorEmailConfirmed, LOWER(:cursorFirstName), LOWER(:cursorLastName), :cursorId)) " +
+            " ORDER BY email_confirmed ASC, LOWER(first_name), LOWER(last_name), id OFFSET CASE WHEN CAST(:cursorId AS integer) IS NULL THEN :skip ELSE 0 END LIMIT :limit")
+    List<User> findAllPagination(Boolean cursorEmailConfirmed, String cursorFirstName, String cursorLastName, Integer cursorId, int limit, int skip);
 
     @Query("SELECT * FROM app_user WHERE " +
-            " username LIKE CONCAT('%',:term,'%') " +
+            " (username LIKE CONCAT('%',:term,'%') " +
             " OR email LIKE CONCAT('%',:term,'%') " +
             " OR first_name LIKE CONCAT('%',:term,'%') " +
-            " OR last_name LIKE CONCAT('%',:term,'%') " +
-            " ORDER BY email_confirmed ASC, LOWER(first_name), LOWER(last_name) OFFSET :skip LIMIT :limit")
-    List<User> findBySearchTerm(String term, int limit, int skip);
+            " OR last_name LIKE CONCAT('%',:term,'%')) " +
+            " AND (:cursorId IS NULL OR (email_confirmed, LOWER(first_name), LOWER(last_name), id) > (:cursorEmailConfirmed, LOWER(:cursorFirstName), LOWER(:cursorLastName), :cursorId)) " +
+            " ORDER BY email_confirmed ASC, LOWER(first_name), LOWER(last_name), id OFFSET CASE WHEN CAST(:cursorId AS integer) IS NULL THEN :skip ELSE 0 END LIMIT :limit")
+    List<User> findBySearchTerm(String term, Boolean cursorEmailConfirmed, String cursorFirstName, String cursorLastName, Integer cursorId, int limit, int skip);
 
     @Query("SELECT COUNT(*) FROM app_user WHERE " +
             " username LIKE CONCAT('%',:term,'%') " +
@@ -46,24 +46,36 @@ public interface UserService {
     );
 
     /**
-     * Returns a list of users using limit and skip ordered by username.
+     * Returns a list of users using limit and skip ordered by name. If a cursor is given, the list continues
+     * after the user the cursor points to.
      *
-     * @param limit max length of returned list
-     * @param skip  amount of users to skip
+     * @param limit  max length of returned list
+     * @param skip   amount of users to skip, ignored if a cursor is given
+     * @param cursor cursor of the previous page, may be null
      * @return list of users
      */
-    List<User> getByPagination(int limit, int skip);
+    List<User> getByPagination(int limit, int skip, String cursor);
 
     /**
-     * Returns a list of users using limit and skip ordered by username. Only users who contain the search
-     * term somewhere are listed.
+     * Returns a list of users using limit and skip ordered by name. Only users who contain the search
+     * term somewhere are listed. If a cursor is given, the list continues after the user the cursor points to.
      *
      * @param searchTerm Search term
      * @param limit      max length of returned list
-     * @param skip       amount of users to skip
+     * @param skip       amount of users to skip, ignored if a cursor is given
+     * @param cursor     cursor of the previous page, may be null
      * @return list of users
      */
-    List<User> getByPagination(String searchTerm, int limit, int skip);
+    List<User> getByPagination(String searchTerm, int limit, int skip, String cursor);
+
+    /**
+     * Creates the cursor pointing to the page after the given one.
+     *
+     * @param users page of users
+     * @param limit max length of the page
+     * @return cursor or null if there are no more users
+     */
+    String getNextCursor(List<User> users, int limit);
 
     /**
      * Count the amount of registered users.
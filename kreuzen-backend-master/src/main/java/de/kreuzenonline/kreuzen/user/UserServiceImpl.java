@@ -2,18 +2,25 @@ package de.kreuzenonline.kreuzen.user;
 
 import de.kreuzenonline.kreuzen.auth.CustomUserDetails;
 import de.kreuzenonline.kreuzen.auth.CustomUserDetailsService;
+import de.kreuzenonline.kreuzen.cache.CacheConfig;
 import de.kreuzenonline.kreuzen.email.EmailService;
+import de.kreuzenonline.kreuzen.exceptions.BadRequestException;
 import de.kreuzenonline.kreuzen.exceptions.ConflictException;
 import de.kreuzenonline.kreuzen.exceptions.NotFoundException;
 import de.kreuzenonline.kreuzen.exceptions.VerificationException;
 import de.kreuzenonline.kreuzen.university.University;
 import de.kreuzenonline.kreuzen.university.UniversityService;
+import de.kreuzenonline.kreuzen.utils.PaginationCursor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.data.util.Pair;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -49,14 +56,24 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.USER_COUNTS, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.USER_DETAILS, key = "#id")
+    })
     public void deleteById(int id) {
         Optional<User> user = userRepo.findById(id);
         if (user.isEmpty()) {
             throw new NotFoundException(resourceBundle.getString("user-not-found"));
         }
+        userDetailsService.revokeTokens(id);
         userRepo.deleteById(id);
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.USER_COUNTS, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.USER_DETAILS, key = "#id")
+    })
+    @Transactional
     public User updateUser(String newUsername,
                            String newEmail,
                            String newFirstName,
@@ -83,14 +100,6 @@ public class UserServiceImpl implements UserService {
             // set email
             userToBeUpdated.setEmail(newEmail);
             userToBeUpdated.setEmailConfirmed(false);
-
-            // send new confirmation mail
-            Pair<String, Integer> token = userDetailsService.resendEmailConfirmationToken(userToBeUpdated);
-            emailService.sendConfirmEmailMessage(
-                    newEmail,
-                    token.getSecond() + "-" + token.getFirst(),
-                    userToBeUpdated.getFirstName()
-            );
         }
 
         // When there can't be a collision and the values are validated by request, the information will be set in the updated User entity.
@@ -119,25 +128,81 @@ public class UserServiceImpl implements UserService {
         }
 
         // After all changes are applied, the updated user will be saved and returned.
-        return userRepo.save(userToBeUpdated);
+        User updatedUser = userRepo.save(userToBeUpdated);
+
+        if (newEmail != null) {
+            // The confirmation mail is written to the outbox in this transaction, so it is only sent if the email was changed.
+            Pair<String, Integer> token = userDetailsService.resendEmailConfirmationToken(updatedUser);
+            emailService.sendConfirmEmailMessage(
+                    newEmail,
+                    token.getSecond() + "-" + token.getFirst(),
+                    updatedUser.getFirstName()
+            );
+        }
+
+        // Tokens carry role and university and are only issued for confirmed emails,
+        // a changed password, lock or email has to log out all sessions.
+        if (newPassword != null || newRole != null || newLocked != null || newUniversityId != null || newEmail != null) {
+            userDetailsService.revokeTokens(id);
+        }
+        return updatedUser;
     }
 
     @Override
-    public List<User> getByPagination(int limit, int skip) {
-        return userRepo.findAllPagination(limit, skip);
+    @Transactional(readOnly = true)
+    public List<User> getByPagination(int limit, int skip, String cursor) {
+        if (cursor == null) {
+            return userRepo.findAllPagination(null, null, null, null, limit, skip);
+        }
+        PaginationCursor decoded = decodeCursor(cursor);
+        return userRepo.findAllPagination(decoded.getBoolean(0), decoded.getString(1), decoded.getString(2), decoded.getInteger(3), limit, skip);
     }
 
     @Override
+    @Cacheable(CacheConfig.USER_COUNTS)
     public long getCount() {
         return userRepo.count();
     }
 
     @Override
-    public List<User> getByPagination(String searchTerm, int limit, int skip) {
-        return userRepo.findBySearchTerm(searchTerm, limit, skip);
+    @Transactional(readOnly = true)
+    public List<User> getByPagination(String searchTerm, int limit, int skip, String cursor) {
+        if (cursor == null) {
+            return userRepo.findBySearchTerm(searchTerm, null, null, null, null, limit, skip);
+        }
+        PaginationCursor decoded = decodeCursor(cursor);
+        return userRepo.findBySearchTerm(searchTerm, decoded.getBoolean(0), decoded.getString(1), decoded.getString(2), decoded.getInteger(3), limit, skip);
+    }
+
+    @Override
+    public String getNextCursor(List<User> users, int limit) {
+        if (users.isEmpty() || users.size() < limit) {
+            return null;
+        }
+        User last = users.get(users.size() - 1);
+        return PaginationCursor.encode(last.isEmailConfirmed(), last.getFirstName(), last.getLastName(), last.getId());
+    }
+
+    /**
+     * Decodes a cursor of the user list which holds email confirmation, first name, last name and id.
+     *
+     * @param cursor cursor sent by the client
+     * @return decoded cursor
+     */
+    private PaginationCursor decodeCursor(String cursor) {
+        try {
+            PaginationCursor decoded = PaginationCursor.decode(cursor, 4);
+            decoded.getBoolean(0);
+            decoded.getInteger(3);
+            return decoded;
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(resourceBundle.getString("pagination-cursor-invalid"));
+        }
     }
 
     @Override
+    @Transactional(readOnly = true)
+    @Cacheable(CacheConfig.USER_COUNTS)
     public long getCount(String searchTerm) {
         return userRepo.countBySearchTerm(searchTerm);
     }
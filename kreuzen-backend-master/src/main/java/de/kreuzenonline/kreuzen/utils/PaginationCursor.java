@@ -0,0 +1,83 @@
+package de.kreuzenonline.kreuzen.utils;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.stream.Collectors;
+
+/**
+ * Opaque continuation token for keyset pagination. A cursor holds the sort key values and the id of the last
+ * entity of a page, so the next page can continue right after it instead of skipping rows with an offset.
+ * The values are url encoded, joined and encoded as url safe base64, so clients should treat the token as an
+ * opaque string. Decoding a malformed token results in an {@link IllegalArgumentException}.
+ */
+public class PaginationCursor {
+
+    private static final String SEPARATOR = ",";
+
+    private final String[] values;
+
+    private PaginationCursor(String[] values) {
+        this.values = values;
+    }
+
+    /**
+     * Builds a token from the given sort key values.
+     *
+     * @param values sort key values of the last entity of a page, the id should come last
+     * @return opaque token
+     */
+    public static String encode(Object... values) {
+        String joined = Arrays.stream(values)
+                .map(value -> URLEncoder.encode(String.valueOf(value), StandardCharsets.UTF_8))
+                .collect(Collectors.joining(SEPARATOR));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(joined.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token created by {@link #encode(Object...)}.
+     *
+     * @param token token sent by the client
+     * @param size  expected amount of values
+     * @return decoded cursor
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static PaginationCursor decode(String token, int size) {
+        String joined = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        String[] values = joined.split(SEPARATOR, -1);
+        if (values.length != size) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        for (int i = 0; i < values.length; i++) {
+            values[i] = URLDecoder.decode(values[i], StandardCharsets.UTF_8);
+        }
+        return new PaginationCursor(values);
+    }
+
+    public String getString(int index) {
+        return values[index];
+    }
+
+    public Integer getInteger(int index) {
+        return Integer.valueOf(values[index]);
+    }
+
+    public Boolean getBoolean(int index) {
+        if (!values[index].equals("true") && !values[index].equals("false")) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return Boolean.valueOf(values[index]);
+    }
+
+    public Instant getInstant(int index) {
+        try {
+            return Instant.parse(values[index]);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
@@ -13,4 +13,13 @@ public class PaginationResponse<T> {
 
     private long count;
     private List<T> entities;
+    /**
+     * Token to request the page after this one, null if this is the last page.
+     */
+    private String nextCursor;
+
+    public PaginationResponse(long count, List<T> entities) {
+        this.count = count;
+        this.entities = entities;
+    }
 }
@@ -6,6 +6,8 @@ import com.fasterxml.jackson.databind.SerializationFeature;
 import de.kreuzenonline.kreuzen.auth.data.*;
 import de.kreuzenonline.kreuzen.auth.requests.*;
 import de.kreuzenonline.kreuzen.auth.responses.UserDetailsResponse;
+import de.kreuzenonline.kreuzen.auth.throttle.LoginThrottle;
+import de.kreuzenonline.kreuzen.auth.token.TokenVersions;
 import de.kreuzenonline.kreuzen.email.EmailService;
 import de.kreuzenonline.kreuzen.exceptions.VerificationException;
 import de.kreuzenonline.kreuzen.role.RoleRepo;
@@ -14,15 +16,20 @@ import de.kreuzenonline.kreuzen.university.University;
 import de.kreuzenonline.kreuzen.university.UniversityService;
 import de.kreuzenonline.kreuzen.user.User;
 import de.kreuzenonline.kreuzen.user.UserRepo;
+import de.kreuzenonline.kreuzen.user.UserService;
 import de.kreuzenonline.kreuzen.user.requests.UpdateUserRequest;
+import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.lang.Assert;
+import io.jsonwebtoken.security.Keys;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.web.server.LocalServerPort;
 import org.springframework.http.HttpStatus;
@@ -32,6 +39,11 @@ import org.springframework.security.crypto.factory.PasswordEncoderFactories;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
@@ -40,6 +52,7 @@ import java.util.Date;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -60,6 +73,18 @@ public class AuthControllerTests {
     @Autowired
     private MockMvc mvc;
 
+    @Autowired
+    private TokenHasher tokenHasher;
+
+    @Autowired
+    private TokenVersions tokenVersions;
+
+    @Autowired
+    private UserService userService;
+
+    @Value("${jwt.key}")
+    private String jwtKey;
+
     @MockBean
     private UserRepo userRepo;
     @MockBean
@@ -74,6 +99,8 @@ public class AuthControllerTests {
     private EmailConfirmationTokenRepo emailConfirmationTokenRepo;
     @MockBean
     private PasswordResetTokenRepo passwordResetTokenRepo;
+    @SpyBean
+    private LoginThrottle loginThrottle;
 
     @Test
     @WithMockCustomUser(username = "test1", email = "test1@uni.de", id = 45)
@@ -363,6 +390,114 @@ public class AuthControllerTests {
                 .andExpect(jsonPath("$.id").value(2));
     }
 
+    @Test
+    void revokedTokenIsRejected() throws Exception {
+        when(userDetailsRepo.findByUsername("revoked")).thenReturn(Optional.of(
+                new CustomUserDetails(
+                        4,
+                        "revoked",
+                        "first",
+                        "last",
+                        "revoked@uni.de",
+                        PasswordEncoderFactories.createDelegatingPasswordEncoder().encode("TopSecretPW"),
+                        Roles.ADMIN.getId(),
+                        1,
+                        true,
+                        false,
+                        Instant.now(),
+                        Instant.now()
+                )));
+        when(userDetailsRepo.findByEmail("revoked")).thenReturn(Optional.empty());
+
+        String token = mvc.perform(post("/auth/login").content(new ObjectMapper().writeValueAsString(new LoginRequest(
+                "revoked",
+                "TopSecretPW"
+        ))).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().is(200))
+                .andReturn().getResponse().getHeader("Authorization");
+
+        // Role is taken from the token, the user is not loaded
+        mvc.perform(get("/telemetry/usage").accept(MediaType.APPLICATION_JSON).header("Authorization", token))
+                .andExpect(status().is(200));
+        verify(userDetailsRepo, never()).findById(4);
+
+        tokenVersions.revoke(4);
+
+        mvc.perform(get("/telemetry/usage").accept(MediaType.APPLICATION_JSON).header("Authorization", token))
+                .andExpect(status().is(401));
+    }
+
+    @Test
+    void changedEmailRevokesToken() throws Exception {
+        CustomUserDetails details = new CustomUserDetails(
+                6,
+                "emailchange",
+                "first",
+                "last",
+                "emailchange@uni.de",
+                PasswordEncoderFactories.createDelegatingPasswordEncoder().encode("TopSecretPW"),
+                Roles.USER.getId(),
+                1,
+                true,
+                false,
+                Instant.now(),
+                Instant.now()
+        );
+        when(userDetailsRepo.findByUsername("emailchange")).thenReturn(Optional.of(details));
+        when(userDetailsRepo.findByEmail("emailchange")).thenReturn(Optional.empty());
+        when(userDetailsRepo.findById(6)).thenReturn(Optional.of(details));
+        User user = new User();
+        user.setId(6);
+        user.setUniversityId(1);
+        user.setEmailConfirmed(true);
+        when(userRepo.findById(6)).thenReturn(Optional.of(user));
+        when(userRepo.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        String token = mvc.perform(post("/auth/login").content(new ObjectMapper().writeValueAsString(new LoginRequest(
+                "emailchange",
+                "TopSecretPW"
+        ))).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().is(200))
+                .andReturn().getResponse().getHeader("Authorization");
+        mvc.perform(get("/auth/me").accept(MediaType.APPLICATION_JSON).header("Authorization", token))
+                .andExpect(status().is(200));
+
+        // Tokens are only issued for confirmed emails, the new one is not confirmed yet
+        userService.updateUser(null, "changed@uni.de", null, null, 6, null, null, null, null);
+
+        mvc.perform(get("/auth/me").accept(MediaType.APPLICATION_JSON).header("Authorization", token))
+                .andExpect(status().is(401));
+    }
+
+    @Test
+    void tokenWithoutClaimsLoadsUser() throws Exception {
+        when(userDetailsRepo.findById(5)).thenReturn(Optional.of(
+                new CustomUserDetails(
+                        5,
+                        "legacy",
+                        "first",
+                        "last",
+                        "legacy@uni.de",
+                        PasswordEncoderFactories.createDelegatingPasswordEncoder().encode("TopSecretPW"),
+                        Roles.USER.getId(),
+                        1,
+                        true,
+                        false,
+                        Instant.now(),
+                        Instant.now()
+                )));
+        String token = Jwts.builder()
+                .setSubject("5")
+                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60))
+                .signWith(Keys.hmacShaKeyFor(jwtKey.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+
+        mvc.perform(get("/auth/me").accept(MediaType.APPLICATION_JSON).header("Authorization", "Bearer " + token))
+                .andExpect(status().is(200))
+                .andExpect(jsonPath("$.username").value("legacy"))
+                .andExpect(jsonPath("$.email").value("legacy@uni.de"));
+    }
+
     @Test
     void loginNonExistentAccount() throws Exception {
         when(userDetailsRepo.findByEmail("email@uni.de")).thenReturn(Optional.empty());
@@ -375,6 +510,82 @@ public class AuthControllerTests {
                 .andExpect(status().is(401));
     }
 
+    @Test
+    void loginThrottledAfterFailures() throws Exception {
+        when(userDetailsRepo.findByEmail("throttled")).thenReturn(Optional.empty());
+        when(userDetailsRepo.findByUsername("throttled")).thenReturn(Optional.of(
+                new CustomUserDetails(
+                        3,
+                        "throttled",
+                        "first",
+                        "last",
+                        "throttled@uni.de",
+                        PasswordEncoderFactories.createDelegatingPasswordEncoder().encode("TopSecretPW"),
+                        Roles.USER.getId(),
+                        1,
+                        true,
+                        false,
+                        Instant.now(),
+                        Instant.now()
+                )));
+
+        for (int i = 0; i < 5; i++) {
+            mvc.perform(post("/auth/login").content(new ObjectMapper().writeValueAsString(new LoginRequest(
+                    "throttled",
+                    "WrongPW"
+            ))).with(request -> {
+                request.setRemoteAddr("10.0.0.1");
+                return request;
+            }).accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().is(401));
+        }
+
+        // The correct password is not checked anymore, also not from another address
+        mvc.perform(post("/auth/login").content(new ObjectMapper().writeValueAsString(new LoginRequest(
+                "Throttled",
+                "TopSecretPW"
+        ))).with(request -> {
+            request.setRemoteAddr("10.0.0.2");
+            return request;
+        }).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().is(429))
+                .andExpect(header().exists("Retry-After"))
+                .andExpect(header().doesNotExist("Authorization"))
+                .andExpect(jsonPath("$.msg").value("Zu viele fehlgeschlagene Anmeldeversuche. Bitte versuche es später erneut."));
+    }
+
+    @Test
+    void loginFailureIsCountedForForwardedClientAddress() throws Exception {
+        // Sent to the server, as the client address is resolved by Tomcat
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/auth/login"))
+                .header("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                // The first address was sent by the client itself, the second one was added by the proxy
+                .header("X-Forwarded-For", "198.51.100.1, 203.0.113.7")
+                .POST(HttpRequest.BodyPublishers.ofString(new ObjectMapper().writeValueAsString(new LoginRequest("forwarded", "WrongPW"))))
+                .build();
+
+        HttpResponse<String> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+
+        assertThat(response.statusCode()).isEqualTo(401);
+        verify(loginThrottle).check(eq("forwarded"), eq("203.0.113.7"), any());
+        verify(loginThrottle).recordFailure(eq("forwarded"), eq("203.0.113.7"), any());
+    }
+
+    @Test
+    void loginWithoutUsernameIsNotCounted() throws Exception {
+        for (String username : new String[]{null, " "}) {
+            mvc.perform(post("/auth/login").content(new ObjectMapper().writeValueAsString(new LoginRequest(
+                    username,
+                    "WrongPW"
+            ))).accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().is(400))
+                    .andExpect(jsonPath("$.msg").value("Ein Nutzername oder die Email Adresse ist erforderlich."));
+        }
+
+        verify(loginThrottle, never()).check(any(), any(), any());
+        verify(loginThrottle, never()).recordFailure(any(), any(), any());
+    }
+
     @Test
     void pwResetRequestValid() throws Exception {
         when(userDetailsRepo.findByEmail("email@uni.de")).thenReturn(Optional.of(
@@ -562,6 +773,52 @@ public class AuthControllerTests {
                 .andExpect(status().is(200));
     }
 
+    @Test
+    void confirmEmailHashedWithTokenHasher() throws Exception {
+        when(emailConfirmationTokenRepo.findById(2)).thenReturn(Optional.of(new EmailConfirmationToken(
+                2,
+                tokenHasher.hash("Top-Secret-Token")
+        )));
+        when(userDetailsRepo.findById(2)).thenReturn(Optional.of(new CustomUserDetails(
+                2,
+                "test",
+                "first",
+                "last",
+                "email@uni.de",
+                PasswordEncoderFactories.createDelegatingPasswordEncoder().encode("TopSecretPW"),
+                Roles.USER.getId(),
+                1,
+                true,
+                false,
+                Instant.now(),
+                Instant.now()
+        )));
+        when(userRepo.findById(2)).thenReturn(Optional.of(new User(
+                2,
+                "test",
+                "first",
+                "last",
+                "email@uni.de",
+                PasswordEncoderFactories.createDelegatingPasswordEncoder().encode("TopSecretPW"),
+                Roles.USER.getId(),
+                false,
+                false,
+                2,
+                Instant.now(),
+                Instant.now()
+        )));
+
+        mvc.perform(post("/auth/confirm-email").content(new ObjectMapper().writeValueAsString(new ConfirmEmailRequest(
+                "2-Top-Secret-Tokem"
+        ))).accept(MediaType.APPLICATION_JSON).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().is(400));
+
+        mvc.perform(post("/auth/confirm-email").content(new ObjectMapper().writeValueAsString(new ConfirmEmailRequest(
+                "2-Top-Secret-Token"
+        ))).accept(MediaType.APPLICATION_JSON).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().is(200));
+    }
+
     @Test
     void confirmEmailInvalidCode() throws Exception {
         when(emailConfirmationTokenRepo.findById(2)).thenReturn(Optional.of(new EmailConfirmationToken(
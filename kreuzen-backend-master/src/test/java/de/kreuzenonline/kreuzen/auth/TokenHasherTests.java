@@ -0,0 +1,41 @@
+package de.kreuzenonline.kreuzen.auth;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TokenHasherTests {
+
+    private static final String KEY = "0123456789012345678901234567890123456789012345678901234567890123";
+
+    private final PasswordEncoder passwordEncoder = PasswordEncoderFactories.createDelegatingPasswordEncoder();
+    private final TokenHasher tokenHasher = new TokenHasher(KEY, passwordEncoder);
+
+    @Test
+    public void matchesHashedToken() {
+        String hash = tokenHasher.hash("Top-Secret-Token");
+
+        assertThat(hash).startsWith("{hmac-sha256}").doesNotContain("Top-Secret-Token");
+        assertThat(tokenHasher.hash("Top-Secret-Token")).isEqualTo(hash);
+        assertThat(tokenHasher.matches("Top-Secret-Token", hash)).isTrue();
+        assertThat(tokenHasher.matches("Top-Secret-Tokem", hash)).isFalse();
+        assertThat(tokenHasher.matches(null, hash)).isFalse();
+    }
+
+    @Test
+    public void hashDependsOnKey() {
+        TokenHasher otherHasher = new TokenHasher(KEY.replace('0', 'x'), passwordEncoder);
+
+        assertThat(otherHasher.matches("Top-Secret-Token", tokenHasher.hash("Top-Secret-Token"))).isFalse();
+    }
+
+    @Test
+    public void matchesTokenHashedWithPasswordEncoder() {
+        String hash = passwordEncoder.encode("Top-Secret-Token");
+
+        assertThat(tokenHasher.matches("Top-Secret-Token", hash)).isTrue();
+        assertThat(tokenHasher.matches("Top-Secret-Tokem", hash)).isFalse();
+    }
+}
@@ -0,0 +1,74 @@
+package de.kreuzenonline.kreuzen.auth.config;
+
+import de.kreuzenonline.kreuzen.exceptions.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class BoundedPasswordEncoderTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PasswordEncoder delegate = mock(PasswordEncoder.class);
+    private final BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(delegate, ResourceBundle.getBundle("messages/de_DE"), meterRegistry, 1, 1);
+
+    @AfterEach
+    public void tearDown() {
+        encoder.shutdown();
+    }
+
+    @Test
+    public void delegatesHashing() {
+        when(delegate.encode("pw")).thenReturn("{noop}pw");
+        when(delegate.matches("pw", "{noop}pw")).thenReturn(true);
+
+        assertThat(encoder.encode("pw")).isEqualTo("{noop}pw");
+        assertThat(encoder.matches("pw", "{noop}pw")).isTrue();
+        verify(delegate).encode("pw");
+        verify(delegate).matches("pw", "{noop}pw");
+        assertThat(meterRegistry.get("executor.queue.remaining").tag("name", "password.hashing").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    public void rejectsWhenQueueIsFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.encode(any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return "hash";
+        });
+
+        // One hash is running, one is queued
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+        while (meterRegistry.get("executor.queued").tag("name", "password.hashing").gauge().value() < 1) {
+            Thread.sleep(10);
+        }
+
+        assertThatThrownBy(() -> encoder.encode("c")).isInstanceOf(ServiceUnavailableException.class);
+        assertThat(meterRegistry.get("password.hashing.rejected").counter().count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("hash");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("hash");
+    }
+
+    @Test
+    public void rethrowsExceptionsOfDelegate() {
+        when(delegate.matches(any(), any())).thenThrow(new IllegalArgumentException("Encoded password does not look like BCrypt"));
+
+        assertThatThrownBy(() -> encoder.matches("pw", "hash")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,63 @@
+package de.kreuzenonline.kreuzen.auth.throttle;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ResourceBundle;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+public class LoginThrottleTests {
+
+    private static final Instant START = Instant.parse("2021-01-01T10:00:00Z");
+
+    private LoginThrottle throttle;
+
+    @BeforeEach
+    public void setUp() {
+        throttle = new LoginThrottle(ResourceBundle.getBundle("messages/de_DE"), 3, Duration.ofMinutes(10), 5, Duration.ofMinutes(1));
+    }
+
+    @Test
+    public void locksAccountUntilOldestFailureLeavesWindow() {
+        throttle.recordFailure("test", "10.0.0.1", START);
+        throttle.recordFailure("test", "10.0.0.2", START.plusSeconds(60));
+        throttle.recordFailure("TEST", "10.0.0.3", START.plusSeconds(120));
+
+        LoginThrottledException e = catchThrowableOfType(() -> throttle.check("Test", "10.0.0.4", START.plusSeconds(180)), LoginThrottledException.class);
+        assertThat(e).isNotNull();
+        assertThat(e.getRetryAfter()).isEqualTo(Duration.ofMinutes(7));
+        assertThat(e.getMessage()).isEqualTo(ResourceBundle.getBundle("messages/de_DE").getString("Login-throttled"));
+
+        assertThatCode(() -> throttle.check("other", "10.0.0.4", START.plusSeconds(180))).doesNotThrowAnyException();
+        assertThatCode(() -> throttle.check("test", "10.0.0.4", START.plusSeconds(600))).doesNotThrowAnyException();
+    }
+
+    @Test
+    public void locksAddressForAllAccounts() {
+        for (int i = 0; i < 5; i++) {
+            throttle.recordFailure("user" + i, "10.0.0.1", START.plusSeconds(i));
+        }
+
+        LoginThrottledException e = catchThrowableOfType(() -> throttle.check("user9", "10.0.0.1", START.plusSeconds(30)), LoginThrottledException.class);
+        assertThat(e).isNotNull();
+        assertThat(e.getRetryAfter()).isEqualTo(Duration.ofSeconds(30));
+
+        assertThatCode(() -> throttle.check("user9", "10.0.0.2", START.plusSeconds(30))).doesNotThrowAnyException();
+        assertThatCode(() -> throttle.check("user9", "10.0.0.1", START.plusSeconds(61))).doesNotThrowAnyException();
+    }
+
+    @Test
+    public void successClearsAccountFailures() {
+        throttle.recordFailure("test", "10.0.0.1", START);
+        throttle.recordFailure("test", "10.0.0.1", START.plusSeconds(1));
+        throttle.recordSuccess("Test");
+        throttle.recordFailure("test", "10.0.0.2", START.plusSeconds(2));
+
+        assertThatCode(() -> throttle.check("test", "10.0.0.3", START.plusSeconds(3))).doesNotThrowAnyException();
+    }
+}
@@ -0,0 +1,57 @@
+package de.kreuzenonline.kreuzen.auth.token;
+
+import de.kreuzenonline.kreuzen.auth.data.TokenVersion;
+import de.kreuzenonline.kreuzen.auth.data.TokenVersionRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+public class TokenVersionsTests {
+
+    private TokenVersionRepo tokenVersionRepo;
+    private TokenVersions tokenVersions;
+
+    @BeforeEach
+    public void setUp() {
+        tokenVersionRepo = mock(TokenVersionRepo.class);
+        tokenVersions = new TokenVersions(tokenVersionRepo);
+    }
+
+    @Test
+    public void loadsVersionsOnFirstUse() {
+        when(tokenVersionRepo.findAll()).thenReturn(List.of(new TokenVersion(1, 3)));
+
+        assertThat(tokenVersions.getVersion(1)).isEqualTo(3);
+        assertThat(tokenVersions.getVersion(2)).isEqualTo(0);
+        verify(tokenVersionRepo, times(1)).findAll();
+    }
+
+    @Test
+    public void revokeUsesIncrementedVersion() {
+        when(tokenVersionRepo.findAll()).thenReturn(Collections.emptyList());
+        when(tokenVersionRepo.increment(1)).thenReturn(1);
+
+        tokenVersions.revoke(1);
+
+        assertThat(tokenVersions.getVersion(1)).isEqualTo(1);
+    }
+
+    @Test
+    public void refreshKeepsNewerVersions() {
+        when(tokenVersionRepo.findAll()).thenReturn(Collections.emptyList());
+        when(tokenVersionRepo.increment(1)).thenReturn(2);
+        tokenVersions.revoke(1);
+
+        // Revocation on another instance
+        when(tokenVersionRepo.findAll()).thenReturn(List.of(new TokenVersion(1, 1), new TokenVersion(2, 4)));
+        tokenVersions.refresh();
+
+        assertThat(tokenVersions.getVersion(1)).isEqualTo(2);
+        assertThat(tokenVersions.getVersion(2)).isEqualTo(4);
+    }
+}
@@ -0,0 +1,126 @@
+package de.kreuzenonline.kreuzen.cache;
+
+import de.kreuzenonline.kreuzen.auth.WithMockCustomUser;
+import de.kreuzenonline.kreuzen.course.Course;
+import de.kreuzenonline.kreuzen.course.CourseRepo;
+import de.kreuzenonline.kreuzen.question.BaseQuestion;
+import de.kreuzenonline.kreuzen.question.BaseQuestionRepo;
+import de.kreuzenonline.kreuzen.question.attachment.AttachmentRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ContextConfiguration
+@AutoConfigureMockMvc
+public class ConditionalGetTests {
+
+    private static final Instant UPDATED_AT = Instant.parse("2021-03-01T10:15:30.123456Z");
+
+    @Autowired
+    private MockMvc mvc;
+    @MockBean
+    private DataVersionRepo dataVersionRepo;
+    @MockBean
+    private CourseRepo courseRepo;
+    @MockBean
+    private BaseQuestionRepo baseQuestionRepo;
+    @MockBean
+    private AttachmentRepo attachmentRepo;
+
+    @BeforeEach
+    public void setUp() {
+        when(dataVersionRepo.findAllByTableNames(any())).thenReturn(Arrays.asList(
+                new DataVersion("course", 3L, UPDATED_AT),
+                new DataVersion("module", 2L, UPDATED_AT.minusSeconds(60))));
+        when(courseRepo.findById(1)).thenReturn(Optional.of(new Course(1, 2, 3, "")));
+        when(baseQuestionRepo.findUpdatedAtById(1)).thenReturn(Optional.of(UPDATED_AT));
+        when(baseQuestionRepo.findById(1)).thenReturn(Optional.of(new BaseQuestion(1, "Testfrage", "unbekannt", null, 2, 1, 1, 45, 45, "ORIG", true)));
+        when(attachmentRepo.findAllByQuestionId(1)).thenReturn(Collections.emptyList());
+    }
+
+    @Test
+    @WithMockCustomUser(id = 45)
+    public void catalogResponseHasValidators() throws Exception {
+        mvc.perform(get("/course/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"5-" + UPDATED_AT.toEpochMilli() + "\""))
+                .andExpect(header().dateValue("Last-Modified", UPDATED_AT.toEpochMilli() / 1000 * 1000))
+                .andExpect(header().string("Cache-Control", "max-age=60, private"))
+                .andExpect(jsonPath("$.id").value(1));
+    }
+
+    @Test
+    @WithMockCustomUser(id = 45)
+    public void unchangedCatalogIsNotRead() throws Exception {
+        mvc.perform(get("/course/1").header("If-None-Match", "\"5-" + UPDATED_AT.toEpochMilli() + "\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"5-" + UPDATED_AT.toEpochMilli() + "\""))
+                .andExpect(header().string("Cache-Control", "max-age=60, private"))
+                .andExpect(content().string(""));
+        verify(courseRepo, never()).findById(any());
+    }
+
+    @Test
+    @WithMockCustomUser(id = 45)
+    public void changedCatalogIsSentAgain() throws Exception {
+        mvc.perform(get("/course/1").header("If-None-Match", "\"4-" + UPDATED_AT.toEpochMilli() + "\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1));
+        mvc.perform(get("/course/1").header("If-Modified-Since", UPDATED_AT.minusSeconds(1).toEpochMilli()))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @WithMockCustomUser(id = 45)
+    public void errorResponseHasNoValidators() throws Exception {
+        when(courseRepo.findById(24)).thenReturn(Optional.empty());
+
+        mvc.perform(get("/course/24"))
+                .andExpect(status().isNotFound())
+                .andExpect(header().doesNotExist("ETag"))
+                .andExpect(header().doesNotExist("Last-Modified"));
+    }
+
+    @Test
+    @WithMockCustomUser(id = 45)
+    public void questionIsValidatedByItsLastUpdate() throws Exception {
+        String etag = "\"" + (UPDATED_AT.getEpochSecond() * 1_000_000 + UPDATED_AT.getNano() / 1_000) + "\"";
+
+        mvc.perform(get("/question/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(header().string("Cache-Control", "no-cache, private"))
+                .andExpect(jsonPath("$.id").value(1));
+
+        mvc.perform(get("/question/1").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        verify(baseQuestionRepo, times(1)).findById(1);
+    }
+
+    @Test
+    @WithMockCustomUser(id = 45)
+    public void unknownQuestionIsNotValidated() throws Exception {
+        when(baseQuestionRepo.findUpdatedAtById(2)).thenReturn(Optional.empty());
+        when(baseQuestionRepo.findById(2)).thenReturn(Optional.empty());
+
+        mvc.perform(get("/question/2").header("If-None-Match", "*"))
+                .andExpect(status().isNotFound())
+                .andExpect(header().doesNotExist("ETag"));
+    }
+}
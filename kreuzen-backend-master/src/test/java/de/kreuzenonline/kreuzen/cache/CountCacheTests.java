@@ -0,0 +1,116 @@
+package de.kreuzenonline.kreuzen.cache;
+
+import de.kreuzenonline.kreuzen.auth.data.TokenVersionRepo;
+import de.kreuzenonline.kreuzen.question.BaseQuestion;
+import de.kreuzenonline.kreuzen.question.BaseQuestionRepo;
+import de.kreuzenonline.kreuzen.question.BaseQuestionService;
+import de.kreuzenonline.kreuzen.user.User;
+import de.kreuzenonline.kreuzen.user.UserRepo;
+import de.kreuzenonline.kreuzen.user.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Caching of question and user counts with the cache enabled, which is switched off for all other tests.
+ */
+@SpringBootTest(properties = "spring.cache.type=caffeine")
+public class CountCacheTests {
+
+    @Autowired
+    private BaseQuestionService baseQuestionService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private CacheManager cacheManager;
+    @MockBean
+    private BaseQuestionRepo baseQuestionRepo;
+    @MockBean
+    private UserRepo userRepo;
+    @MockBean
+    private TokenVersionRepo tokenVersionRepo;
+
+    @BeforeEach
+    public void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @Test
+    public void questionCountsAreCachedPerFilter() {
+        when(baseQuestionRepo.countBySearchTerm(any(), any(), any(), any(), any(), any(), any())).thenReturn(3);
+
+        assertThat(baseQuestionService.getCount(null, "Herz", null, 1, null, null, null, false)).isEqualTo(3);
+        // The case of the search term doesn't change the count
+        assertThat(baseQuestionService.getCount(null, "herz", null, 1, null, null, null, false)).isEqualTo(3);
+        verify(baseQuestionRepo, times(1)).countBySearchTerm(any(), any(), any(), any(), any(), any(), any());
+
+        baseQuestionService.getCount(null, "herz", null, 2, null, null, null, false);
+        // Admins see unapproved questions as well
+        baseQuestionService.getCount(null, "herz", null, 1, null, null, null, true);
+        verify(baseQuestionRepo, times(3)).countBySearchTerm(any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    public void changedQuestionsEvictQuestionCounts() {
+        BaseQuestion question = new BaseQuestion();
+        question.setId(1);
+        when(baseQuestionRepo.findById(1)).thenReturn(Optional.of(question));
+        when(baseQuestionRepo.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        baseQuestionService.getCount(null, null, null, null, 1, null, null, false);
+        baseQuestionService.approve(1);
+        baseQuestionService.getCount(null, null, null, null, 1, null, null, false);
+        verify(baseQuestionRepo, times(2)).countBySearchTerm(any(), any(), any(), any(), any(), any(), any());
+
+        baseQuestionService.addQuestionToExam(2, 1);
+        baseQuestionService.getCount(null, null, null, null, 1, null, null, false);
+        verify(baseQuestionRepo, times(3)).countBySearchTerm(any(), any(), any(), any(), any(), any(), any());
+
+        baseQuestionService.delete(1);
+        baseQuestionService.getCount(null, null, null, null, 1, null, null, false);
+        verify(baseQuestionRepo, times(4)).countBySearchTerm(any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    public void userCountsAreCachedPerSearchTerm() {
+        when(userRepo.countBySearchTerm(anyString())).thenReturn(2);
+        when(userRepo.count()).thenReturn(5L);
+
+        assertThat(userService.getCount("anna")).isEqualTo(2);
+        assertThat(userService.getCount("anna")).isEqualTo(2);
+        userService.getCount("bernd");
+        verify(userRepo, times(1)).countBySearchTerm("anna");
+        verify(userRepo, times(1)).countBySearchTerm("bernd");
+
+        assertThat(userService.getCount()).isEqualTo(5);
+        assertThat(userService.getCount()).isEqualTo(5);
+        verify(userRepo, times(1)).count();
+    }
+
+    @Test
+    public void changedUsersEvictUserCounts() {
+        User user = new User();
+        user.setId(7);
+        when(userRepo.findById(7)).thenReturn(Optional.of(user));
+        when(userRepo.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        userService.getCount("anna");
+        userService.updateUser(null, null, "Anna", null, 7, null, null, null, null);
+        userService.getCount("anna");
+        verify(userRepo, times(2)).countBySearchTerm("anna");
+
+        userService.deleteById(7);
+        userService.getCount("anna");
+        verify(userRepo, times(3)).countBySearchTerm("anna");
+    }
+}
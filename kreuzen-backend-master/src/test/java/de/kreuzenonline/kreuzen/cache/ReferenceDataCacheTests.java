@@ -0,0 +1,88 @@
+package de.kreuzenonline.kreuzen.cache;
+
+import de.kreuzenonline.kreuzen.hint.Hint;
+import de.kreuzenonline.kreuzen.hint.HintRepo;
+import de.kreuzenonline.kreuzen.hint.HintService;
+import de.kreuzenonline.kreuzen.question.origin.QuestionOriginRepo;
+import de.kreuzenonline.kreuzen.question.origin.QuestionOriginService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Caching of reference data with the cache enabled, which is switched off for all other tests.
+ */
+@SpringBootTest(properties = "spring.cache.type=caffeine")
+public class ReferenceDataCacheTests {
+
+    @Autowired
+    private HintService hintService;
+    @Autowired
+    private QuestionOriginService questionOriginService;
+    @Autowired
+    private CacheManager cacheManager;
+    @MockBean
+    private HintRepo hintRepo;
+    @MockBean
+    private QuestionOriginRepo questionOriginRepo;
+
+    @BeforeEach
+    public void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @Test
+    public void randomHintsArePickedFromCachedActiveHints() {
+        when(hintRepo.findAllByIsActiveTrue()).thenReturn(List.of(new Hint(1, "Hinweis", true)));
+
+        assertThat(hintService.getRandomHint().getId()).isEqualTo(1);
+        assertThat(hintService.getRandomHint().getId()).isEqualTo(1);
+        assertThat(hintService.getActive()).hasSize(1);
+
+        verify(hintRepo, times(1)).findAllByIsActiveTrue();
+    }
+
+    @Test
+    public void changedHintsEvictActiveHints() {
+        Hint hint = new Hint(1, "Hinweis", true);
+        when(hintRepo.findAllByIsActiveTrue()).thenReturn(List.of(hint));
+        when(hintRepo.findById(1)).thenReturn(Optional.of(hint));
+        when(hintRepo.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        hintService.getRandomHint();
+        hintService.update(1, null, false);
+        hintService.getRandomHint();
+        verify(hintRepo, times(2)).findAllByIsActiveTrue();
+
+        hintService.create("Neuer Hinweis", true);
+        hintService.getRandomHint();
+        verify(hintRepo, times(3)).findAllByIsActiveTrue();
+
+        hintService.delete(1);
+        hintService.getRandomHint();
+        verify(hintRepo, times(4)).findAllByIsActiveTrue();
+    }
+
+    @Test
+    public void existingOriginsAreCachedByName() {
+        when(questionOriginRepo.existsByName("ORIG")).thenReturn(true);
+        when(questionOriginRepo.existsByName("NEU")).thenReturn(false);
+
+        assertThat(questionOriginService.exists("ORIG")).isTrue();
+        assertThat(questionOriginService.exists("ORIG")).isTrue();
+        assertThat(questionOriginService.exists("NEU")).isFalse();
+
+        verify(questionOriginRepo, times(1)).existsByName("ORIG");
+        verify(questionOriginRepo, times(1)).existsByName("NEU");
+    }
+}
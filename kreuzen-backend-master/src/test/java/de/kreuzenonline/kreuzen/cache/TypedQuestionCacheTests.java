@@ -0,0 +1,132 @@
+package de.kreuzenonline.kreuzen.cache;
+
+import de.kreuzenonline.kreuzen.question.BaseQuestion;
+import de.kreuzenonline.kreuzen.question.BaseQuestionRepo;
+import de.kreuzenonline.kreuzen.question.BaseQuestionService;
+import de.kreuzenonline.kreuzen.question.types.singleChoice.*;
+import de.kreuzenonline.kreuzen.question.types.singleChoice.requests.UpdateSingleChoiceRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Caching of assembled typed questions with the cache enabled, which is switched off for all other tests.
+ */
+@SpringBootTest(properties = "spring.cache.type=caffeine")
+public class TypedQuestionCacheTests {
+
+    @Autowired
+    private SingleChoiceService singleChoiceService;
+    @Autowired
+    private BaseQuestionService baseQuestionService;
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @MockBean
+    private BaseQuestionRepo baseQuestionRepo;
+    @MockBean
+    private SingleChoiceQuestionRepo singleChoiceQuestionRepo;
+    @MockBean
+    private SingleChoiceAnswerRepo singleChoiceAnswerRepo;
+
+    private Cache cache;
+
+    @BeforeEach
+    public void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        cache = cacheManager.getCache(CacheConfig.TYPED_QUESTIONS);
+
+        for (int id = 1; id <= 2; id++) {
+            BaseQuestion baseQuestion = baseQuestion(id);
+            when(baseQuestionRepo.findById(id)).thenReturn(Optional.of(baseQuestion));
+            when(singleChoiceQuestionRepo.findByQuestionId(id)).thenReturn(new SingleChoiceQuestionEntry(id, id, 1));
+            when(singleChoiceAnswerRepo.findAllByQuestionId(id)).thenReturn(answers(id));
+        }
+        when(singleChoiceQuestionRepo.findAllByQuestionIds(any())).thenAnswer(invocation -> {
+            Integer[] ids = invocation.getArgument(0);
+            return Arrays.stream(ids).map(id -> new SingleChoiceQuestionEntry(id, id, 1)).collect(Collectors.toList());
+        });
+        when(singleChoiceAnswerRepo.findAllByQuestionIds(any())).thenAnswer(invocation -> {
+            Integer[] ids = invocation.getArgument(0);
+            return Arrays.stream(ids).flatMap(id -> answers(id).stream()).collect(Collectors.toList());
+        });
+        when(baseQuestionRepo.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    public void questionsAreCachedById() {
+        SingleChoiceQuestion question = singleChoiceService.getByQuestionId(1);
+        assertThat(singleChoiceService.getByQuestionId(1)).isSameAs(question);
+
+        verify(singleChoiceQuestionRepo, times(1)).findByQuestionId(1);
+    }
+
+    @Test
+    public void onlyMissingQuestionsAreAssembled() {
+        SingleChoiceQuestion cached = singleChoiceService.getByQuestionId(1);
+
+        List<SingleChoiceQuestion> questions = singleChoiceService.getByBaseQuestions(List.of(baseQuestion(2), baseQuestion(1)));
+        assertThat(questions).extracting(SingleChoiceQuestion::getId).containsExactly(2, 1);
+        assertThat(questions.get(1)).isSameAs(cached);
+        verify(singleChoiceQuestionRepo).findAllByQuestionIds(new Integer[]{2});
+
+        // All questions are cached now
+        singleChoiceService.getByBaseQuestions(List.of(baseQuestion(1), baseQuestion(2)));
+        verify(singleChoiceQuestionRepo, times(1)).findAllByQuestionIds(any());
+        assertThat(singleChoiceService.getByQuestionId(2)).isSameAs(questions.get(0));
+    }
+
+    @Test
+    public void updatedQuestionIsEvicted() {
+        singleChoiceService.getByQuestionId(1);
+        singleChoiceService.getByQuestionId(2);
+
+        baseQuestionService.update(1, new UpdateSingleChoiceRequest(), 1);
+
+        assertThat(cache.get(1)).isNull();
+        assertThat(cache.get(2)).isNotNull();
+    }
+
+    @Test
+    public void questionIsEvictedWhenTransactionIsCommitted() {
+        singleChoiceService.getByQuestionId(1);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            baseQuestionService.update(1, new UpdateSingleChoiceRequest(), 1);
+            // Concurrent requests would still read the old question from the database
+            assertThat(cache.get(1)).isNotNull();
+        });
+
+        assertThat(cache.get(1)).isNull();
+    }
+
+    private static BaseQuestion baseQuestion(int id) {
+        BaseQuestion baseQuestion = new BaseQuestion();
+        baseQuestion.setId(id);
+        baseQuestion.setText("Frage " + id);
+        baseQuestion.setType(SingleChoiceServiceImpl.TYPE);
+        return baseQuestion;
+    }
+
+    private static List<SingleChoiceAnswer> answers(int questionId) {
+        return List.of(
+                new SingleChoiceAnswer(questionId * 10, questionId, 1, "Ja"),
+                new SingleChoiceAnswer(questionId * 10 + 1, questionId, 2, "Nein")
+        );
+    }
+}
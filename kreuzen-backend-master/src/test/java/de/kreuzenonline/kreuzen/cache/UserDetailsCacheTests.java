@@ -0,0 +1,104 @@
+package de.kreuzenonline.kreuzen.cache;
+
+import de.kreuzenonline.kreuzen.auth.CustomUserDetails;
+import de.kreuzenonline.kreuzen.auth.CustomUserDetailsService;
+import de.kreuzenonline.kreuzen.auth.data.CustomUserDetailsRepo;
+import de.kreuzenonline.kreuzen.auth.data.TokenVersionRepo;
+import de.kreuzenonline.kreuzen.user.User;
+import de.kreuzenonline.kreuzen.user.UserRepo;
+import de.kreuzenonline.kreuzen.user.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Caching of the details of authenticated users with the cache enabled, which is switched off for all other tests.
+ */
+@SpringBootTest(properties = "spring.cache.type=caffeine")
+public class UserDetailsCacheTests {
+
+    private static final int USER_ID = 7;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private CacheManager cacheManager;
+    @MockBean
+    private CustomUserDetailsRepo userDetailsRepo;
+    @MockBean
+    private UserRepo userRepo;
+    @MockBean
+    private TokenVersionRepo tokenVersionRepo;
+
+    private User user;
+
+    @BeforeEach
+    public void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+
+        user = new User();
+        user.setId(USER_ID);
+        user.setEmailConfirmed(true);
+        when(userRepo.findById(USER_ID)).thenAnswer(invocation -> Optional.of(user));
+        when(userRepo.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(userDetailsRepo.findById(USER_ID)).thenAnswer(invocation -> Optional.of(details()));
+    }
+
+    @Test
+    public void userDetailsAreCachedById() {
+        assertThat(userDetailsService.loadUserById(USER_ID).getUsername()).isEqualTo("anna");
+        userDetailsService.loadUserById(USER_ID);
+
+        // Details built from the claims of a token are completed from the same cache
+        CustomUserDetails fromClaims = details();
+        fromClaims.setPasswordHash(null);
+        assertThat(userDetailsService.getCompleteDetails(fromClaims).getPasswordHash()).isNotNull();
+
+        verify(userDetailsRepo, times(1)).findById(USER_ID);
+    }
+
+    @Test
+    public void updatedUserEvictsUserDetails() {
+        userDetailsService.loadUserById(USER_ID);
+        userService.updateUser(null, null, "Anna", null, USER_ID, null, null, null, null);
+        userDetailsService.loadUserById(USER_ID);
+
+        verify(userDetailsRepo, times(2)).findById(USER_ID);
+    }
+
+    @Test
+    public void confirmedEmailEvictsUserDetails() {
+        user.setEmailConfirmed(false);
+
+        userDetailsService.loadUserById(USER_ID);
+        userDetailsService.adminConfirmEmail(USER_ID);
+        userDetailsService.loadUserById(USER_ID);
+
+        verify(userDetailsRepo, times(2)).findById(USER_ID);
+    }
+
+    @Test
+    public void deletedUserEvictsUserDetails() {
+        userDetailsService.loadUserById(USER_ID);
+        userService.deleteById(USER_ID);
+        userDetailsService.loadUserById(USER_ID);
+
+        verify(userDetailsRepo, times(2)).findById(USER_ID);
+    }
+
+    private static CustomUserDetails details() {
+        return new CustomUserDetails(USER_ID, "anna", "Anna", "Muster", "anna@gmail.com", "{noop}x", "USER", 1,
+                true, false, null, null);
+    }
+}
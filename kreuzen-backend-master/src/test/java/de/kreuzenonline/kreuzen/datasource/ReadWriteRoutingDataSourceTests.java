@@ -0,0 +1,94 @@
+package de.kreuzenonline.kreuzen.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.mockito.Mockito.*;
+
+public class ReadWriteRoutingDataSourceTests {
+
+    private DataSource primary;
+    private DataSource replica;
+    private DataSource dataSource;
+    private DataSourceTransactionManager transactionManager;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        primary = mockDataSource();
+        replica = mockDataSource();
+        LazyConnectionDataSourceProxy lazyDataSource = new LazyConnectionDataSourceProxy();
+        lazyDataSource.setTargetDataSource(new ReadWriteRoutingDataSource(primary, replica));
+        lazyDataSource.setDefaultAutoCommit(true);
+        lazyDataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        dataSource = lazyDataSource;
+        transactionManager = new DataSourceTransactionManager(dataSource);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ReplicaRouting.clear();
+    }
+
+    @Test
+    public void readOnlyTransactionReadsFromReplica() throws SQLException {
+        ReplicaRouting.allow();
+        execute(true);
+
+        verify(replica).getConnection();
+        verify(primary, never()).getConnection();
+    }
+
+    @Test
+    public void readOnlyTransactionReadsFromPrimaryIfReplicaIsNotAllowed() throws SQLException {
+        execute(true);
+
+        verify(primary).getConnection();
+        verify(replica, never()).getConnection();
+    }
+
+    @Test
+    public void writingTransactionUsesPrimary() throws SQLException {
+        ReplicaRouting.allow();
+        execute(false);
+
+        verify(primary).getConnection();
+        verify(replica, never()).getConnection();
+    }
+
+    @Test
+    public void statementsOutsideOfTransactionsUsePrimary() throws SQLException {
+        ReplicaRouting.allow();
+        dataSource.getConnection().createStatement();
+
+        verify(primary).getConnection();
+        verify(replica, never()).getConnection();
+    }
+
+    private void execute(boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(readOnly);
+        transactionTemplate.executeWithoutResult(status -> {
+            try {
+                // The connection is only fetched once a statement is created.
+                DataSourceUtils.getConnection(dataSource).createStatement();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    private static DataSource mockDataSource() throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        return dataSource;
+    }
+}
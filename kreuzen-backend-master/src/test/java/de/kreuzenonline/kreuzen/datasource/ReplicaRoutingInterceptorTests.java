@@ -0,0 +1,92 @@
+package de.kreuzenonline.kreuzen.datasource;
+
+import de.kreuzenonline.kreuzen.auth.CustomUserDetails;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReplicaRoutingInterceptorTests {
+
+    private final ReplicaRoutingInterceptor interceptor = new ReplicaRoutingInterceptor(Duration.ofMinutes(1));
+
+    @AfterEach
+    public void tearDown() {
+        ReplicaRouting.clear();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void readRequestsMayReadFromReplica() {
+        authenticate(1);
+
+        assertThat(handle("GET", "/session/1/result")).isTrue();
+        assertThat(ReplicaRouting.isAllowed()).isFalse();
+    }
+
+    @Test
+    public void writingRequestsUsePrimary() {
+        authenticate(1);
+
+        assertThat(handle("PUT", "/session/1/question/2/selection")).isFalse();
+    }
+
+    @Test
+    public void readsOfRecentWritersUsePrimary() {
+        authenticate(1);
+        handle("PUT", "/session/1/question/2/selection");
+
+        assertThat(handle("GET", "/session/1/question/2")).isFalse();
+
+        authenticate(2);
+        assertThat(handle("GET", "/session/3/question/2")).isTrue();
+    }
+
+    @Test
+    public void readsOfAnonymousUsersMayReadFromReplica() {
+        handle("POST", "/auth/register");
+
+        assertThat(handle("GET", "/university")).isTrue();
+    }
+
+    @Test
+    public void recentWritersReadFromReplicaAfterWindow() throws Exception {
+        ReplicaRoutingInterceptor interceptor = new ReplicaRoutingInterceptor(Duration.ofMillis(50));
+        authenticate(1);
+        handle(interceptor, "POST", "/session");
+
+        Thread.sleep(100);
+        assertThat(handle(interceptor, "GET", "/session/1/result")).isTrue();
+    }
+
+    /**
+     * @return whether the replica was allowed while the request was handled.
+     */
+    private boolean handle(String method, String uri) {
+        return handle(interceptor, method, uri);
+    }
+
+    private static boolean handle(ReplicaRoutingInterceptor interceptor, String method, String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.preHandle(request, response, null);
+        boolean allowed = ReplicaRouting.isAllowed();
+        interceptor.afterCompletion(request, response, null, null);
+        return allowed;
+    }
+
+    private static void authenticate(Integer userId) {
+        CustomUserDetails userDetails = new CustomUserDetails(userId, "user" + userId, "Max", "Mustermann",
+                "user" + userId + "@stud.tu-darmstadt.de", "", "USER", 1, true, false, Instant.now(), Instant.now());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
+    }
+}
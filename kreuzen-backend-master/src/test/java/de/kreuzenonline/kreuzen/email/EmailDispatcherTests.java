@@ -0,0 +1,144 @@
+package de.kreuzenonline.kreuzen.email;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import javax.mail.internet.MimeMessage;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class EmailDispatcherTests {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private EmailOutboxRepo emailOutboxRepo;
+    private SimpleMeterRegistry meterRegistry;
+    private JavaMailSenderImpl mailSender;
+
+    @BeforeEach
+    public void setUp() {
+        emailOutboxRepo = mock(EmailOutboxRepo.class);
+        meterRegistry = new SimpleMeterRegistry();
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("127.0.0.1");
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        meterRegistry.close();
+    }
+
+    private EmailDispatcher createDispatcher(int batchSize, int maxAttempts) {
+        return createDispatcher(batchSize, 5, maxAttempts);
+    }
+
+    private EmailDispatcher createDispatcher(int batchSize, int maxBatchesPerRun, int maxAttempts) {
+        return new EmailDispatcher(emailOutboxRepo, mailSender, meterRegistry, "noreply@kreuzenonline.de",
+                2, batchSize, maxBatchesPerRun, maxAttempts, Duration.ofSeconds(30), Duration.ofMinutes(10), Duration.ofMinutes(5));
+    }
+
+    @Test
+    public void dispatchSendsAndRemovesEmails() throws Exception {
+        when(emailOutboxRepo.claimBatch(eq(20), anyLong())).thenReturn(List.of(
+                new OutboxEmail(1, "first@uni.de", "Betreff 1", "Text 1", 1),
+                new OutboxEmail(2, "second@uni.de", "Betreff 2", "Text 2", 1)
+        ));
+
+        EmailDispatcher dispatcher = createDispatcher(20, 8);
+        dispatcher.dispatch();
+        dispatcher.shutdown();
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertThat(received).hasSize(2);
+        assertThat(received).extracting(MimeMessage::getSubject).containsExactlyInAnyOrder("Betreff 1", "Betreff 2");
+        verify(emailOutboxRepo).deleteById(1);
+        verify(emailOutboxRepo).deleteById(2);
+        assertThat(meterRegistry.get("email.send").tag("result", "success").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    public void dispatchClaimsUntilOutboxIsDrained() {
+        when(emailOutboxRepo.claimBatch(eq(1), anyLong()))
+                .thenReturn(List.of(new OutboxEmail(1, "first@uni.de", "Betreff 1", "Text 1", 1)))
+                .thenReturn(List.of(new OutboxEmail(2, "second@uni.de", "Betreff 2", "Text 2", 1)))
+                .thenReturn(Collections.emptyList());
+
+        EmailDispatcher dispatcher = createDispatcher(1, 8);
+        dispatcher.dispatch();
+        dispatcher.shutdown();
+
+        assertThat(greenMail.getReceivedMessages()).hasSize(2);
+        verify(emailOutboxRepo, times(3)).claimBatch(eq(1), anyLong());
+    }
+
+    @Test
+    public void dispatchStopsAfterMaxBatchesPerRun() {
+        when(emailOutboxRepo.claimBatch(eq(1), anyLong()))
+                .thenReturn(List.of(new OutboxEmail(1, "first@uni.de", "Betreff 1", "Text 1", 1)))
+                .thenReturn(List.of(new OutboxEmail(2, "second@uni.de", "Betreff 2", "Text 2", 1)))
+                .thenReturn(List.of(new OutboxEmail(3, "third@uni.de", "Betreff 3", "Text 3", 1)));
+
+        EmailDispatcher dispatcher = createDispatcher(1, 2, 8);
+        dispatcher.dispatch();
+        dispatcher.shutdown();
+
+        // The third email is left for the next run
+        assertThat(greenMail.getReceivedMessages()).hasSize(2);
+        verify(emailOutboxRepo, times(2)).claimBatch(eq(1), anyLong());
+    }
+
+    @Test
+    public void failedEmailIsRetriedWithBackoff() {
+        greenMail.stop();
+        when(emailOutboxRepo.claimBatch(eq(20), anyLong())).thenReturn(List.of(
+                new OutboxEmail(1, "first@uni.de", "Betreff", "Text", 3)
+        ));
+
+        EmailDispatcher dispatcher = createDispatcher(20, 8);
+        dispatcher.dispatch();
+        dispatcher.shutdown();
+
+        verify(emailOutboxRepo).scheduleRetry(eq(1), eq(120L), anyString());
+        verify(emailOutboxRepo, never()).deleteById(any());
+        assertThat(meterRegistry.get("email.send.failures").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void emailIsMarkedFailedAfterMaxAttempts() {
+        greenMail.stop();
+        when(emailOutboxRepo.claimBatch(eq(20), anyLong())).thenReturn(List.of(
+                new OutboxEmail(1, "first@uni.de", "Betreff", "Text", 8)
+        ));
+
+        EmailDispatcher dispatcher = createDispatcher(20, 8);
+        dispatcher.dispatch();
+        dispatcher.shutdown();
+
+        verify(emailOutboxRepo).markFailed(eq(1), anyString());
+        verify(emailOutboxRepo, never()).scheduleRetry(any(), anyLong(), any());
+        assertThat(meterRegistry.get("email.send.abandoned").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void retryDelayIsCapped() {
+        EmailDispatcher dispatcher = createDispatcher(20, 8);
+        dispatcher.shutdown();
+
+        assertThat(dispatcher.getRetryDelay(1)).isEqualTo(Duration.ofSeconds(30));
+        assertThat(dispatcher.getRetryDelay(2)).isEqualTo(Duration.ofSeconds(60));
+        assertThat(dispatcher.getRetryDelay(8)).isEqualTo(Duration.ofMinutes(10));
+    }
+}
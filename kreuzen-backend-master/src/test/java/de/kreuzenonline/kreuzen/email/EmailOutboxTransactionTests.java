@@ -0,0 +1,76 @@
+package de.kreuzenonline.kreuzen.email;
+
+import de.kreuzenonline.kreuzen.auth.CustomUserDetailsService;
+import de.kreuzenonline.kreuzen.user.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.postgresql.util.PSQLException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+/**
+ * Mails are written to the outbox in the transaction of the change they belong to. The changes are committed,
+ * so the users are deleted after each test.
+ */
+@SpringBootTest
+public class EmailOutboxTransactionTests {
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @MockBean
+    private EmailService emailService;
+
+    @AfterEach
+    public void tearDown() {
+        jdbcTemplate.update("DELETE FROM app_user WHERE username LIKE 'outbox%'");
+    }
+
+    @Test
+    public void userIsNotCreatedWithoutConfirmationMail() {
+        doThrow(new DataAccessResourceFailureException("Outbox nicht erreichbar")).when(emailService).sendConfirmEmailMessage(any(), any(), any());
+
+        assertThatThrownBy(() -> userDetailsService.createUser("outbox", "Out", "Box", "outbox@gmail.com", "TopSecretPW", 1, null, null))
+                .isInstanceOf(DataAccessResourceFailureException.class);
+
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM app_user WHERE username = 'outbox'", Integer.class)).isZero();
+    }
+
+    @Test
+    public void createdUserGetsConfirmationMail() {
+        Integer id = userDetailsService.createUser("outbox", "Out", "Box", "outbox@gmail.com", "TopSecretPW", 1, null, null).getFirst().getId();
+
+        verify(emailService).sendConfirmEmailMessage(eq("outbox@gmail.com"), startsWith(id + "-"), eq("Out"));
+    }
+
+    @Test
+    public void failedEmailChangeSendsNoMail() {
+        Integer id = insertUser("outbox1", "outbox1@gmail.com");
+        insertUser("outbox2", "outbox2@gmail.com");
+
+        // The address is taken, so the user can't be saved.
+        assertThatThrownBy(() -> userService.updateUser(null, "outbox2@gmail.com", null, null, id, null, null, null, null))
+                .hasRootCauseInstanceOf(PSQLException.class);
+
+        verifyNoInteractions(emailService);
+        assertThat(jdbcTemplate.queryForObject("SELECT email FROM app_user WHERE id = ?", String.class, id)).isEqualTo("outbox1@gmail.com");
+    }
+
+    private Integer insertUser(String username, String email) {
+        return jdbcTemplate.queryForObject("INSERT INTO app_user (username, email, first_name, last_name, password_hash, email_confirmed, role, university_id) " +
+                "VALUES (?, ?, 'Out', 'Box', '{noop}x', TRUE, 'USER', 1) RETURNING id", Integer.class, username, email);
+    }
+}
@@ -0,0 +1,32 @@
+package de.kreuzenonline.kreuzen.metrics;
+
+import de.kreuzenonline.kreuzen.role.RoleRepo;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+public class RepositoryMetricsConfigTests {
+
+    @Autowired
+    private RoleRepo roleRepo;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void repositoriesAreInstrumented() {
+        roleRepo.findAll();
+
+        assertThat(meterRegistry.get(RepositoryMetricsInterceptor.INVOCATIONS)
+                .tags("repository", "RoleRepo", "method", "findAll", "state", "SUCCESS")
+                .timer().count()).isGreaterThanOrEqualTo(1);
+        assertThat(meterRegistry.get(RepositoryMetricsInterceptor.ROWS)
+                .tags("repository", "RoleRepo", "method", "findAll")
+                .summary().totalAmount()).isGreaterThanOrEqualTo(4);
+        // Published by Spring Boot for the connection pool
+        assertThat(meterRegistry.find("hikaricp.connections.active").gauge()).isNotNull();
+    }
+}
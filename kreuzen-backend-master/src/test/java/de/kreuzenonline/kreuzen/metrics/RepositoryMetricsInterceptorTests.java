@@ -0,0 +1,112 @@
+package de.kreuzenonline.kreuzen.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class RepositoryMetricsInterceptorTests {
+
+    private SimpleMeterRegistry meterRegistry;
+    private NoteRepo repo;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ProxyFactory proxyFactory = new ProxyFactory(new NoteRepoImpl());
+        proxyFactory.addInterface(NoteRepo.class);
+        proxyFactory.addAdvice(new RepositoryMetricsInterceptor(() -> meterRegistry, NoteRepo.class, Note.class));
+        repo = (NoteRepo) proxyFactory.getProxy();
+    }
+
+    @Test
+    public void recordsInvocationsPerMethod() {
+        repo.findAll();
+        repo.findAll();
+        repo.count();
+
+        assertThat(meterRegistry.get(RepositoryMetricsInterceptor.INVOCATIONS)
+                .tags("repository", "NoteRepo", "method", "findAll", "state", "SUCCESS", "exception", "none")
+                .timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get(RepositoryMetricsInterceptor.INVOCATIONS)
+                .tags("repository", "NoteRepo", "method", "count")
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void recordsFailedInvocations() {
+        assertThatThrownBy(() -> repo.findSlow()).isInstanceOf(QueryTimeoutException.class);
+
+        assertThat(meterRegistry.get(RepositoryMetricsInterceptor.INVOCATIONS)
+                .tags("method", "findSlow", "state", "ERROR", "exception", "QueryTimeoutException")
+                .timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.find(RepositoryMetricsInterceptor.ROWS).tags("method", "findSlow").summary()).isNull();
+    }
+
+    @Test
+    public void recordsReturnedRows() {
+        repo.findAll();
+        repo.findById(1);
+        repo.findById(2);
+        repo.findFirst();
+        repo.count();
+
+        assertThat(meterRegistry.get(RepositoryMetricsInterceptor.ROWS).tags("method", "findAll").summary().totalAmount()).isEqualTo(3);
+        assertThat(meterRegistry.get(RepositoryMetricsInterceptor.ROWS).tags("method", "findById").summary().totalAmount()).isEqualTo(1);
+        assertThat(meterRegistry.get(RepositoryMetricsInterceptor.ROWS).tags("method", "findById").summary().count()).isEqualTo(2);
+        assertThat(meterRegistry.get(RepositoryMetricsInterceptor.ROWS).tags("method", "findFirst").summary().totalAmount()).isEqualTo(1);
+        // Counts aren't rows
+        assertThat(meterRegistry.find(RepositoryMetricsInterceptor.ROWS).tags("method", "count").summary()).isNull();
+    }
+
+    private static class Note {
+    }
+
+    private interface NoteRepo {
+
+        List<Note> findAll();
+
+        Optional<Note> findById(Integer id);
+
+        Note findFirst();
+
+        long count();
+
+        List<Note> findSlow();
+    }
+
+    private static class NoteRepoImpl implements NoteRepo {
+
+        @Override
+        public List<Note> findAll() {
+            return List.of(new Note(), new Note(), new Note());
+        }
+
+        @Override
+        public Optional<Note> findById(Integer id) {
+            return id == 1 ? Optional.of(new Note()) : Optional.empty();
+        }
+
+        @Override
+        public Note findFirst() {
+            return new Note();
+        }
+
+        @Override
+        public long count() {
+            return 3;
+        }
+
+        @Override
+        public List<Note> findSlow() {
+            throw new QueryTimeoutException("timeout");
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package de.kreuzenonline.kreuzen.metrics;
+
+import de.kreuzenonline.kreuzen.auth.WithMockCustomUser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import static de.kreuzenonline.kreuzen.metrics.SqlStatementMatchers.sqlStatements;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statement counts of endpoints against the database, so N+1 patterns fail the build.
+ * The session is read with several questions of each type, the rows are rolled back after each test.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ContextConfiguration
+@AutoConfigureMockMvc
+@Transactional
+public class SqlStatementBudgetTests {
+
+    private static final int USER_ID = 1;
+    private static final int QUESTIONS_PER_TYPE = 3;
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Integer sessionId;
+
+    @BeforeEach
+    public void setUp() {
+        sessionId = jdbcTemplate.queryForObject("INSERT INTO session (creator_id, name) VALUES (?, 'Budget') RETURNING id", Integer.class, USER_ID);
+        int localId = 1;
+        for (int i = 0; i < QUESTIONS_PER_TYPE; i++) {
+            Integer singleChoiceId = insertQuestion("single-choice", localId++);
+            jdbcTemplate.update("INSERT INTO question_single_choice (question_id, correct_answer_local_id) VALUES (?, 1)", singleChoiceId);
+            for (int answer = 1; answer <= 2; answer++) {
+                Integer answerId = jdbcTemplate.queryForObject("INSERT INTO question_single_choice_answer (question_id, local_id, text) " +
+                        "VALUES (?, ?, 'Antwort') RETURNING id", Integer.class, singleChoiceId, answer);
+                jdbcTemplate.update("INSERT INTO session_single_choice_selection (session_id, answer_id, is_checked) VALUES (?, ?, ?)",
+                        sessionId, answerId, answer == 1);
+            }
+
+            Integer multipleChoiceId = insertQuestion("multiple-choice", localId++);
+            jdbcTemplate.update("INSERT INTO question_multiple_choice (question_id, correct_answer_local_ids) VALUES (?, '{1,3}')", multipleChoiceId);
+            for (int answer = 1; answer <= 3; answer++) {
+                Integer answerId = jdbcTemplate.queryForObject("INSERT INTO question_multiple_choice_answer (question_id, local_id, text) " +
+                        "VALUES (?, ?, 'Antwort') RETURNING id", Integer.class, multipleChoiceId, answer);
+                jdbcTemplate.update("INSERT INTO session_multiple_choice_selection (session_id, answer_id, is_checked) VALUES (?, ?, TRUE)",
+                        sessionId, answerId);
+            }
+        }
+    }
+
+    @Test
+    @WithMockCustomUser(id = 45)
+    public void questionsOfCourseAreReadWithOneStatement() throws Exception {
+        mvc.perform(get("/course/1/question"))
+                .andExpect(status().isOk())
+                .andExpect(sqlStatements(1))
+                .andExpect(header().string("X-SQL-Statements", "1"));
+    }
+
+    @Test
+    @WithMockCustomUser(id = 45)
+    public void modulesOfUniversityAreReadWithCatalogVersion() throws Exception {
+        // The catalog version is read to validate the response
+        mvc.perform(get("/university/1/module"))
+                .andExpect(status().isOk())
+                .andExpect(sqlStatements(2));
+    }
+
+    @Test
+    @WithMockCustomUser(id = USER_ID)
+    public void sessionBundleIsReadWithoutStatementsPerQuestion() throws Exception {
+        mvc.perform(get("/session/" + sessionId + "/bundle"))
+                .andExpect(status().isOk())
+                .andExpect(sqlStatements(10));
+    }
+
+    @Test
+    @WithMockCustomUser(id = USER_ID)
+    public void sessionResultsAreReadWithoutStatementsPerQuestion() throws Exception {
+        mvc.perform(get("/session/" + sessionId + "/results"))
+                .andExpect(status().isOk())
+                .andExpect(sqlStatements(9));
+    }
+
+    @Test
+    @WithMockCustomUser(id = USER_ID)
+    public void sessionResultSummaryIsReadWithoutStatementsPerQuestion() throws Exception {
+        mvc.perform(get("/session/" + sessionId + "/results/summary"))
+                .andExpect(status().isOk())
+                .andExpect(sqlStatements(9));
+    }
+
+    @Test
+    @WithMockCustomUser(id = USER_ID)
+    public void sessionsOfUserAreListedWithoutStatementsPerSession() throws Exception {
+        jdbcTemplate.update("INSERT INTO session (creator_id, name) VALUES (?, 'Zweite'), (?, 'Dritte')", USER_ID, USER_ID);
+
+        mvc.perform(get("/user/" + USER_ID + "/session"))
+                .andExpect(status().isOk())
+                .andExpect(sqlStatements(2));
+    }
+
+    private Integer insertQuestion(String type, int localId) {
+        Integer questionId = jdbcTemplate.queryForObject("INSERT INTO question_base (text, type, course_id, creator_id, origin, is_approved) " +
+                "VALUES ('Budgetfrage', CAST(? AS question_type), 1, ?, 'ORIG', TRUE) RETURNING id", Integer.class, type, USER_ID);
+        jdbcTemplate.update("INSERT INTO session_has_question (session_id, question_id, local_id) VALUES (?, ?, ?)", sessionId, questionId, localId);
+        return questionId;
+    }
+}
@@ -0,0 +1,33 @@
+package de.kreuzenonline.kreuzen.metrics;
+
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Matchers for the number of SQL statements a request executed, e.g.
+ * {@code mvc.perform(get("/course/1/question")).andExpect(sqlStatements(1))}.
+ * Only statements of repositories that are not mocked are counted.
+ */
+public final class SqlStatementMatchers {
+
+    private SqlStatementMatchers() {
+    }
+
+    public static ResultMatcher sqlStatements(int expected) {
+        return result -> assertThat(statistics(result.getRequest().getAttribute(SqlStatisticsFilter.ATTRIBUTE)).getStatements())
+                .as("SQL statements of %s", result.getRequest().getRequestURI())
+                .isEqualTo(expected);
+    }
+
+    public static ResultMatcher atMostSqlStatements(int max) {
+        return result -> assertThat(statistics(result.getRequest().getAttribute(SqlStatisticsFilter.ATTRIBUTE)).getStatements())
+                .as("SQL statements of %s", result.getRequest().getRequestURI())
+                .isLessThanOrEqualTo(max);
+    }
+
+    private static SqlStatistics statistics(Object attribute) {
+        assertThat(attribute).as("SQL statistics of the request").isInstanceOf(SqlStatistics.class);
+        return (SqlStatistics) attribute;
+    }
+}
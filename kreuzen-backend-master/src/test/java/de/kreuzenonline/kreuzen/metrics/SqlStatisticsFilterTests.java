@@ -0,0 +1,112 @@
+package de.kreuzenonline.kreuzen.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(OutputCaptureExtension.class)
+public class SqlStatisticsFilterTests {
+
+    private final DataSource dataSource = new StatementCountingDataSource(mockDataSource());
+
+    @Test
+    public void countsExecutedStatementsOfRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/session/1/result");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new SqlStatisticsFilter(20, true).doFilter(request, response, executing(3));
+
+        SqlStatistics statistics = (SqlStatistics) request.getAttribute(SqlStatisticsFilter.ATTRIBUTE);
+        assertThat(statistics.getStatements()).isEqualTo(3);
+        assertThat(response.getHeader("X-SQL-Statements")).isEqualTo("3");
+        assertThat(response.getHeader("Server-Timing")).startsWith("db;dur=");
+    }
+
+    @Test
+    public void setsHeadersBeforeResponseIsCommitted() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/course/1/question");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new SqlStatisticsFilter(20, true).doFilter(request, response, (req, res) -> {
+            execute(1);
+            res.getOutputStream().write('[');
+            res.flushBuffer();
+            // Executed after the response is committed, can't be sent anymore
+            execute(1);
+        });
+
+        assertThat(response.getHeader("X-SQL-Statements")).isEqualTo("1");
+        assertThat(((SqlStatistics) request.getAttribute(SqlStatisticsFilter.ATTRIBUTE)).getStatements()).isEqualTo(2);
+    }
+
+    @Test
+    public void omitsHeadersIfDisabled() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new SqlStatisticsFilter(20, false).doFilter(new MockHttpServletRequest("GET", "/module"), response, executing(1));
+
+        assertThat(response.getHeader("X-SQL-Statements")).isNull();
+    }
+
+    @Test
+    public void logsRequestsOverBudget(CapturedOutput output) throws Exception {
+        new SqlStatisticsFilter(2, false).doFilter(new MockHttpServletRequest("GET", "/session/1/result"), new MockHttpServletResponse(), executing(2));
+        assertThat(output).doesNotContain("SQL statements");
+
+        new SqlStatisticsFilter(2, false).doFilter(new MockHttpServletRequest("GET", "/session/1/result"), new MockHttpServletResponse(), executing(3));
+        assertThat(output).contains("GET /session/1/result executed 3 SQL statements", "the budget is 2");
+    }
+
+    @Test
+    public void ignoresStatementsOutsideOfRequests() throws Exception {
+        execute(1);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/module");
+        new SqlStatisticsFilter(20, false).doFilter(request, new MockHttpServletResponse(), executing(0));
+
+        assertThat(((SqlStatistics) request.getAttribute(SqlStatisticsFilter.ATTRIBUTE)).getStatements()).isEqualTo(0);
+    }
+
+    private FilterChain executing(int statements) {
+        return (request, response) -> execute(statements);
+    }
+
+    private void execute(int statements) throws ServletException {
+        try (Connection connection = dataSource.getConnection()) {
+            for (int i = 0; i < statements; i++) {
+                PreparedStatement statement = connection.prepareStatement("SELECT 1");
+                statement.setInt(1, 1);
+                statement.executeQuery();
+            }
+        } catch (SQLException e) {
+            throw new ServletException(e);
+        }
+    }
+
+    private static DataSource mockDataSource() {
+        try {
+            DataSource dataSource = mock(DataSource.class);
+            Connection connection = mock(Connection.class);
+            when(dataSource.getConnection()).thenReturn(connection);
+            when(connection.prepareStatement(anyString())).thenReturn(mock(PreparedStatement.class));
+            when(connection.createStatement()).thenReturn(mock(Statement.class));
+            return dataSource;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
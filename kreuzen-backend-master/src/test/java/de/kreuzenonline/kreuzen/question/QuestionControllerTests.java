@@ -14,20 +14,26 @@ import de.kreuzenonline.kreuzen.question.types.singleChoice.SingleChoiceQuestion
 import de.kreuzenonline.kreuzen.session.Session;
 import de.kreuzenonline.kreuzen.session.SessionRepo;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -427,6 +433,20 @@ public class QuestionControllerTests {
                 .andExpect(jsonPath("$.msg").value("Dieser Fragenursprung ist nicht vorgesehen."));
     }
 
+    @Test
+    @WithMockCustomUser(username = "test", email = "test@uni.de", id = 45)
+    public void createQuestionWithUnknownTypeInsertsNothing() throws Exception {
+        String body = "{\"text\": \"Testfrage\", \"type\": \"many-choice\", \"points\": 2, \"courseId\": 1, \"origin\": \"ORIG\"}";
+        when(questionOriginRepo.existsByName("ORIG")).thenReturn(true);
+
+        mvc.perform(post("/question/").accept(MediaType.APPLICATION_JSON).content(body).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.msg").value("Die eingegebene Frage entspricht keinem der definierten Typen."));
+
+        verify(baseQuestionRepo, never()).save(any());
+        verify(baseQuestionRepo, never()).deleteById(any());
+    }
+
     @Test
     @WithMockCustomUser(username = "test", email = "test@uni.de", id = 45)
     public void createSingleChoiceConflictNotEnoughAnswers() throws Exception {
@@ -757,6 +777,62 @@ public class QuestionControllerTests {
                 .andExpect(jsonPath("$.correctAnswerLocalId").value(2));
     }
 
+    @Test
+    @WithMockCustomUser(username = "test", email = "test@uni.de", id = 45)
+    public void updateSingleChoiceOnlyWritesChangedAnswers() throws Exception {
+        String body = "{\"answers\" : [\"Antwort1\", \"Antwort2\"], \"correctAnswerLocalId\" : 1}";
+
+        when(baseQuestionRepo.findById(1)).thenReturn(java.util.Optional.of(new BaseQuestion(1, "Testfrage", "single-choice", "Sonderzeichen gehen auch.", 2, 1, 1, 45, 45, "ORIG", true)));
+        when(baseQuestionRepo.save(Mockito.any(BaseQuestion.class))).thenAnswer(u -> u.getArgument(0));
+
+        when(singleChoiceQuestionRepo.findByQuestionId(1)).thenReturn(new SingleChoiceQuestionEntry(1, 1, 2));
+        when(singleChoiceQuestionRepo.save(Mockito.any(SingleChoiceQuestionEntry.class))).thenAnswer(u -> u.getArgument(0));
+
+        when(singleChoiceAnswerRepo.findAllByQuestionId(1)).thenReturn(Arrays.asList(
+                new SingleChoiceAnswer(1, 1, 1, "Antwort19"),
+                new SingleChoiceAnswer(2, 1, 2, "Antwort2"),
+                new SingleChoiceAnswer(3, 1, 3, "Antwort3")
+        ));
+
+        mvc.perform(patch("/question/1").accept(MediaType.APPLICATION_JSON).content(body).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().is(200))
+                .andExpect(jsonPath("$.isApproved").value(false))
+                .andExpect(jsonPath("$.updaterId").value(45))
+                .andExpect(jsonPath("$.correctAnswerLocalId").value(1));
+
+        verify(singleChoiceAnswerRepo).updateTexts(1, new Integer[]{1}, new String[]{"Antwort1"});
+        verify(singleChoiceAnswerRepo).deleteAllByQuestionIdAndLocalIdGreaterThan(1, 2);
+        verify(singleChoiceAnswerRepo, never()).insertAll(any(), any(), any());
+        verify(singleChoiceAnswerRepo, never()).delete(any());
+        verify(singleChoiceQuestionRepo).save(argThat(entry -> entry.getCorrectAnswerLocalId() == 1));
+        // Changes and disapproval of the base question are saved at once.
+        verify(baseQuestionRepo, times(1)).save(any());
+    }
+
+    @Test
+    @WithMockCustomUser(username = "test", email = "test@uni.de", id = 45)
+    public void updateMultipleChoiceInsertsAdditionalAnswers() throws Exception {
+        String body = "{\"answers\" : [\"Antwort1\", \"Antwort2\", \"Antwort3\", \"Antwort4\"]}";
+
+        when(baseQuestionRepo.findById(1)).thenReturn(java.util.Optional.of(new BaseQuestion(1, "Testfrage", "multiple-choice", null, 2, 1, 1, 45, 45, "ORIG", false)));
+        when(baseQuestionRepo.save(Mockito.any(BaseQuestion.class))).thenAnswer(u -> u.getArgument(0));
+
+        when(multipleChoiceQuestionRepo.findByQuestionId(1)).thenReturn(new MultipleChoiceQuestionEntry(1, 1, new Integer[]{1, 2}));
+        when(multipleChoiceAnswerRepo.findAllByQuestionId(1)).thenReturn(Arrays.asList(
+                new MultipleChoiceAnswer(1, 1, 1, "Antwort1"),
+                new MultipleChoiceAnswer(2, 1, 2, "Antwort2"),
+                new MultipleChoiceAnswer(3, 1, 3, "Antwort3")
+        ));
+
+        mvc.perform(patch("/question/1").accept(MediaType.APPLICATION_JSON).content(body).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().is(200));
+
+        verify(multipleChoiceAnswerRepo).insertAll(1, new Integer[]{4}, new String[]{"Antwort4"});
+        verify(multipleChoiceAnswerRepo, never()).updateTexts(any(), any(), any());
+        verify(multipleChoiceAnswerRepo, never()).deleteAllByQuestionIdAndLocalIdGreaterThan(any(), any());
+        verify(multipleChoiceQuestionRepo, never()).save(any());
+    }
+
     @Test
     @WithMockCustomUser(username = "test", email = "test@uni.de", id = 45)
     public void updateSingleChoiceConflicts() throws Exception {
@@ -954,11 +1030,15 @@ public class QuestionControllerTests {
     @WithMockCustomUser(username = "test", email = "test@uni.de", id = 45)
     public void getQuestionsByCourse() throws Exception {
 
-        when(baseQuestionRepo.findAllByCourseIdAndIsApprovedTrue(12)).thenReturn(Arrays.asList(
+        List<BaseQuestion> questions = Arrays.asList(
                 new BaseQuestion(1, "Testfrage1", "single-choice", "Hier könnte ein Link stehen.", 2, 1, 12, 45, 45, "STUD", true),
                 new BaseQuestion(2, "Testfrage2", "multiple-choice", null, 3, 1, 12, 45, 45, "STUD", true),
                 new BaseQuestion(3, "Testfrage3", "single-choice", null, 2, 1, 12, 45, 45, "IMPP", true)
-        ));
+        );
+        doAnswer(invocation -> {
+            questions.forEach(invocation.<Consumer<BaseQuestion>>getArgument(2));
+            return null;
+        }).when(baseQuestionRepo).forEachByCourseId(eq(12), eq(true), any());
 
         mvc.perform(get("/course/12/question").accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().is(200))
@@ -991,11 +1071,15 @@ public class QuestionControllerTests {
     @Test
     @WithMockCustomUser(username = "test", email = "test@uni.de", id = 45)
     public void getQuestionsByExamUser() throws Exception {
-        when(baseQuestionRepo.findAllByExamIdAndIsApprovedTrue(4)).thenReturn(Arrays.asList(
+        List<BaseQuestion> questions = Arrays.asList(
                 new BaseQuestion(1, "Testfrage1", "single-choice", "Hier könnte ein Link stehen.", 2, 4, 12, 45, 45, "STUD", true),
                 new BaseQuestion(2, "Testfrage2", "multiple-choice", null, 3, 4, 12, 45, 45, "STUD", true),
                 new BaseQuestion(3, "Testfrage3", "single-choice", null, 2, 4, 12, 45, 45, "IMPP", true)
-        ));
+        );
+        doAnswer(invocation -> {
+            questions.forEach(invocation.<Consumer<BaseQuestion>>getArgument(2));
+            return null;
+        }).when(baseQuestionRepo).forEachByExamId(eq(4), eq(true), any());
 
         mvc.perform(get("/exam/4/question").accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().is(200))
@@ -1028,11 +1112,15 @@ public class QuestionControllerTests {
     @Test
     @WithMockCustomUser(username = "test", email = "test@uni.de", id = 45, role = "ADMIN")
     public void getQuestionsByExamAdmin() throws Exception {
-        when(baseQuestionRepo.findAllByExamId(4)).thenReturn(Arrays.asList(
+        List<BaseQuestion> questions = Arrays.asList(
                 new BaseQuestion(1, "Testfrage1", "single-choice", "Hier könnte ein Link stehen.", 2, 4, 12, 45, 45, "STUD", true),
                 new BaseQuestion(2, "Testfrage2", "multiple-choice", null, 3, 4, 12, 45, 45, "STUD", false),
                 new BaseQuestion(3, "Testfrage3", "single-choice", null, 2, 4, 12, 45, 45, "IMPP", true)
-        ));
+        );
+        doAnswer(invocation -> {
+            questions.forEach(invocation.<Consumer<BaseQuestion>>getArgument(2));
+            return null;
+        }).when(baseQuestionRepo).forEachByExamId(eq(4), eq(false), any());
 
         mvc.perform(get("/exam/4/question").accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().is(200))
@@ -1098,7 +1186,7 @@ public class QuestionControllerTests {
     @Test
     @WithMockCustomUser(username = "test", email = "test@uni.de", id = 45)
     public void listUnapprovedQuestionsAsUser() throws Exception {
-        when(baseQuestionRepo.findBySearchTerm(null, null, null, null, null, null, false, 20, 0)).thenReturn(Arrays.asList(
+        when(baseQuestionRepo.findBySearchTerm(null, null, null, null, null, null, false, null, 20, 0)).thenReturn(Arrays.asList(
                 new BaseQuestion(1, "Testfrage1", "single-choice", "Hier könnte ein Link stehen.", 2, 1, 12, 45, 45, "STUD", false),
                 new BaseQuestion(2, "Testfrage2", "multiple-choice", null, 3, 1, 12, 45, 45, "STUD", false),
                 new BaseQuestion(3, "Testfrage3", "single-choice", null, 2, 1, 12, 45, 45, "IMPP", false)
@@ -1111,7 +1199,7 @@ public class QuestionControllerTests {
     @Test
     @WithMockCustomUser(username = "test", email = "test@uni.de", id = 45, role = "ADMIN")
     public void listUnapprovedQuestionsAsAdmin() throws Exception {
-        when(baseQuestionRepo.findBySearchTerm(null, null, null, null, null, null, null, 20, 0)).thenReturn(Arrays.asList(
+        when(baseQuestionRepo.findBySearchTerm(null, null, null, null, null, null, null, null, 20, 0)).thenReturn(Arrays.asList(
                 new BaseQuestion(1, "Testfrage1", "single-choice", "Hier könnte ein Link stehen.", 2, 1, 12, 45, 45, "STUD", false),
                 new BaseQuestion(2, "Testfrage2", "multiple-choice", null, 3, 1, 12, 45, 45, "STUD", false),
                 new BaseQuestion(3, "Testfrage3", "single-choice", null, 2, 1, 12, 45, 45, "IMPP", false)
@@ -1153,7 +1241,7 @@ public class QuestionControllerTests {
     @Test
     @WithMockCustomUser(username = "test", email = "test@uni.de", id = 45, role = "ADMIN")
     public void searchQuestionsAsAdmin() throws Exception {
-        when(baseQuestionRepo.findBySearchTerm("test:*", null, null, null, null, null, null, 20, 40)).thenReturn(Arrays.asList(
+        when(baseQuestionRepo.findBySearchTerm("test:*", null, null, null, null, null, null, null, 20, 40)).thenReturn(Arrays.asList(
                 new BaseQuestion(1, "Testfrage1", "single-choice", "Hier könnte ein Link stehen.", 2, 1, 12, 45, 45, "STUD", false),
                 new BaseQuestion(2, "Testfrage2", "multiple-choice", null, 3, 1, 12, 45, 45, "STUD", false),
                 new BaseQuestion(3, "Testfrage3", "single-choice", null, 2, 1, 12, 45, 45, "IMPP", false)
@@ -1192,7 +1280,7 @@ public class QuestionControllerTests {
     @Test
     @WithMockCustomUser(username = "test", email = "test@uni.de", id = 45)
     public void searchQuestionsAsUser() throws Exception {
-        when(baseQuestionRepo.findBySearchTerm("test:*", null, null, null, null, null, true, 20, 40)).thenReturn(Arrays.asList(
+        when(baseQuestionRepo.findBySearchTerm("test:*", null, null, null, null, null, true, null, 20, 40)).thenReturn(Arrays.asList(
                 new BaseQuestion(1, "Testfrage1", "single-choice", "Hier könnte ein Link stehen.", 2, 1, 12, 45, 45, "STUD", true),
                 new BaseQuestion(2, "Testfrage2", "multiple-choice", null, 3, 1, 12, 45, 45, "STUD", true),
                 new BaseQuestion(3, "Testfrage3", "single-choice", null, 2, 1, 12, 45, 45, "IMPP", true)
@@ -1231,7 +1319,7 @@ public class QuestionControllerTests {
     @Test
     @WithMockCustomUser(username = "test", email = "test@uni.de", id = 45)
     public void searchQuestionsAsUserWithoutTerm() throws Exception {
-        when(baseQuestionRepo.findBySearchTerm(null, null, null, null, null, null, true, 20, 40)).thenReturn(Arrays.asList(
+        when(baseQuestionRepo.findBySearchTerm(null, null, null, null, null, null, true, null, 20, 40)).thenReturn(Arrays.asList(
                 new BaseQuestion(1, "Testfrage1", "single-choice", "Hier könnte ein Link stehen.", 2, 1, 12, 45, 45, "STUD", true),
                 new BaseQuestion(2, "Testfrage2", "multiple-choice", null, 3, 1, 12, 45, 45, "STUD", true),
                 new BaseQuestion(3, "Testfrage3", "single-choice", null, 2, 1, 12, 45, 45, "IMPP", true)
@@ -1400,4 +1488,235 @@ public class QuestionControllerTests {
                 .andExpect(jsonPath("$.msg").value("Nur der Session-Ersteller sowie Administratoren dürfen die Fragen einer Session ansehen."));
     }
 
+    @Test
+    @WithMockCustomUser(username = "test", email = "test@uni.de", id = 45)
+    public void importQuestionsForbiddenForUsers() throws Exception {
+        mvc.perform(post("/question/import")
+                .contentType("application/x-ndjson")
+                .content("{}"))
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.msg").value("Nur Moderatoren und Administratoren können Fragen importieren."));
+        verify(baseQuestionRepo, never()).insertAll(any());
+    }
+
+    @Test
+    @WithMockCustomUser(username = "test", email = "test@uni.de", id = 45, role = "MOD")
+    public void importQuestionsNeedsSupportedFormat() throws Exception {
+        mvc.perform(post("/question/import")
+                .contentType(MediaType.APPLICATION_XML)
+                .content("<question/>"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.msg").value("Fragen können nur als NDJSON (application/x-ndjson) oder CSV (text/csv) importiert werden."));
+    }
+
+    @Test
+    @WithMockCustomUser(username = "test", email = "test@uni.de", id = 45, role = "MOD")
+    @SuppressWarnings("unchecked")
+    public void importQuestionsFromNdjson() throws Exception {
+        when(questionOriginRepo.existsByName("STUD")).thenReturn(true);
+        doAnswer(invocation -> {
+            List<BaseQuestion> questions = invocation.getArgument(0);
+            for (int i = 0; i < questions.size(); i++) {
+                questions.get(i).setId(10 + i);
+            }
+            return null;
+        }).when(baseQuestionRepo).insertAll(any());
+
+        String body = "{\"type\":\"single-choice\",\"text\":\"Erste Testfrage\",\"points\":2,\"courseId\":1,\"origin\":\"STUD\",\"answers\":[\"A\",\"B\"],\"correctAnswerLocalId\":2}\n" +
+                "{\"type\":\"single-choice\",\"text\":\"Kurz\",\"courseId\":1,\"origin\":\"STUD\",\"answers\":[\"A\",\"B\"],\"correctAnswerLocalId\":1}\n" +
+                "\n" +
+                "{\"type\":\"multiple-choice\",\"text\":\"Zweite Testfrage\",\"courseId\":1,\"origin\":\"STUD\",\"answers\":[\"A\",\"B\",\"C\"],\"correctAnswerLocalIds\":[1,3]}\n" +
+                "{\"type\":\"single-choice\",\"text\":\"Dritte Testfrage\",\"courseId\":1,\"origin\":\"ALT\",\"answers\":[\"A\",\"B\"],\"correctAnswerLocalId\":1}\n" +
+                "{\"type\":\"single-choice\",\"text\":\n";
+
+        mvc.perform(post("/question/import")
+                .contentType("application/x-ndjson")
+                .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.failed").value(3))
+                .andExpect(jsonPath("$.errors[0].line").value(2))
+                .andExpect(jsonPath("$.errors[0].msg").value("Die eingegebene Frage sollte mindestens 8 Zeichen haben."))
+                .andExpect(jsonPath("$.errors[1].line").value(5))
+                .andExpect(jsonPath("$.errors[1].msg").value("Dieser Fragenursprung ist nicht vorgesehen."))
+                .andExpect(jsonPath("$.errors[2].line").value(6))
+                .andExpect(jsonPath("$.errors[2].msg").value("Diese Zeile enthält keine gültige Frage."));
+
+        ArgumentCaptor<List<BaseQuestion>> baseQuestions = ArgumentCaptor.forClass(List.class);
+        verify(baseQuestionRepo).insertAll(baseQuestions.capture());
+        assertThat(baseQuestions.getValue()).extracting(BaseQuestion::getText).containsExactly("Erste Testfrage", "Zweite Testfrage");
+        assertThat(baseQuestions.getValue()).extracting(BaseQuestion::getPoints).containsExactly(2, 1);
+        assertThat(baseQuestions.getValue()).extracting(BaseQuestion::getCreatorId).containsExactly(45, 45);
+        assertThat(baseQuestions.getValue()).extracting(BaseQuestion::getIsApproved).containsExactly(false, false);
+
+        ArgumentCaptor<Collection<SingleChoiceQuestionEntry>> singleChoiceEntries = ArgumentCaptor.forClass(Collection.class);
+        ArgumentCaptor<Collection<SingleChoiceAnswer>> singleChoiceAnswers = ArgumentCaptor.forClass(Collection.class);
+        verify(singleChoiceQuestionRepo).insertAll(singleChoiceEntries.capture(), singleChoiceAnswers.capture());
+        assertThat(singleChoiceEntries.getValue()).extracting(SingleChoiceQuestionEntry::getQuestionId).containsExactly(10);
+        assertThat(singleChoiceEntries.getValue()).extracting(SingleChoiceQuestionEntry::getCorrectAnswerLocalId).containsExactly(2);
+        assertThat(singleChoiceAnswers.getValue()).extracting(SingleChoiceAnswer::getLocalId).containsExactly(1, 2);
+
+        ArgumentCaptor<Collection<MultipleChoiceQuestionEntry>> multipleChoiceEntries = ArgumentCaptor.forClass(Collection.class);
+        ArgumentCaptor<Collection<MultipleChoiceAnswer>> multipleChoiceAnswers = ArgumentCaptor.forClass(Collection.class);
+        verify(multipleChoiceQuestionRepo).insertAll(multipleChoiceEntries.capture(), multipleChoiceAnswers.capture());
+        assertThat(multipleChoiceEntries.getValue()).extracting(MultipleChoiceQuestionEntry::getQuestionId).containsExactly(11);
+        assertThat(multipleChoiceAnswers.getValue()).extracting(MultipleChoiceAnswer::getText).containsExactly("A", "B", "C");
+        // Answers are not saved one by one anymore.
+        verify(singleChoiceAnswerRepo, never()).save(any());
+        verify(multipleChoiceAnswerRepo, never()).save(any());
+    }
+
+    @Test
+    @WithMockCustomUser(username = "test", email = "test@uni.de", id = 45, role = "ADMIN")
+    @SuppressWarnings("unchecked")
+    public void importQuestionsFromCsv() throws Exception {
+        when(questionOriginRepo.existsByName("STUD")).thenReturn(true);
+
+        String body = "type,text,points,courseId,examId,origin,answers,correctAnswerLocalIds\n" +
+                "multiple-choice,\"Welche Aussagen sind richtig, welche falsch?\",3,1,,STUD,\"A|B, mit Komma|\"\"C\"\"\",1|3\n" +
+                "multiple-choice,Zu wenige Antworten,3,1,,STUD,A|B,1\n";
+
+        mvc.perform(post("/question/import")
+                .contentType("text/csv")
+                .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(3))
+                .andExpect(jsonPath("$.errors[0].msg").value("Zu einer Multiple Choice-Frage müssen mindestens 3 Antwortmöglichkeiten angegeben werden."));
+
+        ArgumentCaptor<List<BaseQuestion>> baseQuestions = ArgumentCaptor.forClass(List.class);
+        verify(baseQuestionRepo).insertAll(baseQuestions.capture());
+        assertThat(baseQuestions.getValue()).extracting(BaseQuestion::getText).containsExactly("Welche Aussagen sind richtig, welche falsch?");
+        assertThat(baseQuestions.getValue()).extracting(BaseQuestion::getExamId).containsOnlyNulls();
+
+        ArgumentCaptor<Collection<MultipleChoiceQuestionEntry>> entries = ArgumentCaptor.forClass(Collection.class);
+        ArgumentCaptor<Collection<MultipleChoiceAnswer>> answers = ArgumentCaptor.forClass(Collection.class);
+        verify(multipleChoiceQuestionRepo).insertAll(entries.capture(), answers.capture());
+        assertThat(entries.getValue().iterator().next().getCorrectAnswerLocalIds()).containsExactly(1, 3);
+        assertThat(answers.getValue()).extracting(MultipleChoiceAnswer::getText).containsExactly("A", "B, mit Komma", "\"C\"");
+    }
+
+    @Test
+    @WithMockCustomUser(username = "test", email = "test@uni.de", id = 45, role = "MOD")
+    @SuppressWarnings("unchecked")
+    public void importQuestionsFromCsvWithLineBreaksInQuotedValues() throws Exception {
+        when(questionOriginRepo.existsByName("STUD")).thenReturn(true);
+
+        String body = "type,text,courseId,origin,answers,correctAnswerLocalIds\n" +
+                "multiple-choice,\"Welche Aussagen sind richtig?\n\n1. \"\"Erste\"\"\n2. Zweite\",1,STUD,A|B|C,1|3\n" +
+                "multiple-choice,Zu wenige Antworten,1,STUD,A|B,1\n";
+
+        mvc.perform(post("/question/import")
+                .contentType("text/csv")
+                .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                // The question with line breaks spans the lines 2 to 5.
+                .andExpect(jsonPath("$.errors[0].line").value(6));
+
+        ArgumentCaptor<List<BaseQuestion>> baseQuestions = ArgumentCaptor.forClass(List.class);
+        verify(baseQuestionRepo).insertAll(baseQuestions.capture());
+        assertThat(baseQuestions.getValue()).extracting(BaseQuestion::getText).containsExactly("Welche Aussagen sind richtig?\n\n1. \"Erste\"\n2. Zweite");
+    }
+
+    @Test
+    @WithMockCustomUser(username = "test", email = "test@uni.de", id = 45, role = "MOD")
+    @SuppressWarnings("unchecked")
+    public void importQuestionsFromCsvStopsAtUnterminatedQuote() throws Exception {
+        when(questionOriginRepo.existsByName("STUD")).thenReturn(true);
+
+        String body = "type,text,courseId,origin,answers,correctAnswerLocalIds\n" +
+                "multiple-choice,Erste Testfrage,1,STUD,A|B|C,1\n" +
+                "multiple-choice,\"Zweite Testfrage,1,STUD,A|B|C,1\n" +
+                "multiple-choice,Dritte Testfrage,1,STUD,A|B|C,1\n";
+
+        mvc.perform(post("/question/import")
+                .contentType("text/csv")
+                .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(3))
+                .andExpect(jsonPath("$.errors[0].msg").value("Ein Wert in Anführungszeichen wird nicht geschlossen. Diese und alle folgenden Zeilen wurden nicht importiert."));
+
+        ArgumentCaptor<List<BaseQuestion>> baseQuestions = ArgumentCaptor.forClass(List.class);
+        verify(baseQuestionRepo).insertAll(baseQuestions.capture());
+        assertThat(baseQuestions.getValue()).extracting(BaseQuestion::getText).containsExactly("Erste Testfrage");
+    }
+
+    @Test
+    @WithMockCustomUser(username = "test", email = "test@uni.de", id = 45, role = "MOD")
+    @SuppressWarnings("unchecked")
+    public void importQuestionsStopsAtTooLongLine() throws Exception {
+        when(questionOriginRepo.existsByName("STUD")).thenReturn(true);
+
+        String body = "{\"type\":\"single-choice\",\"text\":\"Erste Testfrage\",\"courseId\":1,\"origin\":\"STUD\",\"answers\":[\"A\",\"B\"],\"correctAnswerLocalId\":1}\n" +
+                "{\"type\":\"single-choice\",\"text\":\"" + "x".repeat(100_000) + "\",\"courseId\":1,\"origin\":\"STUD\",\"answers\":[\"A\",\"B\"],\"correctAnswerLocalId\":1}\n" +
+                "{\"type\":\"single-choice\",\"text\":\"Dritte Testfrage\",\"courseId\":1,\"origin\":\"STUD\",\"answers\":[\"A\",\"B\"],\"correctAnswerLocalId\":1}\n";
+
+        mvc.perform(post("/question/import")
+                .contentType("application/x-ndjson")
+                .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(2))
+                .andExpect(jsonPath("$.errors[0].msg").value("Eine Frage ist länger als 65536 Zeichen. Diese und alle folgenden Zeilen wurden nicht importiert."));
+
+        ArgumentCaptor<List<BaseQuestion>> baseQuestions = ArgumentCaptor.forClass(List.class);
+        verify(baseQuestionRepo).insertAll(baseQuestions.capture());
+        assertThat(baseQuestions.getValue()).extracting(BaseQuestion::getText).containsExactly("Erste Testfrage");
+    }
+
+    @Test
+    @WithMockCustomUser(username = "test", email = "test@uni.de", id = 45, role = "MOD")
+    public void importQuestionsReportsOnlyTheFirstErrors() throws Exception {
+        String body = "{}\n".repeat(150);
+
+        mvc.perform(post("/question/import")
+                .contentType("application/x-ndjson")
+                .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(0))
+                .andExpect(jsonPath("$.failed").value(150))
+                .andExpect(jsonPath("$.errors.length()").value(100))
+                .andExpect(jsonPath("$.errors[99].line").value(100));
+        verify(baseQuestionRepo, never()).insertAll(any());
+    }
+
+    @Test
+    @WithMockCustomUser(username = "test", email = "test@uni.de", id = 45, role = "MOD")
+    @SuppressWarnings("unchecked")
+    public void importQuestionsSkipsQuestionsRejectedByTheDatabase() throws Exception {
+        when(questionOriginRepo.existsByName("STUD")).thenReturn(true);
+        // The course of the second question doesn't exist.
+        doAnswer(invocation -> {
+            List<BaseQuestion> questions = invocation.getArgument(0);
+            if (questions.stream().anyMatch(question -> question.getCourseId() == 99)) {
+                throw new DataIntegrityViolationException("course does not exist");
+            }
+            return null;
+        }).when(baseQuestionRepo).insertAll(any());
+
+        String body = "{\"type\":\"single-choice\",\"text\":\"Erste Testfrage\",\"courseId\":1,\"origin\":\"STUD\",\"answers\":[\"A\",\"B\"],\"correctAnswerLocalId\":2}\n" +
+                "{\"type\":\"single-choice\",\"text\":\"Zweite Testfrage\",\"courseId\":99,\"origin\":\"STUD\",\"answers\":[\"A\",\"B\"],\"correctAnswerLocalId\":1}\n";
+
+        mvc.perform(post("/question/import")
+                .contentType("application/x-ndjson")
+                .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(2))
+                .andExpect(jsonPath("$.errors[0].msg").value("Die Frage konnte nicht gespeichert werden. Bitte prüfe, ob der Kurs und die Klausur existieren."));
+
+        // The whole chunk first, then both halves on their own.
+        ArgumentCaptor<List<BaseQuestion>> baseQuestions = ArgumentCaptor.forClass(List.class);
+        verify(baseQuestionRepo, times(3)).insertAll(baseQuestions.capture());
+        assertThat(baseQuestions.getAllValues()).extracting(List::size).containsExactly(2, 1, 1);
+        verify(singleChoiceQuestionRepo, times(1)).insertAll(any(), any());
+    }
+
 }
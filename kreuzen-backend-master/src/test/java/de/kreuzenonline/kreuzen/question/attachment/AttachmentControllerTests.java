@@ -0,0 +1,149 @@
+package de.kreuzenonline.kreuzen.question.attachment;
+
+import de.kreuzenonline.kreuzen.auth.WithMockCustomUser;
+import de.kreuzenonline.kreuzen.question.BaseQuestion;
+import de.kreuzenonline.kreuzen.question.BaseQuestionRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ContextConfiguration
+@AutoConfigureMockMvc
+public class AttachmentControllerTests {
+
+    private static final byte[] CONTENT = "0123456789".getBytes(StandardCharsets.US_ASCII);
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private AttachmentStore attachmentStore;
+    @MockBean
+    private AttachmentRepo attachmentRepo;
+    @MockBean
+    private BaseQuestionRepo baseQuestionRepo;
+
+    private String sha256;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        sha256 = attachmentStore.store(new ByteArrayInputStream(CONTENT), 1000).getSha256();
+        when(baseQuestionRepo.findById(1)).thenReturn(Optional.of(new BaseQuestion(1, "Testfrage", "single-choice", null, 2, 1, 1, 45, 45, "ORIG", true)));
+        when(attachmentRepo.findByQuestionIdAndId(1, 3)).thenReturn(Optional.of(new Attachment(3, "image/png", "bild.png", sha256, (long) CONTENT.length, null)));
+    }
+
+    @Test
+    public void attachmentsNotAccessibleForNonUsers() throws Exception {
+        mvc.perform(get("/question/1/attachment/3"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.msg").value("Authentifizierung ist erforderlich."));
+        mvc.perform(post("/question/1/attachment?filename=bild.png").contentType("image/png").content(CONTENT))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @WithMockCustomUser(id = 45)
+    public void uploadStreamsContentIntoStore() throws Exception {
+        byte[] content = "neuer Inhalt".getBytes(StandardCharsets.UTF_8);
+        when(attachmentRepo.insert(eq(1), eq("image/png"), eq("bild.png"), anyString(), eq((long) content.length), eq("Abbildung 1")))
+                .thenAnswer(invocation -> new Attachment(4, "image/png", "bild.png", invocation.getArgument(3), (long) content.length, "Abbildung 1"));
+
+        mvc.perform(post("/question/1/attachment?filename=bild.png&description=Abbildung 1").contentType("image/png").content(content))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(4))
+                .andExpect(jsonPath("$.size").value(content.length))
+                .andExpect(jsonPath("$.url").value("/question/1/attachment/4"));
+
+        ArgumentCaptor<String> hash = ArgumentCaptor.forClass(String.class);
+        verify(attachmentRepo).insert(eq(1), any(), any(), hash.capture(), any(), any());
+        assertThat(Files.readAllBytes(attachmentStore.resolve(hash.getValue()))).isEqualTo(content);
+    }
+
+    @Test
+    @WithMockCustomUser(id = 46)
+    public void uploadOnlyAllowedForCreatorAndAdmins() throws Exception {
+        mvc.perform(post("/question/1/attachment?filename=bild.png").contentType("image/png").content(CONTENT))
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.msg").value("Nur Moderatoren und Administratoren sowie der ursprüngliche Fragenersteller können einer Frage Anhänge hinzufügen."));
+        verify(attachmentRepo, never()).insert(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @WithMockCustomUser(id = 46, role = "MOD")
+    public void uploadRejectsMediaTypesThatAreNotAllowed() throws Exception {
+        mvc.perform(post("/question/1/attachment?filename=skript.html").contentType("text/html").content(CONTENT))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.msg").value("Als Anhang sind nur Bilder (PNG, JPEG, GIF, WebP) und PDF-Dateien erlaubt."));
+        mvc.perform(post("/question/1/attachment?filename=leer.png").contentType("image/png").content(new byte[0]))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.msg").value("Ein Anhang darf nicht leer sein."));
+        verify(attachmentRepo, never()).insert(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @WithMockCustomUser(id = 46)
+    public void downloadWholeContent() throws Exception {
+        mvc.perform(get("/question/1/attachment/3"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"" + sha256 + "\""))
+                .andExpect(header().string("Accept-Ranges", "bytes"))
+                .andExpect(header().string("Content-Disposition", "inline; filename*=UTF-8''bild.png"))
+                .andExpect(header().longValue("Content-Length", CONTENT.length))
+                .andExpect(content().contentType("image/png"))
+                .andExpect(content().bytes(CONTENT));
+    }
+
+    @Test
+    @WithMockCustomUser(id = 46)
+    public void downloadRange() throws Exception {
+        mvc.perform(get("/question/1/attachment/3").header("Range", "bytes=2-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 2-5/10"))
+                .andExpect(content().bytes("2345".getBytes(StandardCharsets.US_ASCII)));
+        mvc.perform(get("/question/1/attachment/3").header("Range", "bytes=-3"))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().bytes("789".getBytes(StandardCharsets.US_ASCII)));
+
+        // A range of an outdated version gets the whole content.
+        mvc.perform(get("/question/1/attachment/3").header("Range", "bytes=2-5").header("If-Range", "\"alt\""))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(CONTENT));
+
+        mvc.perform(get("/question/1/attachment/3").header("Range", "bytes=10-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string("Content-Range", "bytes */10"));
+    }
+
+    @Test
+    @WithMockCustomUser(id = 46)
+    public void downloadNotModified() throws Exception {
+        mvc.perform(get("/question/1/attachment/3").header("If-None-Match", "\"" + sha256 + "\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    @WithMockCustomUser(id = 46)
+    public void downloadUnknownAttachment() throws Exception {
+        mvc.perform(get("/question/1/attachment/4"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.msg").value("Der gewünschte Anhang konnte nicht gefunden werden."));
+    }
+}
@@ -112,7 +112,7 @@ public class SessionControllerTests {
     @Test
     @WithMockCustomUser(username = "test", email = "test@uni.de", id = 45)
     public void createSessionSuccess() throws Exception {
-        String session = objectMapper.writeValueAsString(new CreateSessionRequest("TestSession", "exam", true, "Here could be an annotation.", null, null, null, null, null, null));
+        String session = objectMapper.writeValueAsString(new CreateSessionRequest("TestSession", "exam", true, "Here could be an annotation.", null, null, null, null, null, null, null, null));
         when(sessionRepo.save(Mockito.any(Session.class))).thenReturn(new Session(1, 45, "Here could be an annotation.", "exam", "TestSession", true, false));
 
         mvc.perform(post("/session")
@@ -127,15 +127,72 @@ public class SessionControllerTests {
                 .andExpect(jsonPath("$.isFinished").value(false));
     }
 
+    @Test
+    @WithMockCustomUser(username = "test", email = "test@uni.de", id = 45)
+    public void createSessionWithQuestionCountAndSeed() throws Exception {
+        String session = objectMapper.writeValueAsString(new CreateSessionRequest("TestSession", "exam", true, null, null, null, null, null, null, null, 3, 42L));
+        when(sessionRepo.save(Mockito.any(Session.class))).thenAnswer(s -> {
+            Session saved = s.getArgument(0);
+            saved.setId(1);
+            return saved;
+        });
+        when(sessionRepo.findQuestionIds(any(), any(), any(), any(), any(), any(), any(), any())).thenReturn(Arrays.asList(9, 2, 5));
+
+        mvc.perform(post("/session")
+                .accept(MediaType.APPLICATION_JSON).content(session).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().is(200))
+                .andExpect(jsonPath("$.seed").value(42));
+
+        // The sample is drawn by the database, keyed with the seed of the session
+        verify(sessionRepo).findQuestionIds(any(), any(), any(), any(), any(), any(), eq(42L), eq(3));
+        verify(sessionRepo).assignQuestions(1, new Integer[]{9, 2, 5});
+    }
+
+    @Test
+    @WithMockCustomUser(username = "test", email = "test@uni.de", id = 45)
+    public void createSessionWithoutRandomTakesLowestIds() throws Exception {
+        String session = objectMapper.writeValueAsString(new CreateSessionRequest("TestSession", "exam", false, null, null, null, null, null, null, null, 2, null));
+        when(sessionRepo.save(Mockito.any(Session.class))).thenAnswer(s -> {
+            Session saved = s.getArgument(0);
+            saved.setId(1);
+            return saved;
+        });
+        when(sessionRepo.findQuestionIds(any(), any(), any(), any(), any(), any(), any(), any())).thenReturn(Arrays.asList(1, 3));
+
+        mvc.perform(post("/session")
+                .accept(MediaType.APPLICATION_JSON).content(session).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().is(200))
+                .andExpect(jsonPath("$.seed").isEmpty());
+
+        verify(sessionRepo).findQuestionIds(any(), any(), any(), any(), any(), any(), isNull(), eq(2));
+        verify(sessionRepo).assignQuestions(1, new Integer[]{1, 3});
+    }
+
+    @Test
+    @WithMockCustomUser(username = "test", email = "test@uni.de", id = 45)
+    public void createSessionQuestionCountOutOfRange() throws Exception {
+        String tooLow = objectMapper.writeValueAsString(new CreateSessionRequest("TestSession", "exam", true, null, null, null, null, null, null, null, 0, null));
+        String tooHigh = objectMapper.writeValueAsString(new CreateSessionRequest("TestSession", "exam", true, null, null, null, null, null, null, null, 501, null));
+
+        mvc.perform(post("/session")
+                .accept(MediaType.APPLICATION_JSON).content(tooLow).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().is4xxClientError())
+                .andExpect(jsonPath("$.msg").value("Eine Session muss mindestens eine Frage enthalten."));
+        mvc.perform(post("/session")
+                .accept(MediaType.APPLICATION_JSON).content(tooHigh).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().is4xxClientError())
+                .andExpect(jsonPath("$.msg").value("Eine Session kann höchstens 500 Fragen enthalten."));
+    }
+
     @Test
     @WithMockCustomUser(username = "test", email = "test@uni.de", id = 45)
     public void createSessionConflicts() throws Exception {
-        String sessionWithoutName = objectMapper.writeValueAsString(new CreateSessionRequest(null, "exam", true, "Here could be an annotation.", null, null, null, null, null, null));
-        String sessionWithoutType = objectMapper.writeValueAsString(new CreateSessionRequest("TestSession", null, true, "Here could be an annotation.", null, null, null, null, null, null));
-        String sessionWithoutIsRandom = objectMapper.writeValueAsString(new CreateSessionRequest("TestSession", "exam", null, "Here could be an annotation.", null, null, null, null, null, null));
-        String sessionWithNameTooShort = objectMapper.writeValueAsString(new CreateSessionRequest("Te", "exam", true, "Here could be an annotation.", null, null, null, null, null, null));
-        String sessionWithNameTooLong = objectMapper.writeValueAsString(new CreateSessionRequest("TestSessionTestSessionTestSessionTestSessionTestSessionTestSession", "exam", true, "Here could be an annotation.", null, null, null, null, null, null));
-        String sessionWithNotesTooLong = objectMapper.writeValueAsString(new CreateSessionRequest("TestSession", "exam", true, "TestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSession", null, null, null, null, null, null));
+        String sessionWithoutName = objectMapper.writeValueAsString(new CreateSessionRequest(null, "exam", true, "Here could be an annotation.", null, null, null, null, null, null, null, null));
+        String sessionWithoutType = objectMapper.writeValueAsString(new CreateSessionRequest("TestSession", null, true, "Here could be an annotation.", null, null, null, null, null, null, null, null));
+        String sessionWithoutIsRandom = objectMapper.writeValueAsString(new CreateSessionRequest("TestSession", "exam", null, "Here could be an annotation.", null, null, null, null, null, null, null, null));
+        String sessionWithNameTooShort = objectMapper.writeValueAsString(new CreateSessionRequest("Te", "exam", true, "Here could be an annotation.", null, null, null, null, null, null, null, null));
+        String sessionWithNameTooLong = objectMapper.writeValueAsString(new CreateSessionRequest("TestSessionTestSessionTestSessionTestSessionTestSessionTestSession", "exam", true, "Here could be an annotation.", null, null, null, null, null, null, null, null));
+        String sessionWithNotesTooLong = objectMapper.writeValueAsString(new CreateSessionRequest("TestSession", "exam", true, "TestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSession", null, null, null, null, null, null, null, null));
 
         mvc.perform(post("/session")
                 .accept(MediaType.APPLICATION_JSON).content(sessionWithoutName).contentType(MediaType.APPLICATION_JSON))
@@ -189,7 +246,7 @@ public class SessionControllerTests {
         String requestNotCreator = objectMapper.writeValueAsString(new UpdateSessionRequest("new Name", "practice", false, "Now the questions won't appear randomly anymore."));
         String requestNameTooShort = objectMapper.writeValueAsString(new UpdateSessionRequest("na", "practice", false, "Now the questions won't appear randomly anymore."));
         String requestNameTooLong = objectMapper.writeValueAsString(new UpdateSessionRequest("namenamenamenamenamenamenamenamenamenamenamenamenamenamenamenamenamenamenamename", "practice", false, "Now the questions won't appear randomly anymore."));
-        String requestNotesTooLong = objectMapper.writeValueAsString(new CreateSessionRequest("TestSession", "exam", true, "TestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSession", null, null, null, null, null, null));
+        String requestNotesTooLong = objectMapper.writeValueAsString(new CreateSessionRequest("TestSession", "exam", true, "TestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSessionTestSession", null, null, null, null, null, null, null, null));
 
         when(sessionRepo.findById(1)).thenReturn(java.util.Optional.of(new Session(1, 45, "any notes", "exam", "name", true, false)));
         when(sessionRepo.save(Mockito.any(Session.class))).thenAnswer(s -> s.getArgument(0));
@@ -347,27 +404,7 @@ public class SessionControllerTests {
     @Test
     @WithMockCustomUser(username = "test", email = "test@uni.de", id = 45, role = "ADMIN")
     public void getResult() throws Exception {
-        when(sessionRepo.findById(1)).thenReturn(java.util.Optional.of(new Session(1, 45, "notes", "exam", "name", false, false)));
-        when(baseQuestionRepo.findById(1)).thenReturn(java.util.Optional.of(new BaseQuestion(1, "Testfrage1", "single-choice", "Hier könnte ein Link stehen.", 2, 12, 45, 45, 45, "STUD",  true)));
-        when(baseQuestionRepo.findById(2)).thenReturn(java.util.Optional.of(new BaseQuestion(2, "Testfrage2", "multiple-choice", "Hier könnte ein Link stehen.", 2, 12, 45, 45, 45, "STUD",  true)));
-        when(baseQuestionRepo.findById(3)).thenReturn(java.util.Optional.of(new BaseQuestion(3, "Testfrage3", "single-choice", "Hier könnte ein Link stehen.", 2, 12, 45, 45, 45, "IMPP",  true)));
-        when(sessionQuestionRepo.findAllBySessionId(1)).thenReturn(Arrays.asList(
-                new SessionQuestion(1, 1, 1, 1, 5, true),
-                new SessionQuestion(2, 1, 2, 2, 5, true),
-                new SessionQuestion(3, 1, 3, 3, 5, true)));
-        when(singleChoiceQuestionRepo.findByQuestionId(1)).thenReturn(new SingleChoiceQuestionEntry(1, 1, 1));
-        when(singleChoiceQuestionRepo.findByQuestionId(3)).thenReturn(new SingleChoiceQuestionEntry(3, 3, 2));
-        when(multipleChoiceQuestionRepo.findByQuestionId(2)).thenReturn(new MultipleChoiceQuestionEntry(2, 2, new Integer[]{2, 3}));
-        when(singleChoiceSelectionRepo.findSingleChoiceSelections(1, 1)).thenReturn(Arrays.asList(
-                new SingleChoiceSelection(1, 1, 1, 1, false, true),
-                new SingleChoiceSelection(2, 1, 1, 2, true, false)));
-        when(singleChoiceSelectionRepo.findSingleChoiceSelections(1, 3)).thenReturn(Arrays.asList(
-                new SingleChoiceSelection(1, 1, 3, 1, false, false),
-                new SingleChoiceSelection(2, 1, 3, 2, true, false)));
-        when(multipleChoiceSelectionRepo.findMultipleChoiceSelections(1, 2)).thenReturn(Arrays.asList(
-                new MultipleChoiceSelection(1, 1, 2, 1, false, true),
-                new MultipleChoiceSelection(2, 1, 2, 2, true, false),
-                new MultipleChoiceSelection(3, 1, 2, 3, true, false)));
+        mockSessionResults();
         mvc.perform(get("/session/1/results"))
                 .andExpect(status().is(200))
                 .andExpect(jsonPath("$[0].sessionId").value(1))
@@ -415,11 +452,126 @@ public class SessionControllerTests {
 
     }
 
+    @Test
+    @WithMockCustomUser(username = "test", email = "test@uni.de", id = 45)
+    public void getResultSummary() throws Exception {
+        mockSessionResults();
+        mvc.perform(get("/session/1/results/summary"))
+                .andExpect(status().is(200))
+                .andExpect(jsonPath("$.sessionId").value(1))
+                .andExpect(jsonPath("$.questionCount").value(3))
+                .andExpect(jsonPath("$.correctCount").value(2))
+                .andExpect(jsonPath("$.points").value(4))
+                .andExpect(jsonPath("$.maxPoints").value(6))
+                .andExpect(jsonPath("$.time").value(15));
+    }
+
+    @Test
+    @WithMockCustomUser(username = "test", email = "test@uni.de", id = 40)
+    public void getResultSummaryNotAllowed() throws Exception {
+        mockSessionResults();
+        mvc.perform(get("/session/1/results/summary"))
+                .andExpect(status().is(403))
+                .andExpect(jsonPath("$.msg").value("Nur der Ersteller der Session oder ein Administrator darf die Ergebnisse der Session einsehen."));
+    }
+
+    private void mockSessionResults() {
+        when(sessionRepo.findById(1)).thenReturn(java.util.Optional.of(new Session(1, 45, "notes", "exam", "name", false, false)));
+        when(baseQuestionRepo.findAllBySession(1)).thenReturn(Arrays.asList(
+                new BaseQuestion(1, "Testfrage1", "single-choice", "Hier könnte ein Link stehen.", 2, 12, 45, 45, 45, "STUD",  true),
+                new BaseQuestion(2, "Testfrage2", "multiple-choice", "Hier könnte ein Link stehen.", 2, 12, 45, 45, 45, "STUD",  true),
+                new BaseQuestion(3, "Testfrage3", "single-choice", "Hier könnte ein Link stehen.", 2, 12, 45, 45, 45, "IMPP",  true)));
+        when(sessionQuestionRepo.findAllBySessionId(1)).thenReturn(Arrays.asList(
+                new SessionQuestion(1, 1, 1, 1, 5, true),
+                new SessionQuestion(2, 1, 2, 2, 5, true),
+                new SessionQuestion(3, 1, 3, 3, 5, true)));
+        when(singleChoiceQuestionRepo.findAllByQuestionIds(new Integer[]{1, 3})).thenReturn(Arrays.asList(
+                new SingleChoiceQuestionEntry(1, 1, 1),
+                new SingleChoiceQuestionEntry(3, 3, 2)));
+        when(multipleChoiceQuestionRepo.findAllByQuestionIds(new Integer[]{2})).thenReturn(Arrays.asList(
+                new MultipleChoiceQuestionEntry(2, 2, new Integer[]{2, 3})));
+        when(singleChoiceSelectionRepo.findSingleChoiceSelectionsBySession(1)).thenReturn(Arrays.asList(
+                new SingleChoiceSelection(1, 1, 1, 1, false, true),
+                new SingleChoiceSelection(2, 1, 1, 2, true, false),
+                new SingleChoiceSelection(3, 1, 3, 1, false, false),
+                new SingleChoiceSelection(4, 1, 3, 2, true, false)));
+        when(multipleChoiceSelectionRepo.findMultipleChoiceSelectionsBySession(1)).thenReturn(Arrays.asList(
+                new MultipleChoiceSelection(1, 1, 2, 1, false, true),
+                new MultipleChoiceSelection(2, 1, 2, 2, true, false),
+                new MultipleChoiceSelection(3, 1, 2, 3, true, false)));
+    }
+
+    @Test
+    @WithMockCustomUser(username = "test", email = "test@uni.de", id = 45)
+    public void getSessionBundle() throws Exception {
+        when(sessionRepo.findById(1)).thenReturn(java.util.Optional.of(new Session(1, 45, "notes", "exam", "name", false, false)));
+        when(sessionQuestionRepo.findAllBySessionIdFromLocalId(1, 1, 2)).thenReturn(Arrays.asList(
+                new SessionQuestion(1, 1, 1, 1, 5, true),
+                new SessionQuestion(2, 1, 2, 2, 0, false)));
+        when(baseQuestionRepo.findAllBySessionAndLocalIdRange(1, 1, 2)).thenReturn(Arrays.asList(
+                new BaseQuestion(1, "Testfrage1", "single-choice", "Hier könnte ein Link stehen.", 2, 12, 45, 45, 45, "STUD", true),
+                new BaseQuestion(2, "Testfrage2", "multiple-choice", "Hier könnte ein Link stehen.", 2, 12, 45, 45, 45, "STUD", true)));
+        when(singleChoiceQuestionRepo.findAllByQuestionIds(new Integer[]{1})).thenReturn(Arrays.asList(
+                new SingleChoiceQuestionEntry(1, 1, 1)));
+        when(multipleChoiceQuestionRepo.findAllByQuestionIds(new Integer[]{2})).thenReturn(Arrays.asList(
+                new MultipleChoiceQuestionEntry(2, 2, new Integer[]{2, 3})));
+        when(singleChoiceSelectionRepo.findSingleChoiceSelectionsBySessionAndLocalIdRange(1, 1, 2)).thenReturn(Arrays.asList(
+                new SingleChoiceSelection(1, 1, 1, 1, false, true),
+                new SingleChoiceSelection(2, 1, 1, 2, true, false)));
+        when(multipleChoiceSelectionRepo.findMultipleChoiceSelectionsBySessionAndLocalIdRange(1, 1, 2)).thenReturn(Arrays.asList(
+                new MultipleChoiceSelection(1, 1, 2, 3, true, false)));
+
+        mvc.perform(get("/session/1/bundle?fromLocalId=1&limit=2"))
+                .andExpect(status().is(200))
+                .andExpect(jsonPath("$.session.id").value(1))
+                .andExpect(jsonPath("$.nextLocalId").value(3))
+                .andExpect(jsonPath("$.questions.length()").value(2))
+                .andExpect(jsonPath("$.questions.[0].localId").value(1))
+                .andExpect(jsonPath("$.questions.[0].time").value(5))
+                .andExpect(jsonPath("$.questions.[0].isSubmitted").value(true))
+                .andExpect(jsonPath("$.questions.[0].question.id").value(1))
+                .andExpect(jsonPath("$.questions.[0].question.correctAnswerLocalId").value(1))
+                .andExpect(jsonPath("$.questions.[0].selections.length()").value(2))
+                .andExpect(jsonPath("$.questions.[0].selections.[1].localAnswerId").value(2))
+                .andExpect(jsonPath("$.questions.[0].selections.[1].isChecked").value(true))
+                .andExpect(jsonPath("$.questions.[1].localId").value(2))
+                .andExpect(jsonPath("$.questions.[1].isSubmitted").value(false))
+                .andExpect(jsonPath("$.questions.[1].question.correctAnswerLocalIds.[1]").value(3))
+                .andExpect(jsonPath("$.questions.[1].selections.[0].localAnswerId").value(3));
+
+        verify(baseQuestionRepo, never()).findAllBySession(1);
+    }
+
+    @Test
+    @WithMockCustomUser(username = "test", email = "test@uni.de", id = 45)
+    public void getSessionBundleLastChunk() throws Exception {
+        when(sessionRepo.findById(1)).thenReturn(java.util.Optional.of(new Session(1, 45, "notes", "exam", "name", false, false)));
+        when(sessionQuestionRepo.findAllBySessionIdFromLocalId(1, 101, 100)).thenReturn(Arrays.asList());
+
+        mvc.perform(get("/session/1/bundle?fromLocalId=101"))
+                .andExpect(status().is(200))
+                .andExpect(jsonPath("$.questions.length()").value(0))
+                .andExpect(jsonPath("$.nextLocalId").doesNotExist());
+
+        mvc.perform(get("/session/1/bundle?limit=501"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.msg").value("Es können zwischen 1 und 500 Fragen auf einmal abgerufen werden."));
+    }
+
+    @Test
+    @WithMockCustomUser(username = "test", email = "test@uni.de", id = 27)
+    public void getSessionBundleFromAnotherUserNotPossible() throws Exception {
+        when(sessionRepo.findById(1)).thenReturn(java.util.Optional.of(new Session(1, 45, "notes", "exam", "name", false, false)));
+        mvc.perform(get("/session/1/bundle"))
+                .andExpect(status().is(403))
+                .andExpect(jsonPath("$.msg").value("Die Session kann nur vom Ersteller und Administratoren eingesehen werden."));
+    }
+
     @Test
     @WithMockCustomUser(username = "test", email = "test@uni.de", id = 45, role = "ADMIN")
     public void getSessionByUser() throws Exception {
         when(sessionRepo.getCountByUser(45)).thenReturn(3);
-        when(sessionRepo.findAllPagination(45, 20, 0)).thenReturn(Arrays.asList(
+        when(sessionRepo.findAllPagination(45, null, null, 20, 0)).thenReturn(Arrays.asList(
                 new Session(1, 45, "notes", "exam", "name", false, false),
                 new Session(2, 45, "notes2", "exam2", "name2", false, false),
                 new Session(3, 45, "notes3", "exam3", "name3", false, false)));
@@ -455,7 +607,7 @@ public class SessionControllerTests {
     @WithMockCustomUser(username = "test", email = "test@uni.de", id = 40)
     public void getSessionByUserNotAllowed() throws Exception {
         when(sessionRepo.getCountByUser(45)).thenReturn(3);
-        when(sessionRepo.findAllPagination(45, 20, 0)).thenReturn(Arrays.asList(
+        when(sessionRepo.findAllPagination(45, null, null, 20, 0)).thenReturn(Arrays.asList(
                 new Session(1, 45, "notes", "exam", "name", false, false),
                 new Session(2, 45, "notes2", "exam2", "name2", false, false),
                 new Session(3, 45, "notes3", "exam3", "name3", false, false)));
@@ -469,11 +621,7 @@ public class SessionControllerTests {
     public void addSelectionSingle() throws Exception {
         String singleSelection = objectMapper.writeValueAsString(new SetSelectionRequest("single-choice", null, new Integer[]{2, 3}, 1));
         when(sessionRepo.findById(1)).thenReturn(java.util.Optional.of(new Session(1, 45, "notes", "exam", "name", false, false)));
-        doNothing().when(sessionRepo).addSingleChoiceSelection(1, 1, 1, true, false);
-        doNothing().when(sessionRepo).addSingleChoiceSelection(1, 1, 2, false, true);
-        doNothing().when(sessionRepo).addSingleChoiceSelection(1, 1, 3, false, true);
-        when(sessionRepo.getSingleChoiceAnswerCount(1, 1)).thenReturn(3);
-        when(singleChoiceSelectionRepo.findSingleChoiceSelections(1, 1)).thenReturn(Arrays.asList(
+        when(singleChoiceSelectionRepo.upsertSingleChoiceSelections(1, 1, new Integer[]{1}, new Integer[]{2, 3})).thenReturn(Arrays.asList(
                 new SingleChoiceSelection(1, 1, 1, 1, true, false),
                 new SingleChoiceSelection(2, 1, 1, 2, false, true),
                 new SingleChoiceSelection(3, 1, 1, 3, false, true)));
@@ -488,9 +636,8 @@ public class SessionControllerTests {
                 .andExpect(jsonPath("$.[2].localAnswerId").value(3))
                 .andExpect(jsonPath("$.[2].isChecked").value(false))
                 .andExpect(jsonPath("$.[2].isCrossed").value(true));
-        verify(sessionRepo, times(1)).addSingleChoiceSelection(1, 1, 1, true, false);
-        verify(sessionRepo, times(1)).addSingleChoiceSelection(1, 1, 2, false, true);
-        verify(sessionRepo, times(1)).addSingleChoiceSelection(1, 1, 3, false, true);
+        verify(singleChoiceSelectionRepo, times(1)).upsertSingleChoiceSelections(1, 1, new Integer[]{1}, new Integer[]{2, 3});
+        verify(singleChoiceSelectionRepo, times(0)).findSingleChoiceSelections(1, 1);
     }
 
     @Test
@@ -498,12 +645,7 @@ public class SessionControllerTests {
     public void addSelectionMultiple() throws Exception {
         String multipleSelection = objectMapper.writeValueAsString(new SetSelectionRequest("multiple-choice", new Integer[]{1, 2}, new Integer[]{3, 4}, 2));
         when(sessionRepo.findById(1)).thenReturn(java.util.Optional.of(new Session(1, 45, "notes", "exam", "name", false, false)));
-        doNothing().when(sessionRepo).addMultipleChoiceSelection(1, 1, 1, true, false);
-        doNothing().when(sessionRepo).addMultipleChoiceSelection(1, 1, 2, true, false);
-        doNothing().when(sessionRepo).addSingleChoiceSelection(1, 1, 3, false, true);
-        doNothing().when(sessionRepo).addSingleChoiceSelection(1, 1, 4, false, true);
-        when(sessionRepo.getMultipleChoiceAnswerCount(1, 1)).thenReturn(4);
-        when(multipleChoiceSelectionRepo.findMultipleChoiceSelections(1, 1)).thenReturn(Arrays.asList(
+        when(multipleChoiceSelectionRepo.upsertMultipleChoiceSelections(1, 1, new Integer[]{1, 2}, new Integer[]{3, 4})).thenReturn(Arrays.asList(
                 new MultipleChoiceSelection(1, 1, 1, 1, true, false),
                 new MultipleChoiceSelection(2, 1, 1, 2, true, false),
                 new MultipleChoiceSelection(3, 1, 1, 3, false, true),
@@ -522,14 +664,8 @@ public class SessionControllerTests {
                 .andExpect(jsonPath("$.[3].localAnswerId").value(4))
                 .andExpect(jsonPath("$.[3].isChecked").value(false))
                 .andExpect(jsonPath("$.[3].isCrossed").value(true));
-        verify(sessionRepo, times(1)).addMultipleChoiceSelection(1, 1, 1, true, false);
-        verify(sessionRepo, times(1)).addMultipleChoiceSelection(1, 1, 2, true, false);
-        verify(sessionRepo, times(1)).addMultipleChoiceSelection(1, 1, 3, false, true);
-        verify(sessionRepo, times(1)).addMultipleChoiceSelection(1, 1, 4, false, true);
-
-
-
-
+        verify(multipleChoiceSelectionRepo, times(1)).upsertMultipleChoiceSelections(1, 1, new Integer[]{1, 2}, new Integer[]{3, 4});
+        verify(multipleChoiceSelectionRepo, times(0)).findMultipleChoiceSelections(1, 1);
     }
 
     @Test
@@ -537,21 +673,10 @@ public class SessionControllerTests {
     public void addSelectionCheckedAndCrossedSingle() throws Exception {
         String singleSelection = objectMapper.writeValueAsString(new SetSelectionRequest("single-choice", null, new Integer[]{2, 3}, 2));
         when(sessionRepo.findById(1)).thenReturn(java.util.Optional.of(new Session(1, 45, "notes", "exam", "name", false, false)));
-        doNothing().when(sessionRepo).addSingleChoiceSelection(1, 1, 1, true, false);
-        doNothing().when(sessionRepo).addSingleChoiceSelection(1, 1, 2, false, true);
-        doNothing().when(sessionRepo).addSingleChoiceSelection(1, 1, 3, false, true);
-        when(sessionRepo.getSingleChoiceAnswerCount(1, 1)).thenReturn(3);
-        when(singleChoiceSelectionRepo.findSingleChoiceSelections(1, 1)).thenReturn(Arrays.asList(
-                new SingleChoiceSelection(1, 1, 1, 1, true, false),
-                new SingleChoiceSelection(2, 1, 1, 2, false, true),
-                new SingleChoiceSelection(3, 1, 1, 3, false, true)));
         mvc.perform(put("/session/1/question/1/selection").accept(MediaType.APPLICATION_JSON).content(singleSelection).contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().is(403))
                 .andExpect(jsonPath("$.msg").value("Eine Antwort kann nicht gleichzeitig gechecked und angekreuzt sein."));
-        verify(sessionRepo, times(0)).addSingleChoiceSelection(1, 1, 1, true, false);
-        verify(sessionRepo, times(0)).addSingleChoiceSelection(1, 1, 2, false, true);
-        verify(sessionRepo, times(0)).addSingleChoiceSelection(1, 1, 3, false, true);
-
+        verify(singleChoiceSelectionRepo, times(0)).upsertSingleChoiceSelections(any(), any(), any(), any());
     }
 
 
@@ -560,40 +685,18 @@ public class SessionControllerTests {
     public void addSelectionCheckedAndCrossedMultiple() throws Exception {
         String multipleSelection = objectMapper.writeValueAsString(new SetSelectionRequest("multiple-choice", new Integer[]{1, 2}, new Integer[]{2, 3, 4}, null));
         when(sessionRepo.findById(1)).thenReturn(java.util.Optional.of(new Session(1, 45, "notes", "exam", "name", false, false)));
-        doNothing().when(sessionRepo).addMultipleChoiceSelection(1, 1, 1, true, false);
-        doNothing().when(sessionRepo).addMultipleChoiceSelection(1, 1, 2, true, false);
-        doNothing().when(sessionRepo).addSingleChoiceSelection(1, 1, 3, false, true);
-        doNothing().when(sessionRepo).addSingleChoiceSelection(1, 1, 4, false, true);
-        when(sessionRepo.getMultipleChoiceAnswerCount(1, 1)).thenReturn(4);
-        when(multipleChoiceSelectionRepo.findMultipleChoiceSelections(1, 1)).thenReturn(Arrays.asList(
-                new MultipleChoiceSelection(1, 1, 1, 1, true, false),
-                new MultipleChoiceSelection(2, 1, 1, 2, true, false),
-                new MultipleChoiceSelection(3, 1, 1, 3, false, true),
-                new MultipleChoiceSelection(4, 1, 1, 4, false, true)));
         mvc.perform(put("/session/1/question/1/selection").accept(MediaType.APPLICATION_JSON).content(multipleSelection).contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().is(403))
                 .andExpect(jsonPath("$.msg").value("Eine Antwort kann nicht gleichzeitig gechecked und angekreuzt sein."));
-        //JK: Gewollt oder nicht gewollt? Das ist hier die Frage.
-        /*verify(sessionRepo, times(0)).addMultipleChoiceSelection(1, 1, 1, true, false);*/
-        verify(sessionRepo, times(0)).addMultipleChoiceSelection(1, 1, 2, true, false);
-        verify(sessionRepo, times(0)).addMultipleChoiceSelection(1, 1, 3, false, true);
-        verify(sessionRepo, times(0)).addMultipleChoiceSelection(1, 1, 4, false, true);
-
-
+        verify(multipleChoiceSelectionRepo, times(0)).upsertMultipleChoiceSelections(any(), any(), any(), any());
     }
 
+
     @Test
     @WithMockCustomUser(username = "test", email = "test@uni.de", id = 40)
     public void addSelectionSingleNotAllowed() throws Exception {
         String singleSelection = objectMapper.writeValueAsString(new SetSelectionRequest("SingleChoiceSelection", new Integer[]{1}, new Integer[]{2, 3}, 2));
         when(sessionRepo.findById(1)).thenReturn(java.util.Optional.of(new Session(1, 45, "notes", "exam", "name", false, false)));
-        doNothing().when(sessionRepo).addSingleChoiceSelection(1, 1, 1, true, false);
-        doNothing().when(sessionRepo).addSingleChoiceSelection(1, 1, 2, false, true);
-        doNothing().when(sessionRepo).addSingleChoiceSelection(1, 1, 3, false, true);
-        when(singleChoiceSelectionRepo.findSingleChoiceSelections(1, 1)).thenReturn(Arrays.asList(
-                new SingleChoiceSelection(1, 1, 1, 1, true, false),
-                new SingleChoiceSelection(2, 1, 1, 2, false, true),
-                new SingleChoiceSelection(3, 1, 1, 3, false, true)));
         mvc.perform(put("/session/1/question/1/selection").accept(MediaType.APPLICATION_JSON).content(singleSelection).contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().is(403))
                 .andExpect(jsonPath("$.msg").value("Nur der Ersteller der Session oder ein Administrator darf eine Antwort hinzufügen."));
@@ -604,7 +707,6 @@ public class SessionControllerTests {
     public void addTime() throws Exception {
         String timeRequest = objectMapper.writeValueAsString(new SetTimeRequest(4));
         when(sessionRepo.findById(1)).thenReturn(java.util.Optional.of(new Session(1, 45, "notes", "exam", "name", false, false)));
-        doNothing().when(sessionRepo).addTime(1, 1, 4);
         when(sessionQuestionRepo.findBySessionIdAndLocalId(1, 1)).thenReturn(new SessionQuestion(1, 1, 1, 1, 4, true));
 
         mvc.perform(put("/session/1/question/1/time")
@@ -624,7 +726,6 @@ public class SessionControllerTests {
     public void addTimeNotAllowed() throws Exception {
         String timeRequest = objectMapper.writeValueAsString(new SetTimeRequest(4));
         when(sessionRepo.findById(1)).thenReturn(java.util.Optional.of(new Session(1, 45, "notes", "exam", "name", false, false)));
-        doNothing().when(sessionRepo).addTime(1, 1, 4);
         when(sessionQuestionRepo.findBySessionIdAndLocalId(1, 1)).thenReturn(new SessionQuestion(1, 1, 1, 1, 4, true));
 
         mvc.perform(put("/session/1/question/1/time")
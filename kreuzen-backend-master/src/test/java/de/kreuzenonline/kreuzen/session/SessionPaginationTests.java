@@ -0,0 +1,72 @@
+package de.kreuzenonline.kreuzen.session;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pages through the sessions of a user against the database. The rows are rolled back after each test.
+ */
+@SpringBootTest
+@Transactional
+public class SessionPaginationTests {
+
+    private static final int LIMIT = 3;
+
+    @Autowired
+    private SessionService sessionService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Integer userId;
+    private final List<Integer> expectedIds = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        userId = jdbcTemplate.queryForObject("INSERT INTO app_user (username, email, first_name, last_name, password_hash, email_confirmed, role, university_id) " +
+                "VALUES ('pagination', 'pagination@gmail.com', 'Page', 'Nation', '{noop}x', TRUE, 'USER', 1) RETURNING id", Integer.class);
+
+        // Some sessions share their creation time, so the id decides their order.
+        Instant createdAt = Instant.parse("2021-01-01T12:00:00Z");
+        for (int i = 0; i < 10; i++) {
+            Timestamp timestamp = Timestamp.from(createdAt.minusSeconds(i / 2));
+            jdbcTemplate.queryForObject("INSERT INTO session (creator_id, name, created_at) VALUES (?, ?, ?) RETURNING id",
+                    Integer.class, userId, "Session " + i, timestamp);
+        }
+        expectedIds.addAll(jdbcTemplate.queryForList("SELECT id FROM session WHERE creator_id = ? ORDER BY created_at DESC, id DESC", Integer.class, userId));
+    }
+
+    @Test
+    public void cursorPagesContainEverySession() {
+        assertThat(readAllPages(false)).containsExactlyElementsOf(expectedIds);
+    }
+
+    @Test
+    public void skipIsIgnoredWithCursor() {
+        // Clients sending their page offset along with the cursor must not lose sessions.
+        assertThat(readAllPages(true)).containsExactlyElementsOf(expectedIds);
+    }
+
+    private List<Integer> readAllPages(boolean sendSkip) {
+        List<Integer> ids = new ArrayList<>();
+        String cursor = null;
+        int skip = 0;
+        do {
+            List<Session> page = sessionService.getByPagination(userId, LIMIT, sendSkip ? skip : 0, cursor);
+            page.forEach(session -> ids.add(session.getId()));
+            cursor = sessionService.getNextCursor(page, LIMIT);
+            skip += LIMIT;
+        } while (cursor != null);
+        return ids;
+    }
+}
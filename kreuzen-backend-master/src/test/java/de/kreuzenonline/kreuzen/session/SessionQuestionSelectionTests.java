@@ -0,0 +1,66 @@
+package de.kreuzenonline.kreuzen.session;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Selects the questions of new sessions against the database. The rows are rolled back after each test.
+ */
+@SpringBootTest
+@Transactional
+public class SessionQuestionSelectionTests {
+
+    @Autowired
+    private SessionRepo sessionRepo;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private List<Integer> allIds;
+
+    @BeforeEach
+    public void setUp() {
+        for (int i = 0; i < 30; i++) {
+            jdbcTemplate.update("INSERT INTO question_base (text, type, course_id, creator_id, origin, is_approved) " +
+                    "VALUES (?, 'single-choice', 1, 1, 'ORIG', TRUE)", "Frage " + i);
+        }
+        allIds = jdbcTemplate.queryForList("SELECT id FROM question_base ORDER BY id", Integer.class);
+    }
+
+    @Test
+    public void withoutSeedLowestIdsAreSelected() {
+        assertThat(select(null, 5)).containsExactlyElementsOf(allIds.subList(0, 5));
+        assertThat(select(null, null)).containsExactlyElementsOf(allIds);
+    }
+
+    @Test
+    public void sameSeedSelectsSameSample() {
+        List<Integer> sample = select(42L, 10);
+
+        assertThat(sample).hasSize(10).doesNotHaveDuplicates();
+        assertThat(allIds).containsAll(sample);
+        assertThat(select(42L, 10)).containsExactlyElementsOf(sample);
+        // A larger sample of the same seed starts with the smaller one
+        assertThat(select(42L, 20)).startsWith(sample.toArray(Integer[]::new));
+    }
+
+    @Test
+    public void seedShufflesQuestions() {
+        List<Integer> shuffled = select(42L, null);
+
+        assertThat(shuffled).containsExactlyInAnyOrderElementsOf(allIds);
+        assertThat(shuffled).isNotEqualTo(allIds);
+        assertThat(select(43L, null)).isNotEqualTo(shuffled);
+    }
+
+    private List<Integer> select(Long seed, Integer questionCount) {
+        return sessionRepo.findQuestionIds(new Integer[0], new Integer[0], new Integer[0], new String[0], new String[0], null, seed, questionCount);
+    }
+}
@@ -0,0 +1,169 @@
+package de.kreuzenonline.kreuzen.session;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class SessionTimeBufferTests {
+
+    private SessionRepo sessionRepo;
+    private SessionTimeBuffer buffer;
+
+    @BeforeEach
+    public void setUp() {
+        sessionRepo = mock(SessionRepo.class);
+        buffer = new SessionTimeBuffer(sessionRepo, 4);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<SessionQuestion> captureWrite() {
+        ArgumentCaptor<Collection<SessionQuestion>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(sessionRepo).updateTimes(captor.capture());
+        List<SessionQuestion> written = new ArrayList<>(captor.getValue());
+        written.sort(Comparator.comparing(SessionQuestion::getSessionId).thenComparing(SessionQuestion::getLocalId));
+        return written;
+    }
+
+    @Test
+    public void coalescesTicksOfAQuestion() {
+        assertThat(buffer.setTime(1, 1, 4)).isNull();
+
+        SessionQuestion buffered = buffer.setTime(new SessionQuestion(10, 1, 7, 1, 0, false), 4);
+        assertThat(buffered.getTime()).isEqualTo(4);
+        assertThat(buffer.setTime(1, 1, 5).getTime()).isEqualTo(5);
+        SessionQuestion last = buffer.setTime(1, 1, 6);
+        assertThat(last.getQuestionId()).isEqualTo(7);
+        assertThat(last.getTime()).isEqualTo(6);
+        verifyNoInteractions(sessionRepo);
+
+        buffer.flush();
+
+        List<SessionQuestion> written = captureWrite();
+        assertThat(written).hasSize(1);
+        assertThat(written.get(0).getTime()).isEqualTo(6);
+
+        // Flushed questions have to be read again.
+        assertThat(buffer.setTime(1, 1, 7)).isNull();
+    }
+
+    @Test
+    public void flushWritesAllSessionsInOneBatch() {
+        buffer.setTime(new SessionQuestion(10, 1, 7, 1, 0, false), 4);
+        buffer.setTime(new SessionQuestion(11, 1, 8, 2, 0, false), 2);
+        buffer.setTime(new SessionQuestion(12, 6, 7, 1, 0, false), 9);
+
+        buffer.shutdown();
+
+        List<SessionQuestion> written = captureWrite();
+        assertThat(written).extracting(SessionQuestion::getId).containsExactly(10, 11, 12);
+        assertThat(written).extracting(SessionQuestion::getTime).containsExactly(4, 2, 9);
+    }
+
+    @Test
+    public void flushSessionOnlyWritesThatSession() {
+        buffer.setTime(new SessionQuestion(10, 1, 7, 1, 0, false), 4);
+        buffer.setTime(new SessionQuestion(12, 5, 7, 1, 0, false), 9);
+
+        buffer.flush(1);
+
+        List<SessionQuestion> written = captureWrite();
+        assertThat(written).extracting(SessionQuestion::getId).containsExactly(10);
+        assertThat(buffer.setTime(1, 1, 5)).isNull();
+        assertThat(buffer.setTime(5, 1, 10).getTime()).isEqualTo(10);
+
+        reset(sessionRepo);
+        buffer.flush(1);
+        verifyNoInteractions(sessionRepo);
+    }
+
+    @Test
+    public void failedFlushKeepsNewerTimes() {
+        buffer.setTime(new SessionQuestion(10, 1, 7, 1, 0, false), 4);
+        buffer.setTime(new SessionQuestion(11, 1, 8, 2, 0, false), 2);
+        doThrow(new QueryTimeoutException("timeout")).when(sessionRepo).updateTimes(any());
+
+        assertThatThrownBy(() -> buffer.flush(1)).isInstanceOf(QueryTimeoutException.class);
+        assertThat(buffer.setTime(1, 2, 3).getTime()).isEqualTo(3);
+
+        reset(sessionRepo);
+        buffer.flush();
+
+        List<SessionQuestion> written = captureWrite();
+        assertThat(written).extracting(SessionQuestion::getTime).containsExactly(4, 3);
+    }
+
+    @Test
+    public void flushSessionWaitsForRunningFlush() throws Exception {
+        buffer.setTime(new SessionQuestion(10, 1, 7, 1, 0, false), 4);
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch written = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            writing.countDown();
+            written.await();
+            return null;
+        }).when(sessionRepo).updateTimes(any());
+
+        Thread scheduled = new Thread(buffer::flush);
+        scheduled.start();
+        writing.await();
+        CompletableFuture<Void> flushSession = CompletableFuture.runAsync(() -> buffer.flush(1));
+
+        // The time of the session is still on its way to the database.
+        Thread.sleep(200);
+        assertThat(flushSession).isNotDone();
+
+        written.countDown();
+        flushSession.get(5, TimeUnit.SECONDS);
+        scheduled.join();
+        verify(sessionRepo, times(1)).updateTimes(any());
+    }
+
+    @Test
+    public void resetAndSubmitWaitForRunningFlush() throws Exception {
+        SessionQuestionRepo sessionQuestionRepo = mock(SessionQuestionRepo.class);
+        SessionService sessionService = new SessionServiceImpl(sessionRepo, null, null, null, sessionQuestionRepo,
+                null, null, null, null, buffer, null);
+        when(sessionRepo.findById(1)).thenReturn(Optional.of(mock(Session.class)));
+        buffer.setTime(new SessionQuestion(10, 1, 7, 1, 0, false), 4);
+        buffer.setTime(new SessionQuestion(11, 1, 8, 2, 0, false), 2);
+
+        CountDownLatch writing = new CountDownLatch(1);
+        AtomicBoolean written = new AtomicBoolean();
+        doAnswer(invocation -> {
+            writing.countDown();
+            Thread.sleep(300);
+            written.set(true);
+            return null;
+        }).when(sessionRepo).updateTimes(any());
+        List<Boolean> writtenBeforeChange = new ArrayList<>();
+        doAnswer(invocation -> writtenBeforeChange.add(written.get())).when(sessionRepo).resetSessionQuestions(1);
+        doAnswer(invocation -> writtenBeforeChange.add(written.get())).when(sessionRepo).submitQuestion(1, 2);
+        Thread scheduled = new Thread(buffer::flush);
+        scheduled.start();
+        writing.await();
+
+        sessionService.resetSelection(1);
+        sessionService.submitQuestion(1, 2);
+        scheduled.join();
+
+        // The buffered times don't overwrite the reset.
+        assertThat(writtenBeforeChange).containsExactly(true, true);
+        verify(sessionRepo, times(1)).updateTimes(any());
+    }
+}
@@ -0,0 +1,79 @@
+package de.kreuzenonline.kreuzen.streaming;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class JsonArrayStreamConverterTests {
+
+    private final JsonArrayStreamConverter converter = new JsonArrayStreamConverter(new ObjectMapper());
+
+    @Test
+    public void writesProducedElementsAsArray() throws Exception {
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+        JsonArrayStream<Map<String, Object>> stream = JsonArrayStream.of(action -> {
+            action.accept(Map.of("id", 1));
+            action.accept(Map.of("id", 2));
+        });
+
+        converter.write(stream, MediaType.APPLICATION_JSON, message);
+
+        assertThat(message.getBodyAsString()).isEqualTo("[{\"id\":1},{\"id\":2}]");
+        assertThat(message.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+    }
+
+    @Test
+    public void writesEmptyArray() throws Exception {
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+
+        converter.write(JsonArrayStream.of(action -> {
+        }), MediaType.APPLICATION_JSON, message);
+
+        assertThat(message.getBodyAsString()).isEqualTo("[]");
+    }
+
+    @Test
+    public void writesElementsWhileTheyAreProduced() throws Exception {
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+        JsonArrayStream<List<String>> stream = JsonArrayStream.of(action -> {
+            for (int i = 0; i < 10000; i++) {
+                action.accept(List.of("Frage " + i));
+            }
+            // Only a bounded buffer is held back, everything before has already been written.
+            assertThat(message.getBodyAsBytes().length).isGreaterThan(100000);
+            action.accept(List.of("letzte Frage"));
+        });
+
+        converter.write(stream, MediaType.APPLICATION_JSON, message);
+
+        assertThat(message.getBodyAsString()).startsWith("[[\"Frage 0\"],").endsWith(",[\"letzte Frage\"]]");
+    }
+
+    @Test
+    public void failureLeavesArrayOpen() {
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+        IllegalStateException failure = new IllegalStateException("Verbindung unterbrochen");
+        JsonArrayStream<List<String>> stream = JsonArrayStream.of(action -> {
+            for (int i = 0; i < 10000; i++) {
+                action.accept(List.of("Frage " + i));
+            }
+            throw failure;
+        });
+
+        assertThatThrownBy(() -> converter.write(stream, MediaType.APPLICATION_JSON, message)).isSameAs(failure);
+        assertThat(message.getBodyAsString()).startsWith("[[\"Frage 0\"],").doesNotEndWith("]");
+    }
+
+    @Test
+    public void canNotRead() {
+        assertThat(converter.canRead(JsonArrayStream.class, MediaType.APPLICATION_JSON)).isFalse();
+        assertThat(converter.canWrite(JsonArrayStream.class, MediaType.APPLICATION_JSON)).isTrue();
+    }
+}
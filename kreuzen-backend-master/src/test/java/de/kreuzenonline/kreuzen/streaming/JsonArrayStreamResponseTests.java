@@ -0,0 +1,84 @@
+package de.kreuzenonline.kreuzen.streaming;
+
+import de.kreuzenonline.kreuzen.question.BaseQuestion;
+import de.kreuzenonline.kreuzen.question.BaseQuestionServiceImpl;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Streamed responses that fail while they are written, sent through the server as only Tomcat closes the connection.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class JsonArrayStreamResponseTests {
+
+    @LocalServerPort
+    private int port;
+    @Value("${jwt.key}")
+    private String jwtKey;
+    @MockBean
+    private BaseQuestionServiceImpl baseQuestionService;
+
+    @Test
+    public void failureAfterResponseWasSentClosesConnection() {
+        // Far more than the response buffer, so the first questions have been sent when the read fails.
+        failAfter(5000);
+
+        assertThatThrownBy(() -> HttpClient.newHttpClient().send(getQuestionsOfCourse(), HttpResponse.BodyHandlers.ofString()))
+                .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    public void failureBeforeResponseWasSentIsAnError() throws Exception {
+        failAfter(3);
+
+        HttpResponse<String> response = HttpClient.newHttpClient().send(getQuestionsOfCourse(), HttpResponse.BodyHandlers.ofString());
+
+        assertThat(response.statusCode()).isEqualTo(500);
+        assertThat(response.body()).doesNotStartWith("[");
+    }
+
+    private void failAfter(int questionCount) {
+        doAnswer(invocation -> {
+            Consumer<BaseQuestion> action = invocation.getArgument(2);
+            for (int i = 1; i <= questionCount; i++) {
+                BaseQuestion question = new BaseQuestion();
+                question.setId(i);
+                question.setText("Frage " + i);
+                action.accept(question);
+            }
+            throw new DataAccessResourceFailureException("Verbindung unterbrochen");
+        }).when(baseQuestionService).forEachByCourse(eq(1), any(), any());
+    }
+
+    private HttpRequest getQuestionsOfCourse() {
+        String token = Jwts.builder()
+                .setSubject("1")
+                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60))
+                .signWith(Keys.hmacShaKeyFor(jwtKey.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/course/1/question"))
+                .header("Authorization", "Bearer " + token)
+                .build();
+    }
+}
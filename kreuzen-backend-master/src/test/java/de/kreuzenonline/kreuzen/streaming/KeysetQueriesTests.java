@@ -0,0 +1,60 @@
+package de.kreuzenonline.kreuzen.streaming;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+public class KeysetQueriesTests {
+
+    private static final String SQL = "SELECT n FROM generate_series(1, :count) AS n WHERE n > :after ORDER BY n LIMIT :limit";
+
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Test
+    public void rowsOfAllPagesArePassedOnInOrder() {
+        KeysetQueries keysetQueries = new KeysetQueries(jdbcTemplate, 2);
+        List<Integer> rows = new ArrayList<>();
+
+        keysetQueries.forEach(SQL, Map.of("count", 5), (rs, i) -> rs.getInt("n"), n -> n, rows::add);
+
+        assertThat(rows).containsExactly(1, 2, 3, 4, 5);
+    }
+
+    @Test
+    public void fullLastPageIsFollowedByEmptyPage() {
+        KeysetQueries keysetQueries = new KeysetQueries(jdbcTemplate, 2);
+        List<Integer> rows = new ArrayList<>();
+
+        keysetQueries.forEach(SQL, Map.of("count", 4), (rs, i) -> rs.getInt("n"), n -> n, rows::add);
+
+        assertThat(rows).containsExactly(1, 2, 3, 4);
+    }
+
+    @Test
+    public void noConnectionIsHeldWhileRowsArePassedOn() throws SQLException {
+        KeysetQueries keysetQueries = new KeysetQueries(jdbcTemplate, 2);
+        HikariPoolMXBean pool = dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+        List<Integer> activeConnections = new ArrayList<>();
+
+        // Like a client that reads the response slowly
+        keysetQueries.forEach(SQL, Map.of("count", 5), (rs, i) -> rs.getInt("n"), n -> n,
+                n -> activeConnections.add(pool.getActiveConnections()));
+
+        assertThat(activeConnections).hasSize(5).containsOnly(0);
+    }
+}
@@ -0,0 +1,109 @@
+package de.kreuzenonline.kreuzen.telemetry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class TelemetryBufferTests {
+
+    private UsageTimeRepo usageTimeRepo;
+    private PageViewRepo pageViewRepo;
+    private TelemetryBuffer buffer;
+
+    @BeforeEach
+    public void setUp() {
+        usageTimeRepo = mock(UsageTimeRepo.class);
+        pageViewRepo = mock(PageViewRepo.class);
+        buffer = new TelemetryBuffer(usageTimeRepo, pageViewRepo);
+    }
+
+    @Test
+    public void countsEachActiveMinuteOnce() {
+        Instant minute = Instant.now().truncatedTo(ChronoUnit.MINUTES);
+        buffer.recordActivity(1, minute);
+        buffer.recordActivity(1, minute.plusSeconds(10));
+        buffer.recordActivity(1, minute.plusSeconds(59));
+        buffer.recordActivity(2, minute.plusSeconds(30));
+        buffer.recordActivity(1, minute.plusSeconds(60));
+
+        buffer.flush();
+
+        ArgumentCaptor<String[]> dates = ArgumentCaptor.forClass(String[].class);
+        ArgumentCaptor<Integer[]> userIds = ArgumentCaptor.forClass(Integer[].class);
+        ArgumentCaptor<Integer[]> minuteCounts = ArgumentCaptor.forClass(Integer[].class);
+        verify(usageTimeRepo).addMinutes(dates.capture(), userIds.capture(), minuteCounts.capture());
+        verifyNoInteractions(pageViewRepo);
+
+        int total = 0;
+        for (int i = 0; i < userIds.getValue().length; i++) {
+            total += minuteCounts.getValue()[i];
+            if (userIds.getValue()[i] == 2) {
+                assertThat(minuteCounts.getValue()[i]).isEqualTo(1);
+            }
+        }
+        assertThat(total).isEqualTo(3);
+    }
+
+    @Test
+    public void flushAddsCountsOnlyOnce() {
+        Instant now = Instant.now();
+        buffer.recordPageView("/session/{id}", now);
+        buffer.recordPageView("/session/{id}", now);
+        buffer.recordPageView("/hint/random", now);
+
+        buffer.flush();
+
+        ArgumentCaptor<String[]> dates = ArgumentCaptor.forClass(String[].class);
+        ArgumentCaptor<String[]> urls = ArgumentCaptor.forClass(String[].class);
+        ArgumentCaptor<Integer[]> views = ArgumentCaptor.forClass(Integer[].class);
+        verify(pageViewRepo).addViews(dates.capture(), urls.capture(), views.capture());
+        assertThat(dates.getValue()).containsOnly(LocalDate.now(ZoneOffset.UTC).toString());
+        for (int i = 0; i < urls.getValue().length; i++) {
+            assertThat(views.getValue()[i]).isEqualTo(urls.getValue()[i].equals("/session/{id}") ? 2 : 1);
+        }
+
+        reset(pageViewRepo);
+        buffer.flush();
+        verifyNoInteractions(pageViewRepo);
+    }
+
+    @Test
+    public void failedFlushKeepsCounts() {
+        Instant now = Instant.now();
+        buffer.recordPageView("/session/{id}", now);
+        doThrow(new QueryTimeoutException("timeout")).when(pageViewRepo).addViews(any(), any(), any());
+
+        assertThatThrownBy(() -> buffer.flush()).isInstanceOf(QueryTimeoutException.class);
+
+        reset(pageViewRepo);
+        buffer.recordPageView("/session/{id}", now);
+        buffer.shutdown();
+
+        ArgumentCaptor<Integer[]> views = ArgumentCaptor.forClass(Integer[].class);
+        verify(pageViewRepo).addViews(any(), any(), views.capture());
+        assertThat(views.getValue()).containsExactly(2);
+    }
+
+    @Test
+    public void countsOfPastDaysAreFlushed() {
+        Instant yesterday = Instant.now().minusSeconds(24 * 60 * 60);
+        buffer.recordPageView("/session/{id}", yesterday);
+
+        buffer.flush();
+
+        ArgumentCaptor<String[]> dates = ArgumentCaptor.forClass(String[].class);
+        verify(pageViewRepo).addViews(dates.capture(), any(), any());
+        assertThat(dates.getValue()).containsExactly(yesterday.atOffset(ZoneOffset.UTC).toLocalDate().toString());
+    }
+}
@@ -0,0 +1,131 @@
+package de.kreuzenonline.kreuzen.telemetry;
+
+import de.kreuzenonline.kreuzen.auth.WithMockCustomUser;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ContextConfiguration
+@AutoConfigureMockMvc
+public class TelemetryControllerTests {
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private TelemetryBuffer telemetryBuffer;
+    @MockBean
+    private UsageTimeRepo usageTimeRepo;
+    @MockBean
+    private PageViewRepo pageViewRepo;
+
+    @Test
+    public void telemetryNotAccessibleForNonUsers() throws Exception {
+        mvc.perform(get("/telemetry/usage"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.msg").value("Authentifizierung ist erforderlich."));
+        mvc.perform(get("/telemetry/page-views"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.msg").value("Authentifizierung ist erforderlich."));
+    }
+
+    @Test
+    @WithMockCustomUser(id = 45)
+    public void telemetryNotAccessibleForUsers() throws Exception {
+        mvc.perform(get("/telemetry/usage"))
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.msg").value("Nur Administratoren dürfen die Nutzungsstatistik einsehen."));
+        mvc.perform(get("/telemetry/usage/user/45"))
+                .andExpect(status().isForbidden());
+        mvc.perform(get("/telemetry/page-views"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockCustomUser(id = 1, role = "ADMIN")
+    public void getUsage() throws Exception {
+        when(usageTimeRepo.findSummaries(LocalDate.of(2021, 3, 1), LocalDate.of(2021, 3, 2))).thenReturn(Arrays.asList(
+                new UsageTimeSummary(LocalDate.of(2021, 3, 1), 12, 340),
+                new UsageTimeSummary(LocalDate.of(2021, 3, 2), 3, 20)));
+
+        mvc.perform(get("/telemetry/usage?from=2021-03-01&to=2021-03-02"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$.[0].date").value("2021-03-01"))
+                .andExpect(jsonPath("$.[0].userCount").value(12))
+                .andExpect(jsonPath("$.[0].minuteCount").value(340))
+                .andExpect(jsonPath("$.[1].minuteCount").value(20));
+    }
+
+    @Test
+    @WithMockCustomUser(id = 1, role = "ADMIN")
+    public void getUsageByUserDefaultsToLastThirtyDays() throws Exception {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        when(usageTimeRepo.findAllByUserId(45, today.minusDays(29), today)).thenReturn(Arrays.asList(
+                new UsageTime(today, 45, 17)));
+
+        mvc.perform(get("/telemetry/usage/user/45"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[0].userId").value(45))
+                .andExpect(jsonPath("$.[0].minuteCount").value(17));
+    }
+
+    @Test
+    @WithMockCustomUser(id = 1, role = "ADMIN")
+    public void getPageViews() throws Exception {
+        when(pageViewRepo.findTotals(LocalDate.of(2021, 3, 1), LocalDate.of(2021, 3, 31), 2)).thenReturn(Arrays.asList(
+                new PageView(null, "/session/{id}", 120),
+                new PageView(null, "/hint/random", 80)));
+
+        mvc.perform(get("/telemetry/page-views?from=2021-03-01&to=2021-03-31&limit=2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[0].url").value("/session/{id}"))
+                .andExpect(jsonPath("$.[0].views").value(120))
+                .andExpect(jsonPath("$.[1].url").value("/hint/random"));
+    }
+
+    @Test
+    @WithMockCustomUser(id = 1, role = "ADMIN")
+    public void invalidParameters() throws Exception {
+        mvc.perform(get("/telemetry/usage?from=2021-03-02&to=2021-03-01"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.msg").value("Der Beginn des Zeitraums darf nicht nach dessen Ende liegen."));
+        mvc.perform(get("/telemetry/page-views?limit=0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.msg").value("Es können zwischen 1 und 500 Einträge auf einmal abgerufen werden."));
+    }
+
+    @Test
+    @WithMockCustomUser(id = 1, role = "ADMIN")
+    public void requestsAreCounted() throws Exception {
+        telemetryBuffer.flush();
+        reset(usageTimeRepo, pageViewRepo);
+
+        mvc.perform(get("/telemetry/usage/user/45")).andExpect(status().isOk());
+        mvc.perform(get("/telemetry/usage/user/46")).andExpect(status().isOk());
+        mvc.perform(get("/telemetry/page-views?limit=0")).andExpect(status().isBadRequest());
+        telemetryBuffer.flush();
+
+        ArgumentCaptor<String[]> urls = ArgumentCaptor.forClass(String[].class);
+        ArgumentCaptor<Integer[]> views = ArgumentCaptor.forClass(Integer[].class);
+        verify(pageViewRepo).addViews(any(), urls.capture(), views.capture());
+        assertThat(urls.getValue()).containsExactly("/telemetry/usage/user/{userId}");
+        assertThat(views.getValue()).containsExactly(2);
+    }
+}
@@ -13,6 +13,7 @@ import de.kreuzenonline.kreuzen.email.EmailService;
 import de.kreuzenonline.kreuzen.role.Roles;
 import de.kreuzenonline.kreuzen.university.UniversityService;
 import de.kreuzenonline.kreuzen.user.requests.UpdateUserRequest;
+import de.kreuzenonline.kreuzen.utils.PaginationCursor;
 import io.jsonwebtoken.lang.Assert;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
@@ -29,6 +30,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.Optional;
 
@@ -505,7 +507,7 @@ public class UserControllerTests {
     @WithMockCustomUser(role = "ADMIN")
     public void loadUsers() throws Exception {
 
-        when(userRepo.findAllPagination(20, 40)).thenReturn(Arrays.asList(
+        when(userRepo.findAllPagination(null, null, null, null, 20, 40)).thenReturn(Arrays.asList(
                 new User(
                         45,
                         "test",
@@ -575,7 +577,7 @@ public class UserControllerTests {
     @WithMockCustomUser(role = "ADMIN")
     public void loadUsersSearch() throws Exception {
 
-        when(userRepo.findBySearchTerm("test", 20, 40)).thenReturn(Arrays.asList(
+        when(userRepo.findBySearchTerm("test", null, null, null, null, 20, 40)).thenReturn(Arrays.asList(
                 new User(
                         45,
                         "test",
@@ -641,6 +643,41 @@ public class UserControllerTests {
                 .andExpect(jsonPath("$.entities.[2].email").value("test@uni.de2"));
     }
 
+    @Test
+    @WithMockCustomUser(role = "ADMIN")
+    public void loadUsersCursor() throws Exception {
+
+        when(userRepo.findAllPagination(null, null, null, null, 2, 0)).thenReturn(Arrays.asList(
+                new User(45, "test", "first", "last", "test@uni.de", "HASH", Roles.USER.getId(), false, false, 1, Instant.now(), Instant.now()),
+                new User(46, "test1", "first, 1", "last1", "test@uni.de1", "HASH1", Roles.USER.getId(), false, false, 1, Instant.now(), Instant.now())
+        ));
+        when(userRepo.findAllPagination(false, "first, 1", "last1", 46, 2, 0)).thenReturn(Collections.singletonList(
+                new User(47, "test2", "first2", "last2", "test@uni.de2", "HASH", Roles.USER.getId(), false, false, 1, Instant.now(), Instant.now())
+        ));
+        when(userRepo.count()).thenReturn((long) 3);
+
+        String cursor = PaginationCursor.encode(false, "first, 1", "last1", 46);
+
+        mvc.perform(get("/user?limit=2"))
+                .andExpect(status().is2xxSuccessful())
+                .andExpect(jsonPath("$.entities.[1].id").value(46))
+                .andExpect(jsonPath("$.nextCursor").value(cursor));
+
+        mvc.perform(get("/user?limit=2&cursor=" + cursor))
+                .andExpect(status().is2xxSuccessful())
+                .andExpect(jsonPath("$.entities.[0].id").value(47))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    @WithMockCustomUser(role = "ADMIN")
+    public void loadUsersInvalidCursor() throws Exception {
+
+        mvc.perform(get("/user?limit=2&cursor=invalid"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.msg").value("Der übergebene Cursor für die Seitenansicht ist ungültig."));
+    }
+
     @Test
     @WithMockCustomUser(role = "USER")
     public void loadUsersUserForbidden() throws Exception {
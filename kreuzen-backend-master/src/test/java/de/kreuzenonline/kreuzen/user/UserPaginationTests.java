@@ -0,0 +1,68 @@
+package de.kreuzenonline.kreuzen.user;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pages through the users matching a search term against the database. The rows are rolled back after each test.
+ */
+@SpringBootTest
+@Transactional
+public class UserPaginationTests {
+
+    private static final String TERM = "paginationtest";
+    private static final int LIMIT = 3;
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Integer> expectedIds = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        // Names repeat, so the id decides the order of some users.
+        String[] firstNames = {"Anna", "Anna", "Bernd", "Clara", "Clara", "Clara", "Dora", "Emil"};
+        for (int i = 0; i < firstNames.length; i++) {
+            jdbcTemplate.update("INSERT INTO app_user (username, email, first_name, last_name, password_hash, email_confirmed, role, university_id) " +
+                            "VALUES (?, ?, ?, 'Muster', '{noop}x', ?, 'USER', 1)",
+                    TERM + i, TERM + i + "@gmail.com", firstNames[i], i % 3 != 0);
+        }
+        expectedIds.addAll(jdbcTemplate.queryForList("SELECT id FROM app_user WHERE username LIKE ? " +
+                "ORDER BY email_confirmed ASC, LOWER(first_name), LOWER(last_name), id", Integer.class, TERM + "%"));
+    }
+
+    @Test
+    public void cursorPagesContainEveryUser() {
+        assertThat(readAllPages(false)).containsExactlyElementsOf(expectedIds);
+    }
+
+    @Test
+    public void skipIsIgnoredWithCursor() {
+        // Clients sending their page offset along with the cursor must not lose users.
+        assertThat(readAllPages(true)).containsExactlyElementsOf(expectedIds);
+    }
+
+    private List<Integer> readAllPages(boolean sendSkip) {
+        List<Integer> ids = new ArrayList<>();
+        String cursor = null;
+        int skip = 0;
+        do {
+            List<User> page = userService.getByPagination(TERM, LIMIT, sendSkip ? skip : 0, cursor);
+            page.forEach(user -> ids.add(user.getId()));
+            cursor = userService.getNextCursor(page, LIMIT);
+            skip += LIMIT;
+        } while (cursor != null);
+        return ids;
+    }
+}
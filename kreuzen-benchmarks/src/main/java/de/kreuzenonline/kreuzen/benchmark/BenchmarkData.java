@@ -0,0 +1,55 @@
+package de.kreuzenonline.kreuzen.benchmark;
+
+import de.kreuzenonline.kreuzen.question.types.multipleChoice.MultipleChoiceAnswer;
+import de.kreuzenonline.kreuzen.question.types.multipleChoice.MultipleChoiceQuestion;
+import de.kreuzenonline.kreuzen.question.types.singleChoice.SingleChoiceAnswer;
+import de.kreuzenonline.kreuzen.question.types.singleChoice.SingleChoiceQuestion;
+import de.kreuzenonline.kreuzen.question.types.singleChoice.SingleChoiceServiceImpl;
+import de.kreuzenonline.kreuzen.question.types.multipleChoice.MultipleChoiceServiceImpl;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed test data for the benchmarks. No randomness is used, so every run measures the same work.
+ */
+final class BenchmarkData {
+
+    static final String QUESTION_TEXT = "Welche der folgenden Aussagen zur Physiologie der Niere trifft am ehesten zu?";
+
+    private BenchmarkData() {
+    }
+
+    static SingleChoiceQuestion singleChoiceQuestion(int id) {
+        List<SingleChoiceAnswer> answers = new ArrayList<>();
+        for (int localId = 1; localId <= 5; localId++) {
+            answers.add(new SingleChoiceAnswer(id * 10 + localId, id, localId, "Antwortmöglichkeit " + localId));
+        }
+        return new SingleChoiceQuestion(id, QUESTION_TEXT, SingleChoiceServiceImpl.TYPE, "Zusatzinformation", 1,
+                null, 1, 1, null, "ORIG", true, 3, answers);
+    }
+
+    static MultipleChoiceQuestion multipleChoiceQuestion(int id) {
+        List<MultipleChoiceAnswer> answers = new ArrayList<>();
+        for (int localId = 1; localId <= 8; localId++) {
+            answers.add(new MultipleChoiceAnswer(id * 10 + localId, id, localId, "Antwortmöglichkeit " + localId));
+        }
+        return new MultipleChoiceQuestion(id, QUESTION_TEXT, MultipleChoiceServiceImpl.TYPE, "Zusatzinformation", 2,
+                null, 1, 1, null, "ORIG", true, new Integer[]{2, 5, 7}, answers);
+    }
+
+    /**
+     * Creates a repository stub that answers the given query method with a fixed result
+     * and fails on every other call.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T stubRepo(Class<T> type, String methodName, Object result) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getName().equals(methodName)) {
+                return result;
+            }
+            throw new UnsupportedOperationException(method.getName());
+        });
+    }
+}
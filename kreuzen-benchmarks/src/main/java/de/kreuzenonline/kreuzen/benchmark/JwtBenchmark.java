@@ -0,0 +1,71 @@
+package de.kreuzenonline.kreuzen.benchmark;
+
+import de.kreuzenonline.kreuzen.auth.CustomUserDetails;
+import de.kreuzenonline.kreuzen.auth.CustomUserDetailsServiceImpl;
+import de.kreuzenonline.kreuzen.auth.data.TokenVersion;
+import de.kreuzenonline.kreuzen.auth.data.TokenVersionRepo;
+import de.kreuzenonline.kreuzen.auth.token.TokenVersions;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creation and verification of the JWT sent with every authenticated request, and building the user details
+ * of a request from its claims.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms512m", "-Xmx512m"})
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private static final String JWT_KEY = "thisisaverylongsecretkeyfortestingpurposes1234567890abcdefghijklmnop";
+
+    private CustomUserDetailsServiceImpl userDetailsService;
+    private CustomUserDetails userDetails;
+    private String authorizationHeader;
+    private Claims claims;
+
+    @Setup
+    public void setUp() {
+        TokenVersions tokenVersions = new TokenVersions(new TokenVersionRepo() {
+            @Override
+            public List<TokenVersion> findAll() {
+                return Collections.emptyList();
+            }
+
+            @Override
+            public Integer increment(Integer userId) {
+                return 1;
+            }
+        });
+        userDetailsService = new CustomUserDetailsServiceImpl(null, null, null, null, null, null, null, null, null,
+                JWT_KEY, tokenVersions, null, null, null, null);
+        userDetails = new CustomUserDetails(42, "benchmark", "Bench", "Mark", "benchmark@uni.de", null, "USER",
+                1, true, false, Instant.EPOCH, Instant.EPOCH);
+        authorizationHeader = "Bearer " + userDetailsService.generateJwt(userDetails);
+        claims = userDetailsService.getJwtClaims(authorizationHeader).getBody();
+    }
+
+    @Benchmark
+    public String generateJwt() {
+        return userDetailsService.generateJwt(userDetails);
+    }
+
+    @Benchmark
+    public Jws<Claims> getJwtClaims() {
+        return userDetailsService.getJwtClaims(authorizationHeader);
+    }
+
+    @Benchmark
+    public CustomUserDetails loadUserByClaims() {
+        return userDetailsService.loadUserByClaims(claims);
+    }
+}
@@ -0,0 +1,87 @@
+package de.kreuzenonline.kreuzen.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.kreuzenonline.kreuzen.question.BaseQuestion;
+import de.kreuzenonline.kreuzen.question.types.QuestionTypeService;
+import de.kreuzenonline.kreuzen.question.types.singleChoice.SingleChoiceQuestion;
+import de.kreuzenonline.kreuzen.question.types.singleChoice.requests.CreateSingleChoiceRequest;
+import de.kreuzenonline.kreuzen.question.types.singleChoice.requests.UpdateSingleChoiceRequest;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of the raw request body and mapping onto the type specific request, as done before {@link QuestionTypeService#genericCreate}.
+ * The type service only keeps the parsed request, so the database access of a real create is not measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms512m", "-Xmx512m"})
+@State(Scope.Benchmark)
+public class QuestionRequestParsingBenchmark {
+
+    private static final String BODY = "{\"type\":\"single-choice\",\"text\":\"" + BenchmarkData.QUESTION_TEXT + "\"," +
+            "\"additionalInformation\":\"Zusatzinformation\",\"points\":1,\"examId\":null,\"courseId\":1,\"origin\":\"ORIG\"," +
+            "\"answers\":[\"Antwort 1\",\"Antwort 2\",\"Antwort 3\",\"Antwort 4\",\"Antwort 5\"],\"correctAnswerLocalId\":3}";
+
+    private ObjectMapper mapper;
+    private ParsingOnlyService service;
+
+    @Setup
+    public void setUp() {
+        mapper = Jackson2ObjectMapperBuilder.json().build();
+        service = new ParsingOnlyService();
+    }
+
+    @Benchmark
+    public CreateSingleChoiceRequest genericCreate() throws IOException {
+        JsonNode body = mapper.readTree(BODY);
+        service.genericCreate(service.readCreateRequest(mapper, body), 1);
+        return service.lastRequest;
+    }
+
+    private static class ParsingOnlyService extends QuestionTypeService<SingleChoiceQuestion, CreateSingleChoiceRequest, UpdateSingleChoiceRequest> {
+
+        private CreateSingleChoiceRequest lastRequest;
+
+        ParsingOnlyService() {
+            super(SingleChoiceQuestion.class, "single-choice", CreateSingleChoiceRequest.class, UpdateSingleChoiceRequest.class, null, null);
+        }
+
+        @Override
+        public SingleChoiceQuestion getByQuestionId(Integer questionId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        protected List<SingleChoiceQuestion> assemble(List<BaseQuestion> baseQuestions) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void validate(CreateSingleChoiceRequest request) {
+        }
+
+        @Override
+        public SingleChoiceQuestion create(CreateSingleChoiceRequest request, Integer id) {
+            lastRequest = request;
+            return null;
+        }
+
+        @Override
+        public void createAll(List<CreateSingleChoiceRequest> requests, List<Integer> questionIds) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public SingleChoiceQuestion update(UpdateSingleChoiceRequest request, Integer id) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package de.kreuzenonline.kreuzen.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.kreuzenonline.kreuzen.question.BaseQuestion;
+import de.kreuzenonline.kreuzen.question.responses.BaseQuestionResponse;
+import de.kreuzenonline.kreuzen.utils.PaginationResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of question lists as done by the message converter of the question endpoints.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms512m", "-Xmx512m"})
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    @Param({"20", "100"})
+    private int size;
+
+    private ObjectMapper mapper;
+    private List<BaseQuestionResponse> questions;
+    private PaginationResponse<BaseQuestionResponse> page;
+
+    @Setup
+    public void setUp() {
+        // Same defaults as the ObjectMapper Spring Boot configures for the application
+        mapper = Jackson2ObjectMapperBuilder.json().build();
+
+        questions = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            BaseQuestion question = i % 2 == 0 ? BenchmarkData.singleChoiceQuestion(i) : BenchmarkData.multipleChoiceQuestion(i);
+            questions.add(question.toResponse());
+        }
+        page = new PaginationResponse<>(1000, questions, "MjA");
+    }
+
+    @Benchmark
+    public byte[] questionList() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(questions);
+    }
+
+    @Benchmark
+    public byte[] paginationResponse() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,63 @@
+package de.kreuzenonline.kreuzen.benchmark;
+
+import de.kreuzenonline.kreuzen.question.types.multipleChoice.MultipleChoiceQuestion;
+import de.kreuzenonline.kreuzen.question.types.singleChoice.SingleChoiceQuestion;
+import de.kreuzenonline.kreuzen.session.MultipleChoiceSelectionRepo;
+import de.kreuzenonline.kreuzen.session.SessionServiceImpl;
+import de.kreuzenonline.kreuzen.session.SingleChoiceSelectionRepo;
+import de.kreuzenonline.kreuzen.session.responses.QuestionResultResponse;
+import de.kreuzenonline.kreuzen.session.selections.MultipleChoiceSelection;
+import de.kreuzenonline.kreuzen.session.selections.SingleChoiceSelection;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scoring of single and multiple choice answers in {@link SessionServiceImpl}.
+ * The selection repositories are replaced by stubs, so only the scoring itself is measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms512m", "-Xmx512m"})
+@State(Scope.Benchmark)
+public class SessionScoringBenchmark {
+
+    private SessionServiceImpl sessionService;
+    private SingleChoiceQuestion singleChoiceQuestion;
+    private MultipleChoiceQuestion multipleChoiceQuestion;
+
+    @Setup
+    public void setUp() {
+        singleChoiceQuestion = BenchmarkData.singleChoiceQuestion(1);
+        multipleChoiceQuestion = BenchmarkData.multipleChoiceQuestion(2);
+
+        List<SingleChoiceSelection> singleChoiceSelections = new ArrayList<>();
+        for (int localId = 1; localId <= 5; localId++) {
+            singleChoiceSelections.add(new SingleChoiceSelection(localId, 1, 1, localId, localId == 3, localId == 1));
+        }
+        List<MultipleChoiceSelection> multipleChoiceSelections = new ArrayList<>();
+        for (int localId = 1; localId <= 8; localId++) {
+            boolean checked = localId == 2 || localId == 5 || localId == 7;
+            multipleChoiceSelections.add(new MultipleChoiceSelection(localId, 1, 2, localId, checked, !checked));
+        }
+
+        sessionService = new SessionServiceImpl(null, null,
+                BenchmarkData.stubRepo(MultipleChoiceSelectionRepo.class, "findMultipleChoiceSelections", multipleChoiceSelections),
+                BenchmarkData.stubRepo(SingleChoiceSelectionRepo.class, "findSingleChoiceSelections", singleChoiceSelections),
+                null, null, null, null, null, null, null);
+    }
+
+    @Benchmark
+    public QuestionResultResponse singleChoiceResult() {
+        return sessionService.singleChoiceResult(1, singleChoiceQuestion, 1);
+    }
+
+    @Benchmark
+    public QuestionResultResponse multipleChoiceResult() {
+        return sessionService.multipleChoiceResult(1, multipleChoiceQuestion, 2);
+    }
+}